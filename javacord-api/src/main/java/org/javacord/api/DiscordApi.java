@@ -48,6 +48,7 @@ import org.javacord.api.interaction.UserContextMenu;
 import org.javacord.api.listener.GloballyAttachableListenerManager;
 import org.javacord.api.util.DiscordRegexPattern;
 import org.javacord.api.util.concurrent.ThreadPool;
+import org.javacord.api.util.event.EventDispatchMetrics;
 import org.javacord.api.util.ratelimit.LocalRatelimiter;
 import org.javacord.api.util.ratelimit.Ratelimiter;
 
@@ -397,6 +398,37 @@ public interface DiscordApi extends GloballyAttachableListenerManager {
      */
     CompletableFuture<Duration> measureRestLatency();
 
+    /**
+     * Gets the amount of listener calls that are currently queued and not yet started.
+     *
+     * @return The amount of queued listener calls.
+     */
+    int getQueuedListenerTaskCount();
+
+    /**
+     * Gets the amount of listener calls for the given server that are currently queued and not yet started.
+     *
+     * @param server The server.
+     * @return The amount of queued listener calls for the server.
+     */
+    int getQueuedListenerTaskCount(Server server);
+
+    /**
+     * Gets the amount of listener calls that were dropped, because the listener queue of their server was full.
+     *
+     * @return The amount of dropped listener calls.
+     * @see DiscordApiBuilder#setListenerQueueCapacity(int)
+     */
+    long getDroppedListenerTaskCount();
+
+    /**
+     * Gets the metrics which receive measurements about the dispatching of events.
+     *
+     * @return The event dispatch metrics.
+     * @see DiscordApiBuilder#setEventDispatchMetrics(EventDispatchMetrics)
+     */
+    EventDispatchMetrics getEventDispatchMetrics();
+
     /**
      * Creates an invite link for this bot.
      * The method only works for bot accounts!
@@ -473,6 +505,17 @@ public interface DiscordApi extends GloballyAttachableListenerManager {
      */
     int getTotalShards();
 
+    /**
+     * Gets the group of shards this shard was logged in with.
+     *
+     * <p>A shard belongs to a group if it was logged in with {@link DiscordApiBuilder#loginShards(int...)} or
+     * {@link DiscordApiBuilder#loginAllShards()} while sharing of shard resources was enabled.
+     *
+     * @return The shard group of this shard.
+     * @see DiscordApiBuilder#setShardResourceSharingEnabled(boolean)
+     */
+    Optional<ShardGroup> getShardGroup();
+
     /**
      * Checks if Javacord is waiting for all servers to become available on startup.
      *
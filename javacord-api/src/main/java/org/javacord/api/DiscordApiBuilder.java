@@ -7,15 +7,28 @@ import org.javacord.api.event.server.ServerBecomesAvailableEvent;
 import org.javacord.api.internal.DiscordApiBuilderDelegate;
 import org.javacord.api.listener.ChainableGloballyAttachableListenerManager;
 import org.javacord.api.listener.GloballyAttachableListener;
+import org.javacord.api.listener.user.UserChangeActivityListener;
+import org.javacord.api.listener.user.UserChangeNicknameListener;
+import org.javacord.api.listener.user.UserChangeStatusListener;
+import org.javacord.api.listener.user.UserStartTypingListener;
 import org.javacord.api.util.auth.Authenticator;
+import org.javacord.api.util.cache.EntityCacheBackend;
+import org.javacord.api.util.event.EventDispatchMetrics;
+import org.javacord.api.util.event.ListenerQueueOverflowPolicy;
+import org.javacord.api.util.event.NoOpEventDispatchMetrics;
+import org.javacord.api.util.gateway.FileGatewaySessionStore;
+import org.javacord.api.util.gateway.GatewaySessionStore;
 import org.javacord.api.util.internal.DelegateFactory;
 import org.javacord.api.util.ratelimit.LocalRatelimiter;
 import org.javacord.api.util.ratelimit.Ratelimiter;
 
 import java.net.Proxy;
 import java.net.ProxySelector;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.util.Arrays;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 import java.util.function.Function;
@@ -78,6 +91,37 @@ public class DiscordApiBuilder implements ChainableGloballyAttachableListenerMan
         return delegate.loginShards(shards);
     }
 
+    /**
+     * Login all shards to the account with the given token as a {@link ShardGroup}.
+     * It is invalid to call {@link #setCurrentShard(int)} with
+     * anything but {@code 0} before calling this method.
+     *
+     * <p>Unlike {@link #loginAllShards()}, the shard group is returned immediately, so the progress of the startup
+     * can be observed with {@link ShardGroup#getReadyFutures()} and {@link ShardGroup#getStartupProgress()}.
+     * The shards always share their resources, regardless of {@link #isShardResourceSharingEnabled()}.
+     *
+     * @return The shard group.
+     */
+    public ShardGroup loginAllShardsAsGroup() {
+        return loginShardGroup(IntStream.range(0, delegate.getTotalShards()).toArray());
+    }
+
+    /**
+     * Login given shards to the account with the given token as a {@link ShardGroup}.
+     * It is invalid to call {@link #setCurrentShard(int)} with
+     * anything but {@code 0} before calling this method.
+     *
+     * <p>Unlike {@link #loginShards(int...)}, the shard group is returned immediately, so the progress of the startup
+     * can be observed with {@link ShardGroup#getReadyFutures()} and {@link ShardGroup#getStartupProgress()}.
+     * The shards always share their resources, regardless of {@link #isShardResourceSharingEnabled()}.
+     *
+     * @param shards The shards to connect, starting with {@code 0}!
+     * @return The shard group.
+     */
+    public ShardGroup loginShardGroup(int... shards) {
+        return delegate.loginShardGroup(shards);
+    }
+
     /**
      * Sets a ratelimiter that can be used to control global ratelimits.
      *
@@ -118,6 +162,100 @@ public class DiscordApiBuilder implements ChainableGloballyAttachableListenerMan
         return this;
     }
 
+    /**
+     * Sets the maximum amount of shards that may identify at the same time.
+     *
+     * <p>Discord allows bots in large bot sharding to identify {@code max_concurrency} shards every 5 seconds. Shards
+     * are put into buckets by their shard id modulo the maximum concurrency and the shards of different buckets
+     * identify in parallel. {@link #setRecommendedTotalShards()} sets the value Discord reports for the bot, unless a
+     * value was set with this method. It is ignored if a custom gateway identify ratelimiter is set.
+     *
+     * <p>By default, the maximum concurrency is {@code 1}, i.e. one shard identifies every 5 seconds.
+     *
+     * @param maxConcurrency The maximum amount of shards that may identify at the same time.
+     * @return The current instance in order to chain call methods.
+     * @throws IllegalArgumentException If the maximum concurrency is less than {@code 1}.
+     * @see <a href="https://discord.com/developers/docs/topics/gateway#sharding-for-large-bots">API docs</a>
+     */
+    public DiscordApiBuilder setGatewayIdentifyMaxConcurrency(int maxConcurrency) {
+        delegate.setGatewayIdentifyMaxConcurrency(maxConcurrency);
+        return this;
+    }
+
+    /**
+     * Gets the maximum amount of shards that may identify at the same time.
+     *
+     * @return The maximum amount of shards that may identify at the same time.
+     * @see #setGatewayIdentifyMaxConcurrency(int)
+     */
+    public int getGatewayIdentifyMaxConcurrency() {
+        return delegate.getGatewayIdentifyMaxConcurrency();
+    }
+
+    /**
+     * Sets the store which persists the gateway sessions of the shards across restarts of the program.
+     *
+     * <p>When a shard is disconnected with {@link DiscordApi#disconnect()}, its session is kept open on Discord's side
+     * and saved in the store. When the shard is started again, it resumes the session instead of identifying, so
+     * Discord only sends the events that were missed instead of all servers again. If the session cannot be resumed,
+     * the shard identifies like usual. Discord only keeps disconnected sessions open for a short time, so this is
+     * mainly useful for quick restarts, e.g. during deployments.
+     *
+     * <p>By default, no store is set and every start of a shard identifies.
+     *
+     * @param gatewaySessionStore The gateway session store. {@code null} disables session persistence.
+     * @return The current instance in order to chain call methods.
+     * @see FileGatewaySessionStore
+     */
+    public DiscordApiBuilder setGatewaySessionStore(GatewaySessionStore gatewaySessionStore) {
+        delegate.setGatewaySessionStore(gatewaySessionStore);
+        return this;
+    }
+
+    /**
+     * Gets the store which persists the gateway sessions of the shards across restarts of the program.
+     *
+     * @return The gateway session store.
+     * @see #setGatewaySessionStore(GatewaySessionStore)
+     */
+    public Optional<GatewaySessionStore> getGatewaySessionStore() {
+        return delegate.getGatewaySessionStore();
+    }
+
+    /**
+     * Sets the directory in which a snapshot of the cached servers, channels, roles, members and presences is stored
+     * when a shard is disconnected.
+     *
+     * <p>The snapshot is only restored if the shard resumes the session of the previous run of the program, which
+     * requires a {@link #setGatewaySessionStore(GatewaySessionStore) gateway session store}. Discord replays all
+     * events that were missed while the program was not running, so the restored cache is up-to-date without
+     * receiving the servers and requesting their members again. If the session cannot be resumed, the snapshot is
+     * discarded and the shard identifies like usual.
+     *
+     * <p>The snapshot is written before the future returned by {@link DiscordApi#disconnect()} is completed. The
+     * shutdown hook waits for it, unless it is {@link #setShutdownHookRegistrationEnabled(boolean) disabled}.
+     *
+     * <p>By default, no snapshot is stored.
+     *
+     * @param entityCacheSnapshotDirectory The directory in which the snapshots are stored. {@code null} disables
+     *                                     snapshots.
+     * @return The current instance in order to chain call methods.
+     */
+    public DiscordApiBuilder setEntityCacheSnapshotDirectory(Path entityCacheSnapshotDirectory) {
+        delegate.setEntityCacheSnapshotDirectory(entityCacheSnapshotDirectory);
+        return this;
+    }
+
+    /**
+     * Gets the directory in which a snapshot of the cached entities is stored when a shard is disconnected.
+     *
+     * @return The directory in which the snapshots are stored.
+     * @see #setEntityCacheSnapshotDirectory(Path)
+     */
+    public Optional<Path> getEntityCacheSnapshotDirectory() {
+        return delegate.getEntityCacheSnapshotDirectory();
+    }
+
     /**
      * Sets whether this API instance can dispatch events.
      *
@@ -342,7 +480,9 @@ public class DiscordApiBuilder implements ChainableGloballyAttachableListenerMan
      * Sets if Javacord should register a shutdown hook that disconnects the {@link DiscordApi} instance.
      *
      * <p>By default, Javacord registers a shutdown hook using {@link Runtime#addShutdownHook(Thread)} that calls
-     * the {@link DiscordApi#disconnect()} method. Setting this flag to {@code false} will disable this behavior.
+     * the {@link DiscordApi#disconnect()} method. If a gateway session store or an entity cache snapshot directory is
+     * configured, the shutdown hook waits up to 30 seconds for the disconnect to finish, so the session and the
+     * snapshot are saved. Setting this flag to {@code false} will disable this behavior.
      *
      * @param registerShutdownHook Whether the shutdown hook should be registered or not.
      * @return The current instance in order to chain call methods.
@@ -486,12 +626,315 @@ public class DiscordApiBuilder implements ChainableGloballyAttachableListenerMan
         return delegate.isUserCacheEnabled();
     }
 
+    /**
+     * Sets whether the gateway connection should use {@code zlib-stream} transport compression.
+     *
+     * <p>With transport compression, all messages of a connection are compressed with one shared zlib context
+     * instead of compressing only large payloads on their own. This greatly reduces the inbound bandwidth.
+     *
+     * <p>By default, transport compression is enabled.
+     *
+     * @param enabled Whether transport compression should be enabled.
+     * @return The current instance in order to chain call methods.
+     */
+    public DiscordApiBuilder setGatewayTransportCompressionEnabled(boolean enabled) {
+        delegate.setGatewayTransportCompressionEnabled(enabled);
+        return this;
+    }
+
+    /**
+     * Gets whether the gateway connection uses {@code zlib-stream} transport compression.
+     *
+     * @return Whether transport compression is enabled.
+     */
+    public boolean isGatewayTransportCompressionEnabled() {
+        return delegate.isGatewayTransportCompressionEnabled();
+    }
+
+    /**
+     * Sets the encoding that is used for the messages of the gateway connection.
+     *
+     * <p>{@link GatewayEncoding#ETF ETF} messages are smaller and cheaper to decode than json messages.
+     * Events and entities behave the same for both encodings.
+     *
+     * <p>By default, {@link GatewayEncoding#JSON json} is used.
+     *
+     * @param encoding The encoding to use.
+     * @return The current instance in order to chain call methods.
+     */
+    public DiscordApiBuilder setGatewayEncoding(GatewayEncoding encoding) {
+        delegate.setGatewayEncoding(encoding);
+        return this;
+    }
+
+    /**
+     * Gets the encoding that is used for the messages of the gateway connection.
+     *
+     * @return The gateway encoding.
+     */
+    public GatewayEncoding getGatewayEncoding() {
+        return delegate.getGatewayEncoding();
+    }
+
+    /**
+     * Sets whether REST requests should be executed without blocking threads.
+     *
+     * <p>Usually every ratelimit bucket with queued requests occupies a thread which sleeps while the bucket is
+     * ratelimited and waits for the responses. With non-blocking REST requests, ratelimit waits are scheduled and
+     * requests are sent asynchronously, so the amount of threads stays bounded no matter how many buckets are busy.
+     *
+     * <p>By default, non-blocking REST requests are disabled.
+     *
+     * @param enabled Whether non-blocking REST requests should be enabled.
+     * @return The current instance in order to chain call methods.
+     */
+    public DiscordApiBuilder setNonBlockingRestRequestsEnabled(boolean enabled) {
+        delegate.setNonBlockingRestRequestsEnabled(enabled);
+        return this;
+    }
+
+    /**
+     * Gets whether REST requests are executed without blocking threads.
+     *
+     * @return Whether non-blocking REST requests are enabled.
+     */
+    public boolean isNonBlockingRestRequestsEnabled() {
+        return delegate.isNonBlockingRestRequestsEnabled();
+    }
+
+    /**
+     * Sets the backend that is used to cache channels, members, users and presences.
+     *
+     * <p>The {@link EntityCacheBackend#CONCURRENT concurrent} backend updates the cache in place instead of copying
+     * it, which greatly reduces the allocations and contention while loading the members of large servers.
+     *
+     * <p>By default, the {@link EntityCacheBackend#IMMUTABLE immutable} backend is used.
+     *
+     * @param backend The backend to use.
+     * @return The current instance in order to chain call methods.
+     */
+    public DiscordApiBuilder setEntityCacheBackend(EntityCacheBackend backend) {
+        delegate.setEntityCacheBackend(backend);
+        return this;
+    }
+
+    /**
+     * Gets the backend that is used to cache channels, members, users and presences.
+     *
+     * @return The entity cache backend.
+     */
+    public EntityCacheBackend getEntityCacheBackend() {
+        return delegate.getEntityCacheBackend();
+    }
+
+    /**
+     * Sets the maximum amount of listener calls a dispatch thread handles in a row before it gives the thread back
+     * to the thread pool.
+     *
+     * <p>Listener calls for the same server are always executed sequentially. With a batch size greater than
+     * {@code 1}, a thread keeps executing the queued listener calls of a server until the batch size or a short time
+     * slice is exhausted, instead of scheduling a new task for every single listener call. This reduces the dispatch
+     * overhead for servers with a lot of events and listeners.
+     *
+     * <p>By default, the batch size is {@code 1}.
+     *
+     * @param batchSize The maximum amount of listener calls per batch. Must be at least {@code 1}.
+     * @return The current instance in order to chain call methods.
+     */
+    public DiscordApiBuilder setEventDispatchBatchSize(int batchSize) {
+        delegate.setEventDispatchBatchSize(batchSize);
+        return this;
+    }
+
+    /**
+     * Gets the maximum amount of listener calls a dispatch thread handles in a row.
+     *
+     * @return The event dispatch batch size.
+     */
+    public int getEventDispatchBatchSize() {
+        return delegate.getEventDispatchBatchSize();
+    }
+
+    /**
+     * Sets whether listeners, REST requests and other tasks of the {@link org.javacord.api.util.concurrent.ThreadPool
+     * thread pool's} executor service should be executed on virtual threads.
+     *
+     * <p>Virtual threads are cheap to create and block, so listeners which do blocking calls, e.g. to a database,
+     * don't occupy a platform thread while they wait. Virtual threads require Java 21 or newer. On older versions a
+     * warning is logged and platform threads are used instead.
+     *
+     * <p>By default, virtual threads are disabled.
+     *
+     * @param enabled Whether virtual threads should be enabled.
+     * @return The current instance in order to chain call methods.
+     */
+    public DiscordApiBuilder setVirtualThreadsEnabled(boolean enabled) {
+        delegate.setVirtualThreadsEnabled(enabled);
+        return this;
+    }
+
+    /**
+     * Gets whether tasks of the thread pool's executor service should be executed on virtual threads.
+     *
+     * @return Whether virtual threads are enabled.
+     */
+    public boolean isVirtualThreadsEnabled() {
+        return delegate.isVirtualThreadsEnabled();
+    }
+
+    /**
+     * Sets the maximum amount of queued listener calls per server.
+     *
+     * <p>Listener calls for the same server are executed sequentially, so a slow or deadlocked listener lets the
+     * queue of its server grow. If the queue is full, the {@link #setListenerQueueOverflowPolicy(
+     * ListenerQueueOverflowPolicy) overflow policy} decides what happens with new events. Lifecycle events like
+     * reconnects are never affected by this limit.
+     *
+     * <p>By default, the queues are unbounded.
+     *
+     * @param capacity The maximum amount of queued listener calls per server. Must be at least {@code 1}.
+     * @return The current instance in order to chain call methods.
+     */
+    public DiscordApiBuilder setListenerQueueCapacity(int capacity) {
+        delegate.setListenerQueueCapacity(capacity);
+        return this;
+    }
+
+    /**
+     * Gets the maximum amount of queued listener calls per server.
+     *
+     * @return The listener queue capacity.
+     */
+    public int getListenerQueueCapacity() {
+        return delegate.getListenerQueueCapacity();
+    }
+
+    /**
+     * Sets the policy that decides what happens if an event is dispatched while the listener queue of its server is
+     * full.
+     *
+     * <p>By default, the {@link ListenerQueueOverflowPolicy#BLOCK block} policy is used.
+     *
+     * @param policy The overflow policy.
+     * @return The current instance in order to chain call methods.
+     * @see #setListenerQueueCapacity(int)
+     */
+    public DiscordApiBuilder setListenerQueueOverflowPolicy(ListenerQueueOverflowPolicy policy) {
+        delegate.setListenerQueueOverflowPolicy(policy);
+        return this;
+    }
+
+    /**
+     * Gets the policy that decides what happens if an event is dispatched while the listener queue of its server is
+     * full.
+     *
+     * @return The listener queue overflow policy.
+     */
+    public ListenerQueueOverflowPolicy getListenerQueueOverflowPolicy() {
+        return delegate.getListenerQueueOverflowPolicy();
+    }
+
+    /**
+     * Sets the metrics which receive measurements about the dispatching of events, like the time events wait in
+     * the listener queues, the execution time of listeners and the depth of the listener queues.
+     * If the builder creates multiple shards, the metrics are shared by all of them.
+     *
+     * <p>By default, a {@link NoOpEventDispatchMetrics} is used which discards all measurements.
+     *
+     * @param metrics The event dispatch metrics.
+     * @return The current instance in order to chain call methods.
+     */
+    public DiscordApiBuilder setEventDispatchMetrics(EventDispatchMetrics metrics) {
+        delegate.setEventDispatchMetrics(metrics);
+        return this;
+    }
+
+    /**
+     * Gets the metrics which receive measurements about the dispatching of events.
+     *
+     * @return The event dispatch metrics.
+     */
+    public EventDispatchMetrics getEventDispatchMetrics() {
+        return delegate.getEventDispatchMetrics();
+    }
+
+    /**
+     * Sets the coalescing window for events of the given listener type.
+     *
+     * <p>Instead of dispatching every single event, the first event of a burst is held back for the duration of the
+     * window and all further events of the burst are merged into it. The merged event is dispatched once the window
+     * is over. It contains the oldest old value and the newest new value, e.g. a burst of status changes of a user
+     * becomes a single status change from the status before the burst to the status after the burst.
+     * This reduces the amount of listener calls for high-frequency events, but delays these events by up to the
+     * duration of the window and they are no longer dispatched in order with other events.
+     *
+     * <p>The following listener types are supported, their events are merged if they have the same key:
+     * <ul>
+     * <li>{@link UserChangeStatusListener}: The user.
+     * <li>{@link UserChangeActivityListener}: The user.
+     * <li>{@link UserChangeNicknameListener}: The user and the server.
+     * <li>{@link UserStartTypingListener}: The user and the channel. Only the newest event is dispatched.
+     * </ul>
+     *
+     * <p>By default, no events are coalesced.
+     *
+     * @param listenerClass The listener type.
+     * @param window The coalescing window. {@link Duration#ZERO} disables coalescing for the listener type.
+     * @return The current instance in order to chain call methods.
+     * @throws IllegalArgumentException If events of the listener type cannot be coalesced or the window is negative.
+     */
+    public DiscordApiBuilder setEventCoalescingWindow(
+            Class<? extends GloballyAttachableListener> listenerClass, Duration window) {
+        delegate.setEventCoalescingWindow(listenerClass, window);
+        return this;
+    }
+
+    /**
+     * Gets the coalescing windows by listener type.
+     *
+     * @return The coalescing windows by listener type.
+     * @see #setEventCoalescingWindow(Class, Duration)
+     */
+    public Map<Class<? extends GloballyAttachableListener>, Duration> getEventCoalescingWindows() {
+        return delegate.getEventCoalescingWindows();
+    }
+
+    /**
+     * Sets whether shards that are logged in together share their resources.
+     *
+     * <p>If enabled, all shards that are logged in with the same call of {@link #loginShards(int...)} or
+     * {@link #loginAllShards()} form a {@link ShardGroup}. They use a single http client with one connection pool,
+     * a single thread pool and a single table of REST ratelimit buckets, as Discord applies these ratelimits per bot
+     * and not per shard. Shards that are logged in with {@link #login()} never share their resources.
+     *
+     * <p>By default, sharing of shard resources is enabled.
+     *
+     * @param enabled Whether shards that are logged in together should share their resources.
+     * @return The current instance in order to chain call methods.
+     */
+    public DiscordApiBuilder setShardResourceSharingEnabled(boolean enabled) {
+        delegate.setShardResourceSharingEnabled(enabled);
+        return this;
+    }
+
+    /**
+     * Checks whether shards that are logged in together share their resources.
+     *
+     * @return Whether shards that are logged in together share their resources.
+     * @see #setShardResourceSharingEnabled(boolean)
+     */
+    public boolean isShardResourceSharingEnabled() {
+        return delegate.isShardResourceSharingEnabled();
+    }
+
     /**
      * Retrieves the recommended shards count from the Discord API and sets it in this builder.
      * Sharding allows you to split your bot into several independent instances.
      * A shard only handles a subset of a bot's servers.
+     * The maximum amount of shards that may identify at the same time is set as well, unless it was set explicitly.
      *
      * @return A future with the current api builder.
+     * @see #setGatewayIdentifyMaxConcurrency(int)
      * @see <a href="https://discord.com/developers/docs/topics/gateway#sharding">API docs</a>
      */
     public CompletableFuture<DiscordApiBuilder> setRecommendedTotalShards() {
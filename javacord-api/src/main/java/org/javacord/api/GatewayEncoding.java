@@ -0,0 +1,38 @@
+package org.javacord.api;
+
+/**
+ * An enum with all encodings that can be used for the messages of the gateway connection.
+ */
+public enum GatewayEncoding {
+
+    /**
+     * Messages are encoded as json.
+     */
+    JSON("json"),
+
+    /**
+     * Messages are encoded in the binary Erlang External Term Format.
+     * It is more compact than json and cheaper to decode. Snowflakes are sent as integers.
+     */
+    ETF("etf");
+
+    private final String name;
+
+    /**
+     * Creates a new gateway encoding.
+     *
+     * @param name The name of the encoding which is used in the gateway url.
+     */
+    GatewayEncoding(String name) {
+        this.name = name;
+    }
+
+    /**
+     * Gets the name of the encoding which is used in the gateway url.
+     *
+     * @return The name of the encoding.
+     */
+    public String getName() {
+        return name;
+    }
+}
@@ -0,0 +1,82 @@
+package org.javacord.api;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A group of shards that were logged in together and share their resources.
+ *
+ * <p>All shards of a group use the same http client, thread pool and ratelimit buckets. The shared resources are
+ * released once every shard of the group disconnected.
+ *
+ * @see DiscordApiBuilder#setShardResourceSharingEnabled(boolean)
+ * @see DiscordApiBuilder#loginShardGroup(int...)
+ */
+public interface ShardGroup {
+
+    /**
+     * Gets all shards of this group that are not disconnected, ordered by their shard id.
+     *
+     * @return The shards of this group.
+     */
+    List<DiscordApi> getShards();
+
+    /**
+     * Gets all shards of this group that currently have an active gateway session, ordered by their shard id.
+     *
+     * <p>Shards which are still logging in, reconnecting or resuming do not have an active session.
+     *
+     * @return The connected shards of this group.
+     */
+    List<DiscordApi> getConnectedShards();
+
+    /**
+     * Gets the futures which are completed once the shards of this group finished logging in, by their shard id.
+     *
+     * @return The ready futures by shard id.
+     */
+    Map<Integer, CompletableFuture<DiscordApi>> getReadyFutures();
+
+    /**
+     * Gets the amount of shards of this group that finished logging in successfully.
+     *
+     * @return The amount of ready shards.
+     */
+    int getReadyShardCount();
+
+    /**
+     * Gets the progress of the startup of this group, i.e. the share of the shards that finished logging in
+     * successfully.
+     *
+     * @return The startup progress between {@code 0} and {@code 1}.
+     */
+    double getStartupProgress();
+
+    /**
+     * Gets the latest gateway latency of all shards of this group by their shard id.
+     *
+     * <p>Shards without a measured latency are not included.
+     *
+     * @return The latest gateway latency by shard id.
+     * @see DiscordApi#getLatestGatewayLatency()
+     */
+    Map<Integer, Duration> getGatewayLatencies();
+
+    /**
+     * Gets the average of the latest gateway latency of all shards of this group.
+     *
+     * @return The average gateway latency or an empty optional if no shard has a measured latency yet.
+     */
+    Optional<Duration> getAverageGatewayLatency();
+
+    /**
+     * Gets the highest latest gateway latency of all shards of this group.
+     *
+     * @return The highest gateway latency or an empty optional if no shard has a measured latency yet.
+     */
+    Optional<Duration> getHighestGatewayLatency();
+
+}
@@ -2,16 +2,25 @@ package org.javacord.api.internal;
 
 import org.javacord.api.DiscordApi;
 import org.javacord.api.DiscordApiBuilder;
+import org.javacord.api.GatewayEncoding;
+import org.javacord.api.ShardGroup;
 import org.javacord.api.entity.intent.Intent;
 import org.javacord.api.entity.message.MessageBuilder;
 import org.javacord.api.entity.message.mention.AllowedMentions;
 import org.javacord.api.listener.GloballyAttachableListener;
 import org.javacord.api.util.auth.Authenticator;
+import org.javacord.api.util.cache.EntityCacheBackend;
+import org.javacord.api.util.event.EventDispatchMetrics;
+import org.javacord.api.util.event.ListenerQueueOverflowPolicy;
+import org.javacord.api.util.gateway.GatewaySessionStore;
 import org.javacord.api.util.ratelimit.Ratelimiter;
 
 import java.net.Proxy;
 import java.net.ProxySelector;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
 import java.util.function.Function;
@@ -45,6 +54,48 @@ public interface DiscordApiBuilderDelegate {
      */
     void setGatewayIdentifyRatelimiter(Ratelimiter ratelimiter);
 
+    /**
+     * Sets the maximum amount of shards that may identify at the same time.
+     *
+     * @param maxConcurrency The maximum amount of shards that may identify at the same time.
+     */
+    void setGatewayIdentifyMaxConcurrency(int maxConcurrency);
+
+    /**
+     * Gets the maximum amount of shards that may identify at the same time.
+     *
+     * @return The maximum amount of shards that may identify at the same time.
+     */
+    int getGatewayIdentifyMaxConcurrency();
+
+    /**
+     * Sets the store which persists the gateway sessions of the shards across restarts of the program.
+     *
+     * @param gatewaySessionStore The gateway session store.
+     */
+    void setGatewaySessionStore(GatewaySessionStore gatewaySessionStore);
+
+    /**
+     * Gets the store which persists the gateway sessions of the shards across restarts of the program.
+     *
+     * @return The gateway session store.
+     */
+    Optional<GatewaySessionStore> getGatewaySessionStore();
+
+    /**
+     * Sets the directory in which a snapshot of the cached entities is stored when a shard is disconnected.
+     *
+     * @param entityCacheSnapshotDirectory The directory in which the snapshots are stored.
+     */
+    void setEntityCacheSnapshotDirectory(Path entityCacheSnapshotDirectory);
+
+    /**
+     * Gets the directory in which a snapshot of the cached entities is stored when a shard is disconnected.
+     *
+     * @return The directory in which the snapshots are stored.
+     */
+    Optional<Path> getEntityCacheSnapshotDirectory();
+
     /**
      * Sets the proxy selector which should be used to determine the proxies that should be used to connect to the
      * Discord REST API and websocket.
@@ -150,7 +201,9 @@ public interface DiscordApiBuilderDelegate {
      * Sets if Javacord should register a shutdown hook that disconnects the {@link DiscordApi} instance.
      *
      * <p>By default, Javacord registers a shutdown hook using {@link Runtime#addShutdownHook(Thread)} that calls
-     * the {@link DiscordApi#disconnect()} method. Setting this flag to {@code false} will disable this behavior.
+     * the {@link DiscordApi#disconnect()} method. If a gateway session store or an entity cache snapshot directory is
+     * configured, the shutdown hook waits up to 30 seconds for the disconnect to finish, so the session and the
+     * snapshot are saved. Setting this flag to {@code false} will disable this behavior.
      *
      * @param registerShutdownHook Whether the shutdown hook should be registered or not.
      */
@@ -203,6 +256,161 @@ public interface DiscordApiBuilderDelegate {
      */
     boolean isUserCacheEnabled();
 
+    /**
+     * Sets whether the gateway connection should use {@code zlib-stream} transport compression.
+     *
+     * @param enabled Whether transport compression should be enabled.
+     */
+    void setGatewayTransportCompressionEnabled(boolean enabled);
+
+    /**
+     * Gets whether the gateway connection uses {@code zlib-stream} transport compression.
+     *
+     * @return Whether transport compression is enabled.
+     */
+    boolean isGatewayTransportCompressionEnabled();
+
+    /**
+     * Sets the encoding that is used for the messages of the gateway connection.
+     *
+     * @param encoding The encoding to use.
+     */
+    void setGatewayEncoding(GatewayEncoding encoding);
+
+    /**
+     * Gets the encoding that is used for the messages of the gateway connection.
+     *
+     * @return The gateway encoding.
+     */
+    GatewayEncoding getGatewayEncoding();
+
+    /**
+     * Sets whether REST requests should be executed without blocking threads.
+     *
+     * @param enabled Whether non-blocking REST requests should be enabled.
+     */
+    void setNonBlockingRestRequestsEnabled(boolean enabled);
+
+    /**
+     * Gets whether REST requests are executed without blocking threads.
+     *
+     * @return Whether non-blocking REST requests are enabled.
+     */
+    boolean isNonBlockingRestRequestsEnabled();
+
+    /**
+     * Sets the backend that is used to cache channels, members, users and presences.
+     *
+     * @param backend The backend to use.
+     */
+    void setEntityCacheBackend(EntityCacheBackend backend);
+
+    /**
+     * Gets the backend that is used to cache channels, members, users and presences.
+     *
+     * @return The entity cache backend.
+     */
+    EntityCacheBackend getEntityCacheBackend();
+
+    /**
+     * Sets the maximum amount of listener calls a dispatch thread handles in a row.
+     *
+     * @param batchSize The maximum amount of listener calls per batch.
+     */
+    void setEventDispatchBatchSize(int batchSize);
+
+    /**
+     * Gets the maximum amount of listener calls a dispatch thread handles in a row.
+     *
+     * @return The event dispatch batch size.
+     */
+    int getEventDispatchBatchSize();
+
+    /**
+     * Sets whether tasks of the thread pool's executor service should be executed on virtual threads.
+     *
+     * @param enabled Whether virtual threads should be enabled.
+     */
+    void setVirtualThreadsEnabled(boolean enabled);
+
+    /**
+     * Gets whether tasks of the thread pool's executor service should be executed on virtual threads.
+     *
+     * @return Whether virtual threads are enabled.
+     */
+    boolean isVirtualThreadsEnabled();
+
+    /**
+     * Sets the maximum amount of queued listener calls per server.
+     *
+     * @param capacity The maximum amount of queued listener calls per server.
+     */
+    void setListenerQueueCapacity(int capacity);
+
+    /**
+     * Gets the maximum amount of queued listener calls per server.
+     *
+     * @return The listener queue capacity.
+     */
+    int getListenerQueueCapacity();
+
+    /**
+     * Sets the policy that decides what happens if the listener queue of a server is full.
+     *
+     * @param policy The overflow policy.
+     */
+    void setListenerQueueOverflowPolicy(ListenerQueueOverflowPolicy policy);
+
+    /**
+     * Gets the policy that decides what happens if the listener queue of a server is full.
+     *
+     * @return The listener queue overflow policy.
+     */
+    ListenerQueueOverflowPolicy getListenerQueueOverflowPolicy();
+
+    /**
+     * Sets the metrics which receive measurements about the dispatching of events.
+     *
+     * @param metrics The event dispatch metrics.
+     */
+    void setEventDispatchMetrics(EventDispatchMetrics metrics);
+
+    /**
+     * Gets the metrics which receive measurements about the dispatching of events.
+     *
+     * @return The event dispatch metrics.
+     */
+    EventDispatchMetrics getEventDispatchMetrics();
+
+    /**
+     * Sets the coalescing window for events of the given listener type.
+     *
+     * @param listenerClass The listener type.
+     * @param window The coalescing window.
+     */
+    void setEventCoalescingWindow(Class<? extends GloballyAttachableListener> listenerClass, Duration window);
+
+    /**
+     * Gets the coalescing windows by listener type.
+     *
+     * @return The coalescing windows by listener type.
+     */
+    Map<Class<? extends GloballyAttachableListener>, Duration> getEventCoalescingWindows();
+
+    /**
+     * Sets whether shards that are logged in together share their resources.
+     *
+     * @param enabled Whether shards that are logged in together should share their resources.
+     */
+    void setShardResourceSharingEnabled(boolean enabled);
+
+    /**
+     * Checks whether shards that are logged in together share their resources.
+     *
+     * @return Whether shards that are logged in together share their resources.
+     */
+    boolean isShardResourceSharingEnabled();
+
     /**
      * Logs the bot in.
      *
@@ -220,6 +428,16 @@ public interface DiscordApiBuilderDelegate {
      */
     List<CompletableFuture<DiscordApi>> loginShards(int... shards);
 
+    /**
+     * Login given shards to the account with the given token as a shard group.
+     * It is invalid to call {@link #setCurrentShard(int)} with
+     * anything but {@code 0} before calling this method.
+     *
+     * @param shards The shards to connect, starting with {@code 0}!
+     * @return The shard group.
+     */
+    ShardGroup loginShardGroup(int... shards);
+
     /**
      * Sets the recommended total shards.
      *
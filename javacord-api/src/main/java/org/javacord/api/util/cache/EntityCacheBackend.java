@@ -0,0 +1,21 @@
+package org.javacord.api.util.cache;
+
+/**
+ * An enum with all backends that can be used to cache channels, members, users and presences.
+ */
+public enum EntityCacheBackend {
+
+    /**
+     * An immutable cache that is replaced as a whole on every update.
+     * Readers always see a consistent snapshot, but every update copies the indexes of the changed cache.
+     */
+    IMMUTABLE,
+
+    /**
+     * A mutable cache that is backed by concurrent maps and partitions members by their server.
+     * Updates happen in place without copying, which makes it considerably cheaper for bots in large servers.
+     * Collections returned by the cache are copies of its current state.
+     */
+    CONCURRENT
+
+}
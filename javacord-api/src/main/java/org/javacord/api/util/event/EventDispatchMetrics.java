@@ -0,0 +1,51 @@
+package org.javacord.api.util.event;
+
+import org.javacord.api.DiscordApiBuilder;
+import org.javacord.api.entity.server.Server;
+
+/**
+ * Receives measurements about the dispatching of gateway events and listener calls.
+ *
+ * <p>The methods are called synchronously from the gateway thread and the listener threads, so implementations must
+ * be thread-safe and should return as fast as possible. They must neither block nor throw exceptions.
+ *
+ * <p>Two implementations are available: {@link NoOpEventDispatchMetrics}, which is used by default, and
+ * {@link InMemoryEventDispatchMetrics}, which aggregates the measurements in memory.
+ *
+ * @see DiscordApiBuilder#setEventDispatchMetrics(EventDispatchMetrics)
+ */
+public interface EventDispatchMetrics {
+
+    /**
+     * Called for every dispatch packet that is received from the gateway.
+     *
+     * @param dispatchType The dispatch type of the packet, e.g. {@code MESSAGE_CREATE}.
+     */
+    void onGatewayDispatch(String dispatchType);
+
+    /**
+     * Called after listener calls were added to the queue of a server or the queue of server-independent events.
+     * The queue depth is also reported after a listener call was taken from the queue.
+     *
+     * @param server The server of the queue or {@code null} for the queue of server-independent events.
+     * @param queueDepth The amount of listener calls in the queue.
+     */
+    void onQueueDepthChange(Server server, int queueDepth);
+
+    /**
+     * Called when a listener call is taken from its queue and about to be executed.
+     *
+     * @param listenerClass The class of the listener, i.e. the implementation and not the listener interface.
+     * @param queuedNanos The time in nanoseconds between the dispatch of the event and the start of the call.
+     */
+    void onListenerStart(Class<?> listenerClass, long queuedNanos);
+
+    /**
+     * Called when a listener call finished, regardless of whether it threw an exception.
+     *
+     * @param listenerClass The class of the listener, i.e. the implementation and not the listener interface.
+     * @param executionNanos The time in nanoseconds the listener call took.
+     */
+    void onListenerEnd(Class<?> listenerClass, long executionNanos);
+
+}
@@ -0,0 +1,230 @@
+package org.javacord.api.util.event;
+
+import org.javacord.api.entity.server.Server;
+
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * An implementation of {@code EventDispatchMetrics} that aggregates all measurements in memory.
+ *
+ * <p>Times are recorded in histograms with exponentially growing buckets, so recording a value never allocates and
+ * percentiles are accurate up to a factor of two. The recorded values are kept until {@link #reset()} is called.
+ */
+public class InMemoryEventDispatchMetrics implements EventDispatchMetrics {
+
+    private final Histogram queueLatency = new Histogram();
+    private final Map<Class<?>, Histogram> listenerExecutionTimes = new ConcurrentHashMap<>();
+    private final Map<Long, Integer> serverQueueDepths = new ConcurrentHashMap<>();
+    private volatile int serverIndependentQueueDepth;
+    private final Map<String, LongAdder> gatewayDispatchCounts = new ConcurrentHashMap<>();
+
+    @Override
+    public void onGatewayDispatch(String dispatchType) {
+        gatewayDispatchCounts.computeIfAbsent(dispatchType, type -> new LongAdder()).increment();
+    }
+
+    @Override
+    public void onQueueDepthChange(Server server, int queueDepth) {
+        if (server == null) {
+            serverIndependentQueueDepth = queueDepth;
+        } else if (queueDepth == 0) {
+            // Empty queues are not tracked, so servers the bot left don't stay in the map forever
+            serverQueueDepths.remove(server.getId());
+        } else {
+            serverQueueDepths.put(server.getId(), queueDepth);
+        }
+    }
+
+    @Override
+    public void onListenerStart(Class<?> listenerClass, long queuedNanos) {
+        queueLatency.record(queuedNanos);
+    }
+
+    @Override
+    public void onListenerEnd(Class<?> listenerClass, long executionNanos) {
+        listenerExecutionTimes.computeIfAbsent(listenerClass, c -> new Histogram()).record(executionNanos);
+    }
+
+    /**
+     * Gets the histogram of the time between the dispatch of an event and the start of a listener call.
+     *
+     * @return The histogram of the queue latency.
+     */
+    public Histogram getQueueLatency() {
+        return queueLatency;
+    }
+
+    /**
+     * Gets the histograms of the execution time of listener calls by the class of the listener.
+     *
+     * @return The histograms of the execution time by listener class.
+     */
+    public Map<Class<?>, Histogram> getListenerExecutionTimes() {
+        return Collections.unmodifiableMap(listenerExecutionTimes);
+    }
+
+    /**
+     * Gets the last reported queue depth of all servers with a non-empty queue.
+     *
+     * @return The queue depth by server id.
+     */
+    public Map<Long, Integer> getServerQueueDepths() {
+        return Collections.unmodifiableMap(new HashMap<>(serverQueueDepths));
+    }
+
+    /**
+     * Gets the last reported queue depth of the given server.
+     *
+     * @param server The server.
+     * @return The queue depth of the server.
+     */
+    public int getServerQueueDepth(Server server) {
+        return serverQueueDepths.getOrDefault(server.getId(), 0);
+    }
+
+    /**
+     * Gets the last reported queue depth of the queue of server-independent events.
+     *
+     * @return The queue depth of server-independent events.
+     */
+    public int getServerIndependentQueueDepth() {
+        return serverIndependentQueueDepth;
+    }
+
+    /**
+     * Gets the amount of received dispatch packets by their dispatch type.
+     *
+     * @return The amount of received dispatch packets by dispatch type.
+     */
+    public Map<String, Long> getGatewayDispatchCounts() {
+        Map<String, Long> counts = new HashMap<>();
+        gatewayDispatchCounts.forEach((type, count) -> counts.put(type, count.sum()));
+        return Collections.unmodifiableMap(counts);
+    }
+
+    /**
+     * Removes all recorded values.
+     */
+    public void reset() {
+        queueLatency.reset();
+        listenerExecutionTimes.clear();
+        serverQueueDepths.clear();
+        serverIndependentQueueDepth = 0;
+        gatewayDispatchCounts.clear();
+    }
+
+    /**
+     * A histogram of times in nanoseconds.
+     *
+     * <p>The bucket {@code i} contains all values that need {@code i} bits, i.e. the values from {@code 2^(i-1)}
+     * (inclusive) to {@code 2^i} (exclusive).
+     */
+    public static class Histogram {
+
+        private final AtomicLongArray buckets = new AtomicLongArray(Long.SIZE + 1);
+        private final LongAdder totalNanos = new LongAdder();
+        private final AtomicLong maxNanos = new AtomicLong();
+
+        /**
+         * Records a value.
+         *
+         * @param nanos The value in nanoseconds.
+         */
+        private void record(long nanos) {
+            long value = Math.max(nanos, 0);
+            buckets.incrementAndGet(Long.SIZE - Long.numberOfLeadingZeros(value));
+            totalNanos.add(value);
+            maxNanos.accumulateAndGet(value, Math::max);
+        }
+
+        /**
+         * Removes all recorded values.
+         */
+        private void reset() {
+            for (int i = 0; i < buckets.length(); i++) {
+                buckets.set(i, 0);
+            }
+            totalNanos.reset();
+            maxNanos.set(0);
+        }
+
+        /**
+         * Gets the amount of recorded values.
+         *
+         * @return The amount of recorded values.
+         */
+        public long getCount() {
+            long count = 0;
+            for (int i = 0; i < buckets.length(); i++) {
+                count += buckets.get(i);
+            }
+            return count;
+        }
+
+        /**
+         * Gets the sum of all recorded values.
+         *
+         * @return The sum of all recorded values in nanoseconds.
+         */
+        public long getTotalNanos() {
+            return totalNanos.sum();
+        }
+
+        /**
+         * Gets the highest recorded value.
+         *
+         * @return The highest recorded value in nanoseconds.
+         */
+        public long getMaxNanos() {
+            return maxNanos.get();
+        }
+
+        /**
+         * Gets the mean of all recorded values.
+         *
+         * @return The mean of all recorded values in nanoseconds or {@code 0} if no value was recorded.
+         */
+        public double getMeanNanos() {
+            long count = getCount();
+            return count == 0 ? 0 : (double) getTotalNanos() / count;
+        }
+
+        /**
+         * Gets an upper bound for the given percentile of the recorded values.
+         *
+         * @param percentile The percentile, e.g. {@code 99} for the 99th percentile.
+         * @return An upper bound for the percentile in nanoseconds or {@code 0} if no value was recorded.
+         */
+        public long getPercentileNanos(double percentile) {
+            if (percentile < 0 || percentile > 100) {
+                throw new IllegalArgumentException("percentile must be between 0 and 100");
+            }
+            long[] counts = new long[buckets.length()];
+            long count = 0;
+            for (int i = 0; i < counts.length; i++) {
+                counts[i] = buckets.get(i);
+                count += counts[i];
+            }
+            if (count == 0) {
+                return 0;
+            }
+            long rank = Math.max((long) Math.ceil(count * percentile / 100), 1);
+            long seen = 0;
+            for (int i = 0; i < counts.length; i++) {
+                seen += counts[i];
+                if (seen >= rank) {
+                    long upperBound = i == Long.SIZE ? Long.MAX_VALUE : (1L << i) - 1;
+                    return Math.min(upperBound, getMaxNanos());
+                }
+            }
+            return getMaxNanos();
+        }
+    }
+
+}
@@ -63,6 +63,40 @@ public interface ListenerManager<T> {
      */
     ListenerManager<T> removeAfter(long delay, TimeUnit timeUnit);
 
+    /**
+     * Sets whether the listener is order-independent.
+     *
+     * <p>By default, all listeners for events of the same server are called one after another in the order of the
+     * events, even if they are different listeners. Order-independent listeners are instead called concurrently on a
+     * separate thread pool, so they neither wait for nor delay other listeners. This is useful for listeners that
+     * don't keep state, e.g. listeners that only collect statistics.
+     *
+     * <p>The thread pool creates threads as needed, up to 64 or four per available processor if that is more, and
+     * stops them after they have been idle for a while. If all of its threads are busy, the calls of order-independent
+     * listeners are queued until one of them gets available, so blocking order-independent listeners still delay each
+     * other once the thread pool is saturated. If virtual threads are
+     * {@link org.javacord.api.DiscordApiBuilder#setVirtualThreadsEnabled(boolean) enabled}, every call gets its own
+     * virtual thread instead.
+     *
+     * <p>An order-independent listener can be called for a newer event before it finished handling an older one and
+     * it can be called for multiple events at the same time, so it must be thread-safe. Lifecycle events like
+     * connection losses and events for servers that are not ready yet are still dispatched in order.
+     * The setting applies to the listener object, i.e. if the same listener object was added multiple times, it is
+     * order-independent for all events as long as at least one of its listener managers is order-independent.
+     *
+     * @param orderIndependent Whether the listener is order-independent.
+     * @return The current instance in order to chain method calls.
+     */
+    ListenerManager<T> setOrderIndependent(boolean orderIndependent);
+
+    /**
+     * Checks if the listener was marked as order-independent by this listener manager.
+     *
+     * @return Whether the listener is order-independent.
+     * @see #setOrderIndependent(boolean)
+     */
+    boolean isOrderIndependent();
+
     /**
      * Adds a runnable which gets called when the listener gets removed.
      *
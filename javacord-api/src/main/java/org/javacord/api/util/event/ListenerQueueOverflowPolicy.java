@@ -0,0 +1,34 @@
+package org.javacord.api.util.event;
+
+/**
+ * An enum with all policies that decide what happens if an event is dispatched while the listener queue of its server
+ * is full.
+ */
+public enum ListenerQueueOverflowPolicy {
+
+    /**
+     * The thread that dispatches the event, usually the thread which reads from the gateway, waits until the queue
+     * has enough free space. No events are lost, but all further events are delayed until the slow listeners
+     * caught up.
+     */
+    BLOCK,
+
+    /**
+     * The oldest queued listener calls of the server are dropped to make space for the new event.
+     */
+    DROP_OLDEST,
+
+    /**
+     * The new event is dropped for the server.
+     */
+    DROP_NEWEST,
+
+    /**
+     * Queued listener calls of the same listener for an older state of the same thing are dropped, so only the newest
+     * state is delivered. This only applies to events which report a state: status and activity changes of the same
+     * user, nickname changes of the same user in the same server and typing of the same user in the same channel. If
+     * this does not free enough space, the oldest queued listener calls are dropped.
+     */
+    COALESCE
+
+}
@@ -0,0 +1,30 @@
+package org.javacord.api.util.event;
+
+import org.javacord.api.entity.server.Server;
+
+/**
+ * An implementation of {@code EventDispatchMetrics} that discards all measurements.
+ */
+public class NoOpEventDispatchMetrics implements EventDispatchMetrics {
+
+    @Override
+    public void onGatewayDispatch(String dispatchType) {
+        // Ignored
+    }
+
+    @Override
+    public void onQueueDepthChange(Server server, int queueDepth) {
+        // Ignored
+    }
+
+    @Override
+    public void onListenerStart(Class<?> listenerClass, long queuedNanos) {
+        // Ignored
+    }
+
+    @Override
+    public void onListenerEnd(Class<?> listenerClass, long executionNanos) {
+        // Ignored
+    }
+
+}
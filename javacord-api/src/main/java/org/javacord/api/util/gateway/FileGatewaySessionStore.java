@@ -0,0 +1,98 @@
+package org.javacord.api.util.gateway;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.Properties;
+
+/**
+ * An implementation of {@code GatewaySessionStore} that stores every session in a properties file in a directory.
+ *
+ * <p>Sessions are written to a temporary file first, which is then moved to its final location, so a crash while
+ * saving never leaves a partially written session behind. The files contain the session id, which allows to resume
+ * the session, so the directory should only be readable by the bot.
+ */
+public class FileGatewaySessionStore implements GatewaySessionStore {
+
+    private static final String SESSION_ID = "sessionId";
+    private static final String RESUME_URL = "resumeUrl";
+    private static final String LAST_SEQUENCE = "lastSequence";
+
+    private final Path directory;
+
+    /**
+     * Creates a new file gateway session store.
+     *
+     * @param directory The directory in which the sessions are stored. It is created if it does not exist.
+     */
+    public FileGatewaySessionStore(Path directory) {
+        this.directory = Objects.requireNonNull(directory, "directory must not be null");
+    }
+
+    /**
+     * Gets the file of the session of the given shard.
+     *
+     * @param shard The shard.
+     * @param totalShards The total amount of shards.
+     * @return The file of the session.
+     */
+    private Path getSessionFile(int shard, int totalShards) {
+        return directory.resolve("session-" + shard + "-of-" + totalShards + ".properties");
+    }
+
+    @Override
+    public Optional<GatewaySession> load(int shard, int totalShards) {
+        Path sessionFile = getSessionFile(shard, totalShards);
+        if (!Files.isRegularFile(sessionFile)) {
+            return Optional.empty();
+        }
+        Properties properties = new Properties();
+        try (InputStream in = Files.newInputStream(sessionFile)) {
+            properties.load(in);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        String sessionId = properties.getProperty(SESSION_ID);
+        String lastSequence = properties.getProperty(LAST_SEQUENCE);
+        if ((sessionId == null) || (lastSequence == null)) {
+            return Optional.empty();
+        }
+        return Optional.of(new GatewaySession(shard, totalShards, sessionId, properties.getProperty(RESUME_URL),
+                Integer.parseInt(lastSequence)));
+    }
+
+    @Override
+    public void save(GatewaySession session) {
+        Properties properties = new Properties();
+        properties.setProperty(SESSION_ID, session.getSessionId());
+        session.getResumeUrl().ifPresent(resumeUrl -> properties.setProperty(RESUME_URL, resumeUrl));
+        properties.setProperty(LAST_SEQUENCE, Integer.toString(session.getLastSequence()));
+        try {
+            Files.createDirectories(directory);
+            Path temporaryFile = Files.createTempFile(directory, "session-", ".tmp");
+            try (OutputStream out = Files.newOutputStream(temporaryFile)) {
+                properties.store(out, null);
+            }
+            Files.move(temporaryFile, getSessionFile(session.getShard(), session.getTotalShards()),
+                    StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    @Override
+    public void remove(int shard, int totalShards) {
+        try {
+            Files.deleteIfExists(getSessionFile(shard, totalShards));
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+}
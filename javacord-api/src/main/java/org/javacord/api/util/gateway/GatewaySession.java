@@ -0,0 +1,102 @@
+package org.javacord.api.util.gateway;
+
+import java.util.Objects;
+import java.util.Optional;
+
+/**
+ * The state of a gateway session of a shard, which is required to resume the session.
+ */
+public class GatewaySession {
+
+    private final int shard;
+    private final int totalShards;
+    private final String sessionId;
+    private final String resumeUrl;
+    private final int lastSequence;
+
+    /**
+     * Creates a new gateway session.
+     *
+     * @param shard The shard of the session.
+     * @param totalShards The total amount of shards the shard was started with.
+     * @param sessionId The id of the session.
+     * @param resumeUrl The gateway url which should be used to resume the session. May be {@code null}.
+     * @param lastSequence The sequence number of the last received dispatch packet.
+     */
+    public GatewaySession(int shard, int totalShards, String sessionId, String resumeUrl, int lastSequence) {
+        this.shard = shard;
+        this.totalShards = totalShards;
+        this.sessionId = Objects.requireNonNull(sessionId, "sessionId must not be null");
+        this.resumeUrl = resumeUrl;
+        this.lastSequence = lastSequence;
+    }
+
+    /**
+     * Gets the shard of the session.
+     *
+     * @return The shard of the session.
+     */
+    public int getShard() {
+        return shard;
+    }
+
+    /**
+     * Gets the total amount of shards the shard was started with.
+     *
+     * @return The total amount of shards.
+     */
+    public int getTotalShards() {
+        return totalShards;
+    }
+
+    /**
+     * Gets the id of the session.
+     *
+     * @return The id of the session.
+     */
+    public String getSessionId() {
+        return sessionId;
+    }
+
+    /**
+     * Gets the gateway url which should be used to resume the session.
+     *
+     * @return The gateway url which should be used to resume the session.
+     */
+    public Optional<String> getResumeUrl() {
+        return Optional.ofNullable(resumeUrl);
+    }
+
+    /**
+     * Gets the sequence number of the last received dispatch packet.
+     *
+     * @return The sequence number of the last received dispatch packet.
+     */
+    public int getLastSequence() {
+        return lastSequence;
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) {
+            return true;
+        }
+        if (!(o instanceof GatewaySession)) {
+            return false;
+        }
+        GatewaySession that = (GatewaySession) o;
+        return (shard == that.shard) && (totalShards == that.totalShards) && (lastSequence == that.lastSequence)
+                && sessionId.equals(that.sessionId) && Objects.equals(resumeUrl, that.resumeUrl);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(shard, totalShards, sessionId, resumeUrl, lastSequence);
+    }
+
+    @Override
+    public String toString() {
+        return "GatewaySession (shard: " + shard + "/" + totalShards + ", last sequence: " + lastSequence + ")";
+    }
+
+}
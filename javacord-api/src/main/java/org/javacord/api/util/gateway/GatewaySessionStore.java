@@ -0,0 +1,49 @@
+package org.javacord.api.util.gateway;
+
+import org.javacord.api.DiscordApiBuilder;
+
+import java.util.Optional;
+
+/**
+ * Persists gateway sessions, so a shard can resume its session after the program was restarted instead of
+ * identifying again.
+ *
+ * <p>The session of a shard is saved when the shard is disconnected with {@code DiscordApi#disconnect()}, before the
+ * returned future is completed. The shutdown hook waits up to 30 seconds for the disconnect, so the session is also
+ * saved when the program is terminated. If the shutdown hook is disabled, the program has to wait for the future
+ * itself before it exits. The session is loaded and removed from the store when the shard is started again. If the
+ * session cannot be resumed anymore, e.g. because Discord already invalidated it, the shard identifies like usual.
+ *
+ * <p>A store must only be used by a single bot, as the sessions are only identified by their shard.
+ *
+ * <p>An implementation that stores the sessions in files is available with the {@link FileGatewaySessionStore}.
+ *
+ * @see DiscordApiBuilder#setGatewaySessionStore(GatewaySessionStore)
+ */
+public interface GatewaySessionStore {
+
+    /**
+     * Loads the session of the given shard.
+     *
+     * @param shard The shard.
+     * @param totalShards The total amount of shards.
+     * @return The session of the shard or an empty optional if there is no stored session.
+     */
+    Optional<GatewaySession> load(int shard, int totalShards);
+
+    /**
+     * Saves the given session. An already stored session of the same shard is replaced.
+     *
+     * @param session The session to save.
+     */
+    void save(GatewaySession session);
+
+    /**
+     * Removes the session of the given shard from the store.
+     *
+     * @param shard The shard.
+     * @param totalShards The total amount of shards.
+     */
+    void remove(int shard, int totalShards);
+
+}
@@ -4,11 +4,22 @@ import com.fasterxml.jackson.databind.JsonNode;
 import org.apache.logging.log4j.CloseableThreadContext;
 import org.apache.logging.log4j.Logger;
 import org.javacord.api.DiscordApi;
+import org.javacord.api.GatewayEncoding;
+import org.javacord.api.ShardGroup;
 import org.javacord.api.entity.intent.Intent;
 import org.javacord.api.entity.message.mention.AllowedMentions;
 import org.javacord.api.internal.DiscordApiBuilderDelegate;
 import org.javacord.api.listener.GloballyAttachableListener;
+import org.javacord.api.listener.user.UserChangeActivityListener;
+import org.javacord.api.listener.user.UserChangeNicknameListener;
+import org.javacord.api.listener.user.UserChangeStatusListener;
+import org.javacord.api.listener.user.UserStartTypingListener;
 import org.javacord.api.util.auth.Authenticator;
+import org.javacord.api.util.cache.EntityCacheBackend;
+import org.javacord.api.util.event.EventDispatchMetrics;
+import org.javacord.api.util.event.ListenerQueueOverflowPolicy;
+import org.javacord.api.util.gateway.GatewaySessionStore;
+import org.javacord.api.util.event.NoOpEventDispatchMetrics;
 import org.javacord.api.util.ratelimit.Ratelimiter;
 import org.javacord.core.util.gateway.DiscordWebSocketAdapter;
 import org.javacord.core.util.logging.LoggerUtil;
@@ -20,9 +31,12 @@ import org.javacord.core.util.rest.RestRequestResult;
 
 import java.net.Proxy;
 import java.net.ProxySelector;
+import java.nio.file.Path;
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.List;
 import java.util.Map;
@@ -65,6 +79,27 @@ public class DiscordApiBuilderDelegateImpl implements DiscordApiBuilderDelegate
      */
     private volatile Ratelimiter gatewayIdentifyRatelimiter;
 
+    /**
+     * The maximum amount of shards that may identify at the same time.
+     */
+    private volatile int gatewayIdentifyMaxConcurrency = 1;
+
+    /**
+     * Whether the maximum amount of shards that may identify at the same time was set by the user.
+     * The value reported by Discord does not override it then.
+     */
+    private volatile boolean gatewayIdentifyMaxConcurrencySet = false;
+
+    /**
+     * The store which persists the gateway sessions of the shards across restarts of the program.
+     */
+    private volatile GatewaySessionStore gatewaySessionStore = null;
+
+    /**
+     * The directory in which a snapshot of the cached entities is stored when a shard is disconnected.
+     */
+    private volatile Path entityCacheSnapshotDirectory = null;
+
     /**
      * The proxy selector which should be used to determine the proxies that should be used to connect to the Discord
      * REST API and websocket.
@@ -138,6 +173,62 @@ public class DiscordApiBuilderDelegateImpl implements DiscordApiBuilderDelegate
      */
     private AllowedMentions allowedMentions;
 
+    /**
+     * Whether the gateway connection should use zlib-stream transport compression.
+     */
+    private volatile boolean gatewayTransportCompressionEnabled = true;
+
+    /**
+     * The encoding of the gateway messages.
+     */
+    private volatile GatewayEncoding gatewayEncoding = GatewayEncoding.JSON;
+
+    /**
+     * Whether REST requests should be executed without blocking threads.
+     */
+    private volatile boolean nonBlockingRestRequestsEnabled = false;
+
+    /**
+     * The backend of the entity cache.
+     */
+    private volatile EntityCacheBackend entityCacheBackend = EntityCacheBackend.IMMUTABLE;
+
+    /**
+     * The maximum amount of listener calls a dispatch thread handles in a row.
+     */
+    private volatile int eventDispatchBatchSize = 1;
+
+    /**
+     * Whether tasks of the thread pool's executor service should be executed on virtual threads.
+     */
+    private volatile boolean virtualThreadsEnabled = false;
+
+    /**
+     * The maximum amount of queued listener calls per server.
+     */
+    private volatile int listenerQueueCapacity = Integer.MAX_VALUE;
+
+    /**
+     * The policy that decides what happens if the listener queue of a server is full.
+     */
+    private volatile ListenerQueueOverflowPolicy listenerQueueOverflowPolicy = ListenerQueueOverflowPolicy.BLOCK;
+
+    /**
+     * The metrics which receive measurements about the dispatching of events.
+     */
+    private volatile EventDispatchMetrics eventDispatchMetrics = new NoOpEventDispatchMetrics();
+
+    /**
+     * The coalescing windows by listener type.
+     */
+    private final Map<Class<? extends GloballyAttachableListener>, Duration> eventCoalescingWindows =
+            new ConcurrentHashMap<>();
+
+    /**
+     * Whether shards that are logged in together share their resources.
+     */
+    private volatile boolean shardResourceSharingEnabled = true;
+
     /**
      * The globally attachable listeners to register for every created DiscordApi instance.
      */
@@ -191,6 +282,16 @@ public class DiscordApiBuilderDelegateImpl implements DiscordApiBuilderDelegate
 
     @Override
     public CompletableFuture<DiscordApi> login() {
+        return login(null);
+    }
+
+    /**
+     * Logs the current shard in.
+     *
+     * @param shardGroup The group of shards the shard should share its resources with. May be {@code null}.
+     * @return The discord api instance.
+     */
+    private CompletableFuture<DiscordApi> login(ShardGroupImpl shardGroup) {
         prepareListeners();
         logger.debug("Creating shard {} of {}", currentShard.get() + 1, totalShards.get());
         CompletableFuture<DiscordApi> future = new CompletableFuture<>();
@@ -204,7 +305,11 @@ public class DiscordApiBuilderDelegateImpl implements DiscordApiBuilderDelegate
                     waitForServersOnStartup, waitForUsersOnStartup, registerShutdownHook, globalRatelimiter,
                     gatewayIdentifyRatelimiter, proxySelector, proxy, proxyAuthenticator, trustAllCertificates,
                     future, null, preparedListeners, preparedUnspecifiedListeners, userCacheEnabled, dispatchEvents,
-                    allowedMentions);
+                    allowedMentions, gatewayTransportCompressionEnabled, gatewayEncoding,
+                    nonBlockingRestRequestsEnabled, entityCacheBackend, eventDispatchBatchSize,
+                    virtualThreadsEnabled, listenerQueueCapacity, listenerQueueOverflowPolicy,
+                    eventDispatchMetrics, eventCoalescingWindows, shardGroup, gatewayIdentifyMaxConcurrency,
+                    gatewaySessionStore, entityCacheSnapshotDirectory);
         }
         return future;
     }
@@ -245,6 +350,24 @@ public class DiscordApiBuilderDelegateImpl implements DiscordApiBuilderDelegate
 
     @Override
     public List<CompletableFuture<DiscordApi>> loginShards(int... shards) {
+        return loginShards(shardResourceSharingEnabled ? new ShardGroupImpl(virtualThreadsEnabled) : null, shards);
+    }
+
+    @Override
+    public ShardGroup loginShardGroup(int... shards) {
+        ShardGroupImpl shardGroup = new ShardGroupImpl(virtualThreadsEnabled);
+        loginShards(shardGroup, shards);
+        return shardGroup;
+    }
+
+    /**
+     * Login given shards to the account with the given token.
+     *
+     * @param shardGroup The group of shards the shards should share their resources with. May be {@code null}.
+     * @param shards The shards to connect, starting with {@code 0}!
+     * @return A list of {@link CompletableFuture}s which contain the {@code DiscordApi}s for the shards.
+     */
+    private List<CompletableFuture<DiscordApi>> loginShards(ShardGroupImpl shardGroup, int... shards) {
         Objects.requireNonNull(shards);
         if (shards.length == 0) {
             return Collections.emptyList();
@@ -268,17 +391,25 @@ public class DiscordApiBuilderDelegateImpl implements DiscordApiBuilderDelegate
         List<CompletableFuture<DiscordApi>> result = new ArrayList<>(shards.length);
         int currentShard = getCurrentShard();
         for (int shard : shards) {
+            CompletableFuture<DiscordApi> future;
             if (currentShard != 0) {
-                CompletableFuture<DiscordApi> future = new CompletableFuture<>();
+                future = new CompletableFuture<>();
                 future.completeExceptionally(new IllegalArgumentException(
                         "You cannot use loginShards or loginAllShards after setting the current shard!"));
-                result.add(future);
-                continue;
+            } else {
+                setCurrentShard(shard);
+                future = login(shardGroup);
+            }
+            result.add(future);
+            if (shardGroup != null) {
+                shardGroup.addReadyFuture(shard, future);
             }
-            setCurrentShard(shard);
-            result.add(login());
         }
         setCurrentShard(currentShard);
+        if (shardGroup != null) {
+            // All shards hold their own reference now
+            shardGroup.release();
+        }
         return result;
     }
 
@@ -297,6 +428,40 @@ public class DiscordApiBuilderDelegateImpl implements DiscordApiBuilderDelegate
         gatewayIdentifyRatelimiter = ratelimiter;
     }
 
+    @Override
+    public void setGatewayIdentifyMaxConcurrency(int maxConcurrency) {
+        if (maxConcurrency < 1) {
+            throw new IllegalArgumentException("maxConcurrency cannot be less than 1!");
+        }
+        gatewayIdentifyMaxConcurrency = maxConcurrency;
+        gatewayIdentifyMaxConcurrencySet = true;
+    }
+
+    @Override
+    public int getGatewayIdentifyMaxConcurrency() {
+        return gatewayIdentifyMaxConcurrency;
+    }
+
+    @Override
+    public void setGatewaySessionStore(GatewaySessionStore gatewaySessionStore) {
+        this.gatewaySessionStore = gatewaySessionStore;
+    }
+
+    @Override
+    public Optional<GatewaySessionStore> getGatewaySessionStore() {
+        return Optional.ofNullable(gatewaySessionStore);
+    }
+
+    @Override
+    public void setEntityCacheSnapshotDirectory(Path entityCacheSnapshotDirectory) {
+        this.entityCacheSnapshotDirectory = entityCacheSnapshotDirectory;
+    }
+
+    @Override
+    public Optional<Path> getEntityCacheSnapshotDirectory() {
+        return Optional.ofNullable(entityCacheSnapshotDirectory);
+    }
+
     @Override
     public void setProxySelector(ProxySelector proxySelector) {
         this.proxySelector = proxySelector;
@@ -420,6 +585,138 @@ public class DiscordApiBuilderDelegateImpl implements DiscordApiBuilderDelegate
         return userCacheEnabled;
     }
 
+    @Override
+    public void setGatewayTransportCompressionEnabled(boolean enabled) {
+        gatewayTransportCompressionEnabled = enabled;
+    }
+
+    @Override
+    public boolean isGatewayTransportCompressionEnabled() {
+        return gatewayTransportCompressionEnabled;
+    }
+
+    @Override
+    public void setGatewayEncoding(GatewayEncoding encoding) {
+        gatewayEncoding = Objects.requireNonNull(encoding, "encoding must not be null");
+    }
+
+    @Override
+    public GatewayEncoding getGatewayEncoding() {
+        return gatewayEncoding;
+    }
+
+    @Override
+    public void setNonBlockingRestRequestsEnabled(boolean enabled) {
+        nonBlockingRestRequestsEnabled = enabled;
+    }
+
+    @Override
+    public boolean isNonBlockingRestRequestsEnabled() {
+        return nonBlockingRestRequestsEnabled;
+    }
+
+    @Override
+    public void setEntityCacheBackend(EntityCacheBackend backend) {
+        entityCacheBackend = Objects.requireNonNull(backend, "backend must not be null");
+    }
+
+    @Override
+    public EntityCacheBackend getEntityCacheBackend() {
+        return entityCacheBackend;
+    }
+
+    @Override
+    public void setEventDispatchBatchSize(int batchSize) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("batchSize cannot be less than 1!");
+        }
+        eventDispatchBatchSize = batchSize;
+    }
+
+    @Override
+    public int getEventDispatchBatchSize() {
+        return eventDispatchBatchSize;
+    }
+
+    @Override
+    public void setVirtualThreadsEnabled(boolean enabled) {
+        virtualThreadsEnabled = enabled;
+    }
+
+    @Override
+    public boolean isVirtualThreadsEnabled() {
+        return virtualThreadsEnabled;
+    }
+
+    @Override
+    public void setListenerQueueCapacity(int capacity) {
+        if (capacity < 1) {
+            throw new IllegalArgumentException("capacity cannot be less than 1!");
+        }
+        listenerQueueCapacity = capacity;
+    }
+
+    @Override
+    public int getListenerQueueCapacity() {
+        return listenerQueueCapacity;
+    }
+
+    @Override
+    public void setListenerQueueOverflowPolicy(ListenerQueueOverflowPolicy policy) {
+        listenerQueueOverflowPolicy = Objects.requireNonNull(policy, "policy must not be null");
+    }
+
+    @Override
+    public ListenerQueueOverflowPolicy getListenerQueueOverflowPolicy() {
+        return listenerQueueOverflowPolicy;
+    }
+
+    @Override
+    public void setEventDispatchMetrics(EventDispatchMetrics metrics) {
+        eventDispatchMetrics = Objects.requireNonNull(metrics, "metrics must not be null");
+    }
+
+    @Override
+    public EventDispatchMetrics getEventDispatchMetrics() {
+        return eventDispatchMetrics;
+    }
+
+    @Override
+    public void setEventCoalescingWindow(Class<? extends GloballyAttachableListener> listenerClass, Duration window) {
+        Objects.requireNonNull(listenerClass, "listenerClass must not be null");
+        Objects.requireNonNull(window, "window must not be null");
+        if ((listenerClass != UserChangeStatusListener.class)
+                && (listenerClass != UserChangeActivityListener.class)
+                && (listenerClass != UserChangeNicknameListener.class)
+                && (listenerClass != UserStartTypingListener.class)) {
+            throw new IllegalArgumentException(
+                    "Events of " + listenerClass.getSimpleName() + " cannot be coalesced!");
+        }
+        if (window.isNegative()) {
+            throw new IllegalArgumentException("window cannot be negative!");
+        }
+        if (window.isZero()) {
+            eventCoalescingWindows.remove(listenerClass);
+        } else {
+            eventCoalescingWindows.put(listenerClass, window);
+        }
+    }
+
+    @Override
+    public Map<Class<? extends GloballyAttachableListener>, Duration> getEventCoalescingWindows() {
+        return Collections.unmodifiableMap(new HashMap<>(eventCoalescingWindows));
+    }
+
+    @Override
+    public void setShardResourceSharingEnabled(boolean enabled) {
+        shardResourceSharingEnabled = enabled;
+    }
+
+    @Override
+    public boolean isShardResourceSharingEnabled() {
+        return shardResourceSharingEnabled;
+    }
+
     @Override
     public CompletableFuture<Void> setRecommendedTotalShards() {
         CompletableFuture<Void> future = new CompletableFuture<>();
@@ -443,6 +740,7 @@ public class DiscordApiBuilderDelegateImpl implements DiscordApiBuilderDelegate
                 .thenAccept(resultJson -> {
                     DiscordWebSocketAdapter.setGateway(resultJson.get("url").asText());
                     setTotalShards(resultJson.get("shards").asInt());
+                    setRecommendedGatewayIdentifyMaxConcurrency(resultJson.path("session_start_limit"));
                     retryAttempt.set(0);
                     future.complete(null);
                 })
@@ -456,6 +754,18 @@ public class DiscordApiBuilderDelegateImpl implements DiscordApiBuilderDelegate
                 .whenComplete((nothing, throwable) -> api.disconnect());
     }
 
+    /**
+     * Sets the maximum amount of shards that may identify at the same time to the value reported by Discord, unless
+     * the user set a value.
+     *
+     * @param sessionStartLimit The session start limit of the bot gateway response.
+     */
+    private void setRecommendedGatewayIdentifyMaxConcurrency(JsonNode sessionStartLimit) {
+        if (!gatewayIdentifyMaxConcurrencySet && sessionStartLimit.hasNonNull("max_concurrency")) {
+            gatewayIdentifyMaxConcurrency = Math.max(sessionStartLimit.get("max_concurrency").asInt(), 1);
+        }
+    }
+
     @Override
     @SuppressWarnings("unchecked")
     public <T extends GloballyAttachableListener> void addListener(Class<T> listenerClass, T listener) {
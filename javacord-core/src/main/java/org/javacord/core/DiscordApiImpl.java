@@ -4,13 +4,16 @@ import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.ArrayNode;
 import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import okhttp3.Dispatcher;
 import okhttp3.Dns;
 import okhttp3.OkHttpClient;
 import okhttp3.logging.HttpLoggingInterceptor;
 import okhttp3.logging.HttpLoggingInterceptor.Level;
 import org.apache.logging.log4j.Logger;
 import org.javacord.api.DiscordApi;
+import org.javacord.api.GatewayEncoding;
 import org.javacord.api.Javacord;
+import org.javacord.api.ShardGroup;
 import org.javacord.api.entity.ApplicationInfo;
 import org.javacord.api.entity.DiscordEntity;
 import org.javacord.api.entity.activity.Activity;
@@ -54,8 +57,13 @@ import org.javacord.api.interaction.UserContextMenu;
 import org.javacord.api.listener.GloballyAttachableListener;
 import org.javacord.api.listener.ObjectAttachableListener;
 import org.javacord.api.util.auth.Authenticator;
+import org.javacord.api.util.cache.EntityCacheBackend;
 import org.javacord.api.util.concurrent.ThreadPool;
 import org.javacord.api.util.event.ListenerManager;
+import org.javacord.api.util.event.EventDispatchMetrics;
+import org.javacord.api.util.event.ListenerQueueOverflowPolicy;
+import org.javacord.api.util.event.NoOpEventDispatchMetrics;
+import org.javacord.api.util.gateway.GatewaySessionStore;
 import org.javacord.api.util.ratelimit.LocalRatelimiter;
 import org.javacord.api.util.ratelimit.Ratelimiter;
 import org.javacord.core.audio.AudioConnectionImpl;
@@ -84,9 +92,13 @@ import org.javacord.core.interaction.SlashCommandImpl;
 import org.javacord.core.interaction.UserContextMenuImpl;
 import org.javacord.core.util.ClassHelper;
 import org.javacord.core.util.Cleanupable;
-import org.javacord.core.util.cache.JavacordEntityCache;
+import org.javacord.core.util.cache.ConcurrentEntityCache;
+import org.javacord.core.util.cache.CopyOnWriteEntityCache;
+import org.javacord.core.util.cache.EntityCache;
+import org.javacord.core.util.cache.ImmutableLongMap;
 import org.javacord.core.util.concurrent.ThreadPoolImpl;
 import org.javacord.core.util.event.DispatchQueueSelector;
+import org.javacord.core.util.event.EventCoalescer;
 import org.javacord.core.util.event.EventDispatcher;
 import org.javacord.core.util.event.ListenerManagerImpl;
 import org.javacord.core.util.gateway.DiscordWebSocketAdapter;
@@ -102,6 +114,7 @@ import java.lang.ref.ReferenceQueue;
 import java.lang.ref.WeakReference;
 import java.net.Proxy;
 import java.net.ProxySelector;
+import java.nio.file.Path;
 import java.time.Duration;
 import java.util.AbstractMap.SimpleEntry;
 import java.util.ArrayList;
@@ -116,10 +129,11 @@ import java.util.Map.Entry;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
-import java.util.WeakHashMap;
 import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
@@ -152,18 +166,23 @@ public class DiscordApiImpl implements DiscordApi, DispatchQueueSelector {
      */
     private static final String BOT_TOKEN_PREFIX = "Bot ";
 
+    /**
+     * The maximum time in seconds the shutdown hook waits for the disconnect to finish.
+     */
+    private static final long SHUTDOWN_DISCONNECT_TIMEOUT_SECONDS = 30;
+
     /**
      * A map with the default gateway identify ratelimiter.
      *
-     * <p>The key is the bot's token (because ratelimits are per account) and the value is the ratelimiter for this
-     * token.
+     * <p>The key is the bot's token (because ratelimits are per account) and the identify bucket of the shard, which
+     * is the shard id modulo the maximum concurrency. The value is the ratelimiter for this bucket.
      */
     private static final Map<String, Ratelimiter> defaultGatewayIdentifyRatelimiter = new ConcurrentHashMap<>();
 
     /**
      * The thread pool which is used internally.
      */
-    private final ThreadPoolImpl threadPool = new ThreadPoolImpl();
+    private final ThreadPoolImpl threadPool;
 
     /**
      * The http client for this instance.
@@ -178,12 +197,17 @@ public class DiscordApiImpl implements DiscordApi, DispatchQueueSelector {
     /**
      * The object mapper for this instance.
      */
-    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ObjectMapper objectMapper;
 
     /**
      * The ratelimit manager for this bot.
      */
-    private final RatelimitManager ratelimitManager = new RatelimitManager(this);
+    private final RatelimitManager ratelimitManager;
+
+    /**
+     * The group of shards this shard shares its resources with. May be {@code null}.
+     */
+    private final ShardGroupImpl shardGroup;
 
     /**
      * The utility class to interact with uncached messages.
@@ -291,6 +315,21 @@ public class DiscordApiImpl implements DiscordApi, DispatchQueueSelector {
      */
     private final Ratelimiter gatewayIdentifyRatelimiter;
 
+    /**
+     * The maximum amount of shards that may identify at the same time.
+     */
+    private final int gatewayIdentifyMaxConcurrency;
+
+    /**
+     * The store which persists the gateway session across restarts. May be {@code null}.
+     */
+    private final GatewaySessionStore gatewaySessionStore;
+
+    /**
+     * The directory in which a snapshot of the cached entities is stored when disconnecting. May be {@code null}.
+     */
+    private final Path entityCacheSnapshotDirectory;
+
     /**
      * The proxy selector which should be used to determine the proxies that should be used to connect to the Discord
      * REST API and websocket.
@@ -328,15 +367,60 @@ public class DiscordApiImpl implements DiscordApi, DispatchQueueSelector {
     private volatile Long timeOffset = null;
 
     /**
-     * An immutable cache with all Javacord entities.
+     * A cache with all Javacord entities.
+     */
+    private final EntityCache entityCache;
+
+    /**
+     * The backend of the entity cache.
+     */
+    private final EntityCacheBackend entityCacheBackend;
+
+    /**
+     * The maximum amount of listener calls a dispatch thread handles in a row.
+     */
+    private final int eventDispatchBatchSize;
+
+    /**
+     * The maximum amount of queued listener calls per server.
+     */
+    private final int listenerQueueCapacity;
+
+    /**
+     * The policy that decides what happens if the listener queue of a server is full.
+     */
+    private final ListenerQueueOverflowPolicy listenerQueueOverflowPolicy;
+
+    /**
+     * The metrics which receive measurements about the dispatching of events.
+     */
+    private final EventDispatchMetrics eventDispatchMetrics;
+
+    /**
+     * The coalescer which merges bursts of events of opted-in listener types.
      */
-    private final AtomicReference<JavacordEntityCache> entityCache = new AtomicReference<>(JavacordEntityCache.empty());
+    private final EventCoalescer eventCoalescer;
 
     /**
      * Whether the user cache is enabled or not.
      */
     private final boolean userCacheEnabled;
 
+    /**
+     * Whether the gateway connection uses zlib-stream transport compression.
+     */
+    private final boolean gatewayTransportCompressionEnabled;
+
+    /**
+     * The encoding of the gateway messages.
+     */
+    private final GatewayEncoding gatewayEncoding;
+
+    /**
+     * Whether REST requests are executed without blocking threads.
+     */
+    private final boolean nonBlockingRestRequestsEnabled;
+
     /**
      * A map which contains all servers that are ready.
      */
@@ -377,21 +461,11 @@ public class DiscordApiImpl implements DiscordApi, DispatchQueueSelector {
 
     /**
      * A map with all cached messages.
+     *
+     * <p>The map is not guarded by a lock. Updates of a single message are atomic and iterations are weakly
+     * consistent, so message events of different channels do not contend with each other.
      */
-    private final Map<Long, WeakReference<Message>> messages = new ConcurrentHashMap<>();
-
-    /**
-     * A lock for accessing the message cache.
-     */
-    private final ReentrantLock messageCacheLock = new ReentrantLock();
-
-    /**
-     * A map to retrieve message IDs by the weak ref that point to the respective
-     * message or used to point to it for usage in the messages cleanup,
-     * as at cleanup time the weak ref is already emptied.
-     */
-    private final Map<Reference<? extends Message>, Long> messageIdByRef
-            = Collections.synchronizedMap(new WeakHashMap<>());
+    private final ConcurrentHashMap<Long, MessageReference> messages = new ConcurrentHashMap<>();
 
     /**
      * The queue that is notified if a message became weakly-reachable.
@@ -418,6 +492,36 @@ public class DiscordApiImpl implements DiscordApi, DispatchQueueSelector {
             Map<ObjectAttachableListener, ListenerManagerImpl<? extends ObjectAttachableListener>>>>>
             objectListeners = Collections.synchronizedMap(new ConcurrentHashMap<>());
 
+    /**
+     * A map which contains the amount of registered global and object listeners per listener class.
+     * Classes without any registered listener are not contained.
+     */
+    private final ConcurrentHashMap<Class<?>, Integer> listenerCounts = new ConcurrentHashMap<>();
+
+    /**
+     * A map which contains all order-independent listeners as its key and the amount of their listener managers,
+     * which marked them as order-independent, as its value.
+     */
+    private final ConcurrentHashMap<Object, Integer> orderIndependentListeners = new ConcurrentHashMap<>();
+
+    /**
+     * The dispatch table for globally attachable listeners.
+     * The key is the class of the listener, the value is an unmodifiable snapshot of the registered listeners in
+     * order of their addition. The snapshot is only rebuilt when a listener of the class is added or removed.
+     */
+    private final ConcurrentHashMap<Class<?>, List<?>> listenerDispatchTable = new ConcurrentHashMap<>();
+
+    /**
+     * The dispatch table for object listeners.
+     * The key of the outer map is the class which the listener was registered to, the key of the inner map is the
+     * class of the listener. The value is an immutable map with the id of the object as its key and an unmodifiable
+     * snapshot of the registered listeners in order of their addition as its value.
+     * The snapshots are only rebuilt when a listener is added or removed, while holding the lock of
+     * {@link #objectListeners}.
+     */
+    private final ConcurrentHashMap<Class<?>, ConcurrentHashMap<Class<?>, ImmutableLongMap<List<?>>>>
+            objectListenerDispatchTable = new ConcurrentHashMap<>();
+
     /**
      * Creates a new discord api instance that can be used for auto-ratelimited REST calls,
      * but does not connect to the Discord WebSocket.
@@ -481,7 +585,7 @@ public class DiscordApiImpl implements DiscordApi, DispatchQueueSelector {
     ) {
         this(token, currentShard, totalShards, intents, waitForServersOnStartup, waitForUsersOnStartup,
                 true, globalRatelimiter, gatewayIdentifyRatelimiter, proxySelector, proxy, proxyAuthenticator,
-                trustAllCertificates, ready, null, Collections.emptyMap(), Collections.emptyList(), false, true, null);
+                trustAllCertificates, ready, null);
     }
 
     /**
@@ -526,7 +630,10 @@ public class DiscordApiImpl implements DiscordApi, DispatchQueueSelector {
             Dns dns) {
         this(token, currentShard, totalShards, intents, waitForServersOnStartup, waitForUsersOnStartup,
                 true, globalRatelimiter, gatewayIdentifyRatelimiter, proxySelector, proxy, proxyAuthenticator,
-                trustAllCertificates, ready, dns, Collections.emptyMap(), Collections.emptyList(), false, true, null);
+                trustAllCertificates, ready, dns, Collections.emptyMap(), Collections.emptyList(), false, true, null,
+                true, GatewayEncoding.JSON, false, EntityCacheBackend.IMMUTABLE, 1, false, Integer.MAX_VALUE,
+                ListenerQueueOverflowPolicy.BLOCK, new NoOpEventDispatchMetrics(), Collections.emptyMap(), null, 1,
+                null, null);
     }
 
     /**
@@ -559,6 +666,26 @@ public class DiscordApiImpl implements DiscordApi, DispatchQueueSelector {
      * @param userCacheEnabled           Whether the user cache should be enabled.
      * @param dispatchEvents             Whether events can be dispatched.
      * @param defaultAllowedMentions     Controls who will be mentioned if mentions exist in a message.
+     * @param gatewayTransportCompressionEnabled Whether the gateway connection should use zlib-stream transport
+     *                                   compression.
+     * @param gatewayEncoding            The encoding of the gateway messages.
+     * @param nonBlockingRestRequestsEnabled Whether REST requests should be executed without blocking threads.
+     * @param entityCacheBackend         The backend of the entity cache.
+     * @param eventDispatchBatchSize     The maximum amount of listener calls a dispatch thread handles in a row.
+     * @param virtualThreadsEnabled      Whether tasks of the thread pool's executor service should be executed on
+     *                                   virtual threads.
+     * @param listenerQueueCapacity      The maximum amount of queued listener calls per server.
+     * @param listenerQueueOverflowPolicy The policy that decides what happens if the listener queue of a server is
+     *                                   full.
+     * @param eventDispatchMetrics       The metrics which receive measurements about the dispatching of events.
+     * @param eventCoalescingWindows     The coalescing windows by listener type.
+     * @param shardGroup                 The group of shards this shard shares its resources with. May be
+     *                                   {@code null}.
+     * @param gatewayIdentifyMaxConcurrency The maximum amount of shards that may identify at the same time.
+     * @param gatewaySessionStore        The store which persists the gateway session across restarts. May be
+     *                                   {@code null}.
+     * @param entityCacheSnapshotDirectory The directory in which a snapshot of the cached entities is stored when
+     *                                   disconnecting. May be {@code null}.
      */
     @SuppressWarnings("unchecked")
     public DiscordApiImpl(
@@ -583,7 +710,21 @@ public class DiscordApiImpl implements DiscordApi, DispatchQueueSelector {
             List<Function<DiscordApi, GloballyAttachableListener>> unspecifiedListeners,
             boolean userCacheEnabled,
             boolean dispatchEvents,
-            AllowedMentions defaultAllowedMentions
+            AllowedMentions defaultAllowedMentions,
+            boolean gatewayTransportCompressionEnabled,
+            GatewayEncoding gatewayEncoding,
+            boolean nonBlockingRestRequestsEnabled,
+            EntityCacheBackend entityCacheBackend,
+            int eventDispatchBatchSize,
+            boolean virtualThreadsEnabled,
+            int listenerQueueCapacity,
+            ListenerQueueOverflowPolicy listenerQueueOverflowPolicy,
+            EventDispatchMetrics eventDispatchMetrics,
+            Map<Class<? extends GloballyAttachableListener>, Duration> eventCoalescingWindows,
+            ShardGroupImpl shardGroup,
+            int gatewayIdentifyMaxConcurrency,
+            GatewaySessionStore gatewaySessionStore,
+            Path entityCacheSnapshotDirectory
     ) {
         this.token = token;
         this.currentShard = currentShard;
@@ -592,6 +733,9 @@ public class DiscordApiImpl implements DiscordApi, DispatchQueueSelector {
         this.waitForUsersOnStartup = waitForUsersOnStartup;
         this.globalRatelimiter = globalRatelimiter;
         this.gatewayIdentifyRatelimiter = gatewayIdentifyRatelimiter;
+        this.gatewayIdentifyMaxConcurrency = gatewayIdentifyMaxConcurrency;
+        this.gatewaySessionStore = gatewaySessionStore;
+        this.entityCacheSnapshotDirectory = entityCacheSnapshotDirectory;
         this.proxySelector = proxySelector;
         this.proxy = proxy;
         this.proxyAuthenticator = proxyAuthenticator;
@@ -599,6 +743,24 @@ public class DiscordApiImpl implements DiscordApi, DispatchQueueSelector {
         this.userCacheEnabled = userCacheEnabled;
         this.dispatchEvents = dispatchEvents;
         this.defaultAllowedMentions = defaultAllowedMentions;
+        this.gatewayTransportCompressionEnabled = gatewayTransportCompressionEnabled;
+        this.gatewayEncoding = gatewayEncoding;
+        this.nonBlockingRestRequestsEnabled = nonBlockingRestRequestsEnabled;
+        this.entityCacheBackend = entityCacheBackend;
+        this.eventDispatchBatchSize = eventDispatchBatchSize;
+        this.shardGroup = shardGroup;
+        this.threadPool = shardGroup == null
+                ? new ThreadPoolImpl(virtualThreadsEnabled)
+                : shardGroup.createThreadPool(this);
+        this.objectMapper = shardGroup == null ? new ObjectMapper() : shardGroup.getObjectMapper();
+        this.ratelimitManager = shardGroup == null ? new RatelimitManager() : shardGroup.getRatelimitManager();
+        this.listenerQueueCapacity = listenerQueueCapacity;
+        this.listenerQueueOverflowPolicy = listenerQueueOverflowPolicy;
+        this.eventDispatchMetrics = eventDispatchMetrics;
+        this.eventCoalescer = new EventCoalescer(this, eventCoalescingWindows);
+        this.entityCache = entityCacheBackend == EntityCacheBackend.CONCURRENT
+                ? new ConcurrentEntityCache()
+                : new CopyOnWriteEntityCache();
         this.reconnectDelayProvider = x ->
                 (int) Math.round(Math.pow(x, 1.5) - (1 / (1 / (0.1 * x) + 1)) * Math.pow(x, 1.5));
         //Always add the GUILDS intent unless it is not required anymore for Javacord to be functional.
@@ -628,14 +790,25 @@ public class DiscordApiImpl implements DiscordApi, DispatchQueueSelector {
         if (dns != null) {
             httpClientBuilder.dns(dns);
         }
+        if (nonBlockingRestRequestsEnabled) {
+            // All requests go to the same host, so the default limit of 5 concurrent requests per host is too low
+            Dispatcher dispatcher = new Dispatcher();
+            dispatcher.setMaxRequestsPerHost(dispatcher.getMaxRequests());
+            httpClientBuilder.dispatcher(dispatcher);
+        }
         if (trustAllCertificates) {
             logger.warn("All SSL certificates are trusted when connecting to the Discord API and websocket. "
                     + "This increases the risk of man-in-the-middle attacks!");
             TrustAllTrustManager trustManager = new TrustAllTrustManager();
             httpClientBuilder.sslSocketFactory(trustManager.createSslSocketFactory(), trustManager);
         }
-        this.httpClient = httpClientBuilder.build();
+        this.httpClient = shardGroup == null
+                ? httpClientBuilder.build()
+                : shardGroup.getHttpClient(httpClientBuilder::build);
         this.eventDispatcher = new EventDispatcher(this);
+        if (shardGroup != null) {
+            shardGroup.addShard(this);
+        }
 
         if (ready != null) {
             getThreadPool().getExecutorService().submit(() -> {
@@ -681,51 +854,68 @@ public class DiscordApiImpl implements DiscordApi, DispatchQueueSelector {
 
             // After minimum JDK 9 is required this can be switched to use a Cleaner
             getThreadPool().getScheduler().scheduleWithFixedDelay(() -> {
-                messageCacheLock.lock();
                 try {
-                    for (Reference<? extends Message> messageRef = messagesCleanupQueue.poll();
-                            messageRef != null;
-                            messageRef = messagesCleanupQueue.poll()) {
-                        Long messageId = messageIdByRef.remove(messageRef);
-                        if (messageId != null) {
-                            messages.remove(messageId, messageRef);
-                        }
-                    }
+                    removeCollectedMessagesFromCache();
                 } catch (Throwable t) {
                     logger.error("Failed to process messages cleanup queue!", t);
-                } finally {
-                    messageCacheLock.unlock();
                 }
             }, 30, 30, TimeUnit.SECONDS);
 
             if (registerShutdownHook) {
                 // Add shutdown hook
-                ready.thenAccept(api -> {
-                    WeakReference<DiscordApi> discordApiReference = new WeakReference<>(api);
-                    Runtime.getRuntime().addShutdownHook(new Thread(() -> Optional.ofNullable(discordApiReference.get())
-                            .ifPresent(DiscordApi::disconnect),
-                            String.format("Javacord - Shutdown Disconnector (%s)", api)));
-                });
+                ready.thenAccept(api -> addShutdownHook());
             }
         } else {
             if (registerShutdownHook) {
-                WeakReference<DiscordApi> discordApiReference = new WeakReference<>(this);
-                Runtime.getRuntime().addShutdownHook(new Thread(() -> Optional.ofNullable(discordApiReference.get())
-                        .ifPresent(DiscordApi::disconnect),
-                        String.format("Javacord - Shutdown Disconnector (%s)", this)));
+                addShutdownHook();
             }
         }
     }
 
+    /**
+     * Adds a shutdown hook which disconnects the bot.
+     *
+     * <p>If a gateway session store or an entity cache snapshot directory is configured, the hook waits for the
+     * disconnect to finish, as the session and the snapshot are saved while disconnecting and the JVM exits as soon as
+     * all shutdown hooks are done.
+     */
+    private void addShutdownHook() {
+        boolean awaitDisconnect = (gatewaySessionStore != null) || (entityCacheSnapshotDirectory != null);
+        WeakReference<DiscordApi> discordApiReference = new WeakReference<>(this);
+        Runtime.getRuntime().addShutdownHook(new Thread(() -> Optional.ofNullable(discordApiReference.get())
+                .map(DiscordApi::disconnect)
+                .filter(disconnected -> awaitDisconnect)
+                .ifPresent(disconnected -> {
+                    try {
+                        disconnected.get(SHUTDOWN_DISCONNECT_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    } catch (ExecutionException | TimeoutException e) {
+                        logger.warn("Failed to disconnect within {} seconds on shutdown, the gateway session and the"
+                                + " entity cache snapshot might not be saved", SHUTDOWN_DISCONNECT_TIMEOUT_SECONDS, e);
+                    }
+                }),
+                String.format("Javacord - Shutdown Disconnector (%s)", this)));
+    }
+
     /**
      * Gets the entity cache.
      *
      * @return The entity cache.
      */
-    public AtomicReference<JavacordEntityCache> getEntityCache() {
+    public EntityCache getEntityCache() {
         return entityCache;
     }
 
+    /**
+     * Gets the backend of the entity cache.
+     *
+     * @return The backend of the entity cache.
+     */
+    public EntityCacheBackend getEntityCacheBackend() {
+        return entityCacheBackend;
+    }
+
     /**
      * Checks if the user cache is enabled.
      *
@@ -735,6 +925,60 @@ public class DiscordApiImpl implements DiscordApi, DispatchQueueSelector {
         return userCacheEnabled;
     }
 
+    /**
+     * Checks if the gateway connection uses zlib-stream transport compression.
+     *
+     * @return Whether transport compression is enabled.
+     */
+    public boolean isGatewayTransportCompressionEnabled() {
+        return gatewayTransportCompressionEnabled;
+    }
+
+    /**
+     * Gets the encoding of the gateway messages.
+     *
+     * @return The gateway encoding.
+     */
+    public GatewayEncoding getGatewayEncoding() {
+        return gatewayEncoding;
+    }
+
+    /**
+     * Checks if REST requests are executed without blocking threads.
+     *
+     * @return Whether non-blocking REST requests are enabled.
+     */
+    public boolean isNonBlockingRestRequestsEnabled() {
+        return nonBlockingRestRequestsEnabled;
+    }
+
+    /**
+     * Gets the maximum amount of listener calls a dispatch thread handles in a row.
+     *
+     * @return The event dispatch batch size.
+     */
+    public int getEventDispatchBatchSize() {
+        return eventDispatchBatchSize;
+    }
+
+    /**
+     * Gets the maximum amount of queued listener calls per server.
+     *
+     * @return The listener queue capacity.
+     */
+    public int getListenerQueueCapacity() {
+        return listenerQueueCapacity;
+    }
+
+    /**
+     * Gets the policy that decides what happens if the listener queue of a server is full.
+     *
+     * @return The listener queue overflow policy.
+     */
+    public ListenerQueueOverflowPolicy getListenerQueueOverflowPolicy() {
+        return listenerQueueOverflowPolicy;
+    }
+
     @Override
     public void setEventsDispatchable(boolean dispatchEvents) {
         this.dispatchEvents = dispatchEvents;
@@ -803,20 +1047,14 @@ public class DiscordApiImpl implements DiscordApi, DispatchQueueSelector {
                 .map(Cleanupable.class::cast)
                 .forEach(Cleanupable::cleanup);
         servers.clear();
-        entityCache.get().getChannelCache().getChannels().stream()
+        entityCache.getChannelCache().getChannels().stream()
                 .filter(Cleanupable.class::isInstance)
                 .map(Cleanupable.class::cast)
                 .forEach(Cleanupable::cleanup);
-        entityCache.set(JavacordEntityCache.empty());
+        entityCache.clear();
         unavailableServers.clear();
         customEmojis.clear();
-        messageCacheLock.lock();
-        try {
-            messages.clear();
-            messageIdByRef.clear();
-        } finally {
-            messageCacheLock.unlock();
-        }
+        messages.clear();
         timeOffset = null;
     }
 
@@ -941,13 +1179,10 @@ public class DiscordApiImpl implements DiscordApi, DispatchQueueSelector {
      * @param channel The channel to add.
      */
     public void addChannelToCache(Channel channel) {
-        entityCache.getAndUpdate(cache -> {
-            Channel oldChannel = cache.getChannelCache().getChannelById(channel.getId()).orElse(null);
-            if (oldChannel != channel && oldChannel instanceof Cleanupable) {
-                ((Cleanupable) oldChannel).cleanup();
-            }
-            return cache.updateChannelCache(channelCache -> channelCache.addChannel(channel));
-        });
+        Channel oldChannel = entityCache.addChannel(channel);
+        if (oldChannel != channel && oldChannel instanceof Cleanupable) {
+            ((Cleanupable) oldChannel).cleanup();
+        }
     }
 
     /**
@@ -957,12 +1192,9 @@ public class DiscordApiImpl implements DiscordApi, DispatchQueueSelector {
      * @param mapper A function that takes the old user presence (or null) and returns the new user presence.
      */
     public void updateUserPresence(long userId, UnaryOperator<UserPresence> mapper) {
-        entityCache.getAndUpdate(cache -> {
-            UserPresence presence = cache.getUserPresenceCache().getPresenceByUserId(userId)
-                    .orElseGet(() -> new UserPresence(userId, null, null, io.vavr.collection.HashMap.empty()));
-            return cache.updateUserPresenceCache(userPresenceCache ->
-                    userPresenceCache.removeUserPresence(presence).addUserPresence(mapper.apply(presence)));
-        });
+        entityCache.updateUserPresence(userId, presence -> mapper.apply(presence == null
+                ? new UserPresence(userId, null, null, io.vavr.collection.HashMap.empty())
+                : presence));
     }
 
     /**
@@ -971,29 +1203,27 @@ public class DiscordApiImpl implements DiscordApi, DispatchQueueSelector {
      * @param channelId The id of the channel to remove.
      */
     public void removeChannelFromCache(long channelId) {
-        entityCache.getAndUpdate(cache -> {
-            Channel channel = cache.getChannelCache().getChannelById(channelId).orElse(null);
-            if (channel == null) {
-                return cache;
-            }
-
-            //Remove all ServerThreadChannels when the parent channel is removed
-            channel.asServerChannel().ifPresent(serverChannel -> {
-                if (serverChannel.asServerThreadChannel().isPresent()) {
-                    return;
-                }
-
-                serverChannel.getServer().getThreadChannels().stream()
-                        .filter(c -> c.getParent().getId() == serverChannel.getId())
-                        .mapToLong(DiscordEntity::getId)
-                        .forEach(this::removeChannelFromCache);
-            });
+        Channel channel = entityCache.getChannelCache().getChannelById(channelId).orElse(null);
+        if (channel == null) {
+            return;
+        }
 
-            if (channel instanceof Cleanupable) {
-                ((Cleanupable) channel).cleanup();
+        //Remove all ServerThreadChannels when the parent channel is removed
+        channel.asServerChannel().ifPresent(serverChannel -> {
+            if (serverChannel.asServerThreadChannel().isPresent()) {
+                return;
             }
-            return cache.updateChannelCache(channelCache -> channelCache.removeChannel(channel));
+
+            serverChannel.getServer().getThreadChannels().stream()
+                    .filter(c -> c.getParent().getId() == serverChannel.getId())
+                    .mapToLong(DiscordEntity::getId)
+                    .forEach(this::removeChannelFromCache);
         });
+
+        Channel removedChannel = entityCache.removeChannel(channelId);
+        if (removedChannel instanceof Cleanupable) {
+            ((Cleanupable) removedChannel).cleanup();
+        }
     }
 
     /**
@@ -1005,12 +1235,21 @@ public class DiscordApiImpl implements DiscordApi, DispatchQueueSelector {
         if (!isUserCacheEnabled()) {
             return;
         }
-        entityCache.getAndUpdate(cache -> {
-            Member oldMember = cache.getMemberCache()
-                    .getMemberByIdAndServer(member.getId(), member.getServer().getId())
-                    .orElse(null);
-            return cache.updateMemberCache(memberCache -> memberCache.removeMember(oldMember).addMember(member));
-        });
+        entityCache.addMemberOrReplaceExisting(member);
+    }
+
+    /**
+     * Adds members to the cache.
+     *
+     * <p>All members are added at once, which is a lot cheaper than adding them one by one.
+     *
+     * @param members The members to add.
+     */
+    public void addMembersToCache(Collection<Member> members) {
+        if (!isUserCacheEnabled() || members.isEmpty()) {
+            return;
+        }
+        entityCache.addMembersOrReplaceExisting(members);
     }
 
     /**
@@ -1019,16 +1258,7 @@ public class DiscordApiImpl implements DiscordApi, DispatchQueueSelector {
      * @param user The new user object.
      */
     public void updateUserOfAllMembers(User user) {
-        entityCache.getAndUpdate(cache -> {
-            JavacordEntityCache newCache = cache;
-            for (Member member : cache.getMemberCache().getMembersById(user.getId())) {
-                newCache = newCache.updateMemberCache(memberCache -> memberCache
-                        .removeMember(member)
-                        .addMember(((MemberImpl) member).setUser((UserImpl) user))
-                );
-            }
-            return newCache;
-        });
+        entityCache.updateMembersById(user.getId(), member -> ((MemberImpl) member).setUser((UserImpl) user));
     }
 
     /**
@@ -1038,13 +1268,7 @@ public class DiscordApiImpl implements DiscordApi, DispatchQueueSelector {
      * @param serverId The id of the member's server.
      */
     public void removeMemberFromCache(long memberId, long serverId) {
-        entityCache.getAndUpdate(cache -> {
-            Member member = cache.getMemberCache().getMemberByIdAndServer(memberId, serverId).orElse(null);
-            if (member == null) {
-                return cache;
-            }
-            return cache.updateMemberCache(memberCache -> memberCache.removeMember(member));
-        });
+        entityCache.removeMember(memberId, serverId);
     }
 
     /**
@@ -1199,33 +1423,30 @@ public class DiscordApiImpl implements DiscordApi, DispatchQueueSelector {
      */
     public Message getOrCreateMessage(TextChannel channel, JsonNode data) {
         long id = Long.parseLong(data.get("id").asText());
-        messageCacheLock.lock();
-        try {
-            return getCachedMessageById(id).orElseGet(() -> new MessageImpl(this, channel, data));
-        } finally {
-            messageCacheLock.unlock();
-        }
+        return getCachedMessageById(id).orElseGet(() -> {
+            Message message = new MessageImpl(this, channel, data);
+            // If another thread created the same message concurrently, the instance that was cached first wins
+            return getCachedMessageById(id).orElse(message);
+        });
     }
 
     /**
      * Adds a message to the cache.
      *
+     * <p>If the cache already contains another instance of the same message, the cache is not changed.
+     *
      * @param message The message to add.
-     */
-    public void addMessageToCache(Message message) {
-        messageCacheLock.lock();
-        try {
-            messages.compute(message.getId(), (key, value) -> {
-                if ((value == null) || (value.get() == null)) {
-                    WeakReference<Message> result = new WeakReference<>(message, messagesCleanupQueue);
-                    messageIdByRef.put(result, key);
-                    return result;
-                }
-                return value;
-            });
-        } finally {
-            messageCacheLock.unlock();
-        }
+     * @return The cached instance of the message.
+     */
+    public Message addMessageToCache(Message message) {
+        MessageReference[] cachedRef = new MessageReference[1];
+        messages.compute(message.getId(), (key, value) -> {
+            Message cachedMessage = value == null ? null : value.get();
+            cachedRef[0] = cachedMessage == null ? new MessageReference(message, messagesCleanupQueue) : value;
+            return cachedRef[0];
+        });
+        Message cachedMessage = cachedRef[0].get();
+        return cachedMessage == null ? message : cachedMessage;
     }
 
     /**
@@ -1234,14 +1455,17 @@ public class DiscordApiImpl implements DiscordApi, DispatchQueueSelector {
      * @param messageId The id of the message to remove.
      */
     public void removeMessageFromCache(long messageId) {
-        messageCacheLock.lock();
-        try {
-            WeakReference<Message> messageRef = messages.remove(messageId);
-            if (messageRef != null) {
-                messageIdByRef.remove(messageRef, messageId);
-            }
-        } finally {
-            messageCacheLock.unlock();
+        messages.remove(messageId);
+    }
+
+    /**
+     * Removes all messages that were garbage collected from the cache.
+     */
+    private void removeCollectedMessagesFromCache() {
+        for (Reference<? extends Message> messageRef = messagesCleanupQueue.poll();
+                messageRef != null;
+                messageRef = messagesCleanupQueue.poll()) {
+            messages.remove(((MessageReference) messageRef).messageId, messageRef);
         }
     }
 
@@ -1261,13 +1485,60 @@ public class DiscordApiImpl implements DiscordApi, DispatchQueueSelector {
     @SuppressWarnings("unchecked")
     public <T extends ObjectAttachableListener> ListenerManager<T> addObjectListener(
             Class<?> objectClass, long objectId, Class<T> listenerClass, T listener) {
-        Map<ObjectAttachableListener, ListenerManagerImpl<? extends ObjectAttachableListener>> listeners =
-                objectListeners
-                        .computeIfAbsent(objectClass, key -> new ConcurrentHashMap<>())
-                        .computeIfAbsent(objectId, key -> new ConcurrentHashMap<>())
-                        .computeIfAbsent(listenerClass, c -> Collections.synchronizedMap(new LinkedHashMap<>()));
-        return (ListenerManager<T>) listeners.computeIfAbsent(
-                listener, key -> new ListenerManagerImpl<>(this, listener, listenerClass, objectClass, objectId));
+        synchronized (objectListeners) {
+            Map<ObjectAttachableListener, ListenerManagerImpl<? extends ObjectAttachableListener>> listeners =
+                    objectListeners
+                            .computeIfAbsent(objectClass, key -> new ConcurrentHashMap<>())
+                            .computeIfAbsent(objectId, key -> new ConcurrentHashMap<>())
+                            .computeIfAbsent(listenerClass, c -> Collections.synchronizedMap(new LinkedHashMap<>()));
+            ListenerManagerImpl<? extends ObjectAttachableListener> listenerManager = listeners.get(listener);
+            if (listenerManager != null) {
+                return (ListenerManager<T>) listenerManager;
+            }
+            listenerManager = new ListenerManagerImpl<>(this, listener, listenerClass, objectClass, objectId);
+            listeners.put(listener, listenerManager);
+            listenerCounts.merge(listenerClass, 1, Integer::sum);
+            updateObjectListenerDispatchTable(objectClass, objectId, listenerClass, listeners);
+            return (ListenerManager<T>) listenerManager;
+        }
+    }
+
+    /**
+     * Rebuilds the dispatch table entry for the given object and listener class.
+     * The caller must hold the lock of {@link #objectListeners}.
+     *
+     * @param objectClass    The class of the object.
+     * @param objectId       The id of the object.
+     * @param listenerClass  The listener class.
+     * @param classListeners The currently registered listeners of the listener class for the object.
+     */
+    private void updateObjectListenerDispatchTable(
+            Class<?> objectClass, long objectId, Class<?> listenerClass, Map<?, ?> classListeners) {
+        ConcurrentHashMap<Class<?>, ImmutableLongMap<List<?>>> objectClassTable =
+                objectListenerDispatchTable.computeIfAbsent(objectClass, key -> new ConcurrentHashMap<>());
+        ImmutableLongMap<List<?>> table = objectClassTable.getOrDefault(listenerClass, ImmutableLongMap.empty());
+        List<?> snapshot = snapshotListeners(classListeners);
+        table = snapshot.isEmpty() ? table.remove(objectId) : table.put(objectId, snapshot);
+        if (table.isEmpty()) {
+            objectClassTable.remove(listenerClass);
+        } else {
+            objectClassTable.put(listenerClass, table);
+        }
+    }
+
+    /**
+     * Creates an unmodifiable snapshot of the keys of the given listener map in their iteration order.
+     *
+     * @param classListeners The synchronized listener map.
+     * @return An unmodifiable snapshot of the listeners.
+     */
+    private static List<?> snapshotListeners(Map<?, ?> classListeners) {
+        synchronized (classListeners) {
+            if (classListeners.isEmpty()) {
+                return Collections.emptyList();
+            }
+            return Collections.unmodifiableList(new ArrayList<>(classListeners.keySet()));
+        }
     }
 
     /**
@@ -1306,6 +1577,8 @@ public class DiscordApiImpl implements DiscordApi, DispatchQueueSelector {
                 return;
             }
             classListeners.remove(listener);
+            decrementListenerCount(listenerClass, 1);
+            updateObjectListenerDispatchTable(objectClass, objectId, listenerClass, classListeners);
             listenerManager.removed();
             // Clean it up
             if (classListeners.isEmpty()) {
@@ -1339,6 +1612,10 @@ public class DiscordApiImpl implements DiscordApi, DispatchQueueSelector {
             }
             // Remove all listeners
             objects.computeIfPresent(objectId, (id, listeners) -> {
+                listeners.forEach((listenerClass, classListeners) -> {
+                    decrementListenerCount(listenerClass, classListeners.size());
+                    updateObjectListenerDispatchTable(objectClass, objectId, listenerClass, Collections.emptyMap());
+                });
                 listeners.values().stream()
                         .flatMap(map -> map.values().stream())
                         .forEach(ListenerManagerImpl::removed);
@@ -1385,6 +1662,8 @@ public class DiscordApiImpl implements DiscordApi, DispatchQueueSelector {
     /**
      * Gets all object listeners of the given class.
      *
+     * <p>The returned list is an unmodifiable snapshot from the dispatch table, so this method does not allocate.
+     *
      * @param objectClass   The class of the object.
      * @param objectId      The id of the object.
      * @param listenerClass The listener class.
@@ -1394,13 +1673,18 @@ public class DiscordApiImpl implements DiscordApi, DispatchQueueSelector {
     @SuppressWarnings("unchecked")
     public <T extends ObjectAttachableListener> List<T> getObjectListeners(
             Class<?> objectClass, long objectId, Class<T> listenerClass) {
-        return Collections.unmodifiableList((List<T>) Optional.ofNullable(objectClass)
-                .map(objectListeners::get)
-                .map(objectListener -> objectListener.get(objectId))
-                .map(listeners -> listeners.get(listenerClass))
-                .map(Map::keySet)
-                .map(ArrayList::new)
-                .orElseGet(ArrayList::new));
+        if (objectClass == null || listenerClass == null) {
+            return Collections.emptyList();
+        }
+        Map<Class<?>, ImmutableLongMap<List<?>>> objectClassTable = objectListenerDispatchTable.get(objectClass);
+        if (objectClassTable == null) {
+            return Collections.emptyList();
+        }
+        ImmutableLongMap<List<?>> table = objectClassTable.get(listenerClass);
+        if (table == null) {
+            return Collections.emptyList();
+        }
+        return (List<T>) table.getOrDefault(objectId, Collections.emptyList());
     }
 
     @Override
@@ -1419,11 +1703,10 @@ public class DiscordApiImpl implements DiscordApi, DispatchQueueSelector {
     @Override
     @SuppressWarnings("unchecked")
     public <T extends GloballyAttachableListener> List<T> getListeners(Class<T> listenerClass) {
-        return Collections.unmodifiableList((List<T>) Optional.ofNullable(listenerClass)
-                .map(listeners::get)
-                .map(Map::keySet)
-                .map(ArrayList::new)
-                .orElseGet(ArrayList::new));
+        if (listenerClass == null) {
+            return Collections.emptyList();
+        }
+        return (List<T>) listenerDispatchTable.getOrDefault(listenerClass, Collections.emptyList());
     }
 
     @Override
@@ -1676,6 +1959,24 @@ public class DiscordApiImpl implements DiscordApi, DispatchQueueSelector {
      *       so for the end user it is in fact never null.
      */
 
+    /**
+     * Gets the store which persists the gateway session across restarts.
+     *
+     * @return The gateway session store.
+     */
+    public Optional<GatewaySessionStore> getGatewaySessionStore() {
+        return Optional.ofNullable(gatewaySessionStore);
+    }
+
+    /**
+     * Gets the directory in which a snapshot of the cached entities is stored when disconnecting.
+     *
+     * @return The directory in which the snapshots are stored.
+     */
+    public Optional<Path> getEntityCacheSnapshotDirectory() {
+        return Optional.ofNullable(entityCacheSnapshotDirectory);
+    }
+
     /**
      * Gets the websocket adapter which is used to connect to Discord.
      *
@@ -1699,9 +2000,10 @@ public class DiscordApiImpl implements DiscordApi, DispatchQueueSelector {
     @Override
     public Ratelimiter getGatewayIdentifyRatelimiter() {
         if (gatewayIdentifyRatelimiter == null) {
+            // Shards in different buckets may identify at the same time
             return defaultGatewayIdentifyRatelimiter.computeIfAbsent(
-                    getToken(),
-                    (token) -> new LocalRatelimiter(1, Duration.ofMillis(5500))
+                    getToken() + ':' + (currentShard % gatewayIdentifyMaxConcurrency),
+                    (key) -> new LocalRatelimiter(1, Duration.ofMillis(5500))
             );
         }
         return gatewayIdentifyRatelimiter;
@@ -1712,6 +2014,35 @@ public class DiscordApiImpl implements DiscordApi, DispatchQueueSelector {
         return Duration.ofNanos(latestGatewayLatencyNanos);
     }
 
+    @Override
+    public int getQueuedListenerTaskCount() {
+        return eventDispatcher.getQueuedListenerTaskCount();
+    }
+
+    @Override
+    public int getQueuedListenerTaskCount(Server server) {
+        return eventDispatcher.getQueuedListenerTaskCount((ServerImpl) server);
+    }
+
+    @Override
+    public long getDroppedListenerTaskCount() {
+        return eventDispatcher.getDroppedListenerTaskCount();
+    }
+
+    @Override
+    public EventDispatchMetrics getEventDispatchMetrics() {
+        return eventDispatchMetrics;
+    }
+
+    /**
+     * Gets the coalescer which merges bursts of events of opted-in listener types.
+     *
+     * @return The event coalescer.
+     */
+    public EventCoalescer getEventCoalescer() {
+        return eventCoalescer;
+    }
+
     @Override
     public CompletableFuture<Duration> measureRestLatency() {
         return CompletableFuture.supplyAsync(() -> {
@@ -1774,6 +2105,11 @@ public class DiscordApiImpl implements DiscordApi, DispatchQueueSelector {
         return totalShards;
     }
 
+    @Override
+    public Optional<ShardGroup> getShardGroup() {
+        return Optional.ofNullable(shardGroup);
+    }
+
     @Override
     public boolean isWaitingForServersOnStartup() {
         return waitForServersOnStartup;
@@ -1989,12 +2325,12 @@ public class DiscordApiImpl implements DiscordApi, DispatchQueueSelector {
 
     @Override
     public Set<User> getCachedUsers() {
-        return getEntityCache().get().getMemberCache().getUserCache().getUsers();
+        return getEntityCache().getMemberCache().getUserCache().getUsers();
     }
 
     @Override
     public Optional<User> getCachedUserById(long id) {
-        return getEntityCache().get().getMemberCache().getUserCache().getUserById(id);
+        return getEntityCache().getMemberCache().getUserCache().getUserById(id);
     }
 
     @Override
@@ -2008,15 +2344,10 @@ public class DiscordApiImpl implements DiscordApi, DispatchQueueSelector {
 
     @Override
     public MessageSet getCachedMessages() {
-        messageCacheLock.lock();
-        try {
-            return new MessageSetImpl(messages.values().stream()
-                    .map(Reference::get)
-                    .filter(Objects::nonNull)
-                    .collect(Collectors.toList()));
-        } finally {
-            messageCacheLock.unlock();
-        }
+        return new MessageSetImpl(messages.values().stream()
+                .map(Reference::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList()));
     }
 
     /**
@@ -2026,16 +2357,11 @@ public class DiscordApiImpl implements DiscordApi, DispatchQueueSelector {
      * @return The cached messages satisfying the condition.
      */
     public MessageSet getCachedMessagesWhere(Predicate<Message> filter) {
-        messageCacheLock.lock();
-        try {
-            return new MessageSetImpl(messages.values().stream()
-                    .map(Reference::get)
-                    .filter(Objects::nonNull)
-                    .filter(filter)
-                    .collect(Collectors.toList()));
-        } finally {
-            messageCacheLock.unlock();
-        }
+        return new MessageSetImpl(messages.values().stream()
+                .map(Reference::get)
+                .filter(Objects::nonNull)
+                .filter(filter)
+                .collect(Collectors.toList()));
     }
 
     /**
@@ -2045,26 +2371,17 @@ public class DiscordApiImpl implements DiscordApi, DispatchQueueSelector {
      * @param action The action to be applied to the messages.
      */
     public void forEachCachedMessageWhere(Predicate<Message> filter, Consumer<Message> action) {
-        messageCacheLock.lock();
-        try {
-            messages.values().stream()
-                    .map(Reference::get)
-                    .filter(Objects::nonNull)
-                    .filter(filter)
-                    .forEach(action);
-        } finally {
-            messageCacheLock.unlock();
-        }
+        // The iteration is weakly consistent, so the action may safely add or remove messages
+        messages.values().stream()
+                .map(Reference::get)
+                .filter(Objects::nonNull)
+                .filter(filter)
+                .forEach(action);
     }
 
     @Override
     public Optional<Message> getCachedMessageById(long id) {
-        messageCacheLock.lock();
-        try {
-            return Optional.ofNullable(messages.get(id)).map(Reference::get);
-        } finally {
-            messageCacheLock.unlock();
-        }
+        return Optional.ofNullable(messages.get(id)).map(Reference::get);
     }
 
     @Override
@@ -2102,48 +2419,48 @@ public class DiscordApiImpl implements DiscordApi, DispatchQueueSelector {
 
     @Override
     public Set<Channel> getChannels() {
-        return entityCache.get().getChannelCache().getChannels();
+        return entityCache.getChannelCache().getChannels();
     }
 
     @Override
     public Set<PrivateChannel> getPrivateChannels() {
-        return entityCache.get().getChannelCache().getChannelsWithTypes(ChannelType.PRIVATE_CHANNEL);
+        return entityCache.getChannelCache().getChannelsWithTypes(ChannelType.PRIVATE_CHANNEL);
     }
 
     @Override
     public Set<ServerChannel> getServerChannels() {
-        return entityCache.get().getChannelCache().getChannelsWithTypes(ChannelType.getServerChannelTypes());
+        return entityCache.getChannelCache().getChannelsWithTypes(ChannelType.getServerChannelTypes());
     }
 
     @Override
     public Set<RegularServerChannel> getRegularServerChannels() {
-        return entityCache.get().getChannelCache().getChannelsWithTypes(ChannelType.getRegularServerChannelTypes());
+        return entityCache.getChannelCache().getChannelsWithTypes(ChannelType.getRegularServerChannelTypes());
     }
 
     @Override
     public Set<TextableRegularServerChannel> getTextableRegularServerChannels() {
-        return entityCache.get().getChannelCache()
+        return entityCache.getChannelCache()
                 .getChannelsWithTypes(ChannelType.getTextableRegularServerChannelTypes());
     }
 
     @Override
     public Set<ChannelCategory> getChannelCategories() {
-        return entityCache.get().getChannelCache().getChannelsWithTypes(ChannelType.CHANNEL_CATEGORY);
+        return entityCache.getChannelCache().getChannelsWithTypes(ChannelType.CHANNEL_CATEGORY);
     }
 
     @Override
     public Set<ServerTextChannel> getServerTextChannels() {
-        return entityCache.get().getChannelCache().getChannelsWithTypes(ChannelType.SERVER_TEXT_CHANNEL);
+        return entityCache.getChannelCache().getChannelsWithTypes(ChannelType.SERVER_TEXT_CHANNEL);
     }
 
     @Override
     public Set<ServerForumChannel> getServerForumChannels() {
-        return entityCache.get().getChannelCache().getChannelsWithTypes(ChannelType.SERVER_FORUM_CHANNEL);
+        return entityCache.getChannelCache().getChannelsWithTypes(ChannelType.SERVER_FORUM_CHANNEL);
     }
 
     @Override
     public Set<ServerThreadChannel> getServerThreadChannels() {
-        return entityCache.get().getChannelCache().getChannelsWithTypes(
+        return entityCache.getChannelCache().getChannelsWithTypes(
                 ChannelType.SERVER_PRIVATE_THREAD,
                 ChannelType.SERVER_PUBLIC_THREAD,
                 ChannelType.SERVER_NEWS_THREAD);
@@ -2151,46 +2468,37 @@ public class DiscordApiImpl implements DiscordApi, DispatchQueueSelector {
 
     @Override
     public Set<ServerThreadChannel> getPrivateServerThreadChannels() {
-        return entityCache.get().getChannelCache().getChannelsWithTypes(ChannelType.SERVER_PRIVATE_THREAD);
+        return entityCache.getChannelCache().getChannelsWithTypes(ChannelType.SERVER_PRIVATE_THREAD);
     }
 
     @Override
     public Set<ServerThreadChannel> getPublicServerThreadChannels() {
-        return entityCache.get().getChannelCache().getChannelsWithTypes(ChannelType.SERVER_PUBLIC_THREAD);
+        return entityCache.getChannelCache().getChannelsWithTypes(ChannelType.SERVER_PUBLIC_THREAD);
     }
 
     @Override
     public Set<ServerVoiceChannel> getServerVoiceChannels() {
-        return entityCache.get().getChannelCache().getChannelsWithTypes(ChannelType.SERVER_VOICE_CHANNEL);
+        return entityCache.getChannelCache().getChannelsWithTypes(ChannelType.SERVER_VOICE_CHANNEL);
     }
 
     @Override
     public Set<ServerStageVoiceChannel> getServerStageVoiceChannels() {
-        return entityCache.get().getChannelCache().getChannelsWithTypes(ChannelType.SERVER_STAGE_VOICE_CHANNEL);
+        return entityCache.getChannelCache().getChannelsWithTypes(ChannelType.SERVER_STAGE_VOICE_CHANNEL);
     }
 
     @Override
     public Set<TextChannel> getTextChannels() {
-        return entityCache.get().getChannelCache().getChannelsWithTypes(ChannelType.getTextChannelTypes());
+        return entityCache.getChannelCache().getChannelsWithTypes(ChannelType.getTextChannelTypes());
     }
 
     @Override
     public Set<VoiceChannel> getVoiceChannels() {
-        return entityCache.get().getChannelCache().getChannelsWithTypes(ChannelType.getVoiceChannelTypes());
+        return entityCache.getChannelCache().getChannelsWithTypes(ChannelType.getVoiceChannelTypes());
     }
 
     @Override
     public Optional<Channel> getChannelById(long id) {
-        return entityCache.get().getChannelCache().getChannelById(id);
-    }
-
-    /**
-     * Get the message cache lock.
-     *
-     * @return the message cache lock
-     */
-    public ReentrantLock getMessageCacheLock() {
-        return messageCacheLock;
+        return entityCache.getChannelCache().getChannelById(id);
     }
 
     @Override
@@ -2208,9 +2516,35 @@ public class DiscordApiImpl implements DiscordApi, DispatchQueueSelector {
     @Override
     @SuppressWarnings("unchecked")
     public <T extends GloballyAttachableListener> ListenerManager<T> addListener(Class<T> listenerClass, T listener) {
-        return (ListenerManager<T>) listeners
-                .computeIfAbsent(listenerClass, key -> Collections.synchronizedMap(new LinkedHashMap<>()))
-                .computeIfAbsent(listener, key -> new ListenerManagerImpl<>(this, listener, listenerClass));
+        synchronized (listeners) {
+            Map<GloballyAttachableListener, ListenerManagerImpl<? extends GloballyAttachableListener>> classListeners =
+                    listeners.computeIfAbsent(listenerClass, key -> Collections.synchronizedMap(new LinkedHashMap<>()));
+            ListenerManagerImpl<? extends GloballyAttachableListener> listenerManager = classListeners.get(listener);
+            if (listenerManager != null) {
+                return (ListenerManager<T>) listenerManager;
+            }
+            listenerManager = new ListenerManagerImpl<>(this, listener, listenerClass);
+            classListeners.put(listener, listenerManager);
+            listenerCounts.merge(listenerClass, 1, Integer::sum);
+            updateListenerDispatchTable(listenerClass, classListeners);
+            return (ListenerManager<T>) listenerManager;
+        }
+    }
+
+    /**
+     * Rebuilds the dispatch table entry for the given global listener class.
+     * The caller must hold the lock of {@link #listeners}.
+     *
+     * @param listenerClass  The listener class.
+     * @param classListeners The currently registered listeners of the listener class.
+     */
+    private void updateListenerDispatchTable(Class<?> listenerClass, Map<?, ?> classListeners) {
+        List<?> snapshot = snapshotListeners(classListeners);
+        if (snapshot.isEmpty()) {
+            listenerDispatchTable.remove(listenerClass);
+        } else {
+            listenerDispatchTable.put(listenerClass, snapshot);
+        }
     }
 
     @Override
@@ -2226,6 +2560,8 @@ public class DiscordApiImpl implements DiscordApi, DispatchQueueSelector {
                 return;
             }
             classListeners.remove(listener);
+            decrementListenerCount(listenerClass, 1);
+            updateListenerDispatchTable(listenerClass, classListeners);
             listenerManager.removed();
             // Clean it up
             if (classListeners.isEmpty()) {
@@ -2234,6 +2570,52 @@ public class DiscordApiImpl implements DiscordApi, DispatchQueueSelector {
         }
     }
 
+    /**
+     * Decrements the amount of registered listeners of the given class.
+     *
+     * @param listenerClass The listener class.
+     * @param amount        The amount of removed listeners.
+     */
+    private void decrementListenerCount(Class<?> listenerClass, int amount) {
+        listenerCounts.computeIfPresent(listenerClass, (key, count) -> count > amount ? count - amount : null);
+    }
+
+    /**
+     * Marks or unmarks the given listener as order-independent.
+     * This method is called by the listener managers whenever their order-independent flag changes.
+     *
+     * @param listener         The listener.
+     * @param orderIndependent Whether one more listener manager marks the listener as order-independent or one less.
+     */
+    public void setListenerOrderIndependent(Object listener, boolean orderIndependent) {
+        if (orderIndependent) {
+            orderIndependentListeners.merge(listener, 1, Integer::sum);
+        } else {
+            orderIndependentListeners.computeIfPresent(listener, (key, count) -> count > 1 ? count - 1 : null);
+        }
+    }
+
+    /**
+     * Checks whether the given listener is order-independent and can be called concurrently to other listeners.
+     *
+     * @param listener The listener.
+     * @return Whether the listener is order-independent.
+     */
+    public boolean isListenerOrderIndependent(Object listener) {
+        return !orderIndependentListeners.isEmpty() && orderIndependentListeners.containsKey(listener);
+    }
+
+    /**
+     * Checks whether there is at least one global or object listener of the given class registered.
+     * This is a cheap check which does not have to iterate any listener maps.
+     *
+     * @param listenerClass The listener class.
+     * @return Whether there is at least one listener of the given class registered.
+     */
+    public boolean hasListenersOfType(Class<?> listenerClass) {
+        return listenerCounts.containsKey(listenerClass);
+    }
+
     @Override
     @SuppressWarnings("unchecked")
     public void removeListener(GloballyAttachableListener listener) {
@@ -2250,4 +2632,18 @@ public class DiscordApiImpl implements DiscordApi, DispatchQueueSelector {
         disconnect();
         super.finalize();
     }
+
+    /**
+     * A weak reference to a cached message which remembers the id of the message, so it can be removed from the
+     * cache after the message was garbage collected.
+     */
+    private static final class MessageReference extends WeakReference<Message> {
+
+        private final long messageId;
+
+        private MessageReference(Message message, ReferenceQueue<? super Message> queue) {
+            super(message, queue);
+            messageId = message.getId();
+        }
+    }
 }
@@ -0,0 +1,209 @@
+package org.javacord.core;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import okhttp3.OkHttpClient;
+import org.javacord.api.DiscordApi;
+import org.javacord.api.ShardGroup;
+import org.javacord.core.util.concurrent.ThreadPoolImpl;
+import org.javacord.core.util.gateway.DiscordWebSocketAdapter;
+import org.javacord.core.util.ratelimit.RatelimitManager;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * The implementation of {@link ShardGroup}.
+ */
+public class ShardGroupImpl implements ShardGroup {
+
+    /**
+     * The thread pool which is shared by all shards.
+     */
+    private final ThreadPoolImpl threadPool;
+
+    /**
+     * The object mapper which is shared by all shards.
+     */
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    /**
+     * The http client which is shared by all shards. It is created by the first shard.
+     */
+    private OkHttpClient httpClient;
+
+    /**
+     * The ratelimit manager which is shared by all shards.
+     */
+    private final RatelimitManager ratelimitManager = new RatelimitManager();
+
+    /**
+     * The shards of this group which are not shut down, by their shard id.
+     */
+    private final Map<Integer, DiscordApiImpl> shards = new ConcurrentHashMap<>();
+
+    /**
+     * The futures which are completed once the shards finished logging in, by their shard id.
+     */
+    private final Map<Integer, CompletableFuture<DiscordApi>> readyFutures = new ConcurrentHashMap<>();
+
+    /**
+     * The amount of references to the shared resources. Every shard holds one reference until its thread pool is shut
+     * down. The login holds one more reference until all shards are created, so the resources are not released if the
+     * first shard fails before the last one is created.
+     */
+    private final AtomicInteger references = new AtomicInteger(1);
+
+    /**
+     * Creates a new shard group.
+     *
+     * @param virtualThreadsEnabled Whether tasks of the shared executor service should be executed on virtual threads.
+     */
+    public ShardGroupImpl(boolean virtualThreadsEnabled) {
+        threadPool = new ThreadPoolImpl(virtualThreadsEnabled);
+    }
+
+    /**
+     * Creates the thread pool of a new shard of this group.
+     * The shard keeps the shared resources alive until its thread pool is shut down.
+     *
+     * @param api The shard.
+     * @return The thread pool of the shard.
+     */
+    public ThreadPoolImpl createThreadPool(DiscordApiImpl api) {
+        references.incrementAndGet();
+        return new ThreadPoolImpl(threadPool, () -> {
+            shards.remove(api.getCurrentShard(), api);
+            release();
+        });
+    }
+
+    /**
+     * Adds a shard to this group after its thread pool was created.
+     *
+     * @param api The shard.
+     */
+    public void addShard(DiscordApiImpl api) {
+        shards.put(api.getCurrentShard(), api);
+    }
+
+    /**
+     * Adds the future which is completed once the given shard finished logging in.
+     *
+     * @param shard The shard id.
+     * @param readyFuture The ready future of the shard.
+     */
+    public void addReadyFuture(int shard, CompletableFuture<DiscordApi> readyFuture) {
+        readyFutures.put(shard, readyFuture);
+    }
+
+    /**
+     * Releases a reference to the shared resources and shuts down the shared thread pool if it was the last one.
+     */
+    public void release() {
+        if (references.decrementAndGet() == 0) {
+            threadPool.shutdown();
+        }
+    }
+
+    /**
+     * Gets the http client which is shared by all shards.
+     *
+     * @param httpClientFactory Creates the http client if this is the first shard which requests it.
+     * @return The shared http client.
+     */
+    public synchronized OkHttpClient getHttpClient(Supplier<OkHttpClient> httpClientFactory) {
+        if (httpClient == null) {
+            httpClient = httpClientFactory.get();
+        }
+        return httpClient;
+    }
+
+    /**
+     * Gets the ratelimit manager which is shared by all shards.
+     *
+     * @return The shared ratelimit manager.
+     */
+    public RatelimitManager getRatelimitManager() {
+        return ratelimitManager;
+    }
+
+    /**
+     * Gets the object mapper which is shared by all shards.
+     *
+     * @return The shared object mapper.
+     */
+    public ObjectMapper getObjectMapper() {
+        return objectMapper;
+    }
+
+    @Override
+    public List<DiscordApi> getShards() {
+        return Collections.unmodifiableList(new ArrayList<>(new TreeMap<>(shards).values()));
+    }
+
+    @Override
+    public List<DiscordApi> getConnectedShards() {
+        return Collections.unmodifiableList(new TreeMap<>(shards).values().stream()
+                .filter(shard -> {
+                    DiscordWebSocketAdapter websocketAdapter = shard.getWebSocketAdapter();
+                    return (websocketAdapter != null) && websocketAdapter.isSessionActive();
+                })
+                .collect(Collectors.toList()));
+    }
+
+    @Override
+    public Map<Integer, CompletableFuture<DiscordApi>> getReadyFutures() {
+        return Collections.unmodifiableMap(new TreeMap<>(readyFutures));
+    }
+
+    @Override
+    public int getReadyShardCount() {
+        return (int) readyFutures.values().stream()
+                .filter(future -> future.isDone() && !future.isCompletedExceptionally())
+                .count();
+    }
+
+    @Override
+    public double getStartupProgress() {
+        int shardCount = readyFutures.size();
+        return shardCount == 0 ? 0 : (double) getReadyShardCount() / shardCount;
+    }
+
+    @Override
+    public Map<Integer, Duration> getGatewayLatencies() {
+        Map<Integer, Duration> latencies = new TreeMap<>();
+        shards.forEach((shard, api) -> {
+            long latencyNanos = api.getLatestGatewayLatencyNanos();
+            if (latencyNanos >= 0) {
+                latencies.put(shard, Duration.ofNanos(latencyNanos));
+            }
+        });
+        return Collections.unmodifiableMap(latencies);
+    }
+
+    @Override
+    public Optional<Duration> getAverageGatewayLatency() {
+        Map<Integer, Duration> latencies = getGatewayLatencies();
+        if (latencies.isEmpty()) {
+            return Optional.empty();
+        }
+        long totalNanos = latencies.values().stream().mapToLong(Duration::toNanos).sum();
+        return Optional.of(Duration.ofNanos(totalNanos / latencies.size()));
+    }
+
+    @Override
+    public Optional<Duration> getHighestGatewayLatency() {
+        return getGatewayLatencies().values().stream().max(Duration::compareTo);
+    }
+
+}
@@ -161,6 +161,15 @@ public class ServerThreadChannelImpl extends ServerChannelImpl implements Server
         this.totalNumberOfMessagesSent = totalNumberOfMessagesSent;
     }
 
+    /**
+     * Gets the id of the parent channel.
+     *
+     * @return The id of the parent channel.
+     */
+    public long getParentId() {
+        return parentId;
+    }
+
     @Override
     public RegularServerChannel getParent() {
         return getServer().getRegularChannelById(parentId)
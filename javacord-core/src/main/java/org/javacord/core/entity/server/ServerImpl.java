@@ -985,7 +985,14 @@ public class ServerImpl implements Server, Cleanupable, InternalServerAttachable
     public MemberImpl addMember(JsonNode memberJson) {
         MemberImpl member = new MemberImpl(api, this, memberJson, null);
         api.addMemberToCacheOrReplaceExisting(member);
+        checkIfReady();
+        return member;
+    }
 
+    /**
+     * Marks the server as ready if all members have been received.
+     */
+    private void checkIfReady() {
         synchronized (readyConsumers) {
             if (!ready && getRealMembers().size() == getMemberCount()) {
                 ready = true;
@@ -993,7 +1000,6 @@ public class ServerImpl implements Server, Cleanupable, InternalServerAttachable
                 readyConsumers.clear();
             }
         }
-        return member;
     }
 
     /**
@@ -1009,9 +1015,7 @@ public class ServerImpl implements Server, Cleanupable, InternalServerAttachable
      * @param membersJson An array of guild member objects.
      */
     public void addMembers(JsonNode membersJson) {
-        for (JsonNode memberJson : membersJson) {
-            addMember(memberJson);
-        }
+        addAndGetMembers(membersJson);
     }
 
     /**
@@ -1021,11 +1025,12 @@ public class ServerImpl implements Server, Cleanupable, InternalServerAttachable
      * @return The added members.
      */
     public List<Member> addAndGetMembers(JsonNode membersJson) {
-        List<Member> members = new ArrayList<>();
+        List<Member> members = new ArrayList<>(membersJson.size());
         for (JsonNode memberJson : membersJson) {
-            Member member = addMember(memberJson);
-            members.add(member);
+            members.add(new MemberImpl(api, this, memberJson, null));
         }
+        api.addMembersToCache(members);
+        checkIfReady();
         return members;
     }
 
@@ -1140,7 +1145,7 @@ public class ServerImpl implements Server, Cleanupable, InternalServerAttachable
 
     @Override
     public Set<ServerChannel> getUnorderedChannels() {
-        return api.getEntityCache().get().getChannelCache().getChannelsOfServer(getId());
+        return api.getEntityCache().getChannelCache().getChannelsOfServer(getId());
     }
 
     /**
@@ -1543,7 +1548,7 @@ public class ServerImpl implements Server, Cleanupable, InternalServerAttachable
 
     @Override
     public Set<User> getMembers() {
-        return api.getEntityCache().get().getMemberCache()
+        return api.getEntityCache().getMemberCache()
                 .getMembersByServer(getId())
                 .stream()
                 .map(Member::getUser)
@@ -1556,13 +1561,13 @@ public class ServerImpl implements Server, Cleanupable, InternalServerAttachable
      * @return The real members.
      */
     public Set<Member> getRealMembers() {
-        return api.getEntityCache().get().getMemberCache()
+        return api.getEntityCache().getMemberCache()
                 .getMembersByServer(getId());
     }
 
     @Override
     public Optional<User> getMemberById(long id) {
-        return api.getEntityCache().get().getMemberCache()
+        return api.getEntityCache().getMemberCache()
                 .getMemberByIdAndServer(id, getId())
                 .map(Member::getUser);
     }
@@ -1574,13 +1579,13 @@ public class ServerImpl implements Server, Cleanupable, InternalServerAttachable
      * @return The real member.
      */
     public Optional<Member> getRealMemberById(long userId) {
-        return api.getEntityCache().get().getMemberCache()
+        return api.getEntityCache().getMemberCache()
                 .getMemberByIdAndServer(userId, getId());
     }
 
     @Override
     public boolean isMember(User user) {
-        return api.getEntityCache().get().getMemberCache()
+        return api.getEntityCache().getMemberCache()
                 .getMemberByIdAndServer(user.getId(), getId())
                 .isPresent();
     }
@@ -2048,21 +2053,21 @@ public class ServerImpl implements Server, Cleanupable, InternalServerAttachable
 
     @Override
     public Optional<ServerChannel> getChannelById(long id) {
-        return api.getEntityCache().get().getChannelCache().getChannelById(id)
+        return api.getEntityCache().getChannelCache().getChannelById(id)
                 .filter(ServerChannel.class::isInstance)
                 .map(ServerChannel.class::cast);
     }
 
     @Override
     public Optional<RegularServerChannel> getRegularChannelById(long id) {
-        return api.getEntityCache().get().getChannelCache().getChannelById(id)
+        return api.getEntityCache().getChannelCache().getChannelById(id)
                 .filter(RegularServerChannel.class::isInstance)
                 .map(RegularServerChannel.class::cast);
     }
 
     @Override
     public Optional<TextableRegularServerChannel> getTextableRegularChannelById(long id) {
-        return api.getEntityCache().get().getChannelCache().getChannelById(id)
+        return api.getEntityCache().getChannelCache().getChannelById(id)
                 .filter(TextableRegularServerChannel.class::isInstance)
                 .map(TextableRegularServerChannel.class::cast);
     }
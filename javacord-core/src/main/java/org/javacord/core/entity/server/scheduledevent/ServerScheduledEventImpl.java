@@ -166,6 +166,15 @@ public class ServerScheduledEventImpl implements ServerScheduledEvent {
         return Optional.ofNullable(userCount);
     }
 
+    /**
+     * Gets the image hash of the event.
+     *
+     * @return The image hash of the event.
+     */
+    public Optional<String> getImageHash() {
+        return Optional.ofNullable(image);
+    }
+
     @Override
     public Optional<Icon> getImage() {
         if (null == image) {
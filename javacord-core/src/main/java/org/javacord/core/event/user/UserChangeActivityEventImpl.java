@@ -37,6 +37,16 @@ public class UserChangeActivityEventImpl extends OptionalUserEventImpl implement
         this.oldActivities = oldActivities;
     }
 
+    /**
+     * Creates an event which covers the changes of this event and the given newer event of the same user.
+     *
+     * @param newerEvent The newer event.
+     * @return An event with the old activities of this event and the new activities of the newer event.
+     */
+    public UserChangeActivityEventImpl coalesce(UserChangeActivityEventImpl newerEvent) {
+        return new UserChangeActivityEventImpl(getApi(), getUserId(), newerEvent.newActivities, oldActivities);
+    }
+
     @Override
     public Set<Activity> getOldActivities() {
         return Collections.unmodifiableSet(oldActivities);
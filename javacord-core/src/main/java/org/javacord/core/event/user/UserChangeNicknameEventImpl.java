@@ -25,6 +25,16 @@ public class UserChangeNicknameEventImpl extends ServerUserEventImpl implements
         this.oldMember = oldMember;
     }
 
+    /**
+     * Creates an event which covers the changes of this event and the given newer event of the same member.
+     *
+     * @param newerEvent The newer event.
+     * @return An event with the old member of this event and the new member of the newer event.
+     */
+    public UserChangeNicknameEventImpl coalesce(UserChangeNicknameEventImpl newerEvent) {
+        return new UserChangeNicknameEventImpl(newerEvent.newMember, oldMember);
+    }
+
     @Override
     public Optional<String> getNewNickname() {
         return newMember.getNickname();
@@ -51,6 +51,17 @@ public class UserChangeStatusEventImpl extends OptionalUserEventImpl implements
         this.oldClientStatus = oldClientStatus;
     }
 
+    /**
+     * Creates an event which covers the changes of this event and the given newer event of the same user.
+     *
+     * @param newerEvent The newer event.
+     * @return An event with the old status of this event and the new status of the newer event.
+     */
+    public UserChangeStatusEventImpl coalesce(UserChangeStatusEventImpl newerEvent) {
+        return new UserChangeStatusEventImpl(getApi(), getUserId(), newerEvent.newStatus, oldStatus,
+                newerEvent.newClientStatus, oldClientStatus);
+    }
+
     @Override
     public UserStatus getOldStatus() {
         return oldStatus;
@@ -31,6 +31,16 @@ public class UserStartTypingEventImpl extends EventImpl implements UserStartTypi
         this.member = member;
     }
 
+    /**
+     * Creates an event which covers this event and the given newer event of the same user in the same channel.
+     *
+     * @param newerEvent The newer event.
+     * @return The newer event, as only the newest typing event of a burst matters.
+     */
+    public UserStartTypingEventImpl coalesce(UserStartTypingEventImpl newerEvent) {
+        return newerEvent;
+    }
+
     @Override
     public TextChannel getChannel() {
         return channel;
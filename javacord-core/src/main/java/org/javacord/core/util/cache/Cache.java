@@ -7,6 +7,8 @@ import io.vavr.collection.Set;
 
 import java.util.Optional;
 import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.function.ToLongFunction;
 
 /**
  * An immutable cache, optionally with indexes.
@@ -32,7 +34,7 @@ public class Cache<T> {
      *
      * <p>The map's key is the index name and the value is the index itself.
      */
-    private final Map<String, Index<Object, T>> indexes;
+    private final Map<String, CacheIndex<T>> indexes;
 
     /**
      * Creates a new cache.
@@ -40,7 +42,7 @@ public class Cache<T> {
      * @param elements The elements in the cache.
      * @param indexes The indexes.
      */
-    private Cache(Set<T> elements, Map<String, Index<Object, T>> indexes) {
+    private Cache(Set<T> elements, Map<String, CacheIndex<T>> indexes) {
         this.elements = elements;
         this.indexes = indexes;
     }
@@ -63,6 +65,8 @@ public class Cache<T> {
      *
      * <p>Compound indexes can easily be achieved by using a {@link io.vavr.Tuple} or {@link io.vavr.collection.Seq}
      * with all keys as the return value of the mapping function.
+     * For ids and pairs of ids, {@link #addLongIndex(String, ToLongFunction)} and
+     * {@link #addLongPairIndex(String, ToLongFunction, ToLongFunction)} should be preferred.
      *
      * <p>This method has a time-complexity of {@code O(n)} with {@code n} being the amount of elements in the cache.
      *
@@ -74,14 +78,66 @@ public class Cache<T> {
      * @throws IllegalStateException If the cache already has an index with the given name.
      */
     public Cache<T> addIndex(String indexName, Function<T, Object> mappingFunction) {
+        return withIndex(indexName, new Index<>(mappingFunction));
+    }
+
+    /**
+     * Adds an index with primitive {@code long} keys, e.g. snowflakes.
+     *
+     * <p>Lookups by the key don't box the key and don't allocate apart from the returned {@link Optional}.
+     *
+     * <p>This method has a time-complexity of {@code O(n)} with {@code n} being the amount of elements in the cache.
+     *
+     * @param indexName The name of the index.
+     * @param keyMapper A function to map elements to their key.
+     * @return The new cache with the added index.
+     * @throws IllegalStateException If the cache already has an index with the given name.
+     */
+    public Cache<T> addLongIndex(String indexName, ToLongFunction<T> keyMapper) {
+        return addLongIndex(indexName, element -> true, keyMapper);
+    }
+
+    /**
+     * Adds an index with primitive {@code long} keys, e.g. snowflakes, which only includes some elements.
+     *
+     * <p>Lookups by the key don't box the key and don't allocate apart from the returned {@link Optional}.
+     *
+     * <p>This method has a time-complexity of {@code O(n)} with {@code n} being the amount of elements in the cache.
+     *
+     * @param indexName The name of the index.
+     * @param filter A predicate that checks if an element has a key and should be included in the index.
+     * @param keyMapper A function to map elements to their key. It is only called for elements which match the
+     *                  {@code filter}.
+     * @return The new cache with the added index.
+     * @throws IllegalStateException If the cache already has an index with the given name.
+     */
+    public Cache<T> addLongIndex(String indexName, Predicate<T> filter, ToLongFunction<T> keyMapper) {
+        return withIndex(indexName, new LongIndex<>(filter, keyMapper));
+    }
+
+    /**
+     * Adds a compound index with two primitive {@code long} keys, e.g. a member id and a server id.
+     *
+     * <p>Lookups by the keys neither box the keys nor allocate a compound key.
+     *
+     * <p>This method has a time-complexity of {@code O(n)} with {@code n} being the amount of elements in the cache.
+     *
+     * @param indexName The name of the index.
+     * @param firstKeyMapper A function to map elements to their first key.
+     * @param secondKeyMapper A function to map elements to their second key.
+     * @return The new cache with the added index.
+     * @throws IllegalStateException If the cache already has an index with the given name.
+     */
+    public Cache<T> addLongPairIndex(
+            String indexName, ToLongFunction<T> firstKeyMapper, ToLongFunction<T> secondKeyMapper) {
+        return withIndex(indexName, new LongPairIndex<>(firstKeyMapper, secondKeyMapper));
+    }
+
+    private Cache<T> withIndex(String indexName, CacheIndex<T> index) {
         if (indexes.containsKey(indexName)) {
             throw new IllegalStateException("The cache already has an index with name " + indexName);
         }
-        Index<Object, T> index = new Index<>(mappingFunction);
-        for (T element : elements) {
-            index = index.addElement(element);
-        }
-        Map<String, Index<Object, T>> newIndexes = indexes.put(indexName, index);
+        Map<String, CacheIndex<T>> newIndexes = indexes.put(indexName, index.addElements(elements));
         return new Cache<>(elements, newIndexes);
     }
 
@@ -97,7 +153,7 @@ public class Cache<T> {
      */
     public Cache<T> addElement(T element) {
         Set<T> newElements = elements.add(element);
-        Map<String, Index<Object, T>> newIndexes = indexes.mapValues(index -> index.addElement(element));
+        Map<String, CacheIndex<T>> newIndexes = indexes.mapValues(index -> index.addElement(element));
         return new Cache<>(newElements, newIndexes);
     }
 
@@ -112,7 +168,37 @@ public class Cache<T> {
      */
     public Cache<T> removeElement(T element) {
         Set<T> newElements = elements.remove(element);
-        Map<String, Index<Object, T>> newIndexes = indexes.mapValues(index -> index.removeElement(element));
+        Map<String, CacheIndex<T>> newIndexes = indexes.mapValues(index -> index.removeElement(element));
+        return new Cache<>(newElements, newIndexes);
+    }
+
+    /**
+     * Adds elements to the cache.
+     *
+     * <p>This is equivalent to calling {@link #addElement(Object)} for every element, but every index is only updated
+     * once per key instead of once per element.
+     *
+     * @param elementsToAdd The elements to add.
+     * @return The new cache after adding the elements.
+     */
+    public Cache<T> addElements(Iterable<T> elementsToAdd) {
+        Set<T> newElements = elements.addAll(elementsToAdd);
+        Map<String, CacheIndex<T>> newIndexes = indexes.mapValues(index -> index.addElements(elementsToAdd));
+        return new Cache<>(newElements, newIndexes);
+    }
+
+    /**
+     * Removes elements from the cache.
+     *
+     * <p>This is equivalent to calling {@link #removeElement(Object)} for every element, but every index is only
+     * updated once per key instead of once per element.
+     *
+     * @param elementsToRemove The elements to remove.
+     * @return The new cache after removing the elements.
+     */
+    public Cache<T> removeElements(Iterable<T> elementsToRemove) {
+        Set<T> newElements = elements.removeAll(elementsToRemove);
+        Map<String, CacheIndex<T>> newIndexes = indexes.mapValues(index -> index.removeElements(elementsToRemove));
         return new Cache<>(newElements, newIndexes);
     }
 
@@ -158,8 +244,7 @@ public class Cache<T> {
      * @throws IllegalArgumentException If the cache has no index with the given name.
      */
     public Optional<T> findAnyByIndex(String indexName, Object key) {
-        Index<Object, T> index = indexes.get(indexName).getOrElseThrow(
-                () -> new IllegalArgumentException("No index with given name (" + indexName + ") found"));
+        Index<Object, T> index = getIndex(indexName, Index.class);
         return index.findAny(key);
     }
 
@@ -174,9 +259,89 @@ public class Cache<T> {
      * @throws IllegalArgumentException If the cache has no index with the given name.
      */
     public Set<T> findByIndex(String indexName, Object key) {
-        Index<Object, T> index = indexes.get(indexName).getOrElseThrow(
-                () -> new IllegalArgumentException("No index with given name (" + indexName + ") found"));
+        Index<Object, T> index = getIndex(indexName, Index.class);
+        return index.find(key);
+    }
+
+    /**
+     * Gets any element in the cache that has the given key in a {@code long} index.
+     *
+     * <p>This method has an effective time complexity of {@code O(1)}.
+     *
+     * @param indexName The name of the index.
+     * @param key The key of the element.
+     * @return An element with the given key.
+     * @throws IllegalArgumentException If the cache has no {@code long} index with the given name.
+     */
+    public Optional<T> findAnyByIndex(String indexName, long key) {
+        LongIndex<T> index = getIndex(indexName, LongIndex.class);
+        return index.findAny(key);
+    }
+
+    /**
+     * Gets all elements in the cache that have the given key in a {@code long} index.
+     *
+     * <p>This method has an effective time complexity of {@code O(1)} and does not allocate.
+     *
+     * @param indexName The name of the index.
+     * @param key The key of the elements.
+     * @return All the elements that have the given key.
+     * @throws IllegalArgumentException If the cache has no {@code long} index with the given name.
+     */
+    public Set<T> findByIndex(String indexName, long key) {
+        LongIndex<T> index = getIndex(indexName, LongIndex.class);
         return index.find(key);
     }
 
+    /**
+     * Gets any element in the cache that has the given keys in a compound {@code long} index.
+     *
+     * <p>This method has an effective time complexity of {@code O(1)}.
+     *
+     * @param indexName The name of the index.
+     * @param firstKey The first key of the element.
+     * @param secondKey The second key of the element.
+     * @return An element with the given keys.
+     * @throws IllegalArgumentException If the cache has no compound {@code long} index with the given name.
+     */
+    public Optional<T> findAnyByIndex(String indexName, long firstKey, long secondKey) {
+        LongPairIndex<T> index = getIndex(indexName, LongPairIndex.class);
+        return index.findAny(firstKey, secondKey);
+    }
+
+    /**
+     * Gets all elements in the cache that have the given keys in a compound {@code long} index.
+     *
+     * <p>This method has an effective time complexity of {@code O(1)} and does not allocate.
+     *
+     * @param indexName The name of the index.
+     * @param firstKey The first key of the elements.
+     * @param secondKey The second key of the elements.
+     * @return All the elements that have the given keys.
+     * @throws IllegalArgumentException If the cache has no compound {@code long} index with the given name.
+     */
+    public Set<T> findByIndex(String indexName, long firstKey, long secondKey) {
+        LongPairIndex<T> index = getIndex(indexName, LongPairIndex.class);
+        return index.find(firstKey, secondKey);
+    }
+
+    /**
+     * Gets the index with the given name.
+     *
+     * @param indexName The name of the index.
+     * @param type The expected class of the index.
+     * @param <I> The type of the index.
+     * @return The index.
+     * @throws IllegalArgumentException If the cache has no index of the given type with the given name.
+     */
+    @SuppressWarnings("unchecked")
+    private <I extends CacheIndex<T>> I getIndex(String indexName, Class<?> type) {
+        CacheIndex<T> index = indexes.getOrElse(indexName, null);
+        if (!type.isInstance(index)) {
+            throw new IllegalArgumentException("No index with given name (" + indexName + ") and type ("
+                    + type.getSimpleName() + ") found");
+        }
+        return (I) index;
+    }
+
 }
@@ -0,0 +1,44 @@
+package org.javacord.core.util.cache;
+
+/**
+ * An immutable index of a {@link Cache}.
+ *
+ * <p>The lookup methods depend on the type of the index's key and are declared by the implementations.
+ *
+ * @param <E> The type of the elements.
+ */
+public interface CacheIndex<E> {
+
+    /**
+     * Adds an element to the index.
+     *
+     * @param element The element to add.
+     * @return The new index with the added element.
+     */
+    CacheIndex<E> addElement(E element);
+
+    /**
+     * Adds elements to the index.
+     *
+     * @param elementsToAdd The elements to add.
+     * @return The new index with the added elements.
+     */
+    CacheIndex<E> addElements(Iterable<E> elementsToAdd);
+
+    /**
+     * Removes an element from the index.
+     *
+     * @param element The element to remove.
+     * @return The new index with the element removed.
+     */
+    CacheIndex<E> removeElement(E element);
+
+    /**
+     * Removes elements from the index.
+     *
+     * @param elementsToRemove The elements to remove.
+     * @return The new index with the elements removed.
+     */
+    CacheIndex<E> removeElements(Iterable<E> elementsToRemove);
+
+}
@@ -0,0 +1,152 @@
+package org.javacord.core.util.cache;
+
+import org.javacord.api.entity.channel.Channel;
+import org.javacord.api.entity.channel.ChannelType;
+import org.javacord.api.entity.channel.PrivateChannel;
+import org.javacord.api.entity.channel.ServerChannel;
+import org.javacord.api.entity.user.User;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * A mutable, thread-safe cache for all channel entities.
+ *
+ * <p>All returned collections are unmodifiable copies.
+ */
+public class ConcurrentChannelCache implements ChannelCache {
+
+    private final Map<Long, Channel> channelsById = new ConcurrentHashMap<>();
+    private final Map<ChannelType, Set<Channel>> channelsByType = new ConcurrentHashMap<>();
+    private final Map<Long, Set<ServerChannel>> channelsByServerId = new ConcurrentHashMap<>();
+    private final Map<Long, PrivateChannel> privateChannelsByUserId = new ConcurrentHashMap<>();
+
+    /**
+     * Adds a channel to the cache or replaces the channel with the same id.
+     *
+     * @param channel The channel to add.
+     * @return The channel that was replaced or {@code null} if there was no channel with the same id.
+     */
+    public Channel addChannel(Channel channel) {
+        AtomicReference<Channel> oldChannel = new AtomicReference<>();
+        channelsById.compute(channel.getId(), (id, old) -> {
+            if (old != null) {
+                removeFromIndexes(old);
+            }
+            addToIndexes(channel);
+            oldChannel.set(old);
+            return channel;
+        });
+        return oldChannel.get();
+    }
+
+    /**
+     * Removes a channel from the cache.
+     *
+     * @param channelId The id of the channel to remove.
+     * @return The removed channel or {@code null} if there was no channel with the given id.
+     */
+    public Channel removeChannel(long channelId) {
+        AtomicReference<Channel> removedChannel = new AtomicReference<>();
+        channelsById.computeIfPresent(channelId, (id, channel) -> {
+            removeFromIndexes(channel);
+            removedChannel.set(channel);
+            return null;
+        });
+        return removedChannel.get();
+    }
+
+    /**
+     * Removes all channels from the cache.
+     */
+    public void clear() {
+        channelsById.keySet().forEach(this::removeChannel);
+    }
+
+    private void addToIndexes(Channel channel) {
+        addToIndex(channelsByType, channel.getType(), channel);
+        channel.asServerChannel().ifPresent(serverChannel ->
+                addToIndex(channelsByServerId, serverChannel.getServer().getId(), serverChannel));
+        channel.asPrivateChannel().ifPresent(privateChannel -> privateChannel.getRecipient()
+                .map(User::getId)
+                .ifPresent(userId -> privateChannelsByUserId.put(userId, privateChannel)));
+    }
+
+    private void removeFromIndexes(Channel channel) {
+        removeFromIndex(channelsByType, channel.getType(), channel);
+        channel.asServerChannel().ifPresent(serverChannel ->
+                removeFromIndex(channelsByServerId, serverChannel.getServer().getId(), serverChannel));
+        channel.asPrivateChannel().ifPresent(privateChannel -> privateChannel.getRecipient()
+                .map(User::getId)
+                .ifPresent(userId -> privateChannelsByUserId.remove(userId, privateChannel)));
+    }
+
+    private static <K, T> void addToIndex(Map<K, Set<T>> index, K key, T element) {
+        index.compute(key, (k, elements) -> {
+            Set<T> newElements = elements == null ? ConcurrentHashMap.newKeySet() : elements;
+            newElements.add(element);
+            return newElements;
+        });
+    }
+
+    private static <K, T> void removeFromIndex(Map<K, Set<T>> index, K key, T element) {
+        index.computeIfPresent(key, (k, elements) -> {
+            elements.remove(element);
+            return elements.isEmpty() ? null : elements;
+        });
+    }
+
+    @Override
+    public Set<Channel> getChannels() {
+        return Collections.unmodifiableSet(new HashSet<>(channelsById.values()));
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T extends Channel> Set<T> getChannelsWithTypes(ChannelType... types) {
+        Set<T> channels = new HashSet<>();
+        for (ChannelType type : types) {
+            Set<Channel> channelsWithType = channelsByType.get(type);
+            if (channelsWithType != null) {
+                channelsWithType.forEach(channel -> channels.add((T) channel));
+            }
+        }
+        return Collections.unmodifiableSet(channels);
+    }
+
+    @Override
+    public Set<ServerChannel> getChannelsOfServer(long serverId) {
+        Set<ServerChannel> channels = channelsByServerId.get(serverId);
+        return channels == null
+                ? Collections.emptySet()
+                : Collections.unmodifiableSet(new HashSet<>(channels));
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public <T extends Channel> Set<T> getChannelsOfServerAndType(long serverId, ChannelType type) {
+        Set<T> channels = new HashSet<>();
+        Set<ServerChannel> channelsOfServer = channelsByServerId.get(serverId);
+        if (channelsOfServer != null) {
+            channelsOfServer.stream()
+                    .filter(channel -> channel.getType() == type)
+                    .forEach(channel -> channels.add((T) channel));
+        }
+        return Collections.unmodifiableSet(channels);
+    }
+
+    @Override
+    public Optional<Channel> getChannelById(long id) {
+        return Optional.ofNullable(channelsById.get(id));
+    }
+
+    @Override
+    public Optional<PrivateChannel> getPrivateChannelByUserId(long userId) {
+        return Optional.ofNullable(privateChannelsByUserId.get(userId));
+    }
+}
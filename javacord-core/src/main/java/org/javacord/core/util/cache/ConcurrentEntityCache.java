@@ -0,0 +1,80 @@
+package org.javacord.core.util.cache;
+
+import org.javacord.api.entity.channel.Channel;
+import org.javacord.core.entity.user.Member;
+import org.javacord.core.entity.user.UserPresence;
+
+import java.util.Collection;
+import java.util.function.UnaryOperator;
+
+/**
+ * An entity cache that is backed by mutable, thread-safe caches.
+ *
+ * <p>Updates are applied in place and members are partitioned by their server, which keeps the allocations and the
+ * contention low when many members are cached at once. In contrast to the {@link CopyOnWriteEntityCache}, the caches
+ * are not consistent snapshots but reflect concurrent updates immediately.
+ */
+public class ConcurrentEntityCache implements EntityCache {
+
+    private final ConcurrentChannelCache channelCache = new ConcurrentChannelCache();
+    private final ConcurrentMemberCache memberCache = new ConcurrentMemberCache();
+    private final ConcurrentUserPresenceCache userPresenceCache = new ConcurrentUserPresenceCache();
+
+    @Override
+    public ChannelCache getChannelCache() {
+        return channelCache;
+    }
+
+    @Override
+    public MemberCache getMemberCache() {
+        return memberCache;
+    }
+
+    @Override
+    public UserPresenceCache getUserPresenceCache() {
+        return userPresenceCache;
+    }
+
+    @Override
+    public Channel addChannel(Channel channel) {
+        return channelCache.addChannel(channel);
+    }
+
+    @Override
+    public Channel removeChannel(long channelId) {
+        return channelCache.removeChannel(channelId);
+    }
+
+    @Override
+    public void addMemberOrReplaceExisting(Member member) {
+        memberCache.addMember(member);
+    }
+
+    @Override
+    public void addMembersOrReplaceExisting(Collection<Member> members) {
+        memberCache.addMembers(members);
+    }
+
+    @Override
+    public void updateMembersById(long id, UnaryOperator<Member> mapper) {
+        memberCache.updateMembersById(id, mapper);
+    }
+
+    @Override
+    public void removeMember(long memberId, long serverId) {
+        memberCache.removeMember(memberId, serverId);
+    }
+
+    @Override
+    public void updateUserPresence(long userId, UnaryOperator<UserPresence> mapper) {
+        userPresenceCache.updateUserPresence(userId, mapper);
+    }
+
+    @Override
+    public void clear() {
+        channelCache.clear();
+        memberCache.clear();
+        userPresenceCache.clear();
+    }
+
+}
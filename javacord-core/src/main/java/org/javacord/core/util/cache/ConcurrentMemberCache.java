@@ -0,0 +1,325 @@
+package org.javacord.core.util.cache;
+
+import org.javacord.api.entity.server.Server;
+import org.javacord.api.entity.user.User;
+import org.javacord.core.entity.user.Member;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.UnaryOperator;
+import java.util.stream.Collectors;
+
+/**
+ * A mutable, thread-safe cache for all member entities.
+ *
+ * <p>Members are partitioned by their server and all updates of the members of a server are guarded by a lock that
+ * is striped by the server id, so updates of members in different servers rarely contend with each other, even if they
+ * concern the same user. The members of a server are returned as a snapshot that is cached until the members of the
+ * server change. The cache also serves as the {@link UserCache} for the users of the cached members.
+ *
+ * <p>Updates always lock the stripe of the server first and the index of the member's id second.
+ */
+public class ConcurrentMemberCache implements MemberCache, UserCache {
+
+    /**
+     * The amount of locks the servers are striped over. Must be a power of two.
+     */
+    private static final int LOCK_STRIPES = 64;
+
+    /**
+     * The locks that guard the updates of the members of the servers, striped by the server id.
+     */
+    private final Object[] serverLocks = new Object[LOCK_STRIPES];
+
+    /**
+     * The members by their server id.
+     */
+    private final Map<Long, ServerMembers> membersByServerId = new ConcurrentHashMap<>();
+
+    /**
+     * The members by their id and their server id.
+     */
+    private final Map<Long, Map<Long, Member>> membersById = new ConcurrentHashMap<>();
+
+    /**
+     * The users of the members by their id.
+     */
+    private final Map<Long, User> usersById = new ConcurrentHashMap<>();
+
+    /**
+     * Creates a new concurrent member cache.
+     */
+    public ConcurrentMemberCache() {
+        for (int i = 0; i < LOCK_STRIPES; i++) {
+            serverLocks[i] = new Object();
+        }
+    }
+
+    /**
+     * Gets the lock that guards the updates of the members of the server with the given id.
+     *
+     * @param serverId The id of the server.
+     * @return The lock of the server.
+     */
+    private Object getServerLock(long serverId) {
+        // The lower bits of snowflakes are not evenly distributed, so the timestamp bits are mixed in
+        int hash = Long.hashCode(serverId) * 0x9E3779B9;
+        return serverLocks[(hash >>> 16) & (LOCK_STRIPES - 1)];
+    }
+
+    /**
+     * Adds a member to the cache or replaces the member with the same id in the same server.
+     *
+     * <p>Automatically updates the user of the member, too.
+     *
+     * @param member The member to add.
+     */
+    public void addMember(Member member) {
+        long serverId = member.getServer().getId();
+        synchronized (getServerLock(serverId)) {
+            putMember(membersByServerId.computeIfAbsent(serverId, key -> new ServerMembers()), serverId, member);
+        }
+    }
+
+    /**
+     * Adds members to the cache or replaces the members with the same id in the same server.
+     *
+     * <p>The lock of each server is only taken once, which makes this considerably cheaper than adding the members one
+     * by one, e.g. for the members of a member chunk.
+     *
+     * @param members The members to add.
+     */
+    public void addMembers(Collection<Member> members) {
+        Map<Long, List<Member>> membersOfServers = new HashMap<>();
+        for (Member member : members) {
+            membersOfServers.computeIfAbsent(member.getServer().getId(), key -> new ArrayList<>()).add(member);
+        }
+        membersOfServers.forEach((serverId, membersOfServer) -> {
+            synchronized (getServerLock(serverId)) {
+                ServerMembers serverMembers = membersByServerId.computeIfAbsent(serverId, key -> new ServerMembers());
+                membersOfServer.forEach(member -> putMember(serverMembers, serverId, member));
+            }
+        });
+    }
+
+    /**
+     * Puts a member into the cache. Must only be called while holding the lock of the member's server.
+     *
+     * @param serverMembers The members of the member's server.
+     * @param serverId The id of the member's server.
+     * @param member The member to put.
+     */
+    private void putMember(ServerMembers serverMembers, long serverId, Member member) {
+        long id = member.getId();
+        serverMembers.put(id, member);
+        membersById.compute(id, (key, members) -> {
+            Map<Long, Member> newMembers = members == null ? new ConcurrentHashMap<>() : members;
+            newMembers.put(serverId, member);
+            usersById.put(id, member.getUser());
+            return newMembers;
+        });
+    }
+
+    /**
+     * Updates all members with the given id.
+     *
+     * @param id The id of the members.
+     * @param mapper A function that takes an old member and returns the new member.
+     */
+    public void updateMembersById(long id, UnaryOperator<Member> mapper) {
+        Map<Long, Member> members = membersById.get(id);
+        if (members == null) {
+            return;
+        }
+        for (long serverId : new ArrayList<>(members.keySet())) {
+            synchronized (getServerLock(serverId)) {
+                ServerMembers serverMembers = membersByServerId.get(serverId);
+                Member member = serverMembers == null ? null : serverMembers.get(id);
+                if (member != null) {
+                    putMember(serverMembers, serverId, mapper.apply(member));
+                }
+            }
+        }
+    }
+
+    /**
+     * Removes a member from the cache.
+     *
+     * <p>Automatically removes the user of the member, too, if it was the last member with this id.
+     *
+     * @param memberId The id of the member to remove.
+     * @param serverId The id of the member's server.
+     */
+    public void removeMember(long memberId, long serverId) {
+        synchronized (getServerLock(serverId)) {
+            ServerMembers serverMembers = membersByServerId.get(serverId);
+            if (serverMembers == null) {
+                return;
+            }
+            Member member = serverMembers.remove(memberId);
+            if (member == null) {
+                return;
+            }
+            if (serverMembers.isEmpty()) {
+                membersByServerId.remove(serverId);
+            }
+            removeFromIdIndex(member, serverId);
+        }
+    }
+
+    /**
+     * Removes a member from the index of the member ids and removes its user if it was the last member with this id.
+     * Must only be called while holding the lock of the member's server.
+     *
+     * @param member The member to remove.
+     * @param serverId The id of the member's server.
+     */
+    private void removeFromIdIndex(Member member, long serverId) {
+        membersById.computeIfPresent(member.getId(), (id, members) -> {
+            members.remove(serverId, member);
+            if (members.isEmpty()) {
+                usersById.remove(id);
+                return null;
+            }
+            return members;
+        });
+    }
+
+    /**
+     * Removes all members from the cache.
+     */
+    public void clear() {
+        for (long serverId : new ArrayList<>(membersByServerId.keySet())) {
+            synchronized (getServerLock(serverId)) {
+                ServerMembers serverMembers = membersByServerId.remove(serverId);
+                if (serverMembers != null) {
+                    serverMembers.members.values().forEach(member -> removeFromIdIndex(member, serverId));
+                }
+            }
+        }
+    }
+
+    @Override
+    public Set<Server> getServers(long userId) {
+        Map<Long, Member> members = membersById.get(userId);
+        return members == null
+                ? Collections.emptySet()
+                : Collections.unmodifiableSet(members.values().stream()
+                        .map(Member::getServer)
+                        .collect(Collectors.toSet()));
+    }
+
+    @Override
+    public UserCache getUserCache() {
+        return this;
+    }
+
+    @Override
+    public Set<Member> getMembers() {
+        Set<Member> members = new HashSet<>();
+        membersByServerId.values().forEach(membersOfServer -> members.addAll(membersOfServer.members.values()));
+        return Collections.unmodifiableSet(members);
+    }
+
+    @Override
+    public Set<Member> getMembersById(long id) {
+        Map<Long, Member> members = membersById.get(id);
+        if (members == null) {
+            return Collections.emptySet();
+        }
+        return Collections.unmodifiableSet(new HashSet<>(members.values()));
+    }
+
+    @Override
+    public Set<Member> getMembersByServer(long serverId) {
+        ServerMembers serverMembers = membersByServerId.get(serverId);
+        if (serverMembers == null) {
+            return Collections.emptySet();
+        }
+        Set<Member> snapshot = serverMembers.snapshot;
+        if (snapshot != null) {
+            return snapshot;
+        }
+        synchronized (getServerLock(serverId)) {
+            return serverMembers.getMembers();
+        }
+    }
+
+    @Override
+    public Optional<Member> getMemberByIdAndServer(long id, long serverId) {
+        return Optional.ofNullable(membersByServerId.get(serverId)).map(membersOfServer -> membersOfServer.get(id));
+    }
+
+    @Override
+    public Set<User> getUsers() {
+        return Collections.unmodifiableSet(new HashSet<>(usersById.values()));
+    }
+
+    @Override
+    public Optional<User> getUserById(long id) {
+        return Optional.ofNullable(usersById.get(id));
+    }
+
+    /**
+     * The members of a server.
+     *
+     * <p>The members are only changed while holding the lock of the server, but can be read at any time.
+     */
+    private static final class ServerMembers {
+
+        /**
+         * The members of the server by their id.
+         */
+        private final Map<Long, Member> members = new ConcurrentHashMap<>();
+
+        /**
+         * An unmodifiable snapshot of the members or {@code null} if the members changed since it was taken.
+         */
+        private volatile Set<Member> snapshot = Collections.emptySet();
+
+        private Member get(long id) {
+            return members.get(id);
+        }
+
+        private void put(long id, Member member) {
+            members.put(id, member);
+            snapshot = null;
+        }
+
+        private Member remove(long id) {
+            Member member = members.remove(id);
+            if (member != null) {
+                snapshot = null;
+            }
+            return member;
+        }
+
+        private boolean isEmpty() {
+            return members.isEmpty();
+        }
+
+        /**
+         * Gets a snapshot of the members and takes a new one if the members changed.
+         * Taking a new snapshot must only happen while holding the lock of the server.
+         *
+         * @return An unmodifiable snapshot of the members.
+         */
+        private Set<Member> getMembers() {
+            Set<Member> currentSnapshot = snapshot;
+            if (currentSnapshot == null) {
+                currentSnapshot = Collections.unmodifiableSet(new HashSet<>(members.values()));
+                snapshot = currentSnapshot;
+            }
+            return currentSnapshot;
+        }
+    }
+
+}
@@ -0,0 +1,39 @@
+package org.javacord.core.util.cache;
+
+import org.javacord.core.entity.user.UserPresence;
+
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.UnaryOperator;
+
+/**
+ * A mutable, thread-safe cache for all user presences.
+ */
+public class ConcurrentUserPresenceCache implements UserPresenceCache {
+
+    private final Map<Long, UserPresence> presencesByUserId = new ConcurrentHashMap<>();
+
+    /**
+     * Updates a user presence in the cache.
+     *
+     * @param userId The id of the user.
+     * @param mapper A function that takes the old user presence (or {@code null}) and returns the new user presence.
+     */
+    public void updateUserPresence(long userId, UnaryOperator<UserPresence> mapper) {
+        presencesByUserId.compute(userId, (id, presence) -> mapper.apply(presence));
+    }
+
+    /**
+     * Removes all user presences from the cache.
+     */
+    public void clear() {
+        presencesByUserId.clear();
+    }
+
+    @Override
+    public Optional<UserPresence> getPresenceByUserId(long userId) {
+        return Optional.ofNullable(presencesByUserId.get(userId));
+    }
+
+}
@@ -0,0 +1,104 @@
+package org.javacord.core.util.cache;
+
+import org.javacord.api.entity.channel.Channel;
+import org.javacord.core.entity.user.Member;
+import org.javacord.core.entity.user.UserPresence;
+
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.UnaryOperator;
+
+/**
+ * An entity cache that is backed by an immutable {@link JavacordEntityCache}.
+ *
+ * <p>Every update atomically replaces the immutable cache, so all caches that are returned by this class are
+ * consistent snapshots that never change.
+ */
+public class CopyOnWriteEntityCache implements EntityCache {
+
+    private final AtomicReference<JavacordEntityCache> cache = new AtomicReference<>(JavacordEntityCache.empty());
+
+    @Override
+    public ChannelCache getChannelCache() {
+        return cache.get().getChannelCache();
+    }
+
+    @Override
+    public MemberCache getMemberCache() {
+        return cache.get().getMemberCache();
+    }
+
+    @Override
+    public UserPresenceCache getUserPresenceCache() {
+        return cache.get().getUserPresenceCache();
+    }
+
+    @Override
+    public Channel addChannel(Channel channel) {
+        return cache.getAndUpdate(entityCache -> entityCache.updateChannelCache(channelCache -> channelCache
+                        .getChannelById(channel.getId())
+                        .map(channelCache::removeChannel)
+                        .orElse(channelCache)
+                        .addChannel(channel)))
+                .getChannelCache()
+                .getChannelById(channel.getId())
+                .orElse(null);
+    }
+
+    @Override
+    public Channel removeChannel(long channelId) {
+        return cache.getAndUpdate(entityCache -> entityCache.updateChannelCache(channelCache -> channelCache
+                        .getChannelById(channelId)
+                        .map(channelCache::removeChannel)
+                        .orElse(channelCache)))
+                .getChannelCache()
+                .getChannelById(channelId)
+                .orElse(null);
+    }
+
+    @Override
+    public void addMemberOrReplaceExisting(Member member) {
+        cache.getAndUpdate(entityCache -> entityCache.updateMemberCache(memberCache -> memberCache
+                .removeMember(memberCache
+                        .getMemberByIdAndServer(member.getId(), member.getServer().getId())
+                        .orElse(null))
+                .addMember(member)));
+    }
+
+    @Override
+    public void addMembersOrReplaceExisting(Collection<Member> members) {
+        cache.getAndUpdate(entityCache -> entityCache.updateMemberCache(
+                memberCache -> memberCache.addMembers(members)));
+    }
+
+    @Override
+    public void updateMembersById(long id, UnaryOperator<Member> mapper) {
+        cache.getAndUpdate(entityCache -> entityCache.updateMemberCache(memberCache -> {
+            ImmutableMemberCache newMemberCache = memberCache;
+            for (Member member : memberCache.getMembersById(id)) {
+                newMemberCache = newMemberCache.removeMember(member).addMember(mapper.apply(member));
+            }
+            return newMemberCache;
+        }));
+    }
+
+    @Override
+    public void removeMember(long memberId, long serverId) {
+        cache.getAndUpdate(entityCache -> entityCache.updateMemberCache(memberCache -> memberCache
+                .removeMember(memberCache.getMemberByIdAndServer(memberId, serverId).orElse(null))));
+    }
+
+    @Override
+    public void updateUserPresence(long userId, UnaryOperator<UserPresence> mapper) {
+        cache.getAndUpdate(entityCache -> entityCache.updateUserPresenceCache(userPresenceCache -> {
+            UserPresence presence = userPresenceCache.getPresenceByUserId(userId).orElse(null);
+            return userPresenceCache.removeUserPresence(presence).addUserPresence(mapper.apply(presence));
+        }));
+    }
+
+    @Override
+    public void clear() {
+        cache.set(JavacordEntityCache.empty());
+    }
+
+}
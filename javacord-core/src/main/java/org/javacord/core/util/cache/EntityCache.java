@@ -0,0 +1,100 @@
+package org.javacord.core.util.cache;
+
+import org.javacord.api.entity.channel.Channel;
+import org.javacord.core.entity.user.Member;
+import org.javacord.core.entity.user.UserPresence;
+
+import java.util.Collection;
+import java.util.function.UnaryOperator;
+
+/**
+ * A cache with all Javacord entities.
+ */
+public interface EntityCache {
+
+    /**
+     * Gets the channel cache.
+     *
+     * @return The channel cache.
+     */
+    ChannelCache getChannelCache();
+
+    /**
+     * Gets the member cache.
+     *
+     * @return The member cache.
+     */
+    MemberCache getMemberCache();
+
+    /**
+     * Gets the user presence cache.
+     *
+     * @return The user presence cache.
+     */
+    UserPresenceCache getUserPresenceCache();
+
+    /**
+     * Adds a channel to the cache or replaces the channel with the same id.
+     *
+     * @param channel The channel to add.
+     * @return The channel that was replaced or {@code null} if there was no channel with the same id.
+     */
+    Channel addChannel(Channel channel);
+
+    /**
+     * Removes a channel from the cache.
+     *
+     * @param channelId The id of the channel to remove.
+     * @return The removed channel or {@code null} if there was no channel with the given id.
+     */
+    Channel removeChannel(long channelId);
+
+    /**
+     * Adds a member to the cache or replaces the member with the same id in the same server.
+     *
+     * <p>Automatically updates the user of the member, too.
+     *
+     * @param member The member to add.
+     */
+    void addMemberOrReplaceExisting(Member member);
+
+    /**
+     * Adds members to the cache or replaces the members with the same id in the same server.
+     *
+     * <p>Automatically updates the users of the members, too.
+     * This is considerably cheaper than adding the members one by one.
+     *
+     * @param members The members to add.
+     */
+    void addMembersOrReplaceExisting(Collection<Member> members);
+
+    /**
+     * Updates all members with the given id.
+     *
+     * @param id The id of the members.
+     * @param mapper A function that takes an old member and returns the new member.
+     */
+    void updateMembersById(long id, UnaryOperator<Member> mapper);
+
+    /**
+     * Removes a member from the cache.
+     *
+     * @param memberId The id of the member to remove.
+     * @param serverId The id of the member's server.
+     */
+    void removeMember(long memberId, long serverId);
+
+    /**
+     * Updates a user presence in the cache.
+     *
+     * @param userId The id of the user.
+     * @param mapper A function that takes the old user presence (or {@code null}) and returns the new user presence.
+     */
+    void updateUserPresence(long userId, UnaryOperator<UserPresence> mapper);
+
+    /**
+     * Removes all entities from the cache.
+     */
+    void clear();
+
+}
@@ -0,0 +1,588 @@
+package org.javacord.core.util.cache;
+
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.apache.logging.log4j.Logger;
+import org.javacord.api.entity.DiscordClient;
+import org.javacord.api.entity.VanityUrlCode;
+import org.javacord.api.entity.activity.Activity;
+import org.javacord.api.entity.activity.ActivityFlag;
+import org.javacord.api.entity.channel.ChannelCategory;
+import org.javacord.api.entity.channel.ServerChannel;
+import org.javacord.api.entity.channel.ServerForumChannel;
+import org.javacord.api.entity.channel.ServerVoiceChannel;
+import org.javacord.api.entity.channel.ThreadMember;
+import org.javacord.api.entity.emoji.CustomEmoji;
+import org.javacord.api.entity.emoji.KnownCustomEmoji;
+import org.javacord.api.entity.permission.Permissions;
+import org.javacord.api.entity.permission.Role;
+import org.javacord.api.entity.permission.RoleFlag;
+import org.javacord.api.entity.server.ServerFeature;
+import org.javacord.api.entity.server.SystemChannelFlag;
+import org.javacord.api.entity.server.invite.WelcomeScreenChannel;
+import org.javacord.api.entity.server.scheduledevent.ServerScheduledEvent;
+import org.javacord.api.entity.server.scheduledevent.ServerScheduledEventMetadata;
+import org.javacord.api.entity.sticker.Sticker;
+import org.javacord.api.entity.user.User;
+import org.javacord.api.entity.user.UserFlag;
+import org.javacord.api.entity.user.UserStatus;
+import org.javacord.core.DiscordApiImpl;
+import org.javacord.core.entity.channel.ChannelCategoryImpl;
+import org.javacord.core.entity.channel.RegularServerChannelImpl;
+import org.javacord.core.entity.channel.ServerForumChannelImpl;
+import org.javacord.core.entity.channel.ServerStageVoiceChannelImpl;
+import org.javacord.core.entity.channel.ServerTextChannelImpl;
+import org.javacord.core.entity.channel.ServerThreadChannelImpl;
+import org.javacord.core.entity.channel.ServerVoiceChannelImpl;
+import org.javacord.core.entity.channel.TextableRegularServerChannelImpl;
+import org.javacord.core.entity.emoji.KnownCustomEmojiImpl;
+import org.javacord.core.entity.permission.RoleImpl;
+import org.javacord.core.entity.server.ServerImpl;
+import org.javacord.core.entity.server.scheduledevent.ServerScheduledEventImpl;
+import org.javacord.core.entity.user.MemberImpl;
+import org.javacord.core.entity.user.UserPresence;
+import org.javacord.core.util.gateway.EtfDecoder;
+import org.javacord.core.util.gateway.EtfEncoder;
+import org.javacord.core.util.logging.LoggerUtil;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Writes the cached servers of a shard to a snapshot file and restores them from it.
+ *
+ * <p>Every server is stored in the same structure as the payload of a {@code GUILD_CREATE} packet, including all
+ * cached members and presences, so restoring it takes the same code path as receiving it from Discord. The payloads
+ * are encoded with the {@link EtfEncoder} and the whole file is gzip-compressed.
+ *
+ * <p>A snapshot is only consistent with the session it was written for. It must only be restored before resuming that
+ * session, so Discord replays the events which happened after it was written.
+ */
+public class EntityCacheSnapshot {
+
+    /**
+     * The logger of this class.
+     */
+    private static final Logger logger = LoggerUtil.getLogger(EntityCacheSnapshot.class);
+
+    private static final JsonNodeFactory nodeFactory = JsonNodeFactory.instance;
+
+    private static final int MAGIC = 0x4A434353;
+    private static final int VERSION = 1;
+
+    private EntityCacheSnapshot() {
+        throw new UnsupportedOperationException("You cannot create an instance of this class");
+    }
+
+    /**
+     * Gets the snapshot file of the given shard.
+     *
+     * @param api The shard.
+     * @param directory The directory in which the snapshots are stored.
+     * @return The snapshot file of the shard.
+     */
+    private static Path getSnapshotFile(DiscordApiImpl api, Path directory) {
+        return directory.resolve("cache-" + api.getCurrentShard() + "-of-" + api.getTotalShards() + ".snapshot");
+    }
+
+    /**
+     * Writes the cached servers of the given shard to its snapshot file.
+     *
+     * <p>This must be called from the thread which handles the packets, so no packet modifies the cache while the
+     * snapshot is written.
+     *
+     * @param api The shard.
+     * @param directory The directory in which the snapshots are stored.
+     * @throws IOException If the snapshot could not be written.
+     */
+    public static void write(DiscordApiImpl api, Path directory) throws IOException {
+        long start = System.nanoTime();
+        Files.createDirectories(directory);
+        Path temporaryFile = Files.createTempFile(directory, "cache-", ".tmp");
+        Collection<ServerImpl> servers = new ArrayList<>();
+        api.getAllServers().forEach(server -> servers.add((ServerImpl) server));
+        try {
+            try (DataOutputStream out = new DataOutputStream(
+                    new GZIPOutputStream(new BufferedOutputStream(Files.newOutputStream(temporaryFile))))) {
+                out.writeInt(MAGIC);
+                out.writeInt(VERSION);
+                Set<Long> unavailableServers = api.getUnavailableServers();
+                out.writeInt(unavailableServers.size());
+                for (long serverId : unavailableServers) {
+                    out.writeLong(serverId);
+                }
+                out.writeInt(servers.size());
+                Set<Long> usersWithPresence = new HashSet<>();
+                for (ServerImpl server : servers) {
+                    byte[] data = EtfEncoder.encode(toJson(api, server, usersWithPresence));
+                    out.writeInt(data.length);
+                    out.write(data);
+                }
+            }
+            Files.move(temporaryFile, getSnapshotFile(api, directory),
+                    StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } finally {
+            Files.deleteIfExists(temporaryFile);
+        }
+        logger.debug("Wrote snapshot of {} servers in {} ms", servers.size(), (System.nanoTime() - start) / 1_000_000);
+    }
+
+    /**
+     * Restores the cached servers of the given shard from its snapshot file and deletes the file.
+     *
+     * @param api The shard.
+     * @param directory The directory in which the snapshots are stored.
+     * @return Whether a snapshot was restored.
+     * @throws IOException If the snapshot could not be read.
+     */
+    public static boolean restore(DiscordApiImpl api, Path directory) throws IOException {
+        Path snapshotFile = getSnapshotFile(api, directory);
+        if (!Files.isRegularFile(snapshotFile)) {
+            return false;
+        }
+        long start = System.nanoTime();
+        int serverCount;
+        try (DataInputStream in = new DataInputStream(
+                new GZIPInputStream(new BufferedInputStream(Files.newInputStream(snapshotFile))))) {
+            if (in.readInt() != MAGIC || in.readInt() != VERSION) {
+                throw new IOException("Unsupported snapshot format");
+            }
+            int unavailableServerCount = in.readInt();
+            for (int i = 0; i < unavailableServerCount; i++) {
+                api.addUnavailableServerToCache(in.readLong());
+            }
+            serverCount = in.readInt();
+            byte[] buffer = new byte[0];
+            for (int i = 0; i < serverCount; i++) {
+                int length = in.readInt();
+                if (buffer.length < length) {
+                    buffer = new byte[length];
+                }
+                in.readFully(buffer, 0, length);
+                new ServerImpl(api, new EtfDecoder(buffer, 0, length).decode());
+            }
+        } finally {
+            // A snapshot is only valid for the session it was written for
+            Files.deleteIfExists(snapshotFile);
+        }
+        logger.debug("Restored snapshot of {} servers in {} ms", serverCount, (System.nanoTime() - start) / 1_000_000);
+        return true;
+    }
+
+    /**
+     * Deletes the snapshot file of the given shard.
+     *
+     * @param api The shard.
+     * @param directory The directory in which the snapshots are stored.
+     * @throws IOException If the snapshot could not be deleted.
+     */
+    public static void delete(DiscordApiImpl api, Path directory) throws IOException {
+        Files.deleteIfExists(getSnapshotFile(api, directory));
+    }
+
+    /**
+     * Creates the {@code GUILD_CREATE} payload for the given server.
+     *
+     * @param api The shard.
+     * @param server The server.
+     * @param usersWithPresence The ids of the users whose presence was already written. Presences are cached per user,
+     *                          so they only have to be written for one of the user's servers.
+     * @return The payload.
+     */
+    private static ObjectNode toJson(DiscordApiImpl api, ServerImpl server, Set<Long> usersWithPresence) {
+        ObjectNode data = nodeFactory.objectNode();
+        data.put("id", server.getId());
+        data.put("name", server.getName());
+        data.put("region", server.getRegion().getKey());
+        data.put("large", server.isLarge());
+        data.put("member_count", server.getMemberCount());
+        data.put("owner_id", server.getOwnerId());
+        data.put("verification_level", server.getVerificationLevel().getId());
+        data.put("explicit_content_filter", server.getExplicitContentFilterLevel().getId());
+        data.put("default_message_notifications", server.getDefaultMessageNotificationLevel().getId());
+        data.put("mfa_level", server.getMultiFactorAuthenticationLevel().getId());
+        data.put("premium_tier", server.getBoostLevel().getId());
+        data.put("nsfw_level", server.getNsfwLevel().getId());
+        data.put("preferred_locale", server.getPreferredLocale().toLanguageTag());
+        data.put("icon", server.getIconHash());
+        data.put("splash", server.getSplashHash());
+        data.put("discovery_splash", server.getDiscoverySplashHash());
+        server.getAfkChannel().ifPresent(channel -> data.put("afk_channel_id", channel.getId()));
+        data.put("afk_timeout", server.getAfkTimeoutInSeconds());
+        server.getSystemChannel().ifPresent(channel -> data.put("system_channel_id", channel.getId()));
+        server.getApplicationId().ifPresent(applicationId -> data.put("application_id", applicationId));
+        ArrayNode features = data.putArray("features");
+        for (ServerFeature feature : server.getFeatures()) {
+            features.add(feature.name());
+        }
+        data.put("premium_subscription_count", server.getBoostCount());
+        server.getRulesChannel().ifPresent(channel -> data.put("rules_channel_id", channel.getId()));
+        server.getDescription().ifPresent(description -> data.put("description", description));
+        server.getModeratorsOnlyChannel().ifPresent(channel -> data.put("public_updates_channel_id", channel.getId()));
+        server.getVanityUrlCode().map(VanityUrlCode::getCode).ifPresent(code -> data.put("vanity_url_code", code));
+        int systemChannelFlags = 0;
+        for (SystemChannelFlag flag : server.getSystemChannelFlags()) {
+            systemChannelFlags |= flag.asInt();
+        }
+        data.put("system_channel_flags", systemChannelFlags);
+        data.put("widget_enabled", server.isWidgetEnabled());
+        server.getWidgetChannelId().ifPresent(channelId -> data.put("widget_channel_id", channelId));
+        server.getMaxPresences().ifPresent(maxPresences -> data.put("max_presences", maxPresences));
+        server.getMaxMembers().ifPresent(maxMembers -> data.put("max_members", maxMembers));
+        server.getMaxVideoChannelUsers().ifPresent(maxUsers -> data.put("max_video_channel_users", maxUsers));
+        data.put("premium_progress_bar_enabled", server.isPremiumProgressBarEnabled());
+        server.getWelcomeScreen().ifPresent(welcomeScreen -> {
+            ObjectNode welcomeScreenJson = data.putObject("welcome_screen");
+            welcomeScreenJson.put("description", welcomeScreen.getDescription().orElse(null));
+            ArrayNode welcomeChannels = welcomeScreenJson.putArray("welcome_channels");
+            for (WelcomeScreenChannel channel : welcomeScreen.getWelcomeScreenChannels()) {
+                ObjectNode channelJson = welcomeChannels.addObject();
+                channelJson.put("channel_id", channel.getChannelId());
+                channelJson.put("description", channel.getDescription());
+                channel.getEmojiId().ifPresent(emojiId -> channelJson.put("emoji_id", emojiId));
+                channel.getEmojiName().ifPresent(emojiName -> channelJson.put("emoji_name", emojiName));
+            }
+        });
+
+        ArrayNode scheduledEvents = data.putArray("guild_scheduled_events");
+        for (ServerScheduledEvent event : server.getScheduledEvents()) {
+            scheduledEvents.add(toJson((ServerScheduledEventImpl) event));
+        }
+
+        ArrayNode channels = data.putArray("channels");
+        ArrayNode threads = data.putArray("threads");
+        ArrayNode voiceStates = data.putArray("voice_states");
+        for (ServerChannel channel : server.getUnorderedChannels()) {
+            if (channel instanceof ServerThreadChannelImpl) {
+                threads.add(toJson(api, (ServerThreadChannelImpl) channel));
+                continue;
+            }
+            channels.add(toJson(channel));
+            if (channel instanceof ServerVoiceChannel) {
+                for (long userId : ((ServerVoiceChannel) channel).getConnectedUserIds()) {
+                    ObjectNode voiceState = voiceStates.addObject();
+                    voiceState.put("channel_id", channel.getId());
+                    voiceState.put("user_id", userId);
+                }
+            }
+        }
+
+        ArrayNode roles = data.putArray("roles");
+        for (Role role : server.getRoles()) {
+            roles.add(toJson(role));
+        }
+
+        ArrayNode members = data.putArray("members");
+        ArrayNode presences = data.putArray("presences");
+        server.getRealMembers().forEach(member -> {
+            members.add(toJson(server, (MemberImpl) member));
+            if (usersWithPresence.add(member.getId())) {
+                api.getEntityCache().getUserPresenceCache().getPresenceByUserId(member.getId())
+                        .filter(presence -> presence.getStatus() != UserStatus.OFFLINE
+                                || !presence.getActivities().isEmpty())
+                        .ifPresent(presence -> presences.add(toJson(presence)));
+            }
+        });
+
+        ArrayNode emojis = data.putArray("emojis");
+        for (KnownCustomEmoji emoji : server.getCustomEmojis()) {
+            emojis.add(toJson((KnownCustomEmojiImpl) emoji));
+        }
+
+        ArrayNode stickers = data.putArray("stickers");
+        for (Sticker sticker : server.getStickers()) {
+            stickers.add(toJson(sticker));
+        }
+        return data;
+    }
+
+    private static ObjectNode toJson(ServerChannel channel) {
+        ObjectNode data = nodeFactory.objectNode();
+        data.put("id", channel.getId());
+        data.put("name", channel.getName());
+        data.put("type", channel.getType().getId());
+        if (channel instanceof RegularServerChannelImpl) {
+            RegularServerChannelImpl regularChannel = (RegularServerChannelImpl) channel;
+            data.put("position", regularChannel.getRawPosition());
+            ArrayNode permissionOverwrites = data.putArray("permission_overwrites");
+            addPermissionOverwrites(permissionOverwrites, regularChannel.getInternalOverwrittenRolePermissions(), 0);
+            addPermissionOverwrites(permissionOverwrites, regularChannel.getInternalOverwrittenUserPermissions(), 1);
+        }
+        if (channel instanceof TextableRegularServerChannelImpl) {
+            TextableRegularServerChannelImpl textableChannel = (TextableRegularServerChannelImpl) channel;
+            data.put("nsfw", textableChannel.isNsfw());
+            data.put("rate_limit_per_user", textableChannel.getSlowmodeDelayInSeconds());
+            textableChannel.getCategory().map(ChannelCategory::getId)
+                    .ifPresent(parentId -> data.put("parent_id", parentId));
+        }
+        if (channel instanceof ServerTextChannelImpl) {
+            ServerTextChannelImpl textChannel = (ServerTextChannelImpl) channel;
+            data.put("topic", textChannel.getTopic());
+            data.put("default_auto_archive_duration", textChannel.getDefaultAutoArchiveDuration());
+        }
+        if (channel instanceof ServerVoiceChannelImpl) {
+            ServerVoiceChannelImpl voiceChannel = (ServerVoiceChannelImpl) channel;
+            data.put("bitrate", voiceChannel.getBitrate());
+            data.put("user_limit", voiceChannel.getUserLimit().orElse(0));
+        }
+        if (channel instanceof ServerStageVoiceChannelImpl) {
+            ((ServerStageVoiceChannelImpl) channel).getTopic().ifPresent(topic -> data.put("topic", topic));
+        }
+        if (channel instanceof ServerForumChannelImpl) {
+            ((ServerForumChannel) channel).getCategory().map(ChannelCategory::getId)
+                    .ifPresent(parentId -> data.put("parent_id", parentId));
+        }
+        if (channel instanceof ChannelCategoryImpl) {
+            data.put("nsfw", ((ChannelCategoryImpl) channel).isNsfw());
+        }
+        return data;
+    }
+
+    private static void addPermissionOverwrites(ArrayNode permissionOverwrites, Map<Long, Permissions> overwrites,
+                                                int type) {
+        overwrites.forEach((id, permissions) -> {
+            ObjectNode overwrite = permissionOverwrites.addObject();
+            overwrite.put("id", id);
+            overwrite.put("type", type);
+            overwrite.put("allow", permissions.getAllowedBitmask());
+            overwrite.put("deny", permissions.getDeniedBitmask());
+        });
+    }
+
+    private static ObjectNode toJson(DiscordApiImpl api, ServerThreadChannelImpl thread) {
+        ObjectNode data = nodeFactory.objectNode();
+        data.put("id", thread.getId());
+        data.put("name", thread.getName());
+        data.put("type", thread.getType().getId());
+        data.put("parent_id", thread.getParentId());
+        data.put("owner_id", thread.getOwnerId());
+        data.put("message_count", thread.getMessageCount());
+        data.put("member_count", thread.getMemberCount());
+        data.put("last_message_id", thread.getLastMessageId());
+        data.put("rate_limit_per_user", thread.getRateLimitPerUser());
+        data.put("total_message_sent", thread.getTotalNumberOfMessagesSent());
+        ObjectNode metadata = data.putObject("thread_metadata");
+        metadata.put("auto_archive_duration", thread.getMetadata().getAutoArchiveDuration());
+        metadata.put("archived", thread.getMetadata().isArchived());
+        metadata.put("locked", thread.getMetadata().isLocked());
+        metadata.put("archive_timestamp", thread.getMetadata().getArchiveTimestamp().toString());
+        thread.getMetadata().getCreationTimestamp()
+                .ifPresent(creationTimestamp -> metadata.put("creation_timestamp", creationTimestamp.toString()));
+        thread.getMetadata().isInvitable().ifPresent(invitable -> metadata.put("invitable", invitable));
+        // Like in GUILD_CREATE packets, only the thread member of the bot itself is included
+        long yourselfId = api.getYourself().getId();
+        for (ThreadMember threadMember : thread.getMembers()) {
+            if (threadMember.getUserId() == yourselfId) {
+                ObjectNode member = data.putObject("member");
+                member.put("id", threadMember.getId());
+                member.put("user_id", threadMember.getUserId());
+                member.put("join_timestamp", threadMember.getJoinTimestamp().toString());
+                member.put("flags", threadMember.getFlags());
+            }
+        }
+        return data;
+    }
+
+    private static ObjectNode toJson(Role role) {
+        ObjectNode data = nodeFactory.objectNode();
+        data.put("id", role.getId());
+        data.put("name", role.getName());
+        data.put("position", role.getRawPosition());
+        data.put("color", ((RoleImpl) role).getColorAsInt());
+        data.put("hoist", role.isDisplayedSeparately());
+        role.getIconHash().ifPresent(iconHash -> data.put("icon", iconHash));
+        role.getUnicodeEmojiIcon().ifPresent(unicodeEmoji -> data.put("unicode_emoji", unicodeEmoji));
+        data.put("mentionable", role.isMentionable());
+        data.put("permissions", role.getPermissions().getAllowedBitmask());
+        data.put("managed", role.isManaged());
+        role.getRoleTags().ifPresent(roleTags -> {
+            ObjectNode tags = data.putObject("tags");
+            roleTags.getBotId().ifPresent(botId -> tags.put("bot_id", botId));
+            roleTags.getIntegrationId().ifPresent(integrationId -> tags.put("integration_id", integrationId));
+            if (roleTags.isPremiumSubscriptionRole()) {
+                tags.putNull("premium_subscriber");
+            }
+        });
+        int flags = 0;
+        for (RoleFlag flag : role.getFlags()) {
+            flags |= flag.asInt();
+        }
+        data.put("flags", flags);
+        return data;
+    }
+
+    private static ObjectNode toJson(ServerImpl server, MemberImpl member) {
+        ObjectNode data = nodeFactory.objectNode();
+        data.set("user", toJson(member.getUser()));
+        member.getNickname().ifPresent(nickname -> data.put("nick", nickname));
+        ArrayNode roles = data.putArray("roles");
+        for (long roleId : member.getRoleIds()) {
+            // The everyone role is added to every member when the member is created
+            if (roleId != server.getId()) {
+                roles.add(roleId);
+            }
+        }
+        member.getServerAvatarHash().ifPresent(avatarHash -> data.put("avatar", avatarHash));
+        data.put("joined_at", member.getJoinedAtTimestamp().toString());
+        data.put("premium_since", member.getServerBoostingSince());
+        data.put("pending", member.isPending());
+        data.put("deaf", member.isDeafened());
+        data.put("mute", member.isMuted());
+        member.getTimeout().ifPresent(timeout -> data.put("communication_disabled_until", timeout.toString()));
+        return data;
+    }
+
+    private static ObjectNode toJson(User user) {
+        ObjectNode data = nodeFactory.objectNode();
+        data.put("id", user.getId());
+        data.put("username", user.getName());
+        data.put("discriminator", user.getDiscriminator());
+        user.getAvatarHash().ifPresent(avatarHash -> data.put("avatar", avatarHash));
+        int flags = 0;
+        for (UserFlag flag : user.getUserFlags()) {
+            flags |= flag.asInt();
+        }
+        data.put("public_flags", flags);
+        data.put("bot", user.isBot());
+        return data;
+    }
+
+    private static ObjectNode toJson(UserPresence presence) {
+        ObjectNode data = nodeFactory.objectNode();
+        data.putObject("user").put("id", presence.getUserId());
+        data.put("status", presence.getStatus().getStatusString());
+        ObjectNode clientStatus = data.putObject("client_status");
+        for (DiscordClient client : DiscordClient.values()) {
+            presence.getClientStatus().get(client)
+                    .filter(status -> status != UserStatus.OFFLINE)
+                    .forEach(status -> clientStatus.put(client.getName(), status.getStatusString()));
+        }
+        ArrayNode activities = data.putArray("activities");
+        for (Activity activity : presence.getActivities()) {
+            activities.add(toJson(activity));
+        }
+        return data;
+    }
+
+    private static ObjectNode toJson(Activity activity) {
+        ObjectNode data = nodeFactory.objectNode();
+        data.put("type", activity.getType().getId());
+        data.put("name", activity.getName());
+        activity.getStreamingUrl().ifPresent(url -> data.put("url", url));
+        activity.getDetails().ifPresent(details -> data.put("details", details));
+        activity.getState().ifPresent(state -> data.put("state", state));
+        activity.getParty().ifPresent(party -> {
+            ObjectNode partyJson = data.putObject("party");
+            party.getId().ifPresent(id -> partyJson.put("id", id));
+            if (party.getCurrentSize().isPresent() && party.getMaximumSize().isPresent()) {
+                partyJson.putArray("size").add(party.getCurrentSize().get()).add(party.getMaximumSize().get());
+            }
+        });
+        activity.getAssets().ifPresent(assets -> {
+            ObjectNode assetsJson = data.putObject("assets");
+            assets.getLargeImageValue().ifPresent(largeImage -> assetsJson.put("large_image", largeImage));
+            assets.getLargeText().ifPresent(largeText -> assetsJson.put("large_text", largeText));
+            assets.getSmallImageValue().ifPresent(smallImage -> assetsJson.put("small_image", smallImage));
+            assets.getSmallText().ifPresent(smallText -> assetsJson.put("small_text", smallText));
+        });
+        activity.getSecrets().ifPresent(secrets -> {
+            ObjectNode secretsJson = data.putObject("secrets");
+            secrets.getJoin().ifPresent(join -> secretsJson.put("join", join));
+            secrets.getSpectate().ifPresent(spectate -> secretsJson.put("spectate", spectate));
+            secrets.getMatch().ifPresent(match -> secretsJson.put("match", match));
+        });
+        activity.getApplicationId().ifPresent(applicationId -> data.put("application_id", applicationId));
+        data.put("created_at", activity.getCreatedAt() == null ? 0 : activity.getCreatedAt().toEpochMilli());
+        activity.getInstance().ifPresent(instance -> data.put("instance", instance));
+        if (activity.getStartTime().isPresent() || activity.getEndTime().isPresent()) {
+            ObjectNode timestamps = data.putObject("timestamps");
+            activity.getStartTime().ifPresent(startTime -> timestamps.put("start", startTime.toEpochMilli()));
+            activity.getEndTime().ifPresent(endTime -> timestamps.put("end", endTime.toEpochMilli()));
+        }
+        activity.getEmoji().ifPresent(emoji -> {
+            ObjectNode emojiJson = data.putObject("emoji");
+            if (emoji.isCustomEmoji()) {
+                CustomEmoji customEmoji = emoji.asCustomEmoji().get();
+                emojiJson.put("id", customEmoji.getId());
+                emojiJson.put("name", customEmoji.getName());
+                emojiJson.put("animated", customEmoji.isAnimated());
+            } else {
+                emojiJson.put("name", emoji.asUnicodeEmoji().orElse(""));
+            }
+        });
+        int flags = 0;
+        for (ActivityFlag flag : activity.getFlags()) {
+            flags |= flag.asInt();
+        }
+        data.put("flags", flags);
+        ArrayNode buttons = data.putArray("buttons");
+        activity.getButtonLabels().forEach(buttons::add);
+        return data;
+    }
+
+    private static ObjectNode toJson(KnownCustomEmojiImpl emoji) {
+        ObjectNode data = nodeFactory.objectNode();
+        data.put("id", emoji.getId());
+        data.put("name", emoji.getName());
+        data.put("animated", emoji.isAnimated());
+        emoji.getWhitelistedRoles().ifPresent(whitelist -> {
+            ArrayNode roles = data.putArray("roles");
+            whitelist.forEach(role -> roles.add(role.getId()));
+        });
+        data.put("require_colons", emoji.requiresColons());
+        data.put("managed", emoji.isManaged());
+        return data;
+    }
+
+    private static ObjectNode toJson(Sticker sticker) {
+        ObjectNode data = nodeFactory.objectNode();
+        data.put("id", sticker.getId());
+        sticker.getPackId().ifPresent(packId -> data.put("pack_id", packId));
+        data.put("name", sticker.getName());
+        data.put("description", sticker.getDescription());
+        data.put("tags", sticker.getTags());
+        data.put("type", sticker.getType().getId());
+        data.put("format_type", sticker.getFormatType().getId());
+        sticker.isAvailable().ifPresent(available -> data.put("available", available));
+        sticker.getServerId().ifPresent(serverId -> data.put("guild_id", serverId));
+        sticker.getSortValue().ifPresent(sortValue -> data.put("sort_value", sortValue));
+        return data;
+    }
+
+    private static ObjectNode toJson(ServerScheduledEventImpl event) {
+        ObjectNode data = nodeFactory.objectNode();
+        data.put("id", event.getId());
+        data.put("guild_id", event.getServerId());
+        event.getChannelId().ifPresent(channelId -> data.put("channel_id", channelId));
+        event.getCreatorId().ifPresent(creatorId -> data.put("creator_id", creatorId));
+        data.put("name", event.getName());
+        event.getDescription().ifPresent(description -> data.put("description", description));
+        data.put("entity_type", event.getEntityType().getValue());
+        event.getEntityId().ifPresent(entityId -> data.put("entity_id", entityId));
+        data.put("status", event.getStatus().getValue());
+        data.put("privacy_level", event.getPrivacyLevel().getValue());
+        data.put("scheduled_start_time", event.getStartTime().toString());
+        event.getEndTime().ifPresent(endTime -> data.put("scheduled_end_time", endTime.toString()));
+        event.getEntityMetadata().flatMap(ServerScheduledEventMetadata::getLocation)
+                .ifPresent(location -> data.putObject("entity_metadata").put("location", location));
+        event.getCreator().ifPresent(creator -> data.set("creator", toJson(creator)));
+        event.getImageHash().ifPresent(imageHash -> data.put("image", imageHash));
+        event.getUserCount().ifPresent(userCount -> data.put("user_count", userCount));
+        return data;
+    }
+
+}
@@ -0,0 +1,408 @@
+package org.javacord.core.util.cache;
+
+/**
+ * An immutable hash map with primitive {@code long} keys.
+ *
+ * <p>The map is a hash array mapped trie, so updates only copy the path to the changed entry. In contrast to a
+ * {@link io.vavr.collection.HashMap} with {@link Long} keys, lookups never box the key and do not allocate.
+ *
+ * @param <V> The type of the values.
+ */
+public final class ImmutableLongMap<V> {
+
+    private static final int BITS_PER_LEVEL = 5;
+    private static final int LEVEL_MASK = (1 << BITS_PER_LEVEL) - 1;
+
+    private static final ImmutableLongMap<?> EMPTY_MAP = new ImmutableLongMap<>(BitmapNode.EMPTY_NODE, 0);
+
+    private final BitmapNode root;
+    private final int size;
+
+    private ImmutableLongMap(BitmapNode root, int size) {
+        this.root = root;
+        this.size = size;
+    }
+
+    /**
+     * Gets an empty map.
+     *
+     * @param <V> The type of the values.
+     * @return An empty map.
+     */
+    @SuppressWarnings("unchecked")
+    public static <V> ImmutableLongMap<V> empty() {
+        return (ImmutableLongMap<V>) EMPTY_MAP;
+    }
+
+    /**
+     * Gets the value for the given key.
+     *
+     * <p>This method has an effective time complexity of {@code O(1)}.
+     *
+     * @param key The key.
+     * @return The value or {@code null} if the map does not contain the key.
+     */
+    @SuppressWarnings("unchecked")
+    public V get(long key) {
+        return (V) root.get(key, hash(key), 0);
+    }
+
+    /**
+     * Gets the value for the given key.
+     *
+     * @param key The key.
+     * @param defaultValue The value that is returned if the map does not contain the key.
+     * @return The value or the default value if the map does not contain the key.
+     */
+    public V getOrDefault(long key, V defaultValue) {
+        V value = get(key);
+        return value == null ? defaultValue : value;
+    }
+
+    /**
+     * Checks if the map contains the given key.
+     *
+     * @param key The key.
+     * @return Whether the map contains the key.
+     */
+    public boolean containsKey(long key) {
+        return get(key) != null;
+    }
+
+    /**
+     * Puts a value into the map, replacing the current value for the key.
+     *
+     * <p>This method has an effective time complexity of {@code O(1)}.
+     *
+     * @param key The key.
+     * @param value The value. Must not be {@code null}.
+     * @return The new map.
+     */
+    public ImmutableLongMap<V> put(long key, V value) {
+        if (value == null) {
+            throw new IllegalArgumentException("value must not be null");
+        }
+        SizeChange sizeChange = new SizeChange();
+        BitmapNode newRoot = root.put(key, hash(key), 0, value, sizeChange);
+        return newRoot == root ? this : new ImmutableLongMap<>(newRoot, size + sizeChange.delta);
+    }
+
+    /**
+     * Removes the given key from the map.
+     *
+     * <p>This method has an effective time complexity of {@code O(1)}.
+     *
+     * @param key The key.
+     * @return The new map.
+     */
+    public ImmutableLongMap<V> remove(long key) {
+        Object newRoot = root.remove(key, hash(key), 0);
+        if (newRoot == root) {
+            return this;
+        }
+        if (newRoot == null) {
+            return empty();
+        }
+        if (newRoot instanceof Entry) {
+            // The root must stay a bitmap node
+            Entry entry = (Entry) newRoot;
+            return new ImmutableLongMap<>(BitmapNode.EMPTY_NODE.put(
+                    entry.key, hash(entry.key), 0, entry.value, new SizeChange()), size - 1);
+        }
+        return new ImmutableLongMap<>((BitmapNode) newRoot, size - 1);
+    }
+
+    /**
+     * Gets the amount of entries in the map.
+     *
+     * @return The amount of entries.
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Checks if the map is empty.
+     *
+     * @return Whether the map is empty.
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    private static int hash(long key) {
+        int hash = Long.hashCode(key);
+        return hash ^ (hash >>> 16);
+    }
+
+    /**
+     * Creates a node which contains the two given entries with different keys.
+     *
+     * @param first The first entry.
+     * @param firstHash The hash of the first entry's key.
+     * @param second The second entry.
+     * @param secondHash The hash of the second entry's key.
+     * @param shift The shift of the level of the node.
+     * @return The node.
+     */
+    private static Object createNode(Entry first, int firstHash, Entry second, int secondHash, int shift) {
+        if (shift >= Integer.SIZE) {
+            return new CollisionNode(new long[] {first.key, second.key}, new Object[] {first.value, second.value});
+        }
+        int firstBit = bit(firstHash, shift);
+        int secondBit = bit(secondHash, shift);
+        if (firstBit == secondBit) {
+            return new BitmapNode(firstBit,
+                    new Object[] {createNode(first, firstHash, second, secondHash, shift + BITS_PER_LEVEL)});
+        }
+        // The children are ordered by their bit, which may be the sign bit
+        Object[] children = Integer.compareUnsigned(firstBit, secondBit) < 0
+                ? new Object[] {first, second}
+                : new Object[] {second, first};
+        return new BitmapNode(firstBit | secondBit, children);
+    }
+
+    private static int bit(int hash, int shift) {
+        return 1 << ((hash >>> shift) & LEVEL_MASK);
+    }
+
+    /**
+     * A mutable holder for the size change of an update.
+     */
+    private static final class SizeChange {
+        private int delta;
+    }
+
+    /**
+     * A single key-value pair.
+     */
+    private static final class Entry {
+
+        private final long key;
+        private final Object value;
+
+        private Entry(long key, Object value) {
+            this.key = key;
+            this.value = value;
+        }
+    }
+
+    /**
+     * A node of the trie.
+     */
+    private interface Node {
+
+        /**
+         * Gets the value for the given key.
+         *
+         * @param key The key.
+         * @param hash The hash of the key.
+         * @param shift The shift of the level of this node.
+         * @return The value or {@code null}.
+         */
+        Object get(long key, int hash, int shift);
+
+        /**
+         * Puts the given value.
+         *
+         * @param key The key.
+         * @param hash The hash of the key.
+         * @param shift The shift of the level of this node.
+         * @param value The value.
+         * @param sizeChange The holder for the size change.
+         * @return The new node or this node if nothing changed.
+         */
+        Node put(long key, int hash, int shift, Object value, SizeChange sizeChange);
+
+        /**
+         * Removes the given key.
+         *
+         * @param key The key.
+         * @param hash The hash of the key.
+         * @param shift The shift of the level of this node.
+         * @return The new node, an {@link Entry} if only a single entry is left, {@code null} if the node is empty
+         *         or this node if nothing changed.
+         */
+        Object remove(long key, int hash, int shift);
+    }
+
+    /**
+     * A node with up to 32 children which are either entries or nodes.
+     * The bitmap marks which of the 32 possible slots are occupied.
+     */
+    private static final class BitmapNode implements Node {
+
+        private static final BitmapNode EMPTY_NODE = new BitmapNode(0, new Object[0]);
+
+        private final int bitmap;
+        private final Object[] children;
+
+        private BitmapNode(int bitmap, Object[] children) {
+            this.bitmap = bitmap;
+            this.children = children;
+        }
+
+        private int index(int bit) {
+            return Integer.bitCount(bitmap & (bit - 1));
+        }
+
+        @Override
+        public Object get(long key, int hash, int shift) {
+            int bit = bit(hash, shift);
+            if ((bitmap & bit) == 0) {
+                return null;
+            }
+            Object child = children[index(bit)];
+            if (child instanceof Entry) {
+                Entry entry = (Entry) child;
+                return entry.key == key ? entry.value : null;
+            }
+            return ((Node) child).get(key, hash, shift + BITS_PER_LEVEL);
+        }
+
+        @Override
+        public BitmapNode put(long key, int hash, int shift, Object value, SizeChange sizeChange) {
+            int bit = bit(hash, shift);
+            int index = index(bit);
+            if ((bitmap & bit) == 0) {
+                Object[] newChildren = new Object[children.length + 1];
+                System.arraycopy(children, 0, newChildren, 0, index);
+                newChildren[index] = new Entry(key, value);
+                System.arraycopy(children, index, newChildren, index + 1, children.length - index);
+                sizeChange.delta = 1;
+                return new BitmapNode(bitmap | bit, newChildren);
+            }
+            Object child = children[index];
+            Object newChild;
+            if (child instanceof Entry) {
+                Entry entry = (Entry) child;
+                if (entry.key == key) {
+                    if (entry.value == value) {
+                        return this;
+                    }
+                    newChild = new Entry(key, value);
+                } else {
+                    newChild = createNode(entry, ImmutableLongMap.hash(entry.key),
+                            new Entry(key, value), hash, shift + BITS_PER_LEVEL);
+                    sizeChange.delta = 1;
+                }
+            } else {
+                newChild = ((Node) child).put(key, hash, shift + BITS_PER_LEVEL, value, sizeChange);
+                if (newChild == child) {
+                    return this;
+                }
+            }
+            Object[] newChildren = children.clone();
+            newChildren[index] = newChild;
+            return new BitmapNode(bitmap, newChildren);
+        }
+
+        @Override
+        public Object remove(long key, int hash, int shift) {
+            int bit = bit(hash, shift);
+            if ((bitmap & bit) == 0) {
+                return this;
+            }
+            int index = index(bit);
+            Object child = children[index];
+            Object newChild;
+            if (child instanceof Entry) {
+                if (((Entry) child).key != key) {
+                    return this;
+                }
+                newChild = null;
+            } else {
+                newChild = ((Node) child).remove(key, hash, shift + BITS_PER_LEVEL);
+                if (newChild == child) {
+                    return this;
+                }
+            }
+            if (newChild == null) {
+                if (children.length == 1) {
+                    return null;
+                }
+                if (children.length == 2 && children[1 - index] instanceof Entry) {
+                    return children[1 - index];
+                }
+                Object[] newChildren = new Object[children.length - 1];
+                System.arraycopy(children, 0, newChildren, 0, index);
+                System.arraycopy(children, index + 1, newChildren, index, children.length - index - 1);
+                return new BitmapNode(bitmap ^ bit, newChildren);
+            }
+            if (children.length == 1 && newChild instanceof Entry) {
+                return newChild;
+            }
+            Object[] newChildren = children.clone();
+            newChildren[index] = newChild;
+            return new BitmapNode(bitmap, newChildren);
+        }
+    }
+
+    /**
+     * A node with entries whose keys have the same hash.
+     */
+    private static final class CollisionNode implements Node {
+
+        private final long[] keys;
+        private final Object[] values;
+
+        private CollisionNode(long[] keys, Object[] values) {
+            this.keys = keys;
+            this.values = values;
+        }
+
+        private int indexOf(long key) {
+            for (int i = 0; i < keys.length; i++) {
+                if (keys[i] == key) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+
+        @Override
+        public Object get(long key, int hash, int shift) {
+            int index = indexOf(key);
+            return index < 0 ? null : values[index];
+        }
+
+        @Override
+        public CollisionNode put(long key, int hash, int shift, Object value, SizeChange sizeChange) {
+            int index = indexOf(key);
+            if (index >= 0) {
+                if (values[index] == value) {
+                    return this;
+                }
+                Object[] newValues = values.clone();
+                newValues[index] = value;
+                return new CollisionNode(keys, newValues);
+            }
+            long[] newKeys = new long[keys.length + 1];
+            Object[] newValues = new Object[values.length + 1];
+            System.arraycopy(keys, 0, newKeys, 0, keys.length);
+            System.arraycopy(values, 0, newValues, 0, values.length);
+            newKeys[keys.length] = key;
+            newValues[values.length] = value;
+            sizeChange.delta = 1;
+            return new CollisionNode(newKeys, newValues);
+        }
+
+        @Override
+        public Object remove(long key, int hash, int shift) {
+            int index = indexOf(key);
+            if (index < 0) {
+                return this;
+            }
+            if (keys.length == 2) {
+                return new Entry(keys[1 - index], values[1 - index]);
+            }
+            long[] newKeys = new long[keys.length - 1];
+            Object[] newValues = new Object[values.length - 1];
+            System.arraycopy(keys, 0, newKeys, 0, index);
+            System.arraycopy(keys, index + 1, newKeys, index, keys.length - index - 1);
+            System.arraycopy(values, 0, newValues, 0, index);
+            System.arraycopy(values, index + 1, newValues, index, values.length - index - 1);
+            return new CollisionNode(newKeys, newValues);
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package org.javacord.core.util.cache;
+
+import io.vavr.Tuple;
+import io.vavr.Tuple2;
+import org.javacord.api.entity.server.Server;
+import org.javacord.api.entity.user.User;
+import org.javacord.core.entity.user.Member;
+import org.javacord.core.util.ImmutableToJavaMapper;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * An immutable cache for all member entities.
+ */
+public class ImmutableMemberCache implements MemberCache {
+
+    private static final String ID_INDEX_NAME = "id";
+    private static final String SERVER_ID_INDEX_NAME = "server-id";
+    private static final String ID_AND_SERVER_ID_INDEX_NAME = "id | server-id";
+
+    private static final String MEMBER_SERVER_MEMBER_ID_INDEX_NAME = "ms > member-id";
+    private static final String MEMBER_SERVER_MEMBER_ID_SERVER_ID_INDEX_NAME = "ms > member-id | server-id";
+
+    private static final ImmutableMemberCache EMPTY_CACHE = new ImmutableMemberCache(
+            Cache.<Member>empty()
+                    .addLongIndex(ID_INDEX_NAME, Member::getId)
+                    .addLongIndex(SERVER_ID_INDEX_NAME, member -> member.getServer().getId())
+                    .addLongPairIndex(ID_AND_SERVER_ID_INDEX_NAME,
+                            Member::getId, member -> member.getServer().getId()),
+            ImmutableUserCache.empty(),
+            Cache.<Tuple2<Member, Server>>empty()
+                    .addLongIndex(MEMBER_SERVER_MEMBER_ID_INDEX_NAME, tuple -> tuple._1().getId())
+                    .addLongPairIndex(MEMBER_SERVER_MEMBER_ID_SERVER_ID_INDEX_NAME,
+                            tuple -> tuple._1.getId(), tuple -> tuple._2.getId())
+    );
+
+    private final Cache<Tuple2<Member, Server>> memberServerCache;
+    private final Cache<Member> cache;
+    private final ImmutableUserCache userCache;
+
+    private ImmutableMemberCache(
+            Cache<Member> cache, ImmutableUserCache userCache, Cache<Tuple2<Member, Server>> memberServerCache) {
+        this.cache = cache;
+        this.userCache = userCache;
+        this.memberServerCache = memberServerCache;
+    }
+
+    /**
+     * Gets an empty channel cache.
+     *
+     * @return An empty channel cache.
+     */
+    public static ImmutableMemberCache empty() {
+        return EMPTY_CACHE;
+    }
+
+    /**
+     * Adds a member to the cache.
+     *
+     * <p>Automatically updates the underlying user cache, too.
+     *
+     * @param member The member to add.
+     * @return The new member cache.
+     */
+    public ImmutableMemberCache addMember(Member member) {
+        return new ImmutableMemberCache(
+                cache.addElement(member),
+                userCache.getUserById(member.getId())
+                        .map(userCache::removeUser)
+                        .orElse(userCache)
+                        .addUser(member.getUser()),
+                memberServerCache.addElement(Tuple.of(member, member.getServer()))
+        );
+    }
+
+    /**
+     * Adds members to the cache or replaces the members with the same id in the same server.
+     *
+     * <p>Automatically updates the underlying user cache, too.
+     * In contrast to adding the members one by one, all indexes are only updated once per key.
+     *
+     * @param members The members to add.
+     * @return The new member cache.
+     */
+    public ImmutableMemberCache addMembers(Collection<Member> members) {
+        // If a member is contained multiple times, the last one wins
+        Map<Tuple2<Long, Long>, Member> addedMembers = new LinkedHashMap<>();
+        for (Member member : members) {
+            addedMembers.put(Tuple.of(member.getId(), member.getServer().getId()), member);
+        }
+
+        List<Member> replacedMembers = new ArrayList<>();
+        List<Tuple2<Member, Server>> replacedMemberServerTuples = new ArrayList<>();
+        List<Tuple2<Member, Server>> addedMemberServerTuples = new ArrayList<>();
+        Map<Long, User> addedUsers = new LinkedHashMap<>();
+        addedMembers.forEach((idAndServerId, member) -> {
+            long id = idAndServerId._1;
+            long serverId = idAndServerId._2;
+            cache.findAnyByIndex(ID_AND_SERVER_ID_INDEX_NAME, id, serverId).ifPresent(replacedMembers::add);
+            memberServerCache.findAnyByIndex(MEMBER_SERVER_MEMBER_ID_SERVER_ID_INDEX_NAME, id, serverId)
+                    .ifPresent(replacedMemberServerTuples::add);
+            addedMemberServerTuples.add(Tuple.of(member, member.getServer()));
+            addedUsers.put(member.getId(), member.getUser());
+        });
+        List<User> replacedUsers = new ArrayList<>();
+        addedUsers.keySet().forEach(id -> userCache.getUserById(id).ifPresent(replacedUsers::add));
+
+        return new ImmutableMemberCache(
+                cache.removeElements(replacedMembers).addElements(addedMembers.values()),
+                userCache.removeUsers(replacedUsers).addUsers(addedUsers.values()),
+                memberServerCache.removeElements(replacedMemberServerTuples).addElements(addedMemberServerTuples)
+        );
+    }
+
+    /**
+     * Removes a member from the cache.
+     *
+     * <p>Automatically updates the underlying user cache, too.
+     *
+     * @param member The member to remove.
+     * @return The new member cache.
+     */
+    public ImmutableMemberCache removeMember(Member member) {
+        if (member == null) {
+            return this;
+        }
+        Tuple2<Member, Server> memberServerTuple = memberServerCache
+                .findAnyByIndex(
+                        MEMBER_SERVER_MEMBER_ID_SERVER_ID_INDEX_NAME,
+                        member.getId(),
+                        member.getServer().getId()
+                )
+                .orElse(null);
+
+        return new ImmutableMemberCache(
+                cache.removeElement(member),
+                userCache.getUserById(member.getId())
+                        .filter(user -> getMembersById(user.getId()).size() <= 1)
+                        .map(userCache::removeUser)
+                        .orElse(userCache),
+                memberServerTuple == null ? memberServerCache : memberServerCache.removeElement(memberServerTuple)
+        );
+    }
+
+    @Override
+    public Set<Server> getServers(long userId) {
+        return ImmutableToJavaMapper.mapToJava(
+                memberServerCache.findByIndex(MEMBER_SERVER_MEMBER_ID_INDEX_NAME, userId)
+                        .map(tuple -> tuple._2)
+        );
+    }
+
+    @Override
+    public ImmutableUserCache getUserCache() {
+        return userCache;
+    }
+
+    @Override
+    public Set<Member> getMembers() {
+        return ImmutableToJavaMapper.mapToJava(cache.getAll());
+    }
+
+    @Override
+    public Set<Member> getMembersById(long id) {
+        return ImmutableToJavaMapper.mapToJava(cache.findByIndex(ID_INDEX_NAME, id));
+    }
+
+    @Override
+    public Set<Member> getMembersByServer(long serverId) {
+        return ImmutableToJavaMapper.mapToJava(cache.findByIndex(SERVER_ID_INDEX_NAME, serverId));
+    }
+
+    @Override
+    public Optional<Member> getMemberByIdAndServer(long id, long serverId) {
+        return cache.findAnyByIndex(ID_AND_SERVER_ID_INDEX_NAME, id, serverId);
+    }
+}
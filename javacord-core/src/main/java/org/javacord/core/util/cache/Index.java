@@ -14,7 +14,7 @@ import java.util.function.Function;
  * @param <K> The type of the key.
  * @param <E> The type of the elements.
  */
-public class Index<K, E> {
+public class Index<K, E> implements CacheIndex<E> {
 
     /**
      * A function that maps an element to its key.
@@ -76,6 +76,7 @@ public class Index<K, E> {
      * @param element The element to add.
      * @return The new index with the added element.
      */
+    @Override
     public Index<K, E> addElement(E element) {
         K key = keyMapper.apply(element);
         if (key == null) {
@@ -93,6 +94,45 @@ public class Index<K, E> {
         return new Index<>(keyMapper, newElementsByKey, newKeyByElement);
     }
 
+    /**
+     * Adds elements to the index.
+     *
+     * <p>In contrast to calling {@link #addElement(Object)} for every element, the elements are grouped by their key
+     * first, so every key of the index is only updated once.
+     *
+     * @param elementsToAdd The elements to add.
+     * @return The new index with the added elements.
+     */
+    @Override
+    public Index<K, E> addElements(Iterable<E> elementsToAdd) {
+        java.util.Map<K, java.util.List<E>> addedElementsByKey = new java.util.HashMap<>();
+        java.util.Map<E, K> addedKeyByElement = new java.util.HashMap<>();
+        for (E element : elementsToAdd) {
+            K key = keyMapper.apply(element);
+            if (key == null) {
+                continue;
+            }
+            K existingKey = keyByElement.getOrElse(element, addedKeyByElement.get(element));
+            if (existingKey != null) {
+                if (!existingKey.equals(key)) {
+                    throw new IllegalStateException("The given element is already in the index with a different key");
+                }
+                continue;
+            }
+            addedKeyByElement.put(element, key);
+            addedElementsByKey.computeIfAbsent(key, k -> new java.util.ArrayList<>()).add(element);
+        }
+        if (addedKeyByElement.isEmpty()) {
+            return this;
+        }
+        Map<K, Set<E>> newElementsByKey = elementsByKey;
+        for (java.util.Map.Entry<K, java.util.List<E>> entry : addedElementsByKey.entrySet()) {
+            newElementsByKey = newElementsByKey.put(entry.getKey(), find(entry.getKey()).addAll(entry.getValue()));
+        }
+        Map<E, K> newKeyByElement = keyByElement.merge(HashMap.ofAll(addedKeyByElement));
+        return new Index<>(keyMapper, newElementsByKey, newKeyByElement);
+    }
+
     /**
      * Removes an element from the index.
      *
@@ -101,6 +141,7 @@ public class Index<K, E> {
      * @param element The element to remove.
      * @return The new index with the element removed.
      */
+    @Override
     public Index<K, E> removeElement(E element) {
         K key = keyByElement.getOrElse(element, null);
         if (key == null) {
@@ -115,6 +156,38 @@ public class Index<K, E> {
         return new Index<>(keyMapper, newElementsByKey, newKeyByElement);
     }
 
+    /**
+     * Removes elements from the index.
+     *
+     * <p>In contrast to calling {@link #removeElement(Object)} for every element, the elements are grouped by their
+     * key first, so every key of the index is only updated once.
+     *
+     * @param elementsToRemove The elements to remove.
+     * @return The new index with the elements removed.
+     */
+    @Override
+    public Index<K, E> removeElements(Iterable<E> elementsToRemove) {
+        java.util.Map<K, java.util.List<E>> removedElementsByKey = new java.util.HashMap<>();
+        java.util.List<E> removedElements = new java.util.ArrayList<>();
+        for (E element : elementsToRemove) {
+            K key = keyByElement.getOrElse(element, null);
+            if (key == null) {
+                continue;
+            }
+            removedElements.add(element);
+            removedElementsByKey.computeIfAbsent(key, k -> new java.util.ArrayList<>()).add(element);
+        }
+        if (removedElements.isEmpty()) {
+            return this;
+        }
+        Map<K, Set<E>> newElementsByKey = elementsByKey;
+        for (java.util.Map.Entry<K, java.util.List<E>> entry : removedElementsByKey.entrySet()) {
+            newElementsByKey = newElementsByKey.put(entry.getKey(), find(entry.getKey()).removeAll(entry.getValue()));
+        }
+        Map<E, K> newKeyByElement = keyByElement.removeAll(removedElements);
+        return new Index<>(keyMapper, newElementsByKey, newKeyByElement);
+    }
+
     /**
      * Gets all elements with the given key.
      *
@@ -0,0 +1,226 @@
+package org.javacord.core.util.cache;
+
+import io.vavr.collection.HashMap;
+import io.vavr.collection.HashSet;
+import io.vavr.collection.Map;
+import io.vavr.collection.Set;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Predicate;
+import java.util.function.ToLongFunction;
+
+/**
+ * An immutable index with primitive {@code long} keys, e.g. snowflakes.
+ *
+ * <p>In contrast to an {@link Index} with {@link Long} keys, lookups don't box the key.
+ *
+ * @param <E> The type of the elements.
+ */
+public class LongIndex<E> implements CacheIndex<E> {
+
+    /**
+     * A predicate that checks if an element has a key and should be included in this index.
+     */
+    private final Predicate<E> filter;
+
+    /**
+     * A function that maps an element to its key.
+     */
+    private final ToLongFunction<E> keyMapper;
+
+    /**
+     * A map that contains the elements by their key.
+     */
+    private final ImmutableLongMap<Set<E>> elementsByKey;
+
+    /**
+     * A map that contains the element as its key and the key of the element when it was added to
+     * this index as its value.
+     *
+     * <p>It allows for a reverse lookup of index keys without having to call the {@code keyMapper}.
+     */
+    private final Map<E, Long> keyByElement;
+
+    /**
+     * Creates a new index.
+     *
+     * @param filter A predicate that checks if an element should be included in this index.
+     * @param keyMapper A function to map elements to their key. It is only called for elements which match the
+     *                  {@code filter}.
+     */
+    public LongIndex(Predicate<E> filter, ToLongFunction<E> keyMapper) {
+        this(filter, keyMapper, ImmutableLongMap.empty(), HashMap.empty());
+    }
+
+    /**
+     * Creates a new index.
+     *
+     * @param filter A predicate that checks if an element should be included in this index.
+     * @param keyMapper A function to map elements to their key.
+     * @param elementsByKey The elements by their key.
+     * @param keyByElement The key by the element.
+     */
+    private LongIndex(Predicate<E> filter, ToLongFunction<E> keyMapper,
+                      ImmutableLongMap<Set<E>> elementsByKey, Map<E, Long> keyByElement) {
+        this.filter = filter;
+        this.keyMapper = keyMapper;
+        this.elementsByKey = elementsByKey;
+        this.keyByElement = keyByElement;
+    }
+
+    /**
+     * Adds an element to the index.
+     *
+     * <p>This method has an effective time complexity of {@code O(1)}.
+     *
+     * @param element The element to add.
+     * @return The new index with the added element.
+     */
+    @Override
+    public LongIndex<E> addElement(E element) {
+        if (!filter.test(element)) {
+            return this;
+        }
+        long key = keyMapper.applyAsLong(element);
+        Set<E> elements = find(key);
+        if (elements.contains(element)) {
+            return this;
+        }
+        if (keyByElement.containsKey(element)) {
+            throw new IllegalStateException("The given element is already in the index with a different key");
+        }
+        return new LongIndex<>(filter, keyMapper,
+                elementsByKey.put(key, elements.add(element)), keyByElement.put(element, key));
+    }
+
+    /**
+     * Adds elements to the index.
+     *
+     * <p>In contrast to calling {@link #addElement(Object)} for every element, the elements are grouped by their key
+     * first, so every key of the index is only updated once.
+     *
+     * @param elementsToAdd The elements to add.
+     * @return The new index with the added elements.
+     */
+    @Override
+    public LongIndex<E> addElements(Iterable<E> elementsToAdd) {
+        java.util.Map<Long, List<E>> addedElementsByKey = new java.util.HashMap<>();
+        java.util.Map<E, Long> addedKeyByElement = new java.util.HashMap<>();
+        for (E element : elementsToAdd) {
+            if (!filter.test(element)) {
+                continue;
+            }
+            long key = keyMapper.applyAsLong(element);
+            Long existingKey = keyByElement.getOrElse(element, addedKeyByElement.get(element));
+            if (existingKey != null) {
+                if (existingKey != key) {
+                    throw new IllegalStateException("The given element is already in the index with a different key");
+                }
+                continue;
+            }
+            addedKeyByElement.put(element, key);
+            addedElementsByKey.computeIfAbsent(key, k -> new ArrayList<>()).add(element);
+        }
+        if (addedKeyByElement.isEmpty()) {
+            return this;
+        }
+        ImmutableLongMap<Set<E>> newElementsByKey = elementsByKey;
+        for (java.util.Map.Entry<Long, List<E>> entry : addedElementsByKey.entrySet()) {
+            long key = entry.getKey();
+            newElementsByKey = newElementsByKey.put(key, find(key).addAll(entry.getValue()));
+        }
+        return new LongIndex<>(filter, keyMapper, newElementsByKey,
+                keyByElement.merge(HashMap.ofAll(addedKeyByElement)));
+    }
+
+    /**
+     * Removes an element from the index.
+     *
+     * <p>This method has an effective time complexity of {@code O(1)}.
+     *
+     * @param element The element to remove.
+     * @return The new index with the element removed.
+     */
+    @Override
+    public LongIndex<E> removeElement(E element) {
+        Long key = keyByElement.getOrElse(element, null);
+        if (key == null) {
+            return this;
+        }
+        Set<E> elements = find(key).remove(element);
+        return new LongIndex<>(filter, keyMapper,
+                elements.isEmpty() ? elementsByKey.remove(key) : elementsByKey.put(key, elements),
+                keyByElement.remove(element));
+    }
+
+    /**
+     * Removes elements from the index.
+     *
+     * <p>In contrast to calling {@link #removeElement(Object)} for every element, the elements are grouped by their
+     * key first, so every key of the index is only updated once.
+     *
+     * @param elementsToRemove The elements to remove.
+     * @return The new index with the elements removed.
+     */
+    @Override
+    public LongIndex<E> removeElements(Iterable<E> elementsToRemove) {
+        java.util.Map<Long, List<E>> removedElementsByKey = new java.util.HashMap<>();
+        List<E> removedElements = new ArrayList<>();
+        for (E element : elementsToRemove) {
+            Long key = keyByElement.getOrElse(element, null);
+            if (key == null) {
+                continue;
+            }
+            removedElements.add(element);
+            removedElementsByKey.computeIfAbsent(key, k -> new ArrayList<>()).add(element);
+        }
+        if (removedElements.isEmpty()) {
+            return this;
+        }
+        ImmutableLongMap<Set<E>> newElementsByKey = elementsByKey;
+        for (java.util.Map.Entry<Long, List<E>> entry : removedElementsByKey.entrySet()) {
+            long key = entry.getKey();
+            Set<E> elements = find(key).removeAll(entry.getValue());
+            newElementsByKey = elements.isEmpty()
+                    ? newElementsByKey.remove(key)
+                    : newElementsByKey.put(key, elements);
+        }
+        return new LongIndex<>(filter, keyMapper, newElementsByKey, keyByElement.removeAll(removedElements));
+    }
+
+    /**
+     * Checks if the index contains no elements.
+     *
+     * @return Whether the index is empty.
+     */
+    public boolean isEmpty() {
+        return keyByElement.isEmpty();
+    }
+
+    /**
+     * Gets all elements with the given key.
+     *
+     * <p>This method has an effective time complexity of {@code O(1)} and does not allocate.
+     *
+     * @param key The key of the elements.
+     * @return The elements with the given key.
+     */
+    public Set<E> find(long key) {
+        return elementsByKey.getOrDefault(key, HashSet.empty());
+    }
+
+    /**
+     * Gets any element with the given key.
+     *
+     * <p>This method has an effective time complexity of {@code O(1)}.
+     *
+     * @param key The key of the element.
+     * @return An element with the given key.
+     */
+    public Optional<E> findAny(long key) {
+        Set<E> elements = find(key);
+        return elements.isEmpty() ? Optional.empty() : Optional.of(elements.head());
+    }
+}
@@ -0,0 +1,189 @@
+package org.javacord.core.util.cache;
+
+import io.vavr.collection.HashMap;
+import io.vavr.collection.HashSet;
+import io.vavr.collection.Map;
+import io.vavr.collection.Set;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.ToLongFunction;
+
+/**
+ * An immutable compound index with two primitive {@code long} keys, e.g. a member id and a server id.
+ *
+ * <p>The elements are indexed by their first key and then by their second key, so lookups neither box the keys nor
+ * allocate a compound key like a {@link io.vavr.Tuple2}.
+ *
+ * @param <E> The type of the elements.
+ */
+public class LongPairIndex<E> implements CacheIndex<E> {
+
+    /**
+     * A function that maps an element to its first key.
+     */
+    private final ToLongFunction<E> firstKeyMapper;
+
+    /**
+     * A function that maps an element to its second key.
+     */
+    private final ToLongFunction<E> secondKeyMapper;
+
+    /**
+     * A map that contains the elements by their first key, indexed by their second key.
+     */
+    private final ImmutableLongMap<LongIndex<E>> indexesByFirstKey;
+
+    /**
+     * A map that contains the element as its key and the first key of the element when it was added to
+     * this index as its value.
+     */
+    private final Map<E, Long> firstKeyByElement;
+
+    /**
+     * Creates a new index.
+     *
+     * @param firstKeyMapper A function to map elements to their first key.
+     * @param secondKeyMapper A function to map elements to their second key.
+     */
+    public LongPairIndex(ToLongFunction<E> firstKeyMapper, ToLongFunction<E> secondKeyMapper) {
+        this(firstKeyMapper, secondKeyMapper, ImmutableLongMap.empty(), HashMap.empty());
+    }
+
+    /**
+     * Creates a new index.
+     *
+     * @param firstKeyMapper A function to map elements to their first key.
+     * @param secondKeyMapper A function to map elements to their second key.
+     * @param indexesByFirstKey The elements by their first key, indexed by their second key.
+     * @param firstKeyByElement The first key by the element.
+     */
+    private LongPairIndex(ToLongFunction<E> firstKeyMapper, ToLongFunction<E> secondKeyMapper,
+                          ImmutableLongMap<LongIndex<E>> indexesByFirstKey, Map<E, Long> firstKeyByElement) {
+        this.firstKeyMapper = firstKeyMapper;
+        this.secondKeyMapper = secondKeyMapper;
+        this.indexesByFirstKey = indexesByFirstKey;
+        this.firstKeyByElement = firstKeyByElement;
+    }
+
+    /**
+     * Gets the index for the given first key.
+     *
+     * @param firstKey The first key.
+     * @return The index for the given first key, possibly an empty one.
+     */
+    private LongIndex<E> getIndex(long firstKey) {
+        LongIndex<E> index = indexesByFirstKey.get(firstKey);
+        return index == null ? new LongIndex<>(element -> true, secondKeyMapper) : index;
+    }
+
+    /**
+     * Creates a new index with the given index for the first key.
+     *
+     * @param firstKey The first key.
+     * @param index The index for the first key.
+     * @param newFirstKeyByElement The new first key by element map.
+     * @return The new index.
+     */
+    private LongPairIndex<E> withIndex(long firstKey, LongIndex<E> index, Map<E, Long> newFirstKeyByElement) {
+        return new LongPairIndex<>(firstKeyMapper, secondKeyMapper,
+                index.isEmpty() ? indexesByFirstKey.remove(firstKey) : indexesByFirstKey.put(firstKey, index),
+                newFirstKeyByElement);
+    }
+
+    @Override
+    public LongPairIndex<E> addElement(E element) {
+        long firstKey = firstKeyMapper.applyAsLong(element);
+        Long existingFirstKey = firstKeyByElement.getOrElse(element, null);
+        if (existingFirstKey != null && existingFirstKey != firstKey) {
+            throw new IllegalStateException("The given element is already in the index with a different key");
+        }
+        LongIndex<E> index = getIndex(firstKey);
+        LongIndex<E> newIndex = index.addElement(element);
+        if (newIndex == index) {
+            return this;
+        }
+        return withIndex(firstKey, newIndex, firstKeyByElement.put(element, firstKey));
+    }
+
+    @Override
+    public LongPairIndex<E> addElements(Iterable<E> elementsToAdd) {
+        java.util.Map<Long, List<E>> addedElementsByFirstKey = new java.util.HashMap<>();
+        for (E element : elementsToAdd) {
+            addedElementsByFirstKey
+                    .computeIfAbsent(firstKeyMapper.applyAsLong(element), key -> new ArrayList<>())
+                    .add(element);
+        }
+        LongPairIndex<E> newIndex = this;
+        for (java.util.Map.Entry<Long, List<E>> entry : addedElementsByFirstKey.entrySet()) {
+            long firstKey = entry.getKey();
+            Map<E, Long> newFirstKeyByElement = newIndex.firstKeyByElement;
+            for (E element : entry.getValue()) {
+                Long existingFirstKey = newFirstKeyByElement.getOrElse(element, null);
+                if (existingFirstKey != null && existingFirstKey != firstKey) {
+                    throw new IllegalStateException("The given element is already in the index with a different key");
+                }
+                newFirstKeyByElement = newFirstKeyByElement.put(element, firstKey);
+            }
+            newIndex = newIndex.withIndex(firstKey, newIndex.getIndex(firstKey).addElements(entry.getValue()),
+                    newFirstKeyByElement);
+        }
+        return newIndex;
+    }
+
+    @Override
+    public LongPairIndex<E> removeElement(E element) {
+        Long firstKey = firstKeyByElement.getOrElse(element, null);
+        if (firstKey == null) {
+            return this;
+        }
+        return withIndex(firstKey, getIndex(firstKey).removeElement(element), firstKeyByElement.remove(element));
+    }
+
+    @Override
+    public LongPairIndex<E> removeElements(Iterable<E> elementsToRemove) {
+        java.util.Map<Long, List<E>> removedElementsByFirstKey = new java.util.HashMap<>();
+        for (E element : elementsToRemove) {
+            Long firstKey = firstKeyByElement.getOrElse(element, null);
+            if (firstKey != null) {
+                removedElementsByFirstKey.computeIfAbsent(firstKey, key -> new ArrayList<>()).add(element);
+            }
+        }
+        LongPairIndex<E> newIndex = this;
+        for (java.util.Map.Entry<Long, List<E>> entry : removedElementsByFirstKey.entrySet()) {
+            long firstKey = entry.getKey();
+            newIndex = newIndex.withIndex(firstKey, newIndex.getIndex(firstKey).removeElements(entry.getValue()),
+                    newIndex.firstKeyByElement.removeAll(entry.getValue()));
+        }
+        return newIndex;
+    }
+
+    /**
+     * Gets all elements with the given keys.
+     *
+     * <p>This method has an effective time complexity of {@code O(1)} and does not allocate.
+     *
+     * @param firstKey The first key of the elements.
+     * @param secondKey The second key of the elements.
+     * @return The elements with the given keys.
+     */
+    public Set<E> find(long firstKey, long secondKey) {
+        LongIndex<E> index = indexesByFirstKey.get(firstKey);
+        return index == null ? HashSet.empty() : index.find(secondKey);
+    }
+
+    /**
+     * Gets any element with the given keys.
+     *
+     * <p>This method has an effective time complexity of {@code O(1)}.
+     *
+     * @param firstKey The first key of the element.
+     * @param secondKey The second key of the element.
+     * @return An element with the given keys.
+     */
+    public Optional<E> findAny(long firstKey, long secondKey) {
+        LongIndex<E> index = indexesByFirstKey.get(firstKey);
+        return index == null ? Optional.empty() : index.findAny(secondKey);
+    }
+}
@@ -1,6 +1,7 @@
 package org.javacord.core.util.cache;
 
 import org.apache.logging.log4j.Logger;
+import org.javacord.api.entity.DiscordEntity;
 import org.javacord.api.entity.message.Message;
 import org.javacord.api.util.cache.MessageCache;
 import org.javacord.core.DiscordApiImpl;
@@ -12,19 +13,21 @@ import java.lang.ref.ReferenceQueue;
 import java.lang.ref.SoftReference;
 import java.time.Instant;
 import java.time.temporal.ChronoUnit;
-import java.util.ArrayList;
-import java.util.Collections;
-import java.util.Comparator;
-import java.util.List;
-import java.util.Objects;
-import java.util.Optional;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentNavigableMap;
+import java.util.concurrent.ConcurrentSkipListMap;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
-import java.util.stream.Collectors;
 
 /**
  * The implementation of {@link MessageCache}.
+ *
+ * <p>The messages are stored in a skip list which is ordered by their id. As message ids are snowflakes, this is also
+ * the order of their creation, so the oldest messages can be found and evicted in {@code O(log n)} without scanning
+ * the whole cache. All operations are lock-free and only affect the cache of a single channel.
  */
 public class MessageCacheImpl implements MessageCache, Cleanupable {
 
@@ -34,9 +37,16 @@ public class MessageCacheImpl implements MessageCache, Cleanupable {
     private static final Logger logger = LoggerUtil.getLogger(MessageCacheImpl.class);
 
     /**
-     * All messages.
+     * All messages which are not cached forever, ordered by their id.
      */
-    private final List<Reference<? extends Message>> messages = new ArrayList<>();
+    private final ConcurrentNavigableMap<Long, MessageReference> messages = new ConcurrentSkipListMap<>();
+
+    /**
+     * The amount of messages in {@link #messages}.
+     *
+     * <p>This is tracked separately, because {@link ConcurrentSkipListMap#size()} has to traverse the whole map.
+     */
+    private final AtomicInteger messageCount = new AtomicInteger();
 
     /**
      * The queue that is notified if a message became softly-reachable.
@@ -49,9 +59,9 @@ public class MessageCacheImpl implements MessageCache, Cleanupable {
     private final Future<?> messagesCleanupFuture;
 
     /**
-     * All messages that should be cached forever.
+     * All messages that should be cached forever, by their id.
      */
-    private final List<Message> cacheForeverMessages = Collections.synchronizedList(new ArrayList<>());
+    private final Map<Long, Message> cacheForeverMessages = new ConcurrentHashMap<>();
 
     /**
      * The cache clean future to be cancelled in {@link #cleanup()}.
@@ -91,15 +101,8 @@ public class MessageCacheImpl implements MessageCache, Cleanupable {
 
         // After minimum JDK 9 is required this can be switched to use a Cleaner
         messagesCleanupFuture = api.getThreadPool().getScheduler().scheduleWithFixedDelay(() -> {
-            api.getMessageCacheLock().lock();
             try {
-                int removedMessages = 0;
-                for (Reference<? extends Message> messageRef = messagesCleanupQueue.poll();
-                        messageRef != null;
-                        messageRef = messagesCleanupQueue.poll()) {
-                    messages.remove(messageRef);
-                    removedMessages++;
-                }
+                int removedMessages = removeCollectedMessages();
                 if (removedMessages > 0) {
                     logger.warn("Heap memory was too low to hold all configured messages in the cache. "
                                     + "Removed {} messages from the cache due to memory shortage. "
@@ -108,8 +111,6 @@ public class MessageCacheImpl implements MessageCache, Cleanupable {
                 }
             } catch (Throwable t) {
                 logger.error("Failed to clean softly referenced messages!", t);
-            } finally {
-                api.getMessageCacheLock().unlock();
             }
         }, 30, 30, TimeUnit.SECONDS);
     }
@@ -117,83 +118,133 @@ public class MessageCacheImpl implements MessageCache, Cleanupable {
     /**
      * Adds a message to the cache.
      *
+     * <p>This method has a time complexity of {@code O(log n)}.
+     *
      * @param message The message to add.
      */
     public void addMessage(Message message) {
-        api.getMessageCacheLock().lock();
-        try {
-            api.addMessageToCache(message);
-            if (messages.stream().map(Reference::get).anyMatch(message::equals)) {
+        // Always cache the same instance as the global message cache
+        Message cachedMessage = api.addMessageToCache(message);
+        long messageId = message.getId();
+        if (cacheForeverMessages.containsKey(messageId)) {
+            return;
+        }
+        MessageReference messageRef = new MessageReference(cachedMessage, messagesCleanupQueue);
+        while (true) {
+            MessageReference existingRef = messages.putIfAbsent(messageId, messageRef);
+            if (existingRef == null) {
+                messageCount.incrementAndGet();
                 return;
             }
-            // Add the message in the correct order
-            messages.removeIf(messageRef -> messageRef.get() == null);
-            Reference<Message> messageRef = new SoftReference<>(message, messagesCleanupQueue);
-            int pos = Collections.binarySearch(messages, messageRef, Comparator.comparing(Reference::get));
-            if (pos < 0) {
-                pos = -pos - 1;
+            if (existingRef.get() != null) {
+                // Already cached
+                return;
+            }
+            if (messages.replace(messageId, existingRef, messageRef)) {
+                return;
             }
-            messages.add(pos, messageRef);
-        } finally {
-            api.getMessageCacheLock().unlock();
         }
     }
 
     /**
      * Adds a message to be cached forever.
      *
+     * <p>Messages which are cached forever are strongly referenced and do not count towards the capacity.
+     *
      * @param message The message to add.
      */
     public void addCacheForeverMessage(Message message) {
-        cacheForeverMessages.add(message);
+        cacheForeverMessages.put(message.getId(), message);
+        removeMessage(message.getId());
     }
 
     /**
      * Removes a message to be cached forever.
      *
+     * <p>The message stays in the cache like any other message until it is removed by {@link #clean()}.
+     *
      * @param message The message to remove.
      */
     public void removeCacheForeverMessage(Message message) {
-        cacheForeverMessages.remove(message);
+        if (cacheForeverMessages.remove(message.getId()) != null) {
+            addMessage(message);
+        }
     }
 
     /**
      * Removes a message from the cache.
      *
+     * <p>This method has a time complexity of {@code O(log n)}.
+     *
      * @param message The message to remove.
      */
     public void removeMessage(Message message) {
-        api.getMessageCacheLock().lock();
-        try {
-            messages.removeIf(messageRef -> Objects.equals(messageRef.get(), message));
-        } finally {
-            api.getMessageCacheLock().unlock();
+        removeMessage(message.getId());
+    }
+
+    /**
+     * Removes the message with the given id from the cache.
+     *
+     * @param messageId The id of the message to remove.
+     */
+    private void removeMessage(long messageId) {
+        if (messages.remove(messageId) != null) {
+            messageCount.decrementAndGet();
+        }
+    }
+
+    /**
+     * Removes the given message reference from the cache, if it is still mapped to its message id.
+     *
+     * @param messageRef The message reference to remove.
+     * @return Whether the reference was removed.
+     */
+    private boolean removeMessageReference(MessageReference messageRef) {
+        if (messages.remove(messageRef.messageId, messageRef)) {
+            messageCount.decrementAndGet();
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Removes all messages that were garbage collected from the cache.
+     *
+     * @return The amount of removed messages.
+     */
+    private int removeCollectedMessages() {
+        int removedMessages = 0;
+        for (Reference<? extends Message> messageRef = messagesCleanupQueue.poll();
+                messageRef != null;
+                messageRef = messagesCleanupQueue.poll()) {
+            if (removeMessageReference((MessageReference) messageRef)) {
+                removedMessages++;
+            }
         }
+        return removedMessages;
     }
 
     /**
      * Cleans the cache.
+     *
+     * <p>Only the removed messages are visited, so this method has a time complexity of {@code O(k log n)}, with
+     * {@code k} being the amount of removed messages.
      */
     public void clean() {
         Instant minAge = Instant.now().minus(storageTimeInSeconds, ChronoUnit.SECONDS);
-        api.getMessageCacheLock().lock();
-        try {
-            messages.removeIf(messageRef -> Optional.ofNullable(messageRef.get())
-                    .map(message -> !message.isCachedForever() && message.getCreationTimestamp().isBefore(minAge))
-                    .orElse(true));
-            long foreverCachedAmount = messages.stream()
-                    .map(Reference::get)
-                    .filter(Objects::nonNull)
-                    .filter(Message::isCachedForever)
-                    .count();
-            messages.removeAll(messages.stream()
-                    .filter(messageRef -> Optional.ofNullable(messageRef.get())
-                            .map(message -> !message.isCachedForever())
-                            .orElse(true))
-                    .limit(Math.max(0, messages.size() - capacity - foreverCachedAmount))
-                    .collect(Collectors.toList()));
-        } finally {
-            api.getMessageCacheLock().unlock();
+        removeCollectedMessages();
+        // The ids are snowflakes, so the first entry is always the oldest message
+        for (Map.Entry<Long, MessageReference> entry = messages.firstEntry();
+                entry != null && DiscordEntity.getCreationTimestamp(entry.getKey()).isBefore(minAge);
+                entry = messages.firstEntry()) {
+            removeMessageReference(entry.getValue());
+        }
+        while (messageCount.get() > capacity) {
+            Map.Entry<Long, MessageReference> entry = messages.firstEntry();
+            if (entry == null) {
+                break;
+            }
+            removeMessageReference(entry.getValue());
         }
     }
 
@@ -250,4 +301,18 @@ public class MessageCacheImpl implements MessageCache, Cleanupable {
         messagesCleanupFuture.cancel(false);
     }
 
+    /**
+     * A soft reference to a message which remembers the id of the message, so it can be removed from the cache
+     * after the message was garbage collected.
+     */
+    private static final class MessageReference extends SoftReference<Message> {
+
+        private final long messageId;
+
+        private MessageReference(Message message, ReferenceQueue<? super Message> queue) {
+            super(message, queue);
+            messageId = message.getId();
+        }
+    }
+
 }
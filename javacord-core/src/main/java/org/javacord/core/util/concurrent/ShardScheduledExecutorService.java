@@ -0,0 +1,121 @@
+package org.javacord.core.util.concurrent;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.AbstractExecutorService;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A scheduler of a single shard which runs its tasks on the scheduler of a shard group.
+ *
+ * <p>Shutting it down does not shut down the shared scheduler. Instead, the periodic tasks of the shard are canceled
+ * and new tasks are rejected. Already scheduled one-shot tasks are still executed.
+ */
+class ShardScheduledExecutorService extends AbstractExecutorService implements ScheduledExecutorService {
+
+    private final ScheduledExecutorService sharedScheduler;
+    private final Set<ScheduledFuture<?>> periodicTasks = ConcurrentHashMap.newKeySet();
+    private volatile boolean shutdown;
+
+    /**
+     * Creates a new shard scheduler.
+     *
+     * @param sharedScheduler The scheduler of the shard group.
+     */
+    ShardScheduledExecutorService(ScheduledExecutorService sharedScheduler) {
+        this.sharedScheduler = sharedScheduler;
+    }
+
+    /**
+     * Throws an exception if this scheduler was shut down.
+     */
+    private void checkNotShutdown() {
+        if (shutdown) {
+            throw new RejectedExecutionException("The scheduler of the shard was shut down");
+        }
+    }
+
+    /**
+     * Remembers the given periodic task, so it can be canceled when the shard is shut down.
+     *
+     * @param future The future of the periodic task.
+     * @param <T> The type of the future.
+     * @return The given future.
+     */
+    private <T extends ScheduledFuture<?>> T trackPeriodicTask(T future) {
+        // Periodic tasks are rarely scheduled, e.g. the heartbeat on every reconnect, so pruning here is cheap
+        periodicTasks.removeIf(ScheduledFuture::isDone);
+        periodicTasks.add(future);
+        // The scheduler might have been shut down concurrently
+        if (shutdown) {
+            future.cancel(false);
+        }
+        return future;
+    }
+
+    @Override
+    public ScheduledFuture<?> schedule(Runnable command, long delay, TimeUnit unit) {
+        checkNotShutdown();
+        return sharedScheduler.schedule(command, delay, unit);
+    }
+
+    @Override
+    public <V> ScheduledFuture<V> schedule(Callable<V> callable, long delay, TimeUnit unit) {
+        checkNotShutdown();
+        return sharedScheduler.schedule(callable, delay, unit);
+    }
+
+    @Override
+    public ScheduledFuture<?> scheduleAtFixedRate(Runnable command, long initialDelay, long period, TimeUnit unit) {
+        checkNotShutdown();
+        return trackPeriodicTask(sharedScheduler.scheduleAtFixedRate(command, initialDelay, period, unit));
+    }
+
+    @Override
+    public ScheduledFuture<?> scheduleWithFixedDelay(Runnable command, long initialDelay, long delay,
+                                                     TimeUnit unit) {
+        checkNotShutdown();
+        return trackPeriodicTask(sharedScheduler.scheduleWithFixedDelay(command, initialDelay, delay, unit));
+    }
+
+    @Override
+    public void execute(Runnable command) {
+        checkNotShutdown();
+        sharedScheduler.execute(command);
+    }
+
+    @Override
+    public void shutdown() {
+        shutdown = true;
+        periodicTasks.forEach(future -> future.cancel(false));
+        periodicTasks.clear();
+    }
+
+    @Override
+    public List<Runnable> shutdownNow() {
+        shutdown();
+        return Collections.emptyList();
+    }
+
+    @Override
+    public boolean isShutdown() {
+        return shutdown;
+    }
+
+    @Override
+    public boolean isTerminated() {
+        return shutdown;
+    }
+
+    @Override
+    public boolean awaitTermination(long timeout, TimeUnit unit) {
+        return shutdown;
+    }
+
+}
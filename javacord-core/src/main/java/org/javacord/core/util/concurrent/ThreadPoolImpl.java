@@ -1,6 +1,8 @@
 package org.javacord.core.util.concurrent;
 
+import org.apache.logging.log4j.Logger;
 import org.javacord.api.util.concurrent.ThreadPool;
+import org.javacord.core.util.logging.LoggerUtil;
 
 import java.util.Optional;
 import java.util.concurrent.CompletableFuture;
@@ -12,6 +14,7 @@ import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.SynchronousQueue;
 import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.function.Supplier;
 
 /**
@@ -19,29 +22,168 @@ import java.util.function.Supplier;
  */
 public class ThreadPoolImpl implements ThreadPool {
 
+    /**
+     * The logger of this class.
+     */
+    private static final Logger logger = LoggerUtil.getLogger(ThreadPoolImpl.class);
+
     private static final int CORE_POOL_SIZE = 1;
     private static final int MAXIMUM_POOL_SIZE = Integer.MAX_VALUE;
     private static final int KEEP_ALIVE_TIME = 60;
     private static final TimeUnit TIME_UNIT = TimeUnit.SECONDS;
 
-    private final ExecutorService executorService = new ThreadPoolExecutor(
-            CORE_POOL_SIZE, MAXIMUM_POOL_SIZE, KEEP_ALIVE_TIME, TIME_UNIT, new SynchronousQueue<>(),
-            new ThreadFactory("Javacord - Central ExecutorService - %d", false));
-    private final ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(
-            CORE_POOL_SIZE, new ThreadFactory("Javacord - Central Scheduler - %d", false));
-    private final ScheduledExecutorService daemonScheduler = Executors.newScheduledThreadPool(
-            CORE_POOL_SIZE, new ThreadFactory("Javacord - Central Daemon Scheduler - %d", true));
+    /**
+     * The maximum amount of threads which execute order-independent listeners at the same time.
+     * Listeners that block only delay other order-independent listeners once this many of them are blocked.
+     */
+    private static final int PARALLEL_LISTENER_MAXIMUM_POOL_SIZE =
+            Math.max(64, 4 * Runtime.getRuntime().availableProcessors());
+
+    private final ExecutorService executorService;
+    private final ExecutorService parallelListenerExecutorService;
+    private final boolean virtualThreadsUsed;
+    private final ScheduledExecutorService scheduler;
+    private final ScheduledExecutorService daemonScheduler;
     private final ConcurrentHashMap<String, ExecutorService> executorServiceSingleThreads = new ConcurrentHashMap<>();
 
+    /**
+     * Called once when this thread pool is shut down, if it is the thread pool of a shard in a shard group.
+     */
+    private final Runnable shardShutdownHandler;
+    private final AtomicBoolean shutdown = new AtomicBoolean();
+
+    /**
+     * Creates a new thread pool which uses platform threads.
+     */
+    public ThreadPoolImpl() {
+        this(false);
+    }
+
+    /**
+     * Creates a new thread pool.
+     *
+     * @param virtualThreadsEnabled Whether the executor service should start a virtual thread for every task.
+     *                              Virtual threads are only available on Java 21 and newer, on older versions
+     *                              platform threads are used instead.
+     */
+    public ThreadPoolImpl(boolean virtualThreadsEnabled) {
+        ExecutorService virtualThreadExecutorService =
+                virtualThreadsEnabled ? createVirtualThreadExecutorService() : null;
+        if (virtualThreadsEnabled && virtualThreadExecutorService == null) {
+            logger.warn("Virtual threads are not supported by the current JVM. Listeners will be executed on "
+                    + "platform threads instead! Virtual threads require Java 21 or newer.");
+        }
+        virtualThreadsUsed = virtualThreadExecutorService != null;
+        executorService = virtualThreadsUsed
+                ? virtualThreadExecutorService
+                : new ThreadPoolExecutor(
+                        CORE_POOL_SIZE, MAXIMUM_POOL_SIZE, KEEP_ALIVE_TIME, TIME_UNIT, new SynchronousQueue<>(),
+                        new ThreadFactory("Javacord - Central ExecutorService - %d", false));
+        parallelListenerExecutorService = virtualThreadsUsed
+                ? virtualThreadExecutorService
+                : createParallelListenerExecutorService();
+        scheduler = Executors.newScheduledThreadPool(
+                CORE_POOL_SIZE, new ThreadFactory("Javacord - Central Scheduler - %d", false));
+        daemonScheduler = Executors.newScheduledThreadPool(
+                CORE_POOL_SIZE, new ThreadFactory("Javacord - Central Daemon Scheduler - %d", true));
+        shardShutdownHandler = null;
+    }
+
+    /**
+     * Creates a new thread pool for a shard of a shard group.
+     *
+     * <p>The executor services and schedulers are the ones of the given shared thread pool. Only the single thread
+     * executor services belong to the shard, as they are used to process the events of a shard in order.
+     * Shutting down this thread pool cancels the periodic tasks of the shard, but leaves the shared thread pool
+     * running.
+     *
+     * @param sharedThreadPool The thread pool of the shard group.
+     * @param shardShutdownHandler Called once when this thread pool is shut down.
+     */
+    public ThreadPoolImpl(ThreadPoolImpl sharedThreadPool, Runnable shardShutdownHandler) {
+        virtualThreadsUsed = sharedThreadPool.virtualThreadsUsed;
+        executorService = sharedThreadPool.executorService;
+        parallelListenerExecutorService = sharedThreadPool.parallelListenerExecutorService;
+        scheduler = new ShardScheduledExecutorService(sharedThreadPool.scheduler);
+        daemonScheduler = new ShardScheduledExecutorService(sharedThreadPool.daemonScheduler);
+        this.shardShutdownHandler = shardShutdownHandler;
+    }
+
+    /**
+     * Creates a bounded cached executor service for order-independent listeners.
+     *
+     * <p>Threads are started on demand up to {@link #PARALLEL_LISTENER_MAXIMUM_POOL_SIZE} and stopped after being idle
+     * for a while. Listeners often block on REST calls, so the pool is not sized by the amount of processors.
+     *
+     * @return The executor service.
+     */
+    private static ExecutorService createParallelListenerExecutorService() {
+        ThreadPoolExecutor executorService = new ThreadPoolExecutor(
+                PARALLEL_LISTENER_MAXIMUM_POOL_SIZE, PARALLEL_LISTENER_MAXIMUM_POOL_SIZE, KEEP_ALIVE_TIME, TIME_UNIT,
+                new LinkedBlockingQueue<>(),
+                new ThreadFactory("Javacord - Parallel Listener ExecutorService - %d", false));
+        executorService.allowCoreThreadTimeOut(true);
+        return executorService;
+    }
+
+    /**
+     * Creates an executor service which starts a new virtual thread for every task.
+     *
+     * <p>The methods are looked up reflectively, so Javacord can still be compiled for and run on Java 8.
+     *
+     * @return The executor service or {@code null} if virtual threads are not supported by the current JVM.
+     */
+    private static ExecutorService createVirtualThreadExecutorService() {
+        try {
+            Class<?> threadBuilderClass = Class.forName("java.lang.Thread$Builder");
+            Object threadBuilder = Thread.class.getMethod("ofVirtual").invoke(null);
+            threadBuilder = threadBuilderClass.getMethod("name", String.class, long.class)
+                    .invoke(threadBuilder, "Javacord - Central Virtual ExecutorService - ", 1L);
+            Object threadFactory = threadBuilderClass.getMethod("factory").invoke(threadBuilder);
+            return (ExecutorService) Executors.class
+                    .getMethod("newThreadPerTaskExecutor", java.util.concurrent.ThreadFactory.class)
+                    .invoke(null, threadFactory);
+        } catch (ReflectiveOperationException | LinkageError e) {
+            logger.debug("Failed to create a virtual thread executor service", e);
+            return null;
+        }
+    }
+
+    /**
+     * Checks if the executor service starts a virtual thread for every task.
+     *
+     * @return Whether virtual threads are used.
+     */
+    public boolean isVirtualThreadsUsed() {
+        return virtualThreadsUsed;
+    }
+
+    /**
+     * Gets the executor service which executes order-independent listeners.
+     *
+     * <p>It is a bounded cached thread pool or the virtual thread executor service, if virtual threads are used.
+     *
+     * @return The executor service for order-independent listeners.
+     */
+    public ExecutorService getParallelListenerExecutorService() {
+        return parallelListenerExecutorService;
+    }
+
     /**
      * Shutdowns the thread pool.
      * This method is called automatically after disconnecting.
      */
     public void shutdown() {
-        executorService.shutdown();
+        if (shardShutdownHandler == null) {
+            executorService.shutdown();
+            parallelListenerExecutorService.shutdown();
+        }
         scheduler.shutdown();
         daemonScheduler.shutdown();
         executorServiceSingleThreads.values().forEach(ExecutorService::shutdown);
+        if ((shardShutdownHandler != null) && shutdown.compareAndSet(false, true)) {
+            shardShutdownHandler.run();
+        }
     }
 
     @Override
@@ -85,13 +227,19 @@ public class ThreadPoolImpl implements ThreadPool {
     @Override
     public <T> CompletableFuture<T> runAfter(Supplier<CompletableFuture<T>> task, long duration, TimeUnit unit) {
         CompletableFuture<T> future = new CompletableFuture<>();
-        getDaemonScheduler().schedule(() -> task.get().whenComplete((result, ex) -> {
+        Runnable runnable = () -> task.get().whenComplete((result, ex) -> {
             if (ex != null) {
                 future.completeExceptionally(ex);
             } else {
                 future.complete(result);
             }
-        }), duration, unit);
+        });
+        if (virtualThreadsUsed) {
+            // Don't block the single daemon scheduler thread, virtual threads are daemon threads anyway
+            getDaemonScheduler().schedule(() -> executorService.execute(runnable), duration, unit);
+        } else {
+            getDaemonScheduler().schedule(runnable, duration, unit);
+        }
         return future;
     }
 }
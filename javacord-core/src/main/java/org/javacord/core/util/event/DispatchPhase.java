@@ -0,0 +1,193 @@
+package org.javacord.core.util.event;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * The phase between two dispatches of object-independent events.
+ *
+ * <p>Object-independent tasks act as barriers. They are only executed after all object-dependent tasks of the phase
+ * that they close are finished, and the object-dependent tasks of the following phase are only executed after all
+ * of them are finished. Every object-dependent task belongs to the phase in which it was enqueued.
+ */
+final class DispatchPhase {
+
+    /**
+     * How often a thread yields while it waits for a thread that adds tasks of an earlier phase before it parks.
+     * Adding the tasks only takes a few queue operations, so the wait is usually over before the thread parks.
+     */
+    private static final int MAXIMUM_SPINS = 64;
+
+    /**
+     * The maximum time a waiting thread parks before it checks again, in case it was not woken up.
+     */
+    private static final long MAXIMUM_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+
+    /**
+     * The amount of threads which currently add tasks of this phase to a queue.
+     */
+    private final AtomicInteger enqueuingThreads = new AtomicInteger();
+
+    /**
+     * The threads which are parked until no thread adds tasks of this phase to a queue anymore.
+     */
+    private final Queue<Thread> waitingThreads = new ConcurrentLinkedQueue<>();
+
+    /**
+     * The amount of object-dependent tasks of this phase which are not finished yet.
+     */
+    private final AtomicInteger unfinishedTasks = new AtomicInteger();
+
+    /**
+     * The amount of object-independent tasks which close this phase and are not finished yet.
+     */
+    private final AtomicInteger unfinishedBarrierTasks = new AtomicInteger();
+
+    /**
+     * The phase before this phase or {@code null} if this phase was already released.
+     */
+    private volatile DispatchPhase previous;
+
+    /**
+     * The phase after this phase or {@code null} if this phase was not closed yet.
+     */
+    private volatile DispatchPhase next;
+
+    /**
+     * Whether the object-dependent tasks of this phase can be executed.
+     */
+    private volatile boolean released;
+
+    /**
+     * Creates a new phase.
+     *
+     * @param previous The phase before this phase or {@code null} if this is the first phase.
+     */
+    private DispatchPhase(DispatchPhase previous) {
+        this.previous = previous;
+        released = previous == null;
+    }
+
+    /**
+     * Creates the first phase of a dispatcher, whose tasks can be executed right away.
+     *
+     * @return The first phase.
+     */
+    static DispatchPhase createInitialPhase() {
+        return new DispatchPhase(null);
+    }
+
+    /**
+     * Closes this phase with the given amount of object-independent tasks.
+     * Must only be called once and only by the thread which replaces this phase as the current phase.
+     *
+     * @param barrierTaskCount The amount of object-independent tasks which close this phase.
+     * @return The phase after this phase.
+     */
+    DispatchPhase close(int barrierTaskCount) {
+        unfinishedBarrierTasks.set(barrierTaskCount);
+        next = new DispatchPhase(this);
+        return next;
+    }
+
+    /**
+     * Registers the current thread as a thread which adds the given amount of tasks of this phase to a queue.
+     *
+     * @param taskCount The amount of tasks.
+     */
+    void startEnqueuing(int taskCount) {
+        enqueuingThreads.incrementAndGet();
+        unfinishedTasks.addAndGet(taskCount);
+    }
+
+    /**
+     * Unregisters the current thread as a thread which adds tasks of this phase to a queue.
+     */
+    void finishEnqueuing() {
+        if (enqueuingThreads.decrementAndGet() == 0) {
+            waitingThreads.forEach(LockSupport::unpark);
+        }
+    }
+
+    /**
+     * Waits until no thread adds tasks of an earlier phase to a queue anymore.
+     *
+     * <p>This keeps the tasks in every queue ordered by their phase. It only ever waits for a thread that entered the
+     * previous phase right before it was closed, as no thread can enter a closed phase. As that thread is only adding
+     * its tasks to their queues, the current thread yields for a few times first and only parks if that was not
+     * enough, e.g. because the other thread got descheduled.
+     */
+    void awaitEarlierPhasesEnqueued() {
+        for (DispatchPhase phase = previous; phase != null; phase = phase.previous) {
+            phase.awaitEnqueued();
+        }
+    }
+
+    /**
+     * Waits until no thread adds tasks of this phase to a queue anymore.
+     */
+    private void awaitEnqueued() {
+        for (int spins = 0; spins < MAXIMUM_SPINS; spins++) {
+            if (enqueuingThreads.get() == 0) {
+                return;
+            }
+            Thread.yield();
+        }
+        Thread currentThread = Thread.currentThread();
+        waitingThreads.add(currentThread);
+        try {
+            // The count is checked again after registering, so the wake-up of the last enqueuing thread is not missed
+            while (enqueuingThreads.get() > 0) {
+                LockSupport.parkNanos(this, MAXIMUM_PARK_NANOS);
+            }
+        } finally {
+            waitingThreads.remove(currentThread);
+        }
+    }
+
+    /**
+     * Marks the given amount of object-dependent tasks of this phase as finished.
+     *
+     * @param amount The amount of finished tasks.
+     * @return Whether the object-independent tasks which close this phase might be executable now.
+     */
+    boolean finishTasks(int amount) {
+        return (unfinishedTasks.addAndGet(-amount) == 0) && (next != null);
+    }
+
+    /**
+     * Marks an object-independent task which closes this phase as finished.
+     *
+     * @return Whether it was the last one, so the object-dependent tasks of the next phase got released.
+     */
+    boolean finishBarrierTask() {
+        if (unfinishedBarrierTasks.decrementAndGet() > 0) {
+            return false;
+        }
+        next.previous = null;
+        next.released = true;
+        return true;
+    }
+
+    /**
+     * Checks if the object-dependent tasks of this phase can be executed.
+     *
+     * @return Whether this phase is released.
+     */
+    boolean isReleased() {
+        return released;
+    }
+
+    /**
+     * Checks if this phase was closed and all its object-dependent tasks are finished, so the object-independent
+     * tasks which close it can be executed.
+     *
+     * @return Whether this phase is finished.
+     */
+    boolean isFinished() {
+        return (next != null) && (unfinishedTasks.get() == 0);
+    }
+}
@@ -0,0 +1,183 @@
+package org.javacord.core.util.event;
+
+import org.apache.logging.log4j.Logger;
+import org.javacord.api.event.Event;
+import org.javacord.core.DiscordApiImpl;
+import org.javacord.core.util.logging.LoggerUtil;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BinaryOperator;
+import java.util.function.Consumer;
+
+/**
+ * Merges bursts of events in front of the {@link EventDispatcher}.
+ *
+ * <p>For listener types with a coalescing window, the first event for a key is held back for the duration of the
+ * window. Every further event with the same key that arrives during the window is merged into the held back event.
+ * When the window is over, the merged event is dispatched once.
+ *
+ * <p>Merged events are dispatched by the thread which handles the packets of the shard, like every other event.
+ * The scheduler thread only hands them over, so a dispatch that waits for space in a full listener queue never blocks
+ * the scheduler and merged events stay in order with the events of the following packets.
+ */
+public class EventCoalescer {
+
+    /**
+     * The name of the thread which handles the packets of the shard and dispatches the merged events.
+     */
+    private static final String HANDLERS_PROCESSOR_THREAD_NAME = "Handlers Processor";
+
+    /**
+     * The logger of this class.
+     */
+    private static final Logger logger = LoggerUtil.getLogger(EventCoalescer.class);
+
+    /**
+     * The discord api instance.
+     */
+    private final DiscordApiImpl api;
+
+    /**
+     * The coalescing window in nanoseconds by listener type.
+     */
+    private final Map<Class<?>, Long> windowNanos;
+
+    /**
+     * The held back events by their key.
+     */
+    private final ConcurrentHashMap<CoalescingKey, PendingEvent<?>> pendingEvents = new ConcurrentHashMap<>();
+
+    /**
+     * Creates a new event coalescer.
+     *
+     * @param api The discord api instance.
+     * @param windows The coalescing windows by listener type. Listener types without a window are not coalesced.
+     */
+    public EventCoalescer(DiscordApiImpl api, Map<? extends Class<?>, Duration> windows) {
+        this.api = api;
+        Map<Class<?>, Long> windowNanos = new HashMap<>();
+        windows.forEach((listenerClass, window) -> windowNanos.put(listenerClass, window.toNanos()));
+        this.windowNanos = Collections.unmodifiableMap(windowNanos);
+    }
+
+    /**
+     * Dispatches the given event, possibly merged with other events with the same key.
+     *
+     * <p>If the listener type has no coalescing window, the event is dispatched immediately on the current thread.
+     * Otherwise, the dispatcher of the newest event is called with the merged event by the thread which handles the
+     * packets of the shard after the window is over.
+     *
+     * @param listenerClass The listener type which receives the event.
+     * @param firstKey The first part of the key, usually the id of the user of the event.
+     * @param secondKey The second part of the key, e.g. the id of the server or channel of the event.
+     * @param event The event.
+     * @param merger A function which merges an older event with a newer one.
+     * @param dispatcher A consumer which dispatches the (merged) event.
+     * @param <E> The type of the event.
+     */
+    public <E extends Event> void dispatch(Class<?> listenerClass, long firstKey, long secondKey, E event,
+                                           BinaryOperator<E> merger, Consumer<E> dispatcher) {
+        Long window = windowNanos.get(listenerClass);
+        if (window == null) {
+            dispatcher.accept(event);
+            return;
+        }
+        CoalescingKey key = new CoalescingKey(listenerClass, firstKey, secondKey);
+        boolean[] newPendingEvent = new boolean[1];
+        pendingEvents.compute(key, (k, pendingEvent) -> {
+            if (pendingEvent == null) {
+                newPendingEvent[0] = true;
+                return new PendingEvent<>(event, dispatcher);
+            }
+            @SuppressWarnings("unchecked")
+            PendingEvent<E> typedPendingEvent = (PendingEvent<E>) pendingEvent;
+            typedPendingEvent.event = merger.apply(typedPendingEvent.event, event);
+            typedPendingEvent.dispatcher = dispatcher;
+            return typedPendingEvent;
+        });
+        if (newPendingEvent[0]) {
+            api.getThreadPool().getScheduler().schedule(() -> api.getThreadPool()
+                    .getSingleThreadExecutorService(HANDLERS_PROCESSOR_THREAD_NAME)
+                    .execute(() -> flush(key)), window, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    /**
+     * Dispatches the held back event with the given key.
+     *
+     * @param key The key.
+     */
+    private void flush(CoalescingKey key) {
+        PendingEvent<?> pendingEvent = pendingEvents.remove(key);
+        if (pendingEvent == null) {
+            return;
+        }
+        try {
+            pendingEvent.dispatch();
+        } catch (Throwable t) {
+            logger.error("Failed to dispatch a coalesced event!", t);
+        }
+    }
+
+    /**
+     * The key of coalesced events.
+     */
+    private static final class CoalescingKey {
+
+        private final Class<?> listenerClass;
+        private final long firstKey;
+        private final long secondKey;
+
+        private CoalescingKey(Class<?> listenerClass, long firstKey, long secondKey) {
+            this.listenerClass = listenerClass;
+            this.firstKey = firstKey;
+            this.secondKey = secondKey;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof CoalescingKey)) {
+                return false;
+            }
+            CoalescingKey that = (CoalescingKey) o;
+            return (firstKey == that.firstKey) && (secondKey == that.secondKey)
+                    && (listenerClass == that.listenerClass);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(listenerClass, firstKey, secondKey);
+        }
+    }
+
+    /**
+     * A held back event and the dispatcher of the newest event that was merged into it.
+     * The fields are only accessed while holding the lock of the entry of the pending events map.
+     *
+     * @param <E> The type of the event.
+     */
+    private static final class PendingEvent<E> {
+
+        private E event;
+        private Consumer<E> dispatcher;
+
+        private PendingEvent(E event, Consumer<E> dispatcher) {
+            this.event = event;
+            this.dispatcher = dispatcher;
+        }
+
+        private void dispatch() {
+            dispatcher.accept(event);
+        }
+    }
+
+}
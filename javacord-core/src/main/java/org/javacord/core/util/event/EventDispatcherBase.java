@@ -3,26 +3,26 @@ package org.javacord.core.util.event;
 import org.apache.logging.log4j.Logger;
 import org.javacord.api.DiscordApi;
 import org.javacord.api.entity.server.Server;
+import org.javacord.api.event.Event;
+import org.javacord.api.util.event.EventDispatchMetrics;
+import org.javacord.api.util.event.ListenerQueueOverflowPolicy;
 import org.javacord.core.DiscordApiImpl;
 import org.javacord.core.entity.server.ServerImpl;
+import org.javacord.core.util.concurrent.ThreadPoolImpl;
 import org.javacord.core.util.logging.LoggerUtil;
 
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
-import java.util.HashSet;
-import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
-import java.util.Queue;
-import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Future;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
 import java.util.function.Consumer;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
 
 /**
  * This class is the base for the class used to dispatch events.
@@ -54,6 +54,17 @@ public abstract class EventDispatcherBase {
      */
     private static final long EXECUTION_TIME_CHECKING_INTERVAL = TimeUnit.MILLISECONDS.toNanos(200);
 
+    /**
+     * The time after which a dispatch thread stops executing further listener tasks of a batch and gives the thread
+     * back to the thread pool, even if the batch size is not exhausted yet.
+     */
+    private static final long MAX_BATCH_TIME = TimeUnit.MILLISECONDS.toNanos(10);
+
+    /**
+     * Whether the current thread is executing listener tasks.
+     */
+    private static final ThreadLocal<Boolean> listenerThread = ThreadLocal.withInitial(() -> false);
+
     /**
      * Whether execution time checking should be enabled or not.
      */
@@ -64,16 +75,31 @@ public abstract class EventDispatcherBase {
      */
     private final DiscordApiImpl api;
 
+    /**
+     * The metrics which receive measurements about the dispatching of events.
+     */
+    private final EventDispatchMetrics metrics;
+
     /**
      * This map which holds a queue for every object (usually a server) with tasks to call the waiting listeners.
      */
-    private final Map<DispatchQueueSelector, Queue<Runnable>> queuedListenerTasks =
-            Collections.synchronizedMap(new HashMap<>());
+    private final Map<DispatchQueueSelector, ListenerTaskQueue> queuedListenerTasks = new ConcurrentHashMap<>();
+
+    /**
+     * The queue with the tasks to call the listeners of object-independent events.
+     */
+    private final ListenerTaskQueue objectIndependentTasks = new ListenerTaskQueue();
 
     /**
-     * All objects which currently have a running listener.
+     * The phase in which object-dependent tasks are currently enqueued.
      */
-    private final Set<DispatchQueueSelector> runningListeners = Collections.synchronizedSet(new HashSet<>());
+    private volatile DispatchPhase currentPhase = DispatchPhase.createInitialPhase();
+
+    /**
+     * The lock which orders the dispatches of object-independent events, as every one of them closes the current
+     * phase. Object-dependent events never take it.
+     */
+    private final Object phaseLock = new Object();
 
     /**
      * A map with all running listeners as its key. The value contains an array where the first element is a long
@@ -89,6 +115,11 @@ public abstract class EventDispatcherBase {
      */
     private final Map<AtomicReference<Future<?>>, Long> alreadyCanceledListeners = new ConcurrentHashMap<>();
 
+    /**
+     * The amount of listener tasks that were dropped because the queue of their queue selector was full.
+     */
+    private final AtomicLong droppedListenerTasks = new AtomicLong();
+
     /**
      * Creates a new event dispatcher.
      *
@@ -96,46 +127,8 @@ public abstract class EventDispatcherBase {
      */
     protected EventDispatcherBase(DiscordApiImpl api) {
         this.api = api;
+        this.metrics = api.getEventDispatchMetrics();
 
-        api.getThreadPool().getScheduler().scheduleWithFixedDelay(() -> {
-            try {
-                synchronized (queuedListenerTasks) {
-                    Set<Long> currentServerIds = Stream.concat(
-                            api.getServers().stream().map(Server::getId),
-                            api.getUnavailableServers().stream()
-                    ).collect(Collectors.toSet());
-
-                    Iterator<DispatchQueueSelector> iterator = queuedListenerTasks.keySet().iterator();
-                    while (iterator.hasNext()) {
-                        DispatchQueueSelector queueSelector = iterator.next();
-                        // never clean up the object-independent queue
-                        if (queueSelector == null) {
-                            continue;
-                        }
-                        Queue<Runnable> queue = queuedListenerTasks.get(queueSelector);
-                        // queue cannot be null here or there is another bug somewhere
-                        // never clean up queues that still have entries
-                        if (!queue.isEmpty()) {
-                            continue;
-                        }
-                        if (queueSelector instanceof ServerImpl) {
-                            // clean up queues for servers the bot left
-                            Server serverSelector = (Server) queueSelector;
-                            if (!currentServerIds.contains(serverSelector.getId())) {
-                                iterator.remove();
-                            }
-                        } else if (!(queueSelector instanceof DiscordApiImpl)) {
-                            // make sure there are not new queue selector types introduced that are not cleaned up
-                            throw new AssertionError("Unexpected queue selector type");
-                        }
-                    }
-                }
-            } catch (Throwable t) {
-                logger.error("Failed to clean up listener queues!", t);
-            }
-        }, 10, 10, TimeUnit.SECONDS);
-
-        queuedListenerTasks.put(null, new ConcurrentLinkedQueue<>());
         api.getThreadPool().getScheduler().scheduleAtFixedRate(() -> {
             try {
                 if (!executionTimeCheckingEnabled) {
@@ -214,10 +207,54 @@ public abstract class EventDispatcherBase {
         executionTimeCheckingEnabled = enable;
     }
 
+    /**
+     * Checks whether an event for listeners of the given type would be dispatched to anyone.
+     *
+     * <p>This is a cheap check which neither resolves any listeners nor allocates. Packet handlers use it to skip
+     * building events, which nobody would receive, so an unobserved event only costs the cache update. The check is
+     * not specific to any object, so it might return {@code true} even if the listeners of the given type are only
+     * attached to other objects than the ones of the event.
+     *
+     * @param listenerClass The class of the listener.
+     * @return Whether there is at least one listener of the given type and events can be dispatched.
+     */
+    public boolean hasListeners(Class<?> listenerClass) {
+        return api.canDispatchEvents() && api.hasListenersOfType(listenerClass);
+    }
+
+    /**
+     * Appends the given listeners to the already collected listeners.
+     *
+     * <p>The listener lists that are returned by the dispatch tables are unmodifiable snapshots. As most events only
+     * have listeners from a single source, the lists are only copied if both of them contain listeners, so the
+     * common case does not allocate.
+     *
+     * @param listeners The already collected listeners.
+     * @param additionalListeners The listeners to append.
+     * @param <T> The type of the listeners.
+     * @return A list with all listeners. Must not be modified.
+     */
+    @SuppressWarnings("unchecked")
+    protected static <T> List<T> appendListeners(List<T> listeners, List<? extends T> additionalListeners) {
+        if (additionalListeners.isEmpty()) {
+            return listeners;
+        }
+        if (listeners.isEmpty()) {
+            return (List<T>) additionalListeners;
+        }
+        List<T> allListeners = new ArrayList<>(listeners.size() + additionalListeners.size());
+        allListeners.addAll(listeners);
+        allListeners.addAll(additionalListeners);
+        return allListeners;
+    }
+
     /**
      * Dispatches an event to the given listeners using the provided consumer.
      * Calling this method usually looks like this:
-     * {@code dispatchEvent(server, listeners, listener -> listener.onXyz(event));}
+     * {@code dispatchEvent(server, event, listeners, listener -> listener.onXyz(event));}
+     *
+     * <p>Order-independent listeners bypass the queue and are called on the parallel listener executor service,
+     * unless the event is a lifecycle event or its server is not ready yet.
      *
      * @param queueSelector The object which is used to determine in which queue the event should be dispatched. Usually
      *                      the object is a server object (for server-dependent events), a discord api instance (for
@@ -228,12 +265,14 @@ public abstract class EventDispatcherBase {
      *                      same queue selector are dispatched sequentially in the correct order of enqueueal, but on
      *                      arbitrary threads from a thread pool. Events with different queue selectors are dispatched
      *                      in parallel.
+     * @param event         The event that is dispatched.
      * @param listeners     A list with listeners which get consumed by the given consumer.
      * @param consumer      A consumer which consumes all listeners from the given list and is meant to call their
      *                      {@code onXyz(Event)} method.
      * @param <T>           The type of the listener.
      */
-    protected <T> void dispatchEvent(DispatchQueueSelector queueSelector, List<T> listeners, Consumer<T> consumer) {
+    protected <T> void dispatchEvent(DispatchQueueSelector queueSelector, Event event, List<T> listeners,
+                                     Consumer<T> consumer) {
         if (!api.canDispatchEvents()) {
             return;
         }
@@ -242,116 +281,435 @@ public abstract class EventDispatcherBase {
             return;
         }
 
-        api.getThreadPool().getSingleThreadExecutorService("Event Dispatch Queues Manager").submit(() -> {
-            if (queueSelector != null) { // Object dependent listeners
-                // Don't allow adding of more events while there are unfinished object independent tasks
-                Queue<Runnable> objectIndependentQueue = queuedListenerTasks.get(null);
-                while (!objectIndependentQueue.isEmpty()) {
-                    try {
-                        synchronized (queuedListenerTasks) {
-                            // Just to be on the safe side, we use a timeout of 5 seconds
-                            queuedListenerTasks.wait(5000);
-                        }
-                    } catch (InterruptedException ignored) { }
-                }
+        List<ListenerTask> tasks = new ArrayList<>(listeners.size());
+        for (T listener : listeners) {
+            ListenerTask task = new ListenerTask(listener, event, () -> consumer.accept(listener));
+            if (isParallelDispatchPossible(queueSelector, listener)) {
+                dispatchInParallel(queueSelector, task);
+            } else {
+                tasks.add(task);
             }
-            synchronized (queuedListenerTasks) {
-                Queue<Runnable> queue = queuedListenerTasks.computeIfAbsent(
-                        queueSelector, o -> new ConcurrentLinkedQueue<>());
-                listeners.forEach(listener -> queue.add(() -> consumer.accept(listener)));
+        }
+        if (tasks.isEmpty()) {
+            return;
+        }
+        if (queueSelector == null) {
+            enqueueObjectIndependentTasks(tasks);
+        } else {
+            awaitSpaceIfBlocking(queueSelector, tasks.size());
+            enqueueObjectDependentTasks(queueSelector, tasks);
+        }
+    }
+
+    /**
+     * Blocks the current thread until the queue of the given queue selector has space for the given amount of
+     * tasks, if the {@link ListenerQueueOverflowPolicy#BLOCK block} overflow policy is used.
+     *
+     * <p>Listener threads are never blocked, as they might be the ones which have to empty the queue.
+     *
+     * @param queueSelector The queue selector.
+     * @param requiredSpace The amount of tasks that should fit in the queue.
+     */
+    private void awaitSpaceIfBlocking(DispatchQueueSelector queueSelector, int requiredSpace) {
+        int capacity = api.getListenerQueueCapacity();
+        if ((capacity == Integer.MAX_VALUE)
+                || (api.getListenerQueueOverflowPolicy() != ListenerQueueOverflowPolicy.BLOCK)
+                || listenerThread.get()) {
+            return;
+        }
+        ListenerTaskQueue queue = queuedListenerTasks.get(queueSelector);
+        if ((queue == null) || queue.hasSpace(capacity, requiredSpace)) {
+            return;
+        }
+        try {
+            queue.awaitSpace(capacity, requiredSpace);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Makes space for the given tasks in the given queue according to the configured overflow policy.
+     *
+     * @param queue The queue of an object-dependent queue selector.
+     * @param tasks The tasks that should be added.
+     * @return Whether the tasks should be added to the queue.
+     */
+    private boolean makeSpace(ListenerTaskQueue queue, List<ListenerTask> tasks) {
+        int capacity = api.getListenerQueueCapacity();
+        if (queue.hasSpace(capacity, tasks.size())) {
+            return true;
+        }
+        ListenerQueueOverflowPolicy overflowPolicy = api.getListenerQueueOverflowPolicy();
+        if (overflowPolicy == ListenerQueueOverflowPolicy.BLOCK) {
+            // The dispatching thread already waited for space if it was allowed to
+            return true;
+        }
+        if (overflowPolicy == ListenerQueueOverflowPolicy.DROP_NEWEST) {
+            countDroppedListenerTasks(tasks.size());
+            return false;
+        }
+        if (overflowPolicy == ListenerQueueOverflowPolicy.COALESCE) {
+            countDroppedListenerTasks(queue.removeReplaceable(tasks, this::finishDroppedTask));
+            if (queue.hasSpace(capacity, tasks.size())) {
+                return true;
             }
-            checkRunningListenersAndStartIfPossible(queueSelector);
-        });
+        }
+        countDroppedListenerTasks(
+                queue.removeOldest(queue.size() - Math.max(capacity - tasks.size(), 0), this::finishDroppedTask));
+        return true;
     }
 
     /**
-     * Checks if there are listeners running for the given object and if
-     * not it takes one from the queue for the object and executes it.
+     * Adds the given amount to the dropped listener tasks and logs a warning on the first drop.
      *
-     * <p>If all object-dependent tasks are finished,
-     * object-independent ones will be executed instead
-     * and after all object-independent are finished,
-     * new object-dependent tasks can get queued.
+     * @param amount The amount of dropped listener tasks.
+     */
+    private void countDroppedListenerTasks(int amount) {
+        if ((amount > 0) && (droppedListenerTasks.getAndAdd(amount) == 0)) {
+            logger.warn("Dropped listener calls because a listener queue was full. This is most likely caused by a "
+                    + "slow or blocked listener. Make sure to not block listener threads! Further drops are only "
+                    + "counted in DiscordApi#getDroppedListenerTaskCount().");
+        }
+    }
+
+    /**
+     * Gets the amount of listener tasks that are currently queued.
      *
-     * @param queueSelector The object which is used to determine in which thread the consumer should be executed.
+     * @return The amount of queued listener tasks.
      */
-    private void checkRunningListenersAndStartIfPossible(DispatchQueueSelector queueSelector) {
-        synchronized (queuedListenerTasks) {
-            // if either
-            // - running for object-independent tasks or
-            // - running for object-dependent tasks, but queue is empty or not present
-            Queue<Runnable> queue = queueSelector == null ? null : queuedListenerTasks.get(queueSelector);
-            if (queue == null || queue.isEmpty()) {
-                // if no object-independent tasks to be processed everything is fine, return
-                if (queuedListenerTasks.get(null).isEmpty()) {
-                    return;
-                }
-                // if object-independent tasks to be processed
-                // check whether there are still queued object-dependent tasks
-                boolean moreObjectDependentTasks = queuedListenerTasks.entrySet()
-                        .stream()
-                        .filter(entry -> !entry.getValue().isEmpty())
-                        .anyMatch(entry -> entry.getKey() != null);
-                // if there are object-dependent tasks scheduled or there are still tasks running => retry later
-                if (moreObjectDependentTasks || !runningListeners.isEmpty()) {
-                    return;
-                }
-                // force object-independent task being handled
-                // after all queued object-dependent tasks are finished
-                // and before new object-dependent tasks will get queued
-                queueSelector = null;
-                queue = queuedListenerTasks.get(null);
+    public int getQueuedListenerTaskCount() {
+        return objectIndependentTasks.size()
+                + queuedListenerTasks.values().stream().mapToInt(ListenerTaskQueue::size).sum();
+    }
+
+    /**
+     * Gets the amount of listener tasks for the given queue selector that are currently queued.
+     *
+     * @param queueSelector The queue selector.
+     * @return The amount of queued listener tasks.
+     */
+    public int getQueuedListenerTaskCount(DispatchQueueSelector queueSelector) {
+        ListenerTaskQueue queue = queueSelector == null
+                ? objectIndependentTasks
+                : queuedListenerTasks.get(queueSelector);
+        return queue == null ? 0 : queue.size();
+    }
+
+    /**
+     * Removes the queue of the given queue selector if it belongs to a server the bot is no longer a member of.
+     *
+     * <p>Queues of servers are created with the first dispatched event of the server and destroyed when the server
+     * is left. If the queue still has tasks or a running listener at that point, it is destroyed by the listener
+     * thread as soon as it is drained. A queue that is recreated by a late event is destroyed the same way. Tasks
+     * that a concurrent dispatch adds to a queue while it is destroyed are still executed.
+     *
+     * @param queueSelector The queue selector.
+     */
+    public void removeQueueIfObsolete(DispatchQueueSelector queueSelector) {
+        if (!(queueSelector instanceof ServerImpl) || isServerKnown(((ServerImpl) queueSelector).getId())) {
+            return;
+        }
+        queuedListenerTasks.computeIfPresent(queueSelector,
+                (selector, queue) -> (queue.isEmpty() && !queue.isScheduled()) ? null : queue);
+    }
+
+    /**
+     * Removes the queues of all servers the bot is no longer a member of.
+     *
+     * <p>This is only needed after the cache was purged, as the bot does not receive a guild delete packet for servers
+     * it left while it was disconnected.
+     */
+    public void removeObsoleteQueues() {
+        for (DispatchQueueSelector queueSelector : queuedListenerTasks.keySet()) {
+            removeQueueIfObsolete(queueSelector);
+        }
+    }
+
+    /**
+     * Checks if the server with the given id is in the cache, no matter if it is available or not.
+     *
+     * @param serverId The id of the server.
+     * @return Whether the server is in the cache.
+     */
+    private boolean isServerKnown(long serverId) {
+        return api.getPossiblyUnreadyServerById(serverId).isPresent()
+                || api.getUnavailableServers().contains(serverId);
+    }
+
+    /**
+     * Gets the amount of listener tasks that were dropped because the queue of their queue selector was full.
+     *
+     * @return The amount of dropped listener tasks.
+     */
+    public long getDroppedListenerTaskCount() {
+        return droppedListenerTasks.get();
+    }
+
+    /**
+     * Adds the given tasks of an object-independent event to the object-independent queue and closes the current
+     * phase with them.
+     *
+     * <p>The tasks are executed after all object-dependent tasks that were enqueued before them, and object-dependent
+     * tasks that are enqueued after them are only executed after all of them.
+     *
+     * @param tasks The tasks to add.
+     */
+    private void enqueueObjectIndependentTasks(List<ListenerTask> tasks) {
+        synchronized (phaseLock) {
+            DispatchPhase phase = currentPhase;
+            currentPhase = phase.close(tasks.size());
+            tasks.forEach(task -> task.setPhase(phase));
+            // The queue of object-independent tasks is never bounded
+            objectIndependentTasks.addAll(tasks);
+        }
+        startListenerTasksIfPossible(null, objectIndependentTasks);
+    }
+
+    /**
+     * Adds the given tasks to the queue of the given object-dependent queue selector on the calling thread.
+     *
+     * <p>The queues are multi-producer single-consumer queues, so this never takes a lock unless the queue of the queue
+     * selector has to be created first.
+     *
+     * @param queueSelector The queue selector.
+     * @param tasks The tasks to add.
+     */
+    private void enqueueObjectDependentTasks(DispatchQueueSelector queueSelector, List<ListenerTask> tasks) {
+        DispatchPhase phase = enterCurrentPhase(tasks.size());
+        ListenerTaskQueue queue;
+        try {
+            tasks.forEach(task -> task.setPhase(phase));
+            queue = queuedListenerTasks.get(queueSelector);
+            if (queue == null) {
+                queue = queuedListenerTasks.computeIfAbsent(queueSelector, selector -> new ListenerTaskQueue());
+            }
+            if (makeSpace(queue, tasks)) {
+                queue.addAll(tasks);
+            } else {
+                finishObjectDependentTasks(phase, tasks.size());
             }
-            DispatchQueueSelector finalQueueSelector = queueSelector;
-            Queue<Runnable> taskQueue = queue;
-            // if there is no task running already for the queue
-            if (runningListeners.add(finalQueueSelector)) {
-                // check whether there is something to do for the queue
-                // if not, free the runningListeners synchronizer
-                // otherwise schedule the task to do
-                if (queue.isEmpty()) {
-                    runningListeners.remove(finalQueueSelector);
-                } else {
-                    AtomicReference<Future<?>> activeListener = new AtomicReference<>();
-                    activeListener.set(api.getThreadPool().getExecutorService().submit(() -> {
-                        if (finalQueueSelector instanceof ServerImpl) {
-                            Object serverReadyNotifier = new Object();
-                            ((ServerImpl) finalQueueSelector)
-                                    .addServerReadyConsumer(s -> {
-                                        synchronized (serverReadyNotifier) {
-                                            serverReadyNotifier.notifyAll();
-                                        }
-                                    });
-                            while (!((ServerImpl) finalQueueSelector).isReady()) {
-                                try {
-                                    synchronized (serverReadyNotifier) {
-                                        serverReadyNotifier.wait(5000);
-                                    }
-                                } catch (InterruptedException ignored) { }
+            reportQueueDepth(queueSelector, queue);
+        } finally {
+            phase.finishEnqueuing();
+        }
+        startListenerTasksIfPossible(queueSelector, queue);
+    }
+
+    /**
+     * Registers the given amount of object-dependent tasks in the current phase.
+     * The caller must call {@link DispatchPhase#finishEnqueuing()} after the tasks were added to their queue.
+     *
+     * @param taskCount The amount of tasks.
+     * @return The phase of the tasks.
+     */
+    private DispatchPhase enterCurrentPhase(int taskCount) {
+        while (true) {
+            DispatchPhase phase = currentPhase;
+            phase.startEnqueuing(taskCount);
+            // The phase might have been closed before the tasks were registered, so they must go to the next one
+            if (phase == currentPhase) {
+                phase.awaitEarlierPhasesEnqueued();
+                return phase;
+            }
+            phase.finishEnqueuing();
+            finishObjectDependentTasks(phase, taskCount);
+        }
+    }
+
+    /**
+     * Marks the given amount of object-dependent tasks of the given phase as finished and starts the
+     * object-independent tasks which close the phase if possible.
+     *
+     * @param phase The phase of the tasks.
+     * @param amount The amount of finished tasks.
+     */
+    private void finishObjectDependentTasks(DispatchPhase phase, int amount) {
+        if (phase.finishTasks(amount)) {
+            startListenerTasksIfPossible(null, objectIndependentTasks);
+        }
+    }
+
+    /**
+     * Marks a task that was removed from its queue to make space for newer tasks as finished.
+     *
+     * @param task The removed task.
+     */
+    private void finishDroppedTask(ListenerTask task) {
+        finishObjectDependentTasks(task.getPhase(), 1);
+    }
+
+    /**
+     * Marks the given task as finished after it was executed.
+     *
+     * @param queueSelector The queue selector of the task.
+     * @param task The task.
+     */
+    private void finishExecutedTask(DispatchQueueSelector queueSelector, ListenerTask task) {
+        if (queueSelector != null) {
+            finishObjectDependentTasks(task.getPhase(), 1);
+        } else if (task.getPhase().finishBarrierTask()) {
+            // The object-dependent tasks of the next phase were released
+            queuedListenerTasks.forEach(this::startListenerTasksIfPossible);
+        }
+    }
+
+    /**
+     * Checks if the given task can be executed now.
+     *
+     * <p>Object-dependent tasks can be executed once their phase is released. Object-independent tasks can be
+     * executed once the phase they close is finished.
+     *
+     * @param queueSelector The queue selector of the task.
+     * @param task The task or {@code null}.
+     * @return Whether the task can be executed.
+     */
+    private static boolean isExecutable(DispatchQueueSelector queueSelector, ListenerTask task) {
+        if (task == null) {
+            return false;
+        }
+        return queueSelector == null ? task.getPhase().isFinished() : task.getPhase().isReleased();
+    }
+
+    /**
+     * Schedules a thread which executes the tasks of the given queue, if the oldest task can be executed and no
+     * thread is scheduled for the queue yet.
+     * Up to {@link DiscordApiImpl#getEventDispatchBatchSize()} tasks are
+     * executed on the same thread before the queue is checked again.
+     *
+     * @param queueSelector The queue selector of the queue.
+     * @param queue The queue.
+     */
+    private void startListenerTasksIfPossible(DispatchQueueSelector queueSelector, ListenerTaskQueue queue) {
+        if (!isExecutable(queueSelector, queue.peek()) || !queue.trySchedule()) {
+            return;
+        }
+        AtomicReference<Future<?>> activeListener = new AtomicReference<>();
+        activeListener.set(api.getThreadPool().getExecutorService().submit(() -> {
+            if (queueSelector instanceof ServerImpl) {
+                Object serverReadyNotifier = new Object();
+                ((ServerImpl) queueSelector)
+                        .addServerReadyConsumer(s -> {
+                            synchronized (serverReadyNotifier) {
+                                serverReadyNotifier.notifyAll();
                             }
+                        });
+                while (!((ServerImpl) queueSelector).isReady()) {
+                    try {
+                        synchronized (serverReadyNotifier) {
+                            serverReadyNotifier.wait(5000);
                         }
-                        // Add the future to the list of active listeners
-                        activeListeners.put(activeListener, new Object[]{System.nanoTime(), finalQueueSelector});
-                        try {
-                            taskQueue.poll().run();
-                        } catch (Throwable t) {
-                            logger.error(
-                                    "Unhandled exception in {}!",
-                                    () -> getThreadType(finalQueueSelector),
-                                    () -> t);
-                        }
-                        activeListeners.remove(activeListener);
-                        alreadyCanceledListeners.remove(activeListener);
-                        runningListeners.remove(finalQueueSelector);
-                        // Inform the dispatchEvent method that it maybe can queue new listeners now
-                        synchronized (queuedListenerTasks) {
-                            queuedListenerTasks.notifyAll();
-                        }
-                        checkRunningListenersAndStartIfPossible(finalQueueSelector);
-                    }));
+                    } catch (InterruptedException ignored) { }
                 }
             }
+            // Execute up to a whole batch of tasks before the thread is given back to the thread pool
+            int batchSize = api.getEventDispatchBatchSize();
+            long batchStartTime = System.nanoTime();
+            listenerThread.set(true);
+            try {
+                for (int executedTasks = 0; executedTasks < batchSize; executedTasks++) {
+                    ListenerTask task = queue.pollIf(nextTask -> isExecutable(queueSelector, nextTask));
+                    if (task == null) {
+                        break;
+                    }
+                    reportQueueDepth(queueSelector, queue);
+                    long taskStartTime = System.nanoTime();
+                    // Add the future to the list of active listeners or reset its start time
+                    activeListeners.put(activeListener, new Object[]{taskStartTime, queueSelector});
+                    runListenerTask(queueSelector, task, taskStartTime);
+                    finishExecutedTask(queueSelector, task);
+                    // A canceled task interrupted the thread, so the remaining tasks get a fresh one
+                    Future<?> future = activeListener.get();
+                    if (((future != null) && future.isCancelled())
+                            || (System.nanoTime() - batchStartTime > MAX_BATCH_TIME)) {
+                        break;
+                    }
+                }
+            } finally {
+                listenerThread.set(false);
+            }
+            activeListeners.remove(activeListener);
+            alreadyCanceledListeners.remove(activeListener);
+            queue.unschedule();
+            // The server might have been left while its queue was busy
+            removeQueueIfObsolete(queueSelector);
+            // Tasks might have been added or released after the last check
+            startListenerTasksIfPossible(queueSelector, queue);
+        }));
+    }
+
+    /**
+     * Checks if the given listener can be called outside the queue of the given queue selector.
+     *
+     * @param queueSelector The queue selector of the event.
+     * @param listener The listener.
+     * @return Whether the listener can be called in parallel to other listeners.
+     */
+    private boolean isParallelDispatchPossible(DispatchQueueSelector queueSelector, Object listener) {
+        if ((queueSelector == null) || !api.isListenerOrderIndependent(listener)) {
+            return false;
+        }
+        // Events of servers that are not ready yet have to wait in the queue of the server
+        return !(queueSelector instanceof ServerImpl) || ((ServerImpl) queueSelector).isReady();
+    }
+
+    /**
+     * Executes the given task of an order-independent listener on the parallel listener executor service.
+     *
+     * <p>The execution time of these listeners is checked like the one of all other listeners, as a blocked listener
+     * occupies one of the limited threads of the executor service.
+     *
+     * @param queueSelector The queue selector of the event.
+     * @param task The task.
+     */
+    private void dispatchInParallel(DispatchQueueSelector queueSelector, ListenerTask task) {
+        AtomicReference<Future<?>> activeListener = new AtomicReference<>();
+        ExecutorService executorService = ((ThreadPoolImpl) api.getThreadPool()).getParallelListenerExecutorService();
+        activeListener.set(executorService.submit(() -> {
+            long taskStartTime = System.nanoTime();
+            activeListeners.put(activeListener, new Object[]{taskStartTime, queueSelector});
+            listenerThread.set(true);
+            try {
+                runListenerTask(queueSelector, task, taskStartTime);
+            } finally {
+                listenerThread.set(false);
+                activeListeners.remove(activeListener);
+                alreadyCanceledListeners.remove(activeListener);
+            }
+        }));
+    }
+
+    /**
+     * Runs the given task, logs exceptions thrown by the listener and reports the timings to the event dispatch
+     * metrics.
+     *
+     * @param queueSelector The queue selector of the event.
+     * @param task The task.
+     * @param startNanos The value of {@link System#nanoTime()} when the task was started.
+     */
+    private void runListenerTask(DispatchQueueSelector queueSelector, ListenerTask task, long startNanos) {
+        Class<?> listenerClass = task.getListener().getClass();
+        metrics.onListenerStart(listenerClass, startNanos - task.getDispatchNanos());
+        try {
+            task.run();
+        } catch (Throwable t) {
+            logger.error("Unhandled exception in {}!", () -> getThreadType(queueSelector), () -> t);
+        }
+        metrics.onListenerEnd(listenerClass, System.nanoTime() - startNanos);
+    }
+
+    /**
+     * Reports the depth of the given queue to the event dispatch metrics.
+     * The queue of lifecycle events is not reported.
+     *
+     * @param queueSelector The queue selector of the queue.
+     * @param queue The queue.
+     */
+    private void reportQueueDepth(DispatchQueueSelector queueSelector, ListenerTaskQueue queue) {
+        if (queueSelector == null) {
+            return;
         }
+        metrics.onQueueDepthChange(queueSelector instanceof Server ? (Server) queueSelector : null, queue.size());
     }
 
     /**
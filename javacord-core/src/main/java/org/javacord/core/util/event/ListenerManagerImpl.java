@@ -50,6 +50,16 @@ public class ListenerManagerImpl<T> implements ListenerManager<T> {
      */
     private final List<Runnable> removeHandlers = new ArrayList<>();
 
+    /**
+     * Whether the listener is order-independent.
+     */
+    private boolean orderIndependent = false;
+
+    /**
+     * Whether the listener was removed.
+     */
+    private boolean removed = false;
+
     /**
      * Creates a new listener manager for a global listener.
      *
@@ -83,6 +93,12 @@ public class ListenerManagerImpl<T> implements ListenerManager<T> {
      * Called when the listener is removed.
      */
     public void removed() {
+        synchronized (this) {
+            removed = true;
+            if (orderIndependent) {
+                api.setListenerOrderIndependent(listener, false);
+            }
+        }
         removeHandlers.forEach(Runnable::run);
     }
 
@@ -134,6 +150,20 @@ public class ListenerManagerImpl<T> implements ListenerManager<T> {
         return this;
     }
 
+    @Override
+    public synchronized ListenerManagerImpl<T> setOrderIndependent(boolean orderIndependent) {
+        if ((this.orderIndependent != orderIndependent) && !removed) {
+            api.setListenerOrderIndependent(listener, orderIndependent);
+        }
+        this.orderIndependent = orderIndependent;
+        return this;
+    }
+
+    @Override
+    public synchronized boolean isOrderIndependent() {
+        return orderIndependent;
+    }
+
     @Override
     public void addRemoveHandler(Runnable removeHandler) {
         removeHandlers.add(removeHandler);
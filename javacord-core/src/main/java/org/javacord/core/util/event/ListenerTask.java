@@ -0,0 +1,217 @@
+package org.javacord.core.util.event;
+
+import org.javacord.api.event.Event;
+import org.javacord.api.event.user.UserChangeActivityEvent;
+import org.javacord.api.event.user.UserChangeNicknameEvent;
+import org.javacord.api.event.user.UserChangeStatusEvent;
+import org.javacord.api.event.user.UserStartTypingEvent;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * A queued call of a single listener for an event.
+ */
+final class ListenerTask implements Runnable {
+
+    /**
+     * The listener which gets called.
+     */
+    private final Object listener;
+
+    /**
+     * The event which is passed to the listener.
+     */
+    private final Event event;
+
+    /**
+     * The action which calls the listener.
+     */
+    private final Runnable action;
+
+    /**
+     * The value of {@link System#nanoTime()} when the event was dispatched.
+     */
+    private final long dispatchNanos;
+
+    /**
+     * The dispatch phase of the task.
+     */
+    private DispatchPhase phase;
+
+    /**
+     * Whether the task was taken from its queue to be executed or dropped.
+     */
+    private final AtomicBoolean taken = new AtomicBoolean();
+
+    /**
+     * The coalescing key of the task, if it was already resolved.
+     */
+    private CoalescingKey coalescingKey;
+
+    /**
+     * Whether the coalescing key of the task was already resolved.
+     */
+    private volatile boolean coalescingKeyResolved;
+
+    /**
+     * Creates a new listener task.
+     *
+     * @param listener The listener which gets called.
+     * @param event The event which is passed to the listener.
+     * @param action The action which calls the listener.
+     */
+    ListenerTask(Object listener, Event event, Runnable action) {
+        this.listener = listener;
+        this.event = event;
+        this.action = action;
+        dispatchNanos = System.nanoTime();
+    }
+
+    @Override
+    public void run() {
+        action.run();
+    }
+
+    /**
+     * Gets the listener which gets called.
+     *
+     * @return The listener.
+     */
+    Object getListener() {
+        return listener;
+    }
+
+    /**
+     * Gets the event which is passed to the listener.
+     *
+     * @return The event.
+     */
+    Event getEvent() {
+        return event;
+    }
+
+    /**
+     * Gets the value of {@link System#nanoTime()} when the event was dispatched.
+     *
+     * @return The dispatch time in nanoseconds.
+     */
+    long getDispatchNanos() {
+        return dispatchNanos;
+    }
+
+    /**
+     * Gets the dispatch phase of the task.
+     *
+     * @return The dispatch phase.
+     */
+    DispatchPhase getPhase() {
+        return phase;
+    }
+
+    /**
+     * Sets the dispatch phase of the task. Must be called before the task is added to a queue.
+     *
+     * @param phase The dispatch phase.
+     */
+    void setPhase(DispatchPhase phase) {
+        this.phase = phase;
+    }
+
+    /**
+     * Takes the task from its queue, so it is either executed or dropped, but never both.
+     *
+     * @return Whether the current thread took the task and is responsible for it now.
+     */
+    boolean take() {
+        return taken.compareAndSet(false, true);
+    }
+
+    /**
+     * Gets the key of the state which the event of this task reports.
+     *
+     * <p>Only events that report the latest state of something, like the status of a user or whether a user is
+     * typing in a channel, have a key. A queued task can be replaced by a newer task with an equal key without losing
+     * information the listener cares about, as both call the same listener with the state of the same thing.
+     *
+     * @return The coalescing key or {@code null} if the task must not be replaced by other tasks.
+     */
+    Object getCoalescingKey() {
+        if (!coalescingKeyResolved) {
+            coalescingKey = CoalescingKey.of(listener, event);
+            coalescingKeyResolved = true;
+        }
+        return coalescingKey;
+    }
+
+    /**
+     * The key of the state which the event of a task reports.
+     */
+    private static final class CoalescingKey {
+
+        private final Object listener;
+        private final Class<? extends Event> eventType;
+        private final long userId;
+        private final long scopeId;
+
+        private CoalescingKey(Object listener, Class<? extends Event> eventType, long userId, long scopeId) {
+            this.listener = listener;
+            this.eventType = eventType;
+            this.userId = userId;
+            this.scopeId = scopeId;
+        }
+
+        /**
+         * Creates the key for a call of the given listener with the given event.
+         *
+         * @param listener The listener.
+         * @param event The event.
+         * @return The key or {@code null} if the event does not report a state.
+         */
+        private static CoalescingKey of(Object listener, Event event) {
+            // The status and the activities are global states of a user
+            if (event instanceof UserChangeStatusEvent) {
+                return new CoalescingKey(
+                        listener, UserChangeStatusEvent.class, ((UserChangeStatusEvent) event).getUserId(), 0);
+            }
+            if (event instanceof UserChangeActivityEvent) {
+                return new CoalescingKey(
+                        listener, UserChangeActivityEvent.class, ((UserChangeActivityEvent) event).getUserId(), 0);
+            }
+            if (event instanceof UserStartTypingEvent) {
+                UserStartTypingEvent typingEvent = (UserStartTypingEvent) event;
+                return new CoalescingKey(listener, UserStartTypingEvent.class,
+                        typingEvent.getUserId(), typingEvent.getChannel().getId());
+            }
+            if (event instanceof UserChangeNicknameEvent) {
+                UserChangeNicknameEvent nicknameEvent = (UserChangeNicknameEvent) event;
+                return new CoalescingKey(listener, UserChangeNicknameEvent.class,
+                        nicknameEvent.getUser().getId(), nicknameEvent.getServer().getId());
+            }
+            return null;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (!(o instanceof CoalescingKey)) {
+                return false;
+            }
+            CoalescingKey other = (CoalescingKey) o;
+            return (listener == other.listener)
+                    && (eventType == other.eventType)
+                    && (userId == other.userId)
+                    && (scopeId == other.scopeId);
+        }
+
+        @Override
+        public int hashCode() {
+            int result = System.identityHashCode(listener);
+            result = 31 * result + eventType.hashCode();
+            result = 31 * result + Long.hashCode(userId);
+            result = 31 * result + Long.hashCode(scopeId);
+            return result;
+        }
+    }
+}
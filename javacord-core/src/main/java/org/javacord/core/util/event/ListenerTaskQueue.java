@@ -0,0 +1,234 @@
+package org.javacord.core.util.event;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+
+/**
+ * The queue of listener tasks for a single {@link DispatchQueueSelector}.
+ *
+ * <p>The queue keeps track of its size, so it can be bounded without traversing it. Any thread can add tasks, but
+ * only the thread which {@link #trySchedule() scheduled} the queue executes them.
+ */
+final class ListenerTaskQueue {
+
+    /**
+     * The queued tasks.
+     */
+    private final Queue<ListenerTask> tasks = new ConcurrentLinkedQueue<>();
+
+    /**
+     * The amount of queued tasks.
+     */
+    private final AtomicInteger size = new AtomicInteger();
+
+    /**
+     * The amount of threads which wait for free space in this queue.
+     */
+    private final AtomicInteger waitingThreads = new AtomicInteger();
+
+    /**
+     * Whether a thread is scheduled to execute the tasks of this queue.
+     */
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+
+    /**
+     * Adds the given tasks to the end of the queue.
+     *
+     * @param tasksToAdd The tasks to add.
+     */
+    void addAll(Collection<ListenerTask> tasksToAdd) {
+        tasks.addAll(tasksToAdd);
+        size.addAndGet(tasksToAdd.size());
+    }
+
+    /**
+     * Gets the oldest task without removing it.
+     *
+     * @return The oldest task or {@code null} if the queue is empty.
+     */
+    ListenerTask peek() {
+        return tasks.peek();
+    }
+
+    /**
+     * Removes the oldest task from the queue if it matches the given condition.
+     *
+     * @param condition The condition for the oldest task.
+     * @return The oldest task or {@code null} if the queue is empty or the oldest task does not match.
+     */
+    ListenerTask pollIf(Predicate<ListenerTask> condition) {
+        while (true) {
+            ListenerTask task = tasks.peek();
+            if ((task == null) || !condition.test(task)) {
+                return null;
+            }
+            // The oldest task might have been removed concurrently to make space
+            if (tasks.remove(task) && task.take()) {
+                size.decrementAndGet();
+                signalWaitingThreads();
+                return task;
+            }
+        }
+    }
+
+    /**
+     * Removes up to the given amount of the oldest tasks from the queue.
+     *
+     * @param amount The maximum amount of tasks to remove.
+     * @param removedTaskConsumer A consumer for the removed tasks.
+     * @return The amount of removed tasks.
+     */
+    int removeOldest(int amount, Consumer<ListenerTask> removedTaskConsumer) {
+        int removedTasks = 0;
+        while (removedTasks < amount) {
+            ListenerTask task = tasks.poll();
+            if (task == null) {
+                break;
+            }
+            if (task.take()) {
+                removedTaskConsumer.accept(task);
+                removedTasks++;
+            }
+        }
+        if (removedTasks > 0) {
+            size.addAndGet(-removedTasks);
+            signalWaitingThreads();
+        }
+        return removedTasks;
+    }
+
+    /**
+     * Removes all tasks that can be replaced by one of the given newer tasks, because they have the same
+     * {@link ListenerTask#getCoalescingKey() coalescing key}. Tasks without a coalescing key are never removed.
+     *
+     * <p>This method traverses the whole queue once.
+     *
+     * @param newerTasks The newer tasks.
+     * @param removedTaskConsumer A consumer for the removed tasks.
+     * @return The amount of removed tasks.
+     */
+    int removeReplaceable(Collection<ListenerTask> newerTasks, Consumer<ListenerTask> removedTaskConsumer) {
+        Set<Object> replacingKeys = new HashSet<>();
+        for (ListenerTask newerTask : newerTasks) {
+            Object coalescingKey = newerTask.getCoalescingKey();
+            if (coalescingKey != null) {
+                replacingKeys.add(coalescingKey);
+            }
+        }
+        if (replacingKeys.isEmpty()) {
+            return 0;
+        }
+        int removedTasks = 0;
+        // The iteration is weakly consistent, so tasks can be removed while iterating
+        Iterator<ListenerTask> iterator = tasks.iterator();
+        while (iterator.hasNext()) {
+            ListenerTask task = iterator.next();
+            // Only remove the task if it was not taken concurrently
+            if (replacingKeys.contains(task.getCoalescingKey()) && task.take()) {
+                iterator.remove();
+                removedTaskConsumer.accept(task);
+                removedTasks++;
+            }
+        }
+        if (removedTasks > 0) {
+            size.addAndGet(-removedTasks);
+            signalWaitingThreads();
+        }
+        return removedTasks;
+    }
+
+    /**
+     * Checks if the queue is empty.
+     *
+     * @return Whether the queue is empty.
+     */
+    boolean isEmpty() {
+        return tasks.isEmpty();
+    }
+
+    /**
+     * Gets the amount of queued tasks.
+     *
+     * @return The amount of queued tasks.
+     */
+    int size() {
+        return size.get();
+    }
+
+    /**
+     * Marks the queue as scheduled for execution, if it is not already.
+     *
+     * @return Whether the current thread is responsible for executing the tasks of the queue now.
+     */
+    boolean trySchedule() {
+        return scheduled.compareAndSet(false, true);
+    }
+
+    /**
+     * Marks the queue as no longer scheduled for execution.
+     * Must only be called by the thread which scheduled the queue.
+     */
+    void unschedule() {
+        scheduled.set(false);
+    }
+
+    /**
+     * Checks if the queue is scheduled for execution.
+     *
+     * @return Whether the queue is scheduled.
+     */
+    boolean isScheduled() {
+        return scheduled.get();
+    }
+
+    /**
+     * Blocks until the queue has space for the given amount of tasks or is empty.
+     *
+     * @param capacity The capacity of the queue.
+     * @param requiredSpace The amount of tasks that should fit in the queue.
+     * @throws InterruptedException If the current thread was interrupted while waiting.
+     */
+    void awaitSpace(int capacity, int requiredSpace) throws InterruptedException {
+        waitingThreads.incrementAndGet();
+        try {
+            synchronized (this) {
+                while (!hasSpace(capacity, requiredSpace)) {
+                    wait();
+                }
+            }
+        } finally {
+            waitingThreads.decrementAndGet();
+        }
+    }
+
+    /**
+     * Checks if the queue has space for the given amount of tasks or is empty.
+     *
+     * @param capacity The capacity of the queue.
+     * @param requiredSpace The amount of tasks that should fit in the queue.
+     * @return Whether the queue has enough space.
+     */
+    boolean hasSpace(int capacity, int requiredSpace) {
+        int currentSize = size.get();
+        return (currentSize == 0) || (currentSize <= capacity - requiredSpace);
+    }
+
+    /**
+     * Wakes up the threads which wait for free space in this queue.
+     */
+    private void signalWaitingThreads() {
+        if (waitingThreads.get() > 0) {
+            synchronized (this) {
+                notifyAll();
+            }
+        }
+    }
+}
@@ -1,5 +1,8 @@
 package org.javacord.core.util.gateway;
 
+import com.fasterxml.jackson.core.JsonParseException;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
 import com.fasterxml.jackson.databind.JsonNode;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.node.JsonNodeFactory;
@@ -12,6 +15,7 @@ import com.neovisionaries.ws.client.WebSocketFactory;
 import com.neovisionaries.ws.client.WebSocketFrame;
 import com.neovisionaries.ws.client.WebSocketListener;
 import org.apache.logging.log4j.Logger;
+import org.javacord.api.GatewayEncoding;
 import org.javacord.api.Javacord;
 import org.javacord.api.entity.Nameable;
 import org.javacord.api.entity.activity.Activity;
@@ -24,13 +28,17 @@ import org.javacord.api.event.connection.ReconnectEvent;
 import org.javacord.api.event.connection.ResumeEvent;
 import org.javacord.api.util.auth.Authenticator;
 import org.javacord.api.util.auth.Request;
+import org.javacord.api.util.gateway.GatewaySession;
 import org.javacord.core.DiscordApiImpl;
 import org.javacord.core.entity.server.ServerImpl;
+import org.javacord.core.entity.user.MemberImpl;
+import org.javacord.core.entity.user.UserImpl;
 import org.javacord.core.event.connection.LostConnectionEventImpl;
 import org.javacord.core.event.connection.ReconnectEventImpl;
 import org.javacord.core.event.connection.ResumeEventImpl;
 import org.javacord.core.util.auth.NvWebSocketResponseImpl;
 import org.javacord.core.util.auth.NvWebSocketRouteImpl;
+import org.javacord.core.util.cache.EntityCacheSnapshot;
 import org.javacord.core.util.handler.ReadyHandler;
 import org.javacord.core.util.handler.ResumedHandler;
 import org.javacord.core.util.handler.channel.ChannelCreateHandler;
@@ -85,7 +93,9 @@ import org.javacord.core.util.logging.WebSocketLogger;
 import org.javacord.core.util.rest.RestEndpoint;
 import org.javacord.core.util.rest.RestMethod;
 import org.javacord.core.util.rest.RestRequest;
+import org.javacord.core.util.rest.RestRequestResult;
 
+import java.io.IOException;
 import java.net.InetSocketAddress;
 import java.net.PasswordAuthentication;
 import java.net.Proxy;
@@ -93,24 +103,28 @@ import java.net.ProxySelector;
 import java.net.SocketAddress;
 import java.net.URI;
 import java.net.URL;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Optional;
+import java.util.Queue;
 import java.util.WeakHashMap;
 import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.LinkedBlockingQueue;
-import java.util.concurrent.PriorityBlockingQueue;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicMarkableReference;
 import java.util.concurrent.atomic.AtomicReference;
-import java.util.concurrent.locks.Condition;
 import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.LockSupport;
 import java.util.concurrent.locks.ReadWriteLock;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
@@ -142,6 +156,9 @@ public class DiscordWebSocketAdapter extends WebSocketAdapter {
 
     private final AtomicReference<WebSocket> websocket = new AtomicReference<>();
 
+    // The decompressor for the zlib-stream transport compression, only used by the web socket reading thread
+    private final ZlibStreamDecompressor zlibStreamDecompressor = new ZlibStreamDecompressor();
+
     private final Heart heart;
 
     private volatile int lastSeq = -1;
@@ -150,8 +167,16 @@ public class DiscordWebSocketAdapter extends WebSocketAdapter {
 
     private volatile boolean reconnect;
 
+    // Whether a READY or RESUMED packet was received since the websocket was last closed
+    private volatile boolean sessionActive;
+
+    // Whether the session should be saved in the gateway session store once the websocket is closed
+    private volatile boolean saveSessionOnClose;
+
+    // Whether the entity cache snapshot of a previous run should be restored before resuming its session
+    private volatile boolean restoreCacheSnapshotOnHello;
+
     private final Lock reconnectingOrResumingLock = new ReentrantLock();
-    private final Condition finishedReconnectingOrResumingCondition = reconnectingOrResumingLock.newCondition();
 
     private final AtomicMarkableReference<WebSocketFrame> lastSentFrameWasIdentify =
             new AtomicMarkableReference<>(null, false);
@@ -167,10 +192,17 @@ public class DiscordWebSocketAdapter extends WebSocketAdapter {
     // A queue which contains server ids for the "request guild members" packet
     private final BlockingQueue<Long> requestGuildMembersQueue = new LinkedBlockingQueue<>();
 
-    // A queue which contains web socket frame sending requests
-    private BlockingQueue<WebSocketFrameSendingQueueEntry> webSocketFrameSendingQueue = new PriorityBlockingQueue<>();
-    private AtomicReference<Thread> webSocketFrameSenderThread = new AtomicReference<>();
-    private AtomicInteger webSocketFrameSendingLimit = new AtomicInteger(WEB_SOCKET_FRAME_SENDING_RATELIMIT);
+    // The lanes which contain web socket frame sending requests, served in this order: priority lifecycle frames
+    // (heartbeats), other lifecycle frames and all other frames
+    private final Queue<WebSocketFrameSendingQueueEntry> priorityLifecycleFrameLane = new ConcurrentLinkedQueue<>();
+    private final Queue<WebSocketFrameSendingQueueEntry> lifecycleFrameLane = new ConcurrentLinkedQueue<>();
+    private final Queue<WebSocketFrameSendingQueueEntry> frameLane = new ConcurrentLinkedQueue<>();
+    // The queued entries of frames which supersede each other, by their coalescing key
+    private final ConcurrentMap<String, WebSocketFrameSendingQueueEntry> coalescableFrameEntries =
+            new ConcurrentHashMap<>();
+    private final AtomicReference<Thread> webSocketFrameSenderThread = new AtomicReference<>();
+    // The amount of tokens of the web socket frame ratelimit which are reserved for heartbeats
+    private volatile int reservedHeartbeatTokens = 0;
 
     /**
      * Creates a new discord websocket adapter.
@@ -197,6 +229,7 @@ public class DiscordWebSocketAdapter extends WebSocketAdapter {
                 false);
 
         registerHandlers();
+        restoreSession();
         connect();
 
         ExecutorService requestGuildMembersQueueConsumer =
@@ -224,7 +257,7 @@ public class DiscordWebSocketAdapter extends WebSocketAdapter {
                                 data.put("guild_id", Long.toUnsignedString(serverId));
                                 logger.debug("Sending request guild members packet {}",
                                              requestGuildMembersPacket);
-                                sendTextFrame(requestGuildMembersPacket.toString());
+                                sendFrame(createPacketFrame(api, requestGuildMembersPacket));
                             });
                     Thread.sleep(1000);
                 } catch (InterruptedException ignored) {
@@ -237,86 +270,93 @@ public class DiscordWebSocketAdapter extends WebSocketAdapter {
         ExecutorService webSocketFrameSenderService =
                 api.getThreadPool().getSingleDaemonThreadExecutorService("Web Socket Frame Sender");
         webSocketFrameSenderService.submit(() -> {
-            // remember the current thread to be able to interrupt it
+            // remember the current thread to be able to wake it up
             webSocketFrameSenderThread.set(Thread.currentThread());
 
-            // Lists of send times per web socket which are used to control the 120/60 web socket frame ratelimit
-            Map<WebSocket, List<Long>> sendTimeLists = new WeakHashMap<>();
+            // Token buckets per web socket which are used to control the 120/60 web socket frame ratelimit
+            Map<WebSocket, WebSocketFrameTokenBucket> tokenBuckets = new WeakHashMap<>();
 
             while (!webSocketFrameSenderService.isShutdown()) {
-                WebSocketFrameSendingQueueEntry webSocketFrameSendingQueueEntry = null;
+                // the sender only stops once its service is shut down
+                Thread.interrupted();
+                long waitDuration;
                 try {
-                    // wait 1 minute for a web socket frame being queued
-                    webSocketFrameSendingQueueEntry = webSocketFrameSendingQueue.poll(1, TimeUnit.MINUTES);
-                    if (webSocketFrameSendingQueueEntry == null) {
-                        // timed out => check whether the abort condition triggers
-                        continue;
-                    }
-
-                    WebSocket webSocket = webSocketFrameSendingQueueEntry.getWebSocket().orElseGet(websocket::get);
-                    List<Long> sendTimeList = sendTimeLists.computeIfAbsent(
-                            webSocket, key -> new ArrayList<>(WEB_SOCKET_FRAME_SENDING_RATELIMIT));
-
-                    long currentNanoTime = System.nanoTime();
-                    if (!sendTimeList.isEmpty()
-                            && (currentNanoTime - sendTimeList.get(0) > WEB_SOCKET_FRAME_SENDING_RATELIMIT_DURATION)) {
-                        // bucket defining send expired, clear the list
-                        sendTimeList.clear();
-                    }
-
-                    // reserve some places for heartbeats
-                    int webSocketFrameSendingLimit = webSocketFrameSendingQueueEntry.isPriorityLifecycle()
-                            ? WEB_SOCKET_FRAME_SENDING_RATELIMIT
-                            : this.webSocketFrameSendingLimit.get();
-
-                    // wait for ratelimit cool down
-                    if (sendTimeList.size() >= webSocketFrameSendingLimit) {
-                        long waitDuration = WEB_SOCKET_FRAME_SENDING_RATELIMIT_DURATION
-                                            - (currentNanoTime - sendTimeList.get(0));
-                        if (waitDuration > 0) {
-                            waitDuration += ONE_SECOND;
-                            logger.debug("Waiting {}ns for web socket frame sending cool down", waitDuration);
-                            TimeUnit.NANOSECONDS.sleep(waitDuration);
-                        }
-                        // recheck whether the abort condition triggers and prefer lifecycle and priority frames
-                        continue;
-                    }
-
-                    // We don't want to send any non-lifecycle frames to the websocket before we are properly
-                    // reconnected (aka. we received a RESUMED or READY packet)
-                    if (reconnectAttempt.intValue() > 0 && !webSocketFrameSendingQueueEntry.isLifecycle()) {
-                        reconnectingOrResumingLock.lock();
-                        try {
-                            finishedReconnectingOrResumingCondition.await(1, TimeUnit.SECONDS);
-                        } finally {
-                            reconnectingOrResumingLock.unlock();
-                        }
-                        // recheck whether the abort condition triggers and prefer lifecycle and priority frames
-                        continue;
-                    }
-
-                    // store the current send time and actually send the frame
-                    sendTimeList.add(currentNanoTime);
-                    WebSocketFrame frame = webSocketFrameSendingQueueEntry.getFrame();
-                    logger.debug("Sending {}frame {}",
-                            webSocketFrameSendingQueueEntry.isPriorityLifecycle() ? "priority lifecycle " : "",
-                            frame);
-                    webSocket.sendFrame(frame);
-                    webSocketFrameSendingQueueEntry = null;
-                } catch (InterruptedException ignored) {
+                    waitDuration = sendNextWebSocketFrame(tokenBuckets);
                 } catch (Throwable t) {
                     logger.error("Failed to process web socket frame sending queue!", t);
-                } finally {
-                    // sending failed, throttling still in effect or interrupt arrived
-                    if (webSocketFrameSendingQueueEntry != null) {
-                        // put the frame back to the queue
-                        webSocketFrameSendingQueue.add(webSocketFrameSendingQueueEntry);
-                    }
+                    waitDuration = ONE_SECOND;
+                }
+                if (waitDuration > 0) {
+                    // wait for ratelimit cool down or until a frame is queued
+                    LockSupport.parkNanos(this, waitDuration);
                 }
             }
         });
     }
 
+    /**
+     * Sends the next queued web socket frame if the ratelimit allows it.
+     *
+     * <p>The lanes are served strictly in order, so a throttled heartbeat or lifecycle frame is never overtaken.
+     * Frames stay at the head of their lane until they are sent, so they keep their place when throttled.
+     *
+     * @param tokenBuckets The token buckets of the web sockets.
+     * @return {@code 0} if a frame was sent, otherwise the time in nanoseconds to wait before trying again.
+     */
+    private long sendNextWebSocketFrame(Map<WebSocket, WebSocketFrameTokenBucket> tokenBuckets) {
+        Queue<WebSocketFrameSendingQueueEntry> lane = priorityLifecycleFrameLane;
+        if (lane.isEmpty()) {
+            lane = lifecycleFrameLane;
+        }
+        // We don't want to send any non-lifecycle frames to the websocket before we are properly
+        // reconnected (aka. we received a RESUMED or READY packet)
+        if (lane.isEmpty() && (reconnectAttempt.get() == 0)) {
+            lane = frameLane;
+        }
+        WebSocketFrameSendingQueueEntry webSocketFrameSendingQueueEntry = lane.peek();
+        if (webSocketFrameSendingQueueEntry == null) {
+            // nothing to send, wait for a web socket frame being queued
+            return WEB_SOCKET_FRAME_SENDING_RATELIMIT_DURATION;
+        }
+
+        WebSocket webSocket = webSocketFrameSendingQueueEntry.getWebSocket().orElseGet(websocket::get);
+        if (webSocket == null) {
+            return ONE_SECOND;
+        }
+        WebSocketFrameTokenBucket tokenBucket = tokenBuckets.computeIfAbsent(webSocket,
+                key -> new WebSocketFrameTokenBucket(
+                        WEB_SOCKET_FRAME_SENDING_RATELIMIT, WEB_SOCKET_FRAME_SENDING_RATELIMIT_DURATION));
+
+        // reserve some tokens for heartbeats
+        int reservedTokens = webSocketFrameSendingQueueEntry.isPriorityLifecycle() ? 0 : reservedHeartbeatTokens;
+        long currentNanoTime = System.nanoTime();
+        long waitDuration = tokenBucket.getNanosUntilAvailable(reservedTokens, currentNanoTime);
+        if (waitDuration > 0) {
+            logger.debug("Waiting {}ns for web socket frame sending cool down", waitDuration);
+            return waitDuration;
+        }
+
+        // newer frames with the same coalescing key must not replace the frame anymore once it is taken for sending
+        String coalescingKey = webSocketFrameSendingQueueEntry.getCoalescingKey().orElse(null);
+        if (coalescingKey != null) {
+            coalescableFrameEntries.remove(coalescingKey, webSocketFrameSendingQueueEntry);
+        }
+        WebSocketFrame frame = webSocketFrameSendingQueueEntry.getFrame();
+        logger.debug("Sending {}frame {}",
+                webSocketFrameSendingQueueEntry.isPriorityLifecycle() ? "priority lifecycle " : "", frame);
+        tokenBucket.consume(currentNanoTime);
+        webSocket.sendFrame(frame);
+        lane.poll();
+        return 0;
+    }
+
+    /**
+     * Wakes up the web socket frame sender thread, e.g. because a frame was queued.
+     */
+    private void wakeUpWebSocketFrameSender() {
+        LockSupport.unpark(webSocketFrameSenderThread.get());
+    }
+
     /**
      * Gets the gateway used to connect.
      * If no gateway was requested or set so far, it will request one from Discord.
@@ -368,11 +408,113 @@ public class DiscordWebSocketAdapter extends WebSocketAdapter {
      */
     public void disconnect() {
         reconnect = false;
-        sendCloseFrame(WebSocketCloseReason.DISCONNECT.getNumericCloseCode());
+        if (api.getGatewaySessionStore().isPresent() && (sessionId != null)) {
+            // Discord invalidates the session if the websocket is closed normally
+            saveSessionOnClose = true;
+            sendCloseFrame(WebSocketCloseReason.DISCONNECT_TO_RESUME.getNumericCloseCode(),
+                    WebSocketCloseReason.DISCONNECT_TO_RESUME.getCloseReason());
+        } else {
+            sendCloseFrame(WebSocketCloseReason.DISCONNECT.getNumericCloseCode());
+        }
         // cancel heartbeat if within one minute no disconnect event was dispatched
         api.getThreadPool().getDaemonScheduler().schedule(heart::squash, 1, TimeUnit.MINUTES);
     }
 
+    /**
+     * Restores the session of a previous run of the program from the gateway session store, so the first connect
+     * tries to resume it instead of identifying.
+     */
+    private void restoreSession() {
+        api.getGatewaySessionStore().ifPresent(store -> {
+            try {
+                store.load(api.getCurrentShard(), api.getTotalShards()).ifPresent(session -> {
+                    sessionId = session.getSessionId();
+                    resumeUrl = session.getResumeUrl().orElse(null);
+                    lastSeq = session.getLastSequence();
+                    restoreCacheSnapshotOnHello = api.getEntityCacheSnapshotDirectory().isPresent();
+                    logger.info("Trying to resume the gateway session of a previous run");
+                });
+                // A session can only be resumed once
+                store.remove(api.getCurrentShard(), api.getTotalShards());
+            } catch (Throwable t) {
+                logger.warn("Failed to restore the gateway session from the session store", t);
+            }
+        });
+        if (!restoreCacheSnapshotOnHello) {
+            // Without the session, the snapshot cannot be brought up-to-date
+            api.getEntityCacheSnapshotDirectory().ifPresent(directory -> {
+                try {
+                    EntityCacheSnapshot.delete(api, directory);
+                } catch (Throwable t) {
+                    logger.warn("Failed to delete the outdated entity cache snapshot", t);
+                }
+            });
+        }
+    }
+
+    /**
+     * Restores the entity cache snapshot of a previous run of the program.
+     * If the snapshot cannot be restored, the session is dropped, so the shard identifies after reconnecting.
+     *
+     * @return Whether the session can still be resumed.
+     */
+    private boolean restoreCacheSnapshot() {
+        Optional<Path> directory = api.getEntityCacheSnapshotDirectory();
+        if (!directory.isPresent()) {
+            return true;
+        }
+        try {
+            if (EntityCacheSnapshot.restore(api, directory.get())) {
+                logger.info("Restored the entity cache snapshot of a previous run");
+            }
+            return true;
+        } catch (Throwable t) {
+            logger.warn("Failed to restore the entity cache snapshot. Identifying...", t);
+            api.purgeCache();
+            sessionId = null;
+            resumeUrl = null;
+            return false;
+        }
+    }
+
+    /**
+     * Writes a snapshot of the entity cache, so it can be restored together with the saved session.
+     */
+    private void saveCacheSnapshot() {
+        api.getEntityCacheSnapshotDirectory().ifPresent(directory -> {
+            try {
+                // The handlers processor applies all received packets to the cache in order,
+                // so the snapshot matches the sequence number of the saved session
+                api.getThreadPool().getSingleThreadExecutorService("Handlers Processor").submit(() -> {
+                    EntityCacheSnapshot.write(api, directory);
+                    return null;
+                }).get();
+                logger.debug("Saved the entity cache snapshot");
+            } catch (Throwable t) {
+                logger.warn("Failed to save the entity cache snapshot", t);
+            }
+        });
+    }
+
+    /**
+     * Saves the current session in the gateway session store.
+     */
+    private void saveSession() {
+        api.getGatewaySessionStore().ifPresent(store -> {
+            String currentSessionId = sessionId;
+            if (currentSessionId == null) {
+                return;
+            }
+            try {
+                store.save(new GatewaySession(api.getCurrentShard(), api.getTotalShards(), currentSessionId,
+                        resumeUrl, lastSeq));
+                logger.debug("Saved the gateway session in the session store");
+            } catch (Throwable t) {
+                logger.warn("Failed to save the gateway session in the session store", t);
+            }
+        });
+    }
+
     /**
      * Connects the websocket.
      */
@@ -380,8 +522,10 @@ public class DiscordWebSocketAdapter extends WebSocketAdapter {
         try {
             WebSocketFactory factory = new WebSocketFactory();
 
-            String webSocketUri = (resumeUrl != null ? resumeUrl : getGateway(api)) + "?encoding=json&v="
-                    + Javacord.DISCORD_GATEWAY_VERSION;
+            String webSocketUri = (resumeUrl != null ? resumeUrl : getGateway(api)) + "?encoding="
+                    + api.getGatewayEncoding().getName() + "&v="
+                    + Javacord.DISCORD_GATEWAY_VERSION
+                    + (api.isGatewayTransportCompressionEnabled() ? "&compress=zlib-stream" : "");
 
             Proxy proxy = api.getProxy().orElseGet(() -> {
                 List<Proxy> proxies = api.getProxySelector().orElseGet(ProxySelector::getDefault).select(URI.create(
@@ -468,6 +612,8 @@ public class DiscordWebSocketAdapter extends WebSocketAdapter {
                 api.getGatewayIdentifyRatelimiter().requestQuota();
             }
             triedToResume = false;
+            // every connection has its own zlib context
+            zlibStreamDecompressor.reset();
             websocket.connect();
         } catch (Throwable t) {
             resumeUrl = null;
@@ -517,6 +663,15 @@ public class DiscordWebSocketAdapter extends WebSocketAdapter {
         logger.info("Websocket closed with reason '{}' and code {} by {}!",
                     closeReason, closeCodeString, closedByServer ? "server" : "client");
 
+        sessionActive = false;
+        // the reading thread is finished at this point, so the native memory of the zlib context can be released
+        zlibStreamDecompressor.close();
+        if (saveSessionOnClose) {
+            saveSessionOnClose = false;
+            saveSession();
+            saveCacheSnapshot();
+        }
+
         LostConnectionEvent lostConnectionEvent = new LostConnectionEventImpl(api);
         api.getEventDispatcher().dispatchLostConnectionEvent(null, lostConnectionEvent);
 
@@ -551,8 +706,72 @@ public class DiscordWebSocketAdapter extends WebSocketAdapter {
     @Override
     public void onTextMessage(WebSocket websocket, String text) throws Exception {
         ObjectMapper mapper = api.getObjectMapper();
-        JsonNode packet = mapper.readTree(text);
+        handlePacket(websocket, readPacket(mapper.getFactory().createParser(text)));
+    }
 
+    /**
+     * Reads a packet from the given parser and closes the parser afterwards.
+     *
+     * <p>The fields of the packet are streamed one by one. If the dispatch type ({@code t}) is known when the payload
+     * ({@code d}) is reached and the payload is not required for that type, the payload is skipped without building
+     * a tree for it. In this case the returned packet does not contain a {@code d} field.
+     *
+     * @param parser The parser to read the packet from.
+     * @return The read packet.
+     * @throws IOException If the packet could not be read.
+     */
+    private JsonNode readPacket(JsonParser parser) throws IOException {
+        try (JsonParser packetParser = parser) {
+            if (packetParser.nextToken() != JsonToken.START_OBJECT) {
+                throw new JsonParseException(packetParser, "Expected a packet object");
+            }
+            ObjectMapper mapper = api.getObjectMapper();
+            ObjectNode packet = JsonNodeFactory.instance.objectNode();
+            boolean typeRead = false;
+            String type = null;
+            while (packetParser.nextToken() == JsonToken.FIELD_NAME) {
+                String fieldName = packetParser.getCurrentName();
+                packetParser.nextToken();
+                if (typeRead && fieldName.equals("d") && !isPayloadRequired(type)) {
+                    packetParser.skipChildren();
+                    continue;
+                }
+                JsonNode value = mapper.readTree(packetParser);
+                if (fieldName.equals("t")) {
+                    typeRead = true;
+                    type = value.isNull() ? null : value.asText();
+                }
+                packet.set(fieldName, value);
+            }
+            return packet;
+        }
+    }
+
+    /**
+     * Checks whether the payload of a packet with the given dispatch type has to be decoded.
+     *
+     * @param type The dispatch type of the packet or {@code null} if it is not a dispatch packet.
+     * @return Whether the payload has to be decoded.
+     */
+    private boolean isPayloadRequired(String type) {
+        if (type == null) {
+            return true;
+        }
+        PacketHandler handler = handlers.get(type);
+        if (handler == null) {
+            // the payload of unknown packets is only logged
+            return logger.isDebugEnabled();
+        }
+        return handler.isPayloadRequired();
+    }
+
+    /**
+     * Handles a received packet.
+     *
+     * @param websocket The websocket the packet was received from.
+     * @param packet The packet to handle.
+     */
+    private void handlePacket(WebSocket websocket, JsonNode packet) {
         heart.handlePacket(packet);
 
         int op = packet.get("op").asInt();
@@ -566,9 +785,13 @@ public class DiscordWebSocketAdapter extends WebSocketAdapter {
             case DISPATCH:
                 lastSeq = packet.get("s").asInt();
                 String type = packet.get("t").asText();
+                api.getEventDispatchMetrics().onGatewayDispatch(type);
                 PacketHandler handler = handlers.get(type);
                 if (handler != null) {
-                    handler.handlePacket(packet.get("d"));
+                    // the payload is missing if it was skipped while reading the packet
+                    if (packet.has("d")) {
+                        handler.handlePacket(packet.get("d"));
+                    }
                 } else {
                     logger.debug("Received unknown packet of type {} (packet: {})", type, packet);
                 }
@@ -581,24 +804,31 @@ public class DiscordWebSocketAdapter extends WebSocketAdapter {
                     try {
                         triedToResume = false;
                         reconnectAttempt.set(0);
-                        finishedReconnectingOrResumingCondition.signalAll();
                     } finally {
                         reconnectingOrResumingLock.unlock();
                     }
+                    // send the frames that were held back while resuming
+                    wakeUpWebSocketFrameSender();
+                    sessionActive = true;
                     logger.debug("Received RESUMED packet");
 
                     ResumeEvent resumeEvent = new ResumeEventImpl(api);
                     api.getEventDispatcher().dispatchResumeEvent(null, resumeEvent);
+                    if (!ready.isDone()) {
+                        completeReadyAfterRestoredSession(websocket);
+                    }
                 }
                 if (type.equals("READY")) {
                     reconnectingOrResumingLock.lock();
                     try {
                         triedToResume = false;
                         reconnectAttempt.set(0);
-                        finishedReconnectingOrResumingCondition.signalAll();
                     } finally {
                         reconnectingOrResumingLock.unlock();
                     }
+                    // send the frames that were held back while reconnecting
+                    wakeUpWebSocketFrameSender();
+                    sessionActive = true;
                     sessionId = packet.get("d").get("session_id").asText();
                     resumeUrl = packet.get("d").hasNonNull("resume_gateway_url")
                             ? packet.get("d").get("resume_gateway_url").asText() : null;
@@ -679,10 +909,21 @@ public class DiscordWebSocketAdapter extends WebSocketAdapter {
                 JsonNode data = packet.get("d");
                 int heartbeatInterval = data.get("heartbeat_interval").asInt();
 
-                // calculate reserved places for heartbeats
-                webSocketFrameSendingLimit.set(WEB_SOCKET_FRAME_SENDING_RATELIMIT - 1 - (60_000 / heartbeatInterval));
+                // calculate reserved tokens for heartbeats
+                reservedHeartbeatTokens = 1 + (60_000 / heartbeatInterval);
                 heart.startBeating(heartbeatInterval);
 
+                if (restoreCacheSnapshotOnHello) {
+                    // Must happen before resuming, as the replayed events are applied on top of the snapshot
+                    restoreCacheSnapshotOnHello = false;
+                    if (!restoreCacheSnapshot()) {
+                        // Reconnect to identify, which has to respect the identify ratelimit
+                        sendCloseFrame(websocket,
+                                WebSocketCloseReason.INVALID_SESSION_RECONNECT.getNumericCloseCode(),
+                                WebSocketCloseReason.INVALID_SESSION_RECONNECT.getCloseReason());
+                        break;
+                    }
+                }
                 if (sessionId == null) {
                     sendIdentify(websocket);
                 } else {
@@ -700,6 +941,30 @@ public class DiscordWebSocketAdapter extends WebSocketAdapter {
 
     @Override
     public void onBinaryMessage(WebSocket websocket, byte[] binary) throws Exception {
+        if (api.isGatewayTransportCompressionEnabled()) {
+            int length;
+            try {
+                length = zlibStreamDecompressor.decompress(binary);
+            } catch (DataFormatException e) {
+                logger.warn("An error occurred while decompressing data", e);
+                // the shared zlib context is broken, so all further messages would be broken, too
+                sendCloseFrame(websocket,
+                        WebSocketCloseReason.DECOMPRESSION_FAILED.getNumericCloseCode(),
+                        WebSocketCloseReason.DECOMPRESSION_FAILED.getCloseReason());
+                return;
+            }
+            if (length < 0) {
+                // the message is not complete yet
+                return;
+            }
+            handlePacket(websocket, readPacket(zlibStreamDecompressor.getBuffer(), length));
+            return;
+        }
+        if (api.getGatewayEncoding() == GatewayEncoding.ETF) {
+            handlePacket(websocket, readPacket(binary, binary.length));
+            return;
+        }
+
         String message;
         try {
             message = BinaryMessageDecompressor.decompress(binary);
@@ -711,6 +976,53 @@ public class DiscordWebSocketAdapter extends WebSocketAdapter {
         onTextMessage(websocket, message);
     }
 
+    /**
+     * Reads a packet from the given binary message in the encoding of the gateway connection.
+     *
+     * @param data The buffer which contains the message.
+     * @param length The length of the message.
+     * @return The read packet.
+     * @throws IOException If the packet could not be read.
+     */
+    private JsonNode readPacket(byte[] data, int length) throws IOException {
+        JsonNode packet;
+        if (api.getGatewayEncoding() == GatewayEncoding.ETF) {
+            packet = new EtfDecoder(data, 0, length).decodePacket(this::isPayloadRequired);
+        } else {
+            packet = readPacket(api.getObjectMapper().getFactory().createParser(data, 0, length));
+        }
+        logger.trace("onBinaryMessage: packet='{}'", packet);
+        return packet;
+    }
+
+    /**
+     * Completes the ready future after the session of a previous run of the program was resumed.
+     *
+     * <p>Discord does not send a READY packet when a session is resumed, so the own user is requested instead. If
+     * this fails, the session is dropped and the shard identifies.
+     *
+     * @param websocket The websocket of the resumed session.
+     */
+    private void completeReadyAfterRestoredSession(WebSocket websocket) {
+        logger.info("Resumed the gateway session of a previous run");
+        new RestRequest<JsonNode>(api, RestMethod.GET, RestEndpoint.CURRENT_USER)
+                .execute(RestRequestResult::getJsonBody)
+                .whenComplete((userJson, throwable) -> {
+                    if (throwable != null) {
+                        logger.warn("Failed to request the own user after resuming the session. Identifying...",
+                                throwable);
+                        sessionId = null;
+                        resumeUrl = null;
+                        sendCloseFrame(websocket,
+                                WebSocketCloseReason.INVALID_SESSION_RECONNECT.getNumericCloseCode(),
+                                WebSocketCloseReason.INVALID_SESSION_RECONNECT.getCloseReason());
+                        return;
+                    }
+                    api.setYourself(new UserImpl(api, userJson, (MemberImpl) null, null));
+                    ready.complete(true);
+                });
+    }
+
     /**
      * Sends the resume packet.
      *
@@ -725,7 +1037,7 @@ public class DiscordWebSocketAdapter extends WebSocketAdapter {
                 .put("seq", lastSeq);
         logger.debug("Sending resume packet");
         triedToResume = true;
-        sendLifecycleTextFrame(websocket, resumePacket.toString());
+        sendLifecycleFrame(websocket, createPacketFrame(api, resumePacket));
     }
 
     /**
@@ -739,7 +1051,9 @@ public class DiscordWebSocketAdapter extends WebSocketAdapter {
         ObjectNode data = identifyPacket.putObject("d");
         String token = api.getPrefixedToken();
         data.put("token", token)
-                .put("compress", true)
+                // payload compression is only used for json without transport compression
+                .put("compress", !api.isGatewayTransportCompressionEnabled()
+                        && api.getGatewayEncoding() == GatewayEncoding.JSON)
                 .put("large_threshold", 250)
                 .putObject("properties")
                 .put("os", System.getProperty("os.name"))
@@ -756,7 +1070,7 @@ public class DiscordWebSocketAdapter extends WebSocketAdapter {
             websocket.removeListeners(identifyFrameListeners);
             identifyFrameListeners.clear();
         }
-        WebSocketFrame identifyFrame = WebSocketFrame.createTextFrame(identifyPacket.toString());
+        WebSocketFrame identifyFrame = createPacketFrame(api, identifyPacket);
         lastSentFrameWasIdentify.set(identifyFrame, false);
         WebSocketAdapter identifyFrameListener = new WebSocketAdapter() {
             @Override
@@ -806,7 +1120,9 @@ public class DiscordWebSocketAdapter extends WebSocketAdapter {
                 .put("self_mute", (selfMuted == null) ? server.isSelfMuted(yourself) : selfMuted)
                 .put("self_deaf", (selfDeafened == null) ? server.isSelfDeafened(yourself) : selfDeafened);
         logger.debug("Sending VOICE_STATE_UPDATE packet for {} on {}", channel, server);
-        sendTextFrame(updateVoiceStatePacket.toString());
+        // only the newest voice state of a server matters
+        sendCoalescableFrame(createPacketFrame(api, updateVoiceStatePacket),
+                GatewayOpcode.VOICE_STATE_UPDATE.name() + ":" + server.getIdAsString());
     }
 
     /**
@@ -915,6 +1231,16 @@ public class DiscordWebSocketAdapter extends WebSocketAdapter {
         return ready;
     }
 
+    /**
+     * Checks whether the gateway session is active, i.e. a READY or RESUMED packet was received since the websocket
+     * was last closed.
+     *
+     * @return Whether the gateway session is active.
+     */
+    public boolean isSessionActive() {
+        return sessionActive;
+    }
+
     /**
      * Sends the update status packet.
      */
@@ -941,7 +1267,8 @@ public class DiscordWebSocketAdapter extends WebSocketAdapter {
         }).orElse(0));
         activity.flatMap(Activity::getStreamingUrl).ifPresent(url -> activityJson.put("url", url));
         logger.debug("Updating status (content: {})", updateStatus);
-        sendTextFrame(updateStatus.toString());
+        // only the newest status matters
+        sendCoalescableFrame(createPacketFrame(api, updateStatus), GatewayOpcode.STATUS_UPDATE.name());
     }
 
     /**
@@ -1003,6 +1330,20 @@ public class DiscordWebSocketAdapter extends WebSocketAdapter {
         sendLifecycleFrame(webSocket, WebSocketFrame.createTextFrame(message));
     }
 
+    /**
+     * Creates a frame for the given packet in the encoding of the gateway connection of the given api.
+     *
+     * @param api The api.
+     * @param packet The packet.
+     * @return A text frame for json or a binary frame for etf.
+     */
+    static WebSocketFrame createPacketFrame(DiscordApiImpl api, JsonNode packet) {
+        if (api.getGatewayEncoding() == GatewayEncoding.ETF) {
+            return WebSocketFrame.createBinaryFrame(EtfEncoder.encode(packet));
+        }
+        return WebSocketFrame.createTextFrame(packet.toString());
+    }
+
     /**
      * Send a text frame with the given message after ratelimit allows.
      *
@@ -1052,14 +1393,41 @@ public class DiscordWebSocketAdapter extends WebSocketAdapter {
     private void sendFrame(WebSocket webSocket, WebSocketFrame frame, boolean priority, boolean lifecycle) {
         logger.debug("Queued {}lifecycle frame for sending with{} priority: {}",
                      lifecycle ? "" : "non-", priority ? "" : "out", frame);
-        webSocketFrameSendingQueue.add(new WebSocketFrameSendingQueueEntry(
+        WebSocketFrameSendingQueueEntry webSocketFrameSendingQueueEntry = new WebSocketFrameSendingQueueEntry(
                 Optional.ofNullable(webSocket).orElseGet(() -> lifecycle ? this.websocket.get() : null),
-                frame, priority, lifecycle));
-        if (priority && lifecycle) {
-            // interrupt the web socket frame sender thread to get
-            // the heartbeat out if it is still waiting to send a different frame
-            Optional.ofNullable(webSocketFrameSenderThread.get()).ifPresent(Thread::interrupt);
+                frame, priority, lifecycle);
+        if (lifecycle) {
+            (priority ? priorityLifecycleFrameLane : lifecycleFrameLane).add(webSocketFrameSendingQueueEntry);
+        } else {
+            frameLane.add(webSocketFrameSendingQueueEntry);
         }
+        // wake up the web socket frame sender thread to get a heartbeat
+        // out if it is still waiting to send a different frame
+        wakeUpWebSocketFrameSender();
+    }
+
+    /**
+     * Send the given web socket frame after ratelimit allows. If a frame with the same coalescing key is still queued,
+     * it is replaced by the given frame instead, so only the newest of them is sent and it keeps the place of the
+     * queued one.
+     *
+     * @param frame The web socket frame to send.
+     * @param coalescingKey The key of frames that supersede each other.
+     */
+    private void sendCoalescableFrame(WebSocketFrame frame, String coalescingKey) {
+        coalescableFrameEntries.compute(coalescingKey, (key, queuedEntry) -> {
+            if (queuedEntry != null) {
+                logger.debug("Replaced queued frame with coalescing key {} by newer frame: {}", key, frame);
+                queuedEntry.setFrame(frame);
+                return queuedEntry;
+            }
+            logger.debug("Queued non-lifecycle frame with coalescing key {} for sending: {}", key, frame);
+            WebSocketFrameSendingQueueEntry webSocketFrameSendingQueueEntry =
+                    new WebSocketFrameSendingQueueEntry(null, frame, false, false, key);
+            frameLane.add(webSocketFrameSendingQueueEntry);
+            return webSocketFrameSendingQueueEntry;
+        });
+        wakeUpWebSocketFrameSender();
     }
 
     /**
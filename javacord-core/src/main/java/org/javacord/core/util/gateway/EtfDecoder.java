@@ -0,0 +1,389 @@
+package org.javacord.core.util.gateway;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.JsonNodeFactory;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.math.BigInteger;
+import java.nio.charset.Charset;
+import java.nio.charset.StandardCharsets;
+import java.util.function.Predicate;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * A decoder for the Erlang External Term Format (ETF) which is used by the gateway if the
+ * {@link org.javacord.api.GatewayEncoding#ETF etf} encoding is used.
+ *
+ * <p>The terms are decoded into the same json node structure that is created for json packets, so packet handlers
+ * do not have to care about the encoding. Maps become object nodes, lists and tuples become array nodes, binaries
+ * become text nodes and the atoms {@code nil}, {@code true} and {@code false} become null and boolean nodes.
+ * Integers, including snowflakes which are sent as big integers, are decoded as numeric nodes,
+ * so {@link JsonNode#asLong()} does not have to parse them.
+ *
+ * <p>A decoder instance decodes exactly one message and is not thread-safe.
+ */
+public class EtfDecoder {
+
+    private static final JsonNodeFactory nodeFactory = JsonNodeFactory.instance;
+
+    private byte[] data;
+    private int position;
+    private int end;
+
+    /**
+     * Creates a new decoder for the given message.
+     *
+     * @param data The buffer which contains the message.
+     * @param offset The offset of the message in the buffer.
+     * @param length The length of the message.
+     */
+    public EtfDecoder(byte[] data, int offset, int length) {
+        this.data = data;
+        this.position = offset;
+        this.end = offset + length;
+    }
+
+    /**
+     * Decodes the message.
+     *
+     * @return The decoded term.
+     * @throws IOException If the message is not a valid ETF message.
+     */
+    public JsonNode decode() throws IOException {
+        readHeader();
+        return readTerm();
+    }
+
+    /**
+     * Decodes the message as a gateway packet.
+     *
+     * <p>If the dispatch type ({@code t}) is known when the payload ({@code d}) is reached and the payload is not
+     * required for that type, the payload is skipped without decoding it. In this case the returned packet does not
+     * contain a {@code d} field.
+     *
+     * @param payloadRequired A predicate which checks whether the payload for the given dispatch type is required.
+     *                        The type is {@code null} if the packet is not a dispatch packet.
+     * @return The decoded packet.
+     * @throws IOException If the message is not a valid ETF packet.
+     */
+    public JsonNode decodePacket(Predicate<String> payloadRequired) throws IOException {
+        readHeader();
+        int tag = readUnsignedByte();
+        if (tag != EtfTag.MAP_EXT) {
+            throw new IOException("Expected a packet map but found tag " + tag);
+        }
+        long arity = readUnsignedInt();
+        ObjectNode packet = nodeFactory.objectNode();
+        boolean typeRead = false;
+        String type = null;
+        for (long i = 0; i < arity; i++) {
+            String key = readKey();
+            if (typeRead && key.equals("d") && !payloadRequired.test(type)) {
+                skipTerm();
+                continue;
+            }
+            JsonNode value = readTerm();
+            if (key.equals("t")) {
+                typeRead = true;
+                type = value.isNull() ? null : value.asText();
+            }
+            packet.set(key, value);
+        }
+        return packet;
+    }
+
+    /**
+     * Reads the format version and inflates the message if the whole term is compressed.
+     *
+     * @throws IOException If the header is invalid.
+     */
+    private void readHeader() throws IOException {
+        int version = readUnsignedByte();
+        if (version != EtfTag.FORMAT_VERSION) {
+            throw new IOException("Unsupported ETF format version " + version);
+        }
+        if (peekUnsignedByte() != EtfTag.COMPRESSED) {
+            return;
+        }
+        position++;
+        long uncompressedSize = readUnsignedInt();
+        if (uncompressedSize > Integer.MAX_VALUE) {
+            throw new IOException("Compressed ETF term is too large");
+        }
+        byte[] uncompressed = new byte[(int) uncompressedSize];
+        Inflater inflater = new Inflater();
+        try {
+            inflater.setInput(data, position, end - position);
+            int length = 0;
+            while (length < uncompressed.length) {
+                int count = inflater.inflate(uncompressed, length, uncompressed.length - length);
+                if (count == 0 && (inflater.finished() || inflater.needsInput() || inflater.needsDictionary())) {
+                    break;
+                }
+                length += count;
+            }
+            if (length != uncompressed.length) {
+                throw new IOException("Compressed ETF term is shorter than announced");
+            }
+        } catch (DataFormatException e) {
+            throw new IOException("Failed to inflate compressed ETF term", e);
+        } finally {
+            inflater.end();
+        }
+        data = uncompressed;
+        position = 0;
+        end = uncompressed.length;
+    }
+
+    /**
+     * Reads the next term.
+     *
+     * @return The read term.
+     * @throws IOException If the term is invalid.
+     */
+    private JsonNode readTerm() throws IOException {
+        int tag = readUnsignedByte();
+        switch (tag) {
+            case EtfTag.SMALL_INTEGER_EXT:
+                return nodeFactory.numberNode(readUnsignedByte());
+            case EtfTag.INTEGER_EXT:
+                return nodeFactory.numberNode(readInt());
+            case EtfTag.SMALL_BIG_EXT:
+                return readBig(readUnsignedByte());
+            case EtfTag.LARGE_BIG_EXT:
+                return readBig(readLength());
+            case EtfTag.NEW_FLOAT_EXT:
+                return nodeFactory.numberNode(Double.longBitsToDouble(((long) readInt() << 32) | readUnsignedInt()));
+            case EtfTag.FLOAT_EXT:
+                return nodeFactory.numberNode(Double.parseDouble(readString(31, StandardCharsets.ISO_8859_1).trim()));
+            case EtfTag.ATOM_EXT:
+                return readAtom(readUnsignedShort(), StandardCharsets.ISO_8859_1);
+            case EtfTag.SMALL_ATOM_EXT:
+                return readAtom(readUnsignedByte(), StandardCharsets.ISO_8859_1);
+            case EtfTag.ATOM_UTF8_EXT:
+                return readAtom(readUnsignedShort(), StandardCharsets.UTF_8);
+            case EtfTag.SMALL_ATOM_UTF8_EXT:
+                return readAtom(readUnsignedByte(), StandardCharsets.UTF_8);
+            case EtfTag.BINARY_EXT:
+                return nodeFactory.textNode(readString(readLength(), StandardCharsets.UTF_8));
+            case EtfTag.STRING_EXT:
+                // a list of small integers
+                int stringLength = readUnsignedShort();
+                ArrayNode characters = nodeFactory.arrayNode(stringLength);
+                for (int i = 0; i < stringLength; i++) {
+                    characters.add(readUnsignedByte());
+                }
+                return characters;
+            case EtfTag.NIL_EXT:
+                return nodeFactory.arrayNode();
+            case EtfTag.LIST_EXT:
+                ArrayNode list = readArray(readLength());
+                if (peekUnsignedByte() == EtfTag.NIL_EXT) {
+                    position++;
+                } else {
+                    // improper list
+                    list.add(readTerm());
+                }
+                return list;
+            case EtfTag.SMALL_TUPLE_EXT:
+                return readArray(readUnsignedByte());
+            case EtfTag.LARGE_TUPLE_EXT:
+                return readArray(readLength());
+            case EtfTag.MAP_EXT:
+                long arity = readUnsignedInt();
+                ObjectNode map = nodeFactory.objectNode();
+                for (long i = 0; i < arity; i++) {
+                    String key = readKey();
+                    map.set(key, readTerm());
+                }
+                return map;
+            default:
+                throw new IOException("Unsupported ETF tag " + tag);
+        }
+    }
+
+    /**
+     * Skips the next term without decoding it.
+     *
+     * @throws IOException If the term is invalid.
+     */
+    private void skipTerm() throws IOException {
+        int tag = readUnsignedByte();
+        switch (tag) {
+            case EtfTag.SMALL_INTEGER_EXT:
+                skip(1);
+                break;
+            case EtfTag.INTEGER_EXT:
+                skip(4);
+                break;
+            case EtfTag.SMALL_BIG_EXT:
+                skip(readUnsignedByte() + 1);
+                break;
+            case EtfTag.LARGE_BIG_EXT:
+                skip(readLength() + 1);
+                break;
+            case EtfTag.NEW_FLOAT_EXT:
+                skip(8);
+                break;
+            case EtfTag.FLOAT_EXT:
+                skip(31);
+                break;
+            case EtfTag.ATOM_EXT:
+            case EtfTag.ATOM_UTF8_EXT:
+            case EtfTag.STRING_EXT:
+                skip(readUnsignedShort());
+                break;
+            case EtfTag.SMALL_ATOM_EXT:
+            case EtfTag.SMALL_ATOM_UTF8_EXT:
+                skip(readUnsignedByte());
+                break;
+            case EtfTag.BINARY_EXT:
+                skip(readLength());
+                break;
+            case EtfTag.NIL_EXT:
+                break;
+            case EtfTag.LIST_EXT:
+                // the elements and the tail
+                skipTerms(readUnsignedInt() + 1);
+                break;
+            case EtfTag.SMALL_TUPLE_EXT:
+                skipTerms(readUnsignedByte());
+                break;
+            case EtfTag.LARGE_TUPLE_EXT:
+                skipTerms(readUnsignedInt());
+                break;
+            case EtfTag.MAP_EXT:
+                skipTerms(readUnsignedInt() * 2);
+                break;
+            default:
+                throw new IOException("Unsupported ETF tag " + tag);
+        }
+    }
+
+    private void skipTerms(long count) throws IOException {
+        for (long i = 0; i < count; i++) {
+            skipTerm();
+        }
+    }
+
+    private ArrayNode readArray(int size) throws IOException {
+        // do not trust the announced size for the initial capacity
+        ArrayNode array = nodeFactory.arrayNode(Math.min(size, end - position));
+        for (int i = 0; i < size; i++) {
+            array.add(readTerm());
+        }
+        return array;
+    }
+
+    private String readKey() throws IOException {
+        JsonNode key = readTerm();
+        if (key.isContainerNode()) {
+            throw new IOException("Unsupported ETF map key " + key);
+        }
+        return key.asText();
+    }
+
+    private JsonNode readAtom(int length, Charset charset) throws IOException {
+        String atom = readString(length, charset);
+        switch (atom) {
+            case "nil":
+            case "null":
+                return nodeFactory.nullNode();
+            case "true":
+                return nodeFactory.booleanNode(true);
+            case "false":
+                return nodeFactory.booleanNode(false);
+            default:
+                return nodeFactory.textNode(atom);
+        }
+    }
+
+    private JsonNode readBig(int length) throws IOException {
+        boolean negative = readUnsignedByte() != 0;
+        require(length);
+        if (length <= 8) {
+            long value = 0;
+            for (int i = 0; i < length; i++) {
+                value |= (data[position + i] & 0xFFL) << (8 * i);
+            }
+            if (value >= 0) {
+                position += length;
+                return longNode(negative ? -value : value);
+            }
+        }
+        // the magnitude is stored little-endian, BigInteger wants it big-endian
+        byte[] magnitude = new byte[length];
+        for (int i = 0; i < length; i++) {
+            magnitude[length - 1 - i] = data[position + i];
+        }
+        position += length;
+        BigInteger value = new BigInteger(1, magnitude);
+        return nodeFactory.numberNode(negative ? value.negate() : value);
+    }
+
+    private JsonNode longNode(long value) {
+        // match the node types of the json parser
+        if (value >= Integer.MIN_VALUE && value <= Integer.MAX_VALUE) {
+            return nodeFactory.numberNode((int) value);
+        }
+        return nodeFactory.numberNode(value);
+    }
+
+    private String readString(int length, Charset charset) throws IOException {
+        require(length);
+        String string = new String(data, position, length, charset);
+        position += length;
+        return string;
+    }
+
+    private void skip(int count) throws IOException {
+        require(count);
+        position += count;
+    }
+
+    private int peekUnsignedByte() throws IOException {
+        require(1);
+        return data[position] & 0xFF;
+    }
+
+    private int readUnsignedByte() throws IOException {
+        require(1);
+        return data[position++] & 0xFF;
+    }
+
+    private int readUnsignedShort() throws IOException {
+        return (readUnsignedByte() << 8) | readUnsignedByte();
+    }
+
+    private int readInt() throws IOException {
+        require(4);
+        int value = ((data[position] & 0xFF) << 24)
+                | ((data[position + 1] & 0xFF) << 16)
+                | ((data[position + 2] & 0xFF) << 8)
+                | (data[position + 3] & 0xFF);
+        position += 4;
+        return value;
+    }
+
+    private long readUnsignedInt() throws IOException {
+        return readInt() & 0xFFFFFFFFL;
+    }
+
+    private int readLength() throws IOException {
+        long length = readUnsignedInt();
+        if (length > end - position) {
+            throw new IOException("ETF length " + length + " exceeds the remaining " + (end - position) + " bytes");
+        }
+        return (int) length;
+    }
+
+    private void require(int count) throws IOException {
+        if (count < 0 || count > end - position) {
+            throw new IOException("Unexpected end of ETF data");
+        }
+    }
+
+}
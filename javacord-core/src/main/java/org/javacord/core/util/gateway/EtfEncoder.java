@@ -0,0 +1,139 @@
+package org.javacord.core.util.gateway;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.io.ByteArrayOutputStream;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * An encoder for the Erlang External Term Format (ETF) which is used to send packets to the gateway if the
+ * {@link org.javacord.api.GatewayEncoding#ETF etf} encoding is used.
+ *
+ * <p>Object nodes are encoded as maps with binary keys, array nodes as lists, text nodes as binaries and null and
+ * boolean nodes as the atoms {@code nil}, {@code true} and {@code false}.
+ */
+public class EtfEncoder {
+
+    private EtfEncoder() {
+        throw new UnsupportedOperationException("You cannot create an instance of this class");
+    }
+
+    /**
+     * Encodes the given packet.
+     *
+     * @param packet The packet to encode.
+     * @return The encoded packet.
+     */
+    public static byte[] encode(JsonNode packet) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        out.write(EtfTag.FORMAT_VERSION);
+        writeTerm(out, packet);
+        return out.toByteArray();
+    }
+
+    private static void writeTerm(ByteArrayOutputStream out, JsonNode node) {
+        switch (node.getNodeType()) {
+            case OBJECT:
+                out.write(EtfTag.MAP_EXT);
+                writeInt(out, node.size());
+                Iterator<Map.Entry<String, JsonNode>> fields = node.fields();
+                while (fields.hasNext()) {
+                    Map.Entry<String, JsonNode> field = fields.next();
+                    writeBinary(out, field.getKey());
+                    writeTerm(out, field.getValue());
+                }
+                break;
+            case ARRAY:
+                if (node.size() > 0) {
+                    out.write(EtfTag.LIST_EXT);
+                    writeInt(out, node.size());
+                    for (JsonNode element : node) {
+                        writeTerm(out, element);
+                    }
+                }
+                out.write(EtfTag.NIL_EXT);
+                break;
+            case STRING:
+                writeBinary(out, node.textValue());
+                break;
+            case NUMBER:
+                if (node.isIntegralNumber()) {
+                    if (node.canConvertToLong()) {
+                        writeInteger(out, node.longValue());
+                    } else {
+                        writeBig(out, node.bigIntegerValue());
+                    }
+                } else {
+                    out.write(EtfTag.NEW_FLOAT_EXT);
+                    long bits = Double.doubleToLongBits(node.doubleValue());
+                    writeInt(out, (int) (bits >>> 32));
+                    writeInt(out, (int) bits);
+                }
+                break;
+            case BOOLEAN:
+                writeAtom(out, node.booleanValue() ? "true" : "false");
+                break;
+            case NULL:
+            case MISSING:
+                writeAtom(out, "nil");
+                break;
+            default:
+                throw new IllegalArgumentException("Cannot encode node of type " + node.getNodeType() + " as ETF");
+        }
+    }
+
+    private static void writeInteger(ByteArrayOutputStream out, long value) {
+        if (value >= 0 && value <= 255) {
+            out.write(EtfTag.SMALL_INTEGER_EXT);
+            out.write((int) value);
+        } else if (value >= Integer.MIN_VALUE && value <= Integer.MAX_VALUE) {
+            out.write(EtfTag.INTEGER_EXT);
+            writeInt(out, (int) value);
+        } else {
+            writeBig(out, BigInteger.valueOf(value));
+        }
+    }
+
+    private static void writeBig(ByteArrayOutputStream out, BigInteger value) {
+        // the magnitude is big-endian and may have a leading zero byte for the sign
+        byte[] magnitude = value.abs().toByteArray();
+        int start = magnitude[0] == 0 ? 1 : 0;
+        int length = magnitude.length - start;
+        if (length <= 255) {
+            out.write(EtfTag.SMALL_BIG_EXT);
+            out.write(length);
+        } else {
+            out.write(EtfTag.LARGE_BIG_EXT);
+            writeInt(out, length);
+        }
+        out.write(value.signum() < 0 ? 1 : 0);
+        for (int i = magnitude.length - 1; i >= start; i--) {
+            out.write(magnitude[i]);
+        }
+    }
+
+    private static void writeBinary(ByteArrayOutputStream out, String value) {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.write(EtfTag.BINARY_EXT);
+        writeInt(out, bytes.length);
+        out.write(bytes, 0, bytes.length);
+    }
+
+    private static void writeAtom(ByteArrayOutputStream out, String atom) {
+        byte[] bytes = atom.getBytes(StandardCharsets.UTF_8);
+        out.write(EtfTag.SMALL_ATOM_UTF8_EXT);
+        out.write(bytes.length);
+        out.write(bytes, 0, bytes.length);
+    }
+
+    private static void writeInt(ByteArrayOutputStream out, int value) {
+        out.write(value >>> 24);
+        out.write(value >>> 16);
+        out.write(value >>> 8);
+        out.write(value);
+    }
+
+}
@@ -117,7 +117,9 @@ public class Heart {
         ObjectNode heartbeatPacket = JsonNodeFactory.instance.objectNode()
                 .put("op", voice ? VoiceGatewayOpcode.HEARTBEAT.getCode() : GatewayOpcode.HEARTBEAT.getCode())
                 .put("d", voice ? (int) (Math.random() * Integer.MAX_VALUE) : lastSeq);
-        WebSocketFrame heartbeatFrame = WebSocketFrame.createTextFrame(heartbeatPacket.toString());
+        WebSocketFrame heartbeatFrame = voice
+                ? WebSocketFrame.createTextFrame(heartbeatPacket.toString())
+                : DiscordWebSocketAdapter.createPacketFrame(api, heartbeatPacket);
         heartbeatFrameSender.accept(heartbeatFrame);
         lastHeartbeatSentTimeNanos = System.nanoTime();
         // Ba boom, ba boom, ba boom, ba boom, ...
@@ -64,6 +64,28 @@ public abstract class PacketHandler {
         }
     }
 
+    /**
+     * Checks whether the payload of packets of this type has to be decoded.
+     *
+     * <p>Handlers that do nothing but dispatching events can override this method,
+     * so that the payload is skipped without decoding it if nobody would receive the events.
+     *
+     * @return Whether the payload has to be decoded.
+     */
+    public boolean isPayloadRequired() {
+        return true;
+    }
+
+    /**
+     * Checks whether events for listeners of the given type would be dispatched to anyone.
+     *
+     * @param listenerClass The class of the listener.
+     * @return Whether there is at least one listener of the given type and events can be dispatched.
+     */
+    protected boolean hasListeners(Class<?> listenerClass) {
+        return api.getEventDispatcher().hasListeners(listenerClass);
+    }
+
     /**
      * This method is called by the super class to handle the packet.
      *
@@ -3,21 +3,12 @@ package org.javacord.core.util.gateway;
 import com.neovisionaries.ws.client.WebSocket;
 import com.neovisionaries.ws.client.WebSocketFrame;
 
-import java.util.Comparator;
 import java.util.Optional;
 
 /**
- * This class represents a prioritized entry in the web socket frame sending queue.
+ * This class represents an entry in one of the web socket frame sending lanes.
  */
-public class WebSocketFrameSendingQueueEntry implements Comparable<WebSocketFrameSendingQueueEntry> {
-
-    /**
-     * The comparator for determining send order.
-     */
-    private static final Comparator<WebSocketFrameSendingQueueEntry> ENTRY_COMPARATOR = Comparator
-            .<WebSocketFrameSendingQueueEntry, Boolean>comparing(entry -> !entry.lifecycle)
-            .thenComparing(entry -> !entry.priority)
-            .thenComparing(entry -> entry.timestamp);
+public class WebSocketFrameSendingQueueEntry {
 
     /**
      * The web socket on which to send the frame.
@@ -25,9 +16,9 @@ public class WebSocketFrameSendingQueueEntry implements Comparable<WebSocketFram
     private final WebSocket webSocket;
 
     /**
-     * The web socket frame to be sent.
+     * The web socket frame to be sent. It is replaced if a newer frame with the same coalescing key is queued.
      */
-    private final WebSocketFrame webSocketFrame;
+    private volatile WebSocketFrame webSocketFrame;
 
     /**
      * Whether this entry is a priority entry.
@@ -40,9 +31,9 @@ public class WebSocketFrameSendingQueueEntry implements Comparable<WebSocketFram
     private final boolean lifecycle;
 
     /**
-     * The timestamp when this entry was created.
+     * The key of frames that supersede each other, or {@code null} if the frame must always be sent.
      */
-    private final long timestamp = System.nanoTime();
+    private final String coalescingKey;
 
     /**
      * Creates a new web socket frame sending queue entry.
@@ -54,13 +45,32 @@ public class WebSocketFrameSendingQueueEntry implements Comparable<WebSocketFram
      */
     public WebSocketFrameSendingQueueEntry(
             WebSocket webSocket, WebSocketFrame webSocketFrame, boolean priority, boolean lifecycle) {
+        this(webSocket, webSocketFrame, priority, lifecycle, null);
+    }
+
+    /**
+     * Creates a new web socket frame sending queue entry.
+     *
+     * @param webSocket The web socket on which to send the frame.
+     * @param webSocketFrame The web socket frame to be sent.
+     * @param priority Whether this entry is a priority entry.
+     * @param lifecycle Whether this entry is a lifecycle entry.
+     * @param coalescingKey The key of frames that supersede each other, or {@code null} if the frame must always be
+     *                      sent.
+     */
+    public WebSocketFrameSendingQueueEntry(WebSocket webSocket, WebSocketFrame webSocketFrame, boolean priority,
+                                           boolean lifecycle, String coalescingKey) {
         if (lifecycle && (webSocket == null)) {
             throw new IllegalArgumentException("lifecycle frame sending requests must specify the web socket");
         }
+        if (lifecycle && (coalescingKey != null)) {
+            throw new IllegalArgumentException("lifecycle frame sending requests must not be coalesced");
+        }
         this.webSocket = webSocket;
         this.webSocketFrame = webSocketFrame;
         this.priority = priority;
         this.lifecycle = lifecycle;
+        this.coalescingKey = coalescingKey;
     }
 
     /**
@@ -81,6 +91,24 @@ public class WebSocketFrameSendingQueueEntry implements Comparable<WebSocketFram
         return webSocketFrame;
     }
 
+    /**
+     * Replaces the web socket frame to send with a newer one with the same coalescing key.
+     *
+     * @param webSocketFrame The newer web socket frame to send.
+     */
+    public void setFrame(WebSocketFrame webSocketFrame) {
+        this.webSocketFrame = webSocketFrame;
+    }
+
+    /**
+     * Gets the key of frames that supersede each other.
+     *
+     * @return The key of frames that supersede each other or an empty optional if the frame must always be sent.
+     */
+    public Optional<String> getCoalescingKey() {
+        return Optional.ofNullable(coalescingKey);
+    }
+
     /**
      * Gets whether this entry is a priority lifecycle one.
      *
@@ -99,9 +127,4 @@ public class WebSocketFrameSendingQueueEntry implements Comparable<WebSocketFram
         return lifecycle;
     }
 
-    @Override
-    public int compareTo(WebSocketFrameSendingQueueEntry other) {
-        return ENTRY_COMPARATOR.compare(this, other);
-    }
-
 }
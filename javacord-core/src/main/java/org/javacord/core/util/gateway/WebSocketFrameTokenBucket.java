@@ -0,0 +1,104 @@
+package org.javacord.core.util.gateway;
+
+/**
+ * A token bucket which controls the ratelimit for sending web socket frames over a single web socket.
+ *
+ * <p>Every sent frame consumes a token, which is returned to the bucket once the ratelimit duration has passed since
+ * it was consumed. This never allows more frames in any window of the ratelimit duration than the bucket has tokens,
+ * while frames can be sent as soon as a single token is available again instead of waiting for a whole new window.
+ * Some tokens can be reserved when checking for available tokens, e.g. to always leave room for heartbeats.
+ *
+ * <p>The token bucket is not thread-safe and must only be used by the thread that sends the web socket frames.
+ */
+public class WebSocketFrameTokenBucket {
+
+    /**
+     * The duration in nanoseconds after which a consumed token is returned to the bucket.
+     */
+    private final long duration;
+
+    /**
+     * The times in nanoseconds at which the currently consumed tokens were consumed, used as a ring buffer.
+     */
+    private final long[] consumeTimes;
+
+    /**
+     * The index of the oldest consumed token in the {@link #consumeTimes} ring buffer.
+     */
+    private int oldest = 0;
+
+    /**
+     * The amount of currently consumed tokens.
+     */
+    private int consumed = 0;
+
+    /**
+     * Creates a new token bucket.
+     *
+     * @param capacity The amount of tokens in the bucket.
+     * @param duration The duration in nanoseconds after which a consumed token is returned to the bucket.
+     */
+    public WebSocketFrameTokenBucket(int capacity, long duration) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("capacity must be positive");
+        }
+        this.duration = duration;
+        consumeTimes = new long[capacity];
+    }
+
+    /**
+     * Returns all consumed tokens to the bucket whose duration has passed.
+     *
+     * @param nanoTime The current time as given by {@link System#nanoTime()}.
+     */
+    private void refill(long nanoTime) {
+        while ((consumed > 0) && (nanoTime - consumeTimes[oldest] >= duration)) {
+            oldest = (oldest + 1) % consumeTimes.length;
+            consumed--;
+        }
+    }
+
+    /**
+     * Gets the amount of tokens that are currently available.
+     *
+     * @param nanoTime The current time as given by {@link System#nanoTime()}.
+     * @return The amount of available tokens.
+     */
+    public int getAvailableTokens(long nanoTime) {
+        refill(nanoTime);
+        return consumeTimes.length - consumed;
+    }
+
+    /**
+     * Gets the time until a token can be consumed while leaving the given amount of tokens in the bucket.
+     *
+     * @param reserved The amount of tokens that must remain in the bucket after consuming a token.
+     * @param nanoTime The current time as given by {@link System#nanoTime()}.
+     * @return The time in nanoseconds until a token can be consumed or {@code 0} if it can be consumed right away.
+     */
+    public long getNanosUntilAvailable(int reserved, long nanoTime) {
+        int required = Math.min(reserved + 1, consumeTimes.length);
+        int missing = required - getAvailableTokens(nanoTime);
+        if (missing <= 0) {
+            return 0;
+        }
+        // the missing tokens are returned in the order they were consumed
+        long returnTime = consumeTimes[(oldest + missing - 1) % consumeTimes.length] + duration;
+        return Math.max(returnTime - nanoTime, 1);
+    }
+
+    /**
+     * Consumes a token.
+     *
+     * @param nanoTime The current time as given by {@link System#nanoTime()}.
+     * @throws IllegalStateException If no token is available.
+     */
+    public void consume(long nanoTime) {
+        if (getAvailableTokens(nanoTime) == 0) {
+            throw new IllegalStateException("No token available");
+        }
+        consumeTimes[(oldest + consumed) % consumeTimes.length] = nanoTime;
+        consumed++;
+    }
+
+}
@@ -0,0 +1,142 @@
+package org.javacord.core.util.gateway;
+
+import java.util.Arrays;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * A decompressor for the {@code zlib-stream} transport compression of the gateway.
+ *
+ * <p>All messages of a connection share one zlib context, so a single {@link Inflater} is kept for the whole
+ * connection. The inflated bytes are written into a reusable buffer that only grows, which avoids allocating new
+ * buffers for every received message. The decompressor is not thread-safe and must only be used by the thread that
+ * reads from the web socket. It has to be {@link #reset() reset} whenever a new connection is established and should
+ * be {@link #close() closed} once a connection is closed to release the native memory of the inflater.
+ */
+public class ZlibStreamDecompressor {
+
+    /**
+     * The initial size of the buffers.
+     */
+    private static final int INITIAL_BUFFER_SIZE = 8 * 1024;
+
+    /**
+     * The inflater which is shared by all messages of the current connection.
+     * It is {@code null} while the decompressor is closed.
+     */
+    private Inflater inflater = null;
+
+    /**
+     * A buffer for compressed data of messages which were not yet completely received.
+     */
+    private byte[] pending = new byte[INITIAL_BUFFER_SIZE];
+
+    /**
+     * The amount of bytes in the {@link #pending} buffer.
+     */
+    private int pendingLength = 0;
+
+    /**
+     * The buffer which contains the inflated data of the last message.
+     */
+    private byte[] inflated = new byte[INITIAL_BUFFER_SIZE];
+
+    /**
+     * Decompresses the given data.
+     *
+     * <p>If the data does not end with the {@code Z_SYNC_FLUSH} suffix, it is only part of a message and
+     * is buffered until the rest of the message arrives.
+     *
+     * @param data The compressed data.
+     * @return The amount of inflated bytes in the {@link #getBuffer() buffer} or {@code -1} if the message is not
+     *         complete yet.
+     * @throws DataFormatException If the compressed data format is invalid.
+     */
+    public int decompress(byte[] data) throws DataFormatException {
+        byte[] input = data;
+        int inputLength = data.length;
+        if ((pendingLength > 0) || !endsWithSyncFlushSuffix(data, data.length)) {
+            if (pendingLength + data.length > pending.length) {
+                pending = Arrays.copyOf(pending, Math.max(pending.length * 2, pendingLength + data.length));
+            }
+            System.arraycopy(data, 0, pending, pendingLength, data.length);
+            pendingLength += data.length;
+            if (!endsWithSyncFlushSuffix(pending, pendingLength)) {
+                return -1;
+            }
+            input = pending;
+            inputLength = pendingLength;
+            pendingLength = 0;
+        }
+
+        if (inflater == null) {
+            inflater = new Inflater();
+        }
+        inflater.setInput(input, 0, inputLength);
+        int inflatedLength = 0;
+        while (true) {
+            if (inflatedLength == inflated.length) {
+                inflated = Arrays.copyOf(inflated, inflated.length * 2);
+            }
+            int count = inflater.inflate(inflated, inflatedLength, inflated.length - inflatedLength);
+            if (count == 0) {
+                if (inflater.needsDictionary()) {
+                    throw new DataFormatException("The zlib stream requires a preset dictionary");
+                }
+                // there was space left in the buffer, so all input has been consumed
+                break;
+            }
+            inflatedLength += count;
+        }
+        return inflatedLength;
+    }
+
+    /**
+     * Gets the buffer which contains the inflated data of the last complete message.
+     * Only the amount of bytes returned by {@link #decompress(byte[])} are valid.
+     *
+     * @return The buffer with the inflated data.
+     */
+    public byte[] getBuffer() {
+        return inflated;
+    }
+
+    /**
+     * Resets the decompressor for a new connection.
+     * The buffers are kept, so they do not have to grow again.
+     */
+    public void reset() {
+        if (inflater != null) {
+            inflater.reset();
+        }
+        pendingLength = 0;
+    }
+
+    /**
+     * Releases the native memory of the inflater once a connection is closed.
+     * The buffers are kept and a new inflater is created when the next message is decompressed.
+     */
+    public void close() {
+        if (inflater != null) {
+            inflater.end();
+            inflater = null;
+        }
+        pendingLength = 0;
+    }
+
+    /**
+     * Checks whether the given data ends with the {@code 0x00 0x00 0xFF 0xFF} suffix of a {@code Z_SYNC_FLUSH}.
+     *
+     * @param data The data to check.
+     * @param length The amount of valid bytes in the data.
+     * @return Whether the data ends with the suffix.
+     */
+    private static boolean endsWithSyncFlushSuffix(byte[] data, int length) {
+        return (length >= 4)
+                && (data[length - 4] == 0x00)
+                && (data[length - 3] == 0x00)
+                && (data[length - 2] == (byte) 0xFF)
+                && (data[length - 1] == (byte) 0xFF);
+    }
+
+}
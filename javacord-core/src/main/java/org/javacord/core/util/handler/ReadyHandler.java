@@ -40,6 +40,9 @@ public class ReadyHandler extends PacketHandler {
         }
 
         api.setYourself(new UserImpl(api, packet.get("user"), (MemberImpl) null, null));
+
+        // Servers that were left while the bot was disconnected don't get a guild delete packet
+        api.getEventDispatcher().removeObsoleteQueues();
     }
 
 }
@@ -7,6 +7,7 @@ import org.javacord.api.entity.channel.ServerChannel;
 import org.javacord.api.entity.channel.TextChannel;
 import org.javacord.api.entity.server.Server;
 import org.javacord.api.event.message.ChannelPinsUpdateEvent;
+import org.javacord.api.listener.message.ChannelPinsUpdateListener;
 import org.javacord.core.event.message.ChannelPinsUpdateEventImpl;
 import org.javacord.core.util.event.DispatchQueueSelector;
 import org.javacord.core.util.gateway.PacketHandler;
@@ -35,6 +36,11 @@ public class ChannelPinsUpdateHandler extends PacketHandler {
         super(api, true, "CHANNEL_PINS_UPDATE");
     }
 
+    @Override
+    public boolean isPayloadRequired() {
+        return hasListeners(ChannelPinsUpdateListener.class);
+    }
+
     @Override
     public void handle(JsonNode packet) {
         long channelId = packet.get("channel_id").asLong();
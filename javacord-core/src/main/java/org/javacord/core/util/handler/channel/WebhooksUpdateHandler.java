@@ -5,6 +5,7 @@ import org.apache.logging.log4j.Logger;
 import org.javacord.api.DiscordApi;
 import org.javacord.api.entity.channel.TextableRegularServerChannel;
 import org.javacord.api.event.channel.server.text.WebhooksUpdateEvent;
+import org.javacord.api.listener.channel.server.text.WebhooksUpdateListener;
 import org.javacord.core.event.channel.server.text.WebhooksUpdateEventImpl;
 import org.javacord.core.util.event.DispatchQueueSelector;
 import org.javacord.core.util.gateway.PacketHandler;
@@ -31,6 +32,11 @@ public class WebhooksUpdateHandler extends PacketHandler {
         super(api, true, "WEBHOOKS_UPDATE");
     }
 
+    @Override
+    public boolean isPayloadRequired() {
+        return hasListeners(WebhooksUpdateListener.class);
+    }
+
     @Override
     public void handle(JsonNode packet) {
         long channelId = packet.get("channel_id").asLong();
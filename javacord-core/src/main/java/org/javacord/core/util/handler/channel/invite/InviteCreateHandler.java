@@ -4,6 +4,7 @@ import com.fasterxml.jackson.databind.JsonNode;
 import org.javacord.api.DiscordApi;
 import org.javacord.api.entity.channel.ServerChannel;
 import org.javacord.api.event.channel.server.invite.ServerChannelInviteCreateEvent;
+import org.javacord.api.listener.channel.server.invite.ServerChannelInviteCreateListener;
 import org.javacord.core.entity.server.invite.InviteImpl;
 import org.javacord.core.event.channel.server.invite.ServerChannelInviteCreateEventImpl;
 import org.javacord.core.util.event.DispatchQueueSelector;
@@ -20,6 +21,11 @@ public class InviteCreateHandler extends PacketHandler {
         super(api, true, "INVITE_CREATE");
     }
 
+    @Override
+    public boolean isPayloadRequired() {
+        return hasListeners(ServerChannelInviteCreateListener.class);
+    }
+
     @Override
     protected void handle(JsonNode packet) {
         InviteImpl invite = new InviteImpl(api, packet);
@@ -5,6 +5,7 @@ import org.javacord.api.DiscordApi;
 import org.javacord.api.entity.channel.Channel;
 import org.javacord.api.entity.server.Server;
 import org.javacord.api.event.channel.server.invite.ServerChannelInviteDeleteEvent;
+import org.javacord.api.listener.channel.server.invite.ServerChannelInviteDeleteListener;
 import org.javacord.core.event.channel.server.invite.ServerChannelInviteDeleteEventImpl;
 import org.javacord.core.util.event.DispatchQueueSelector;
 import org.javacord.core.util.gateway.PacketHandler;
@@ -20,6 +21,11 @@ public class InviteDeleteHandler extends PacketHandler {
         super(api, true, "INVITE_DELETE");
     }
 
+    @Override
+    public boolean isPayloadRequired() {
+        return hasListeners(ServerChannelInviteDeleteListener.class);
+    }
+
     @Override
     protected void handle(JsonNode packet) {
         String code = packet.get("code").asText();
@@ -4,6 +4,7 @@ import com.fasterxml.jackson.databind.JsonNode;
 import org.javacord.api.DiscordApi;
 import org.javacord.api.event.server.ApplicationCommandPermissionsUpdateEvent;
 import org.javacord.api.interaction.ApplicationCommandPermissions;
+import org.javacord.api.listener.server.ApplicationCommandPermissionsUpdateListener;
 import org.javacord.core.entity.server.ServerImpl;
 import org.javacord.core.event.server.ApplicationCommandPermissionsUpdateEventImpl;
 import org.javacord.core.interaction.ApplicationCommandPermissionsImpl;
@@ -26,6 +27,11 @@ public class ApplicationCommandPermissionsUpdateHandler extends PacketHandler {
         super(api, true, "APPLICATION_COMMAND_PERMISSIONS_UPDATE");
     }
 
+    @Override
+    public boolean isPayloadRequired() {
+        return hasListeners(ApplicationCommandPermissionsUpdateListener.class);
+    }
+
     @Override
     public void handle(JsonNode packet) {
         api.getPossiblyUnreadyServerById(packet.get("guild_id").asLong())
@@ -10,6 +10,8 @@ import org.javacord.core.event.server.ServerLeaveEventImpl;
 import org.javacord.core.util.event.DispatchQueueSelector;
 import org.javacord.core.util.gateway.PacketHandler;
 
+import java.util.Optional;
+
 /**
  * Handles the guild delete packet.
  */
@@ -42,7 +44,8 @@ public class GuildDeleteHandler extends PacketHandler {
             api.removeServerFromCache(serverId);
             return;
         }
-        api.getPossiblyUnreadyServerById(serverId).ifPresent(server -> {
+        Optional<Server> leftServer = api.getPossiblyUnreadyServerById(serverId);
+        leftServer.ifPresent(server -> {
             ServerLeaveEvent event = new ServerLeaveEventImpl(server);
 
             api.getEventDispatcher().dispatchServerLeaveEvent((DispatchQueueSelector) server, server, event);
@@ -54,6 +57,8 @@ public class GuildDeleteHandler extends PacketHandler {
         );
         api.removeServerFromCache(serverId);
         api.removeUnavailableServerFromCache(serverId);
+        leftServer.ifPresent(server ->
+                api.getEventDispatcher().removeQueueIfObsolete((DispatchQueueSelector) server));
     }
 
 }
@@ -11,10 +11,10 @@ import org.javacord.api.event.server.role.UserRoleRemoveEvent;
 import org.javacord.api.event.user.UserChangeAvatarEvent;
 import org.javacord.api.event.user.UserChangeDiscriminatorEvent;
 import org.javacord.api.event.user.UserChangeNameEvent;
-import org.javacord.api.event.user.UserChangeNicknameEvent;
 import org.javacord.api.event.user.UserChangePendingEvent;
 import org.javacord.api.event.user.UserChangeServerAvatarEvent;
 import org.javacord.api.event.user.UserChangeTimeoutEvent;
+import org.javacord.api.listener.user.UserChangeNicknameListener;
 import org.javacord.core.entity.server.ServerImpl;
 import org.javacord.core.entity.user.Member;
 import org.javacord.core.entity.user.MemberImpl;
@@ -80,11 +80,13 @@ public class GuildMemberUpdateHandler extends PacketHandler {
                     }
 
                     if (!newMember.getNickname().equals(oldMember.getNickname())) {
-                        UserChangeNicknameEvent event =
+                        UserChangeNicknameEventImpl event =
                                 new UserChangeNicknameEventImpl(newMember, oldMember);
 
-                        api.getEventDispatcher().dispatchUserChangeNicknameEvent(
-                                server, server, newMember.getUser(), event);
+                        api.getEventCoalescer().dispatch(UserChangeNicknameListener.class, userId,
+                                server.getId(), event, UserChangeNicknameEventImpl::coalesce,
+                                coalescedEvent -> api.getEventDispatcher().dispatchUserChangeNicknameEvent(
+                                        server, server, newMember.getUser(), coalescedEvent));
                     }
 
                     if (!newMember.getTimeout().equals(oldMember.getTimeout())) {
@@ -4,6 +4,7 @@ import com.fasterxml.jackson.databind.JsonNode;
 import org.javacord.api.DiscordApi;
 import org.javacord.api.entity.server.scheduledevent.ServerScheduledEvent;
 import org.javacord.api.event.server.scheduledevent.ServerScheduledEventUserAddEvent;
+import org.javacord.api.listener.server.scheduledevent.ServerScheduledEventUserAddListener;
 import org.javacord.core.event.server.scheduledevent.ServerScheduledEventUserAddEventImpl;
 import org.javacord.core.util.event.DispatchQueueSelector;
 import org.javacord.core.util.gateway.PacketHandler;
@@ -22,6 +23,11 @@ public class GuildScheduledEventUserAddHandler extends PacketHandler {
         super(api, true, "GUILD_SCHEDULED_EVENT_USER_ADD");
     }
 
+    @Override
+    public boolean isPayloadRequired() {
+        return hasListeners(ServerScheduledEventUserAddListener.class);
+    }
+
     @Override
     public void handle(JsonNode packet) {
         long serverId = Long.parseLong(packet.get("guild_id").asText());
@@ -14,6 +14,8 @@ import org.javacord.api.entity.server.Server;
 import org.javacord.api.entity.user.User;
 import org.javacord.api.event.message.MessageCreateEvent;
 import org.javacord.api.event.message.MessageReplyEvent;
+import org.javacord.api.listener.message.MessageCreateListener;
+import org.javacord.api.listener.message.MessageReplyListener;
 import org.javacord.core.entity.channel.PrivateChannelImpl;
 import org.javacord.core.entity.channel.ServerThreadChannelImpl;
 import org.javacord.core.entity.user.MemberImpl;
@@ -89,22 +91,35 @@ public class MessageCreateHandler extends PacketHandler {
 
     private void handle(TextChannel channel, JsonNode packet) {
         Message message = api.getOrCreateMessage(channel, packet);
-        MessageCreateEvent event = new MessageCreateEventImpl(message);
-
-        Optional<Server> optionalServer = channel.asServerChannel().map(ServerChannel::getServer);
-        MessageAuthor author = message.getAuthor();
 
         message.getServerThreadChannel().ifPresent(stc -> {
             ((ServerThreadChannelImpl) stc).setTotalNumberOfMessagesSent(stc.getTotalNumberOfMessagesSent() + 1);
         });
 
-        api.getEventDispatcher().dispatchMessageCreateEvent(
-                optionalServer.map(DispatchQueueSelector.class::cast).orElse(api),
-                optionalServer.orElse(null),
-                channel,
-                author.asUser().orElse(null),
-                author.isWebhook() ? author.getId() : null,
-                event);
+        boolean hasCreateListeners = hasListeners(MessageCreateListener.class);
+        boolean hasReplyListeners = hasListeners(MessageReplyListener.class);
+        if (!hasCreateListeners && !hasReplyListeners) {
+            return;
+        }
+
+        Optional<Server> optionalServer = channel.asServerChannel().map(ServerChannel::getServer);
+
+        if (hasCreateListeners) {
+            MessageCreateEvent event = new MessageCreateEventImpl(message);
+            MessageAuthor author = message.getAuthor();
+
+            api.getEventDispatcher().dispatchMessageCreateEvent(
+                    optionalServer.map(DispatchQueueSelector.class::cast).orElse(api),
+                    optionalServer.orElse(null),
+                    channel,
+                    author.asUser().orElse(null),
+                    author.isWebhook() ? author.getId() : null,
+                    event);
+        }
+
+        if (!hasReplyListeners) {
+            return;
+        }
 
         message.getReferencedMessage().ifPresent(referencedMessage -> {
             MessageReplyEvent replyEvent = new MessageReplyEventImpl(message, referencedMessage);
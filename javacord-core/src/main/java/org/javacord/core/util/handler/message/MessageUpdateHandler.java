@@ -9,6 +9,9 @@ import org.javacord.api.entity.server.Server;
 import org.javacord.api.event.message.CachedMessagePinEvent;
 import org.javacord.api.event.message.CachedMessageUnpinEvent;
 import org.javacord.api.event.message.MessageEditEvent;
+import org.javacord.api.listener.message.CachedMessagePinListener;
+import org.javacord.api.listener.message.CachedMessageUnpinListener;
+import org.javacord.api.listener.message.MessageEditListener;
 import org.javacord.core.entity.message.MessageImpl;
 import org.javacord.core.event.message.CachedMessagePinEventImpl;
 import org.javacord.core.event.message.CachedMessageUnpinEventImpl;
@@ -78,7 +81,10 @@ public class MessageUpdateHandler extends PacketHandler {
             return;
         }
 
-        MessageImpl oldMessage = cachedMessage.map(MessageImpl::copyMessage).orElse(null);
+        // Copying the old message is only worth it if someone receives the edit event
+        boolean hasEditListeners = hasListeners(MessageEditListener.class);
+        boolean oldPinnedFlag = cachedMessage.map(MessageImpl::isPinned).orElse(false);
+        MessageImpl oldMessage = hasEditListeners ? cachedMessage.map(MessageImpl::copyMessage).orElse(null) : null;
         MessageImpl newMessage = cachedMessage.orElseGet(() -> (MessageImpl) api.getOrCreateMessage(channel, packet));
 
         // Figure out whether this was an intentional content edit by a user
@@ -101,10 +107,9 @@ public class MessageUpdateHandler extends PacketHandler {
 
         if (cachedMessage.isPresent() && packet.hasNonNull("pinned")) {
             boolean newPinnedFlag = newMessage.isPinned();
-            boolean oldPinnedFlag = oldMessage.isPinned();
 
             if (newPinnedFlag != oldPinnedFlag) {
-                if (newPinnedFlag) {
+                if (newPinnedFlag && hasListeners(CachedMessagePinListener.class)) {
                     CachedMessagePinEvent event = new CachedMessagePinEventImpl(newMessage);
 
                     Optional<Server> optionalServer =
@@ -115,7 +120,7 @@ public class MessageUpdateHandler extends PacketHandler {
                             optionalServer.orElse(null),
                             newMessage.getChannel(),
                             event);
-                } else {
+                } else if (!newPinnedFlag && hasListeners(CachedMessageUnpinListener.class)) {
                     CachedMessageUnpinEvent event = new CachedMessageUnpinEventImpl(newMessage);
 
                     Optional<Server> optionalServer =
@@ -130,9 +135,11 @@ public class MessageUpdateHandler extends PacketHandler {
             }
         }
 
-        MessageEditEventImpl editEvent = new MessageEditEventImpl(api, messageId, channel, newMessage,
-                oldMessage, isMostLikelyAnEdit);
-        dispatchEditEvent(editEvent);
+        if (hasEditListeners) {
+            MessageEditEventImpl editEvent = new MessageEditEventImpl(api, messageId, channel, newMessage,
+                    oldMessage, isMostLikelyAnEdit);
+            dispatchEditEvent(editEvent);
+        }
     }
 
     /**
@@ -9,6 +9,7 @@ import org.javacord.api.entity.emoji.Emoji;
 import org.javacord.api.entity.message.Message;
 import org.javacord.api.entity.server.Server;
 import org.javacord.api.event.message.reaction.ReactionRemoveEvent;
+import org.javacord.api.listener.message.reaction.ReactionRemoveListener;
 import org.javacord.core.entity.channel.PrivateChannelImpl;
 import org.javacord.core.entity.emoji.UnicodeEmojiImpl;
 import org.javacord.core.entity.message.MessageImpl;
@@ -67,6 +68,10 @@ public class MessageReactionRemoveHandler extends PacketHandler {
 
         message.ifPresent(msg -> ((MessageImpl) msg).removeReaction(emoji, userId == api.getYourself().getId()));
 
+        if (!hasListeners(ReactionRemoveListener.class)) {
+            return;
+        }
+
         ReactionRemoveEvent event = new ReactionRemoveEventImpl(api, messageId, channel, emoji, userId);
 
         Optional<Server> optionalServer = channel.asServerChannel().map(ServerChannel::getServer);
@@ -7,8 +7,8 @@ import org.javacord.api.DiscordApi;
 import org.javacord.api.entity.DiscordClient;
 import org.javacord.api.entity.activity.Activity;
 import org.javacord.api.entity.user.UserStatus;
-import org.javacord.api.event.user.UserChangeActivityEvent;
-import org.javacord.api.event.user.UserChangeStatusEvent;
+import org.javacord.api.listener.user.UserChangeActivityListener;
+import org.javacord.api.listener.user.UserChangeStatusListener;
 import org.javacord.core.entity.activity.ActivityImpl;
 import org.javacord.core.entity.user.UserImpl;
 import org.javacord.core.entity.user.UserPresence;
@@ -43,7 +43,7 @@ public class PresenceUpdateHandler extends PacketHandler {
         long userId = packet.get("user").get("id").asLong();
 
         AtomicReference<UserPresence> presence = new AtomicReference<>(
-                api.getEntityCache().get().getUserPresenceCache().getPresenceByUserId(userId)
+                api.getEntityCache().getUserPresenceCache().getPresenceByUserId(userId)
                         .orElseGet(() -> new UserPresence(userId, null, null, io.vavr.collection.HashMap.empty()))
         );
 
@@ -54,19 +54,20 @@ public class PresenceUpdateHandler extends PacketHandler {
                     newActivities.add(new ActivityImpl(api, activityJson));
                 }
             }
-            Set<Activity> oldActivities = api.getEntityCache().get()
+            Set<Activity> oldActivities = api.getEntityCache()
                     .getUserPresenceCache()
                     .getPresenceByUserId(userId)
                     .map(UserPresence::getActivities)
                     .orElse(Collections.emptySet());
             presence.set(presence.get().setActivities(newActivities));
 
-            if (!Objects.deepEquals(newActivities.toArray(), oldActivities.toArray())) {
+            if (hasListeners(UserChangeActivityListener.class)
+                    && !Objects.deepEquals(newActivities.toArray(), oldActivities.toArray())) {
                 dispatchUserActivityChangeEvent(userId, newActivities, oldActivities);
             }
         }
 
-        UserStatus oldStatus = api.getEntityCache().get().getUserPresenceCache().getPresenceByUserId(userId)
+        UserStatus oldStatus = api.getEntityCache().getUserPresenceCache().getPresenceByUserId(userId)
                 .map(UserPresence::getStatus)
                 .orElse(UserStatus.OFFLINE);
         UserStatus newStatus;
@@ -76,7 +77,7 @@ public class PresenceUpdateHandler extends PacketHandler {
         } else {
             newStatus = oldStatus;
         }
-        Map<DiscordClient, UserStatus> oldClientStatus = api.getEntityCache().get().getUserPresenceCache()
+        Map<DiscordClient, UserStatus> oldClientStatus = api.getEntityCache().getUserPresenceCache()
                 .getPresenceByUserId(userId)
                 .map(UserPresence::getClientStatus)
                 .orElse(HashMap.empty());
@@ -92,7 +93,7 @@ public class PresenceUpdateHandler extends PacketHandler {
                 }
             }
         }
-        Map<DiscordClient, UserStatus> newClientStatus = api.getEntityCache().get().getUserPresenceCache()
+        Map<DiscordClient, UserStatus> newClientStatus = api.getEntityCache().getUserPresenceCache()
                 .getPresenceByUserId(userId)
                 .map(UserPresence::getClientStatus)
                 .orElse(HashMap.empty());
@@ -104,21 +105,27 @@ public class PresenceUpdateHandler extends PacketHandler {
 
     private void dispatchUserActivityChangeEvent(long userId, Set<Activity> newActivities,
                                                  Set<Activity> oldActivities) {
-        UserImpl user = api.getCachedUserById(userId).map(UserImpl.class::cast).orElse(null);
-        UserChangeActivityEvent event = new UserChangeActivityEventImpl(api, userId, newActivities, oldActivities);
-
-        api.getEventDispatcher().dispatchUserChangeActivityEvent(
-                api,
-                user == null ? Collections.emptySet() : user.getMutualServers(),
-                user == null ? Collections.emptySet() : Collections.singleton(user),
-                event
-        );
+        UserChangeActivityEventImpl event =
+                new UserChangeActivityEventImpl(api, userId, newActivities, oldActivities);
+
+        api.getEventCoalescer().dispatch(UserChangeActivityListener.class, userId, 0, event,
+                UserChangeActivityEventImpl::coalesce, coalescedEvent -> {
+                    UserImpl user = api.getCachedUserById(userId).map(UserImpl.class::cast).orElse(null);
+                    api.getEventDispatcher().dispatchUserChangeActivityEvent(
+                            api,
+                            user == null ? Collections.emptySet() : user.getMutualServers(),
+                            user == null ? Collections.emptySet() : Collections.singleton(user),
+                            coalescedEvent
+                    );
+                });
     }
 
     private void dispatchUserStatusChangeEventIfChangeDetected(long userId, UserStatus newStatus, UserStatus oldStatus,
                                                                Map<DiscordClient, UserStatus> newClientStatus,
                                                                Map<DiscordClient, UserStatus> oldClientStatus) {
-        UserImpl user = api.getCachedUserById(userId).map(UserImpl.class::cast).orElse(null);
+        if (!hasListeners(UserChangeStatusListener.class)) {
+            return;
+        }
         // Only dispatch the event if something changed
         boolean shouldDispatch = false;
         if (newClientStatus != oldClientStatus) {
@@ -133,14 +140,18 @@ public class PresenceUpdateHandler extends PacketHandler {
             return;
         }
 
-        UserChangeStatusEvent event =
+        UserChangeStatusEventImpl event =
                 new UserChangeStatusEventImpl(api, userId, newStatus, oldStatus, newClientStatus, oldClientStatus);
 
-        api.getEventDispatcher().dispatchUserChangeStatusEvent(
-                api,
-                user == null ? Collections.emptySet() : user.getMutualServers(),
-                user == null ? Collections.emptySet() : Collections.singleton(user),
-                event
-        );
+        api.getEventCoalescer().dispatch(UserChangeStatusListener.class, userId, 0, event,
+                UserChangeStatusEventImpl::coalesce, coalescedEvent -> {
+                    UserImpl user = api.getCachedUserById(userId).map(UserImpl.class::cast).orElse(null);
+                    api.getEventDispatcher().dispatchUserChangeStatusEvent(
+                            api,
+                            user == null ? Collections.emptySet() : user.getMutualServers(),
+                            user == null ? Collections.emptySet() : Collections.singleton(user),
+                            coalescedEvent
+                    );
+                });
     }
 }
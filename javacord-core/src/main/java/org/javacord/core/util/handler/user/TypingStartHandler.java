@@ -3,7 +3,7 @@ package org.javacord.core.util.handler.user;
 import com.fasterxml.jackson.databind.JsonNode;
 import org.javacord.api.DiscordApi;
 import org.javacord.api.entity.channel.TextChannel;
-import org.javacord.api.event.user.UserStartTypingEvent;
+import org.javacord.api.listener.user.UserStartTypingListener;
 import org.javacord.core.entity.server.ServerImpl;
 import org.javacord.core.entity.user.MemberImpl;
 import org.javacord.core.event.user.UserStartTypingEventImpl;
@@ -23,6 +23,11 @@ public class TypingStartHandler extends PacketHandler {
         super(api, true, "TYPING_START");
     }
 
+    @Override
+    public boolean isPayloadRequired() {
+        return hasListeners(UserStartTypingListener.class);
+    }
+
     @Override
     public void handle(JsonNode packet) {
         long userId = packet.get("user_id").asLong();
@@ -41,13 +46,16 @@ public class TypingStartHandler extends PacketHandler {
         }
 
         if (channel != null) {
-            UserStartTypingEvent event = new UserStartTypingEventImpl(channel, userId, member);
-            api.getEventDispatcher().dispatchUserStartTypingEvent(
-                    server != null ? server : api,
-                    server,
-                    channel,
-                    userId,
-                    event);
+            UserStartTypingEventImpl event = new UserStartTypingEventImpl(channel, userId, member);
+            ServerImpl eventServer = server;
+            api.getEventCoalescer().dispatch(UserStartTypingListener.class, userId, channelId, event,
+                    UserStartTypingEventImpl::coalesce,
+                    coalescedEvent -> api.getEventDispatcher().dispatchUserStartTypingEvent(
+                            eventServer != null ? eventServer : api,
+                            eventServer,
+                            channel,
+                            userId,
+                            coalescedEvent));
         }
     }
 
@@ -21,8 +21,10 @@ public class RatelimitBucket {
     private final RestEndpoint endpoint;
     private final String majorUrlParameter;
 
-    private volatile long ratelimitResetTimestamp = 0;
-    private volatile int ratelimitRemaining = 1;
+    // Replaced by a shared state once Discord reported the bucket hash of the endpoint
+    private volatile RatelimitState ratelimitState = new RatelimitState();
+    // The key of the shared ratelimit state in the ratelimit manager or null if the bucket uses its own state
+    private volatile String sharedRatelimitStateKey = null;
 
     /**
      * Creates a RatelimitBucket for the given endpoint / parameter combination.
@@ -90,7 +92,7 @@ public class RatelimitBucket {
      * @param ratelimitRemaining The remaining requests till ratelimit.
      */
     public void setRatelimitRemaining(int ratelimitRemaining) {
-        this.ratelimitRemaining = ratelimitRemaining;
+        ratelimitState.setRemaining(ratelimitRemaining);
     }
 
     /**
@@ -99,7 +101,67 @@ public class RatelimitBucket {
      * @param ratelimitResetTimestamp The ratelimit reset timestamp.
      */
     public void setRatelimitResetTimestamp(long ratelimitResetTimestamp) {
-        this.ratelimitResetTimestamp = ratelimitResetTimestamp;
+        ratelimitState.setResetTimestamp(ratelimitResetTimestamp);
+    }
+
+    /**
+     * Updates the ratelimit information with the ratelimit a response reported.
+     *
+     * @param ratelimitRemaining The remaining requests till ratelimit.
+     * @param ratelimitResetTimestamp The ratelimit reset timestamp.
+     * @param ratelimitLimit The amount of requests per ratelimit window.
+     * @param ratelimitResetAfter The duration of a ratelimit window in milliseconds.
+     */
+    public void updateRatelimit(
+            int ratelimitRemaining, long ratelimitResetTimestamp, int ratelimitLimit, long ratelimitResetAfter) {
+        ratelimitState.update(ratelimitRemaining, ratelimitResetTimestamp, ratelimitLimit, ratelimitResetAfter);
+    }
+
+    /**
+     * Gets the ratelimit state of this bucket.
+     *
+     * @return The ratelimit state.
+     */
+    RatelimitState getRatelimitState() {
+        return ratelimitState;
+    }
+
+    /**
+     * Gets the key of the shared ratelimit state of this bucket.
+     *
+     * @return The key of the shared ratelimit state or {@code null} if the bucket uses its own state.
+     */
+    String getSharedRatelimitStateKey() {
+        return sharedRatelimitStateKey;
+    }
+
+    /**
+     * Sets the ratelimit state of this bucket, e.g. the state that is shared by all buckets with the same bucket hash.
+     *
+     * @param ratelimitState The ratelimit state.
+     * @param sharedRatelimitStateKey The key of the shared ratelimit state or {@code null} if it is not shared.
+     */
+    void setRatelimitState(RatelimitState ratelimitState, String sharedRatelimitStateKey) {
+        this.ratelimitState = ratelimitState;
+        this.sharedRatelimitStateKey = sharedRatelimitStateKey;
+    }
+
+    /**
+     * Gets the REST endpoint the ratelimit is tracked for.
+     *
+     * @return The REST endpoint.
+     */
+    public RestEndpoint getEndpoint() {
+        return endpoint;
+    }
+
+    /**
+     * Gets the url parameter this bucket is specific for.
+     *
+     * @return The major url parameter. May be null.
+     */
+    public String getMajorUrlParameter() {
+        return majorUrlParameter;
     }
 
     /**
@@ -110,11 +172,38 @@ public class RatelimitBucket {
     public int getTimeTillSpaceGetsAvailable() {
         long globalRatelimitResetTimestamp =
                 RatelimitBucket.globalRatelimitResetTimestamp.getOrDefault(api.getToken(), 0L);
-        long timestamp = System.currentTimeMillis() + (api.getTimeOffset() == null ? 0 : api.getTimeOffset());
-        if (ratelimitRemaining > 0 && (globalRatelimitResetTimestamp - timestamp) <= 0) {
+        long timestamp = getDiscordTimestamp();
+        RatelimitState state = ratelimitState;
+        if (state.getRemaining() > 0 && (globalRatelimitResetTimestamp - timestamp) <= 0) {
             return 0;
         }
-        return (int) (Math.max(ratelimitResetTimestamp, globalRatelimitResetTimestamp) - timestamp);
+        return (int) (Math.max(state.getResetTimestamp(), globalRatelimitResetTimestamp) - timestamp);
+    }
+
+    /**
+     * Reserves space for a request in the bucket if there is space available.
+     * The space is reserved in the ratelimit state, so buckets which share their state are throttled together.
+     *
+     * @return {@code 0} if space was reserved, otherwise the time in milliseconds how long you have to wait till
+     *         there's space in the bucket again.
+     */
+    public int reserveSpace() {
+        long globalRatelimitResetTimestamp =
+                RatelimitBucket.globalRatelimitResetTimestamp.getOrDefault(api.getToken(), 0L);
+        long timestamp = getDiscordTimestamp();
+        if (globalRatelimitResetTimestamp - timestamp > 0) {
+            return (int) (globalRatelimitResetTimestamp - timestamp);
+        }
+        return (int) ratelimitState.reserve(timestamp);
+    }
+
+    /**
+     * Gets the current timestamp, adjusted by the offset to the Discord time.
+     *
+     * @return The current Discord timestamp.
+     */
+    long getDiscordTimestamp() {
+        return System.currentTimeMillis() + (api.getTimeOffset() == null ? 0 : api.getTimeOffset());
     }
 
     /**
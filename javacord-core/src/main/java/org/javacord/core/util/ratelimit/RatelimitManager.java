@@ -5,19 +5,28 @@ import org.apache.logging.log4j.Logger;
 import org.javacord.api.exception.DiscordException;
 import org.javacord.core.DiscordApiImpl;
 import org.javacord.core.util.logging.LoggerUtil;
+import org.javacord.core.util.rest.RestEndpoint;
 import org.javacord.core.util.rest.RestRequest;
 import org.javacord.core.util.rest.RestRequestResponseInformationImpl;
 import org.javacord.core.util.rest.RestRequestResult;
 
 import java.time.OffsetDateTime;
 import java.time.format.DateTimeFormatter;
-import java.util.HashSet;
-import java.util.Set;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Objects;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
 import java.util.function.Function;
 
 /**
  * This class manages ratelimits and keeps track of them.
+ *
+ * <p>A ratelimit manager can be shared by the shards of a shard group, so everything that belongs to a shard, like its
+ * thread pool and its offset to the Discord time, is taken from the api of the request.
  */
 public class RatelimitManager {
 
@@ -27,31 +36,27 @@ public class RatelimitManager {
     private static final Logger logger = LoggerUtil.getLogger(RatelimitManager.class);
 
     /**
-     * The discord api instance for this ratelimit manager.
+     * All buckets with queued requests, keyed by their endpoint and major url parameter.
      */
-    private final DiscordApiImpl api;
+    private final ConcurrentMap<BucketKey, RatelimitBucket> buckets = new ConcurrentHashMap<>();
 
     /**
-     * All buckets.
+     * The bucket hashes Discord reported in the {@code X-RateLimit-Bucket} header for the endpoints.
      */
-    private final Set<RatelimitBucket> buckets = new HashSet<>();
+    private final ConcurrentMap<RestEndpoint, String> bucketHashes = new ConcurrentHashMap<>();
 
     /**
-     * Creates a new ratelimit manager.
-     *
-     * @param api The discord api instance for this ratelimit manager.
+     * The ratelimit states that are shared by all buckets with the same bucket hash and major url parameter.
      */
-    public RatelimitManager(DiscordApiImpl api) {
-        this.api = api;
-    }
+    private final ConcurrentMap<String, RatelimitState> sharedRatelimitStates = new ConcurrentHashMap<>();
 
     /**
-     * Gets all ratelimit buckets.
+     * Gets all ratelimit buckets with queued requests.
      *
-     * @return All ratelimit buckets.
+     * @return All ratelimit buckets with queued requests.
      */
-    public Set<RatelimitBucket> getBuckets() {
-        return buckets;
+    public Collection<RatelimitBucket> getBuckets() {
+        return Collections.unmodifiableCollection(buckets.values());
     }
 
     /**
@@ -61,45 +66,53 @@ public class RatelimitManager {
      * @param request The request to queue.
      */
     public void queueRequest(RestRequest<?> request) {
-        final RatelimitBucket bucket;
-        final boolean alreadyInQueue;
-        synchronized (buckets) {
-            // Search for a bucket that fits to this request
-            bucket = buckets.stream()
-                    .filter(b -> b.equals(request.getEndpoint(), request.getMajorUrlParameter().orElse(null)))
-                    .findAny()
-                    .orElseGet(() -> new RatelimitBucket(
-                            api, request.getEndpoint(), request.getMajorUrlParameter().orElse(null)));
+        RestEndpoint endpoint = request.getEndpoint();
+        String majorUrlParameter = request.getMajorUrlParameter().orElse(null);
+        BucketKey key = new BucketKey(endpoint, majorUrlParameter);
+        boolean[] alreadyInQueue = new boolean[1];
+        // Only locks the bin of the key, so requests for other buckets are not blocked
+        RatelimitBucket bucket = buckets.compute(key, (k, existingBucket) -> {
+            RatelimitBucket fittingBucket = existingBucket;
+            if (fittingBucket == null) {
+                fittingBucket = new RatelimitBucket(request.getApi(), endpoint, majorUrlParameter);
+                String bucketHash = endpoint == null ? null : bucketHashes.get(endpoint);
+                if (bucketHash != null) {
+                    shareRatelimitState(bucketHash, fittingBucket, request.getApi());
+                }
+            }
 
             // Must be executed BEFORE adding the request to the queue
-            alreadyInQueue = bucket.peekRequestFromQueue() != null;
-
-            // Add the bucket to the set of buckets (does nothing if it's already in the set)
-            buckets.add(bucket);
+            alreadyInQueue[0] = fittingBucket.peekRequestFromQueue() != null;
 
             // Add the request to the bucket's queue
-            bucket.addRequestToQueue(request);
-        }
+            fittingBucket.addRequestToQueue(request);
+            return fittingBucket;
+        });
 
         // If the bucket is already in the queue, there's nothing more to do
-        if (alreadyInQueue) {
+        if (alreadyInQueue[0]) {
+            return;
+        }
+
+        if (request.getApi().isNonBlockingRestRequestsEnabled()) {
+            executeNonBlocking(key, bucket, bucket.peekRequestFromQueue());
             return;
         }
 
         // Start working of the queue
-        api.getThreadPool().getExecutorService().submit(() -> {
+        request.getApi().getThreadPool().getExecutorService().submit(() -> {
             RestRequest<?> currentRequest = bucket.peekRequestFromQueue();
             RestRequestResult result = null;
             long responseTimestamp = System.currentTimeMillis();
             while (currentRequest != null) {
                 try {
-                    int sleepTime = bucket.getTimeTillSpaceGetsAvailable();
+                    int sleepTime = bucket.reserveSpace();
                     if (sleepTime > 0) {
                         logger.debug("Delaying requests to {} for {}ms to prevent hitting ratelimits",
                                 bucket, sleepTime);
                     }
 
-                    // Sleep until space is available
+                    // Sleep until space is available and reserved
                     while (sleepTime > 0) {
                         try {
                             Thread.sleep(sleepTime);
@@ -107,7 +120,7 @@ public class RatelimitManager {
                             logger.warn("We got interrupted while waiting for a rate limit!", e);
                         }
                         // Update in case something changed (e.g. because we hit a global ratelimit)
-                        sleepTime = bucket.getTimeTillSpaceGetsAvailable();
+                        sleepTime = bucket.reserveSpace();
                     }
 
                     // Execute the request
@@ -117,45 +130,109 @@ public class RatelimitManager {
                     responseTimestamp = System.currentTimeMillis();
                 } catch (Throwable t) {
                     responseTimestamp = System.currentTimeMillis();
-                    if (currentRequest.getResult().isDone()) {
-                        logger.warn("Received exception for a request that is already done. "
-                                + "This should not be able to happen!", t);
-                    }
-                    // Try to get the response from the exception if it exists
-                    if (t instanceof DiscordException) {
-                        result = ((DiscordException) t).getResponse()
-                                .map(RestRequestResponseInformationImpl.class::cast)
-                                .map(RestRequestResponseInformationImpl::getRestRequestResult)
-                                .orElse(null);
-                    }
-                    // Complete the request
-                    currentRequest.getResult().completeExceptionally(t);
+                    result = completeExceptionally(currentRequest, t);
                 } finally {
-                    try {
-                        // Calculate offset
-                        calculateOffset(responseTimestamp, result);
-                        // Handle the response
-                        handleResponse(currentRequest, result, bucket, responseTimestamp);
-                    } catch (Throwable t) {
-                        logger.warn("Encountered unexpected exception.", t);
-                    }
+                    currentRequest = finishRequest(key, bucket, currentRequest, result, responseTimestamp);
+                }
+            }
+        });
+    }
 
-                    // The request didn't finish, so let's try again
-                    if (!currentRequest.getResult().isDone()) {
-                        continue;
-                    }
+    /**
+     * Executes the given request of the bucket without blocking a thread and continues with the next request of the
+     * bucket once it is finished. Instead of sleeping until space is available, the execution is scheduled.
+     *
+     * @param key The key of the bucket.
+     * @param bucket The bucket.
+     * @param request The request to execute.
+     */
+    private void executeNonBlocking(BucketKey key, RatelimitBucket bucket, RestRequest<?> request) {
+        int sleepTime = bucket.reserveSpace();
+        if (sleepTime > 0) {
+            logger.debug("Delaying requests to {} for {}ms to prevent hitting ratelimits", bucket, sleepTime);
+            request.getApi().getThreadPool().getScheduler().schedule(
+                    () -> executeNonBlocking(key, bucket, request), sleepTime, TimeUnit.MILLISECONDS);
+            return;
+        }
 
-                    // Poll a new quest
-                    synchronized (buckets) {
-                        bucket.pollRequestFromQueue();
-                        currentRequest = bucket.peekRequestFromQueue();
-                        if (currentRequest == null) {
-                            buckets.remove(bucket);
-                        }
-                    }
-                }
+        // The continuation runs on the executor service, as listeners of the request's future may block
+        request.executeAsync().whenCompleteAsync((executionResult, throwable) -> {
+            long responseTimestamp = System.currentTimeMillis();
+            RestRequestResult result = executionResult;
+            if (throwable != null) {
+                result = completeExceptionally(request,
+                        throwable instanceof CompletionException ? throwable.getCause() : throwable);
+            }
+            RestRequest<?> nextRequest = finishRequest(key, bucket, request, result, responseTimestamp);
+            if (nextRequest != null) {
+                executeNonBlocking(key, bucket, nextRequest);
             }
+        }, request.getApi().getThreadPool().getExecutorService());
+    }
+
+    /**
+     * Completes the given request exceptionally.
+     *
+     * @param request The request.
+     * @param t The exception which occurred while executing the request.
+     * @return The result from the exception if it exists.
+     */
+    private RestRequestResult completeExceptionally(RestRequest<?> request, Throwable t) {
+        if (request.getResult().isDone()) {
+            logger.warn("Received exception for a request that is already done. "
+                    + "This should not be able to happen!", t);
+        }
+        RestRequestResult result = null;
+        // Try to get the response from the exception if it exists
+        if (t instanceof DiscordException) {
+            result = ((DiscordException) t).getResponse()
+                    .map(RestRequestResponseInformationImpl.class::cast)
+                    .map(RestRequestResponseInformationImpl::getRestRequestResult)
+                    .orElse(null);
+        }
+        // Complete the request
+        request.getResult().completeExceptionally(t);
+        return result;
+    }
+
+    /**
+     * Handles the result of the given request and determines the request of the bucket which should be executed next.
+     *
+     * @param key The key of the bucket.
+     * @param bucket The bucket.
+     * @param request The executed request.
+     * @param result The result of the request. May be null.
+     * @param responseTimestamp The timestamp directly after the response finished.
+     * @return The request which should be executed next, which is the given request again if it did not finish, or
+     *         {@code null} if the bucket has no queued requests anymore.
+     */
+    private RestRequest<?> finishRequest(BucketKey key, RatelimitBucket bucket, RestRequest<?> request,
+                                         RestRequestResult result, long responseTimestamp) {
+        try {
+            // Calculate offset
+            calculateOffset(request.getApi(), responseTimestamp, result);
+            // Handle the response
+            handleResponse(request, result, bucket, responseTimestamp);
+        } catch (Throwable t) {
+            logger.warn("Encountered unexpected exception.", t);
+        }
+
+        // The request didn't finish, so let's try again
+        if (!request.getResult().isDone()) {
+            return request;
+        }
+
+        // Poll a new quest
+        RestRequest<?>[] nextRequest = new RestRequest<?>[1];
+        buckets.computeIfPresent(key, (k, b) -> {
+            b.pollRequestFromQueue();
+            nextRequest[0] = b.peekRequestFromQueue();
+            return nextRequest[0] == null ? null : b;
         });
+        if (nextRequest[0] == null) {
+            releaseSharedRatelimitState(bucket, request.getApi());
+        }
+        return nextRequest[0];
     }
 
     /**
@@ -172,9 +249,17 @@ public class RatelimitManager {
             return;
         }
         Response response = result.getResponse();
+        String bucketHash = response.header("X-RateLimit-Bucket");
+        if (bucketHash != null && bucket.getEndpoint() != null) {
+            // Routes with the same bucket hash share their ratelimit
+            bucketHashes.put(bucket.getEndpoint(), bucketHash);
+            shareRatelimitState(bucketHash, bucket, request.getApi());
+        }
         boolean global = response.header("X-RateLimit-Global", "false").equalsIgnoreCase("true");
         int remaining = Integer.parseInt(response.header("X-RateLimit-Remaining", "1"));
         long reset =  (long) (Double.parseDouble(response.header("X-RateLimit-Reset", "0")) * 1000);
+        int limit = Integer.parseInt(response.header("X-RateLimit-Limit", "1"));
+        long resetAfter = (long) (Double.parseDouble(response.header("X-RateLimit-Reset-After", "0")) * 1000);
 
         // Check if we received a 429 response
         if (result.getResponse().code() == 429) {
@@ -182,7 +267,7 @@ public class RatelimitManager {
                 logger.warn("Hit a CloudFlare API ban! This means you were sending a very large "
                         + "amount of invalid requests.");
                 long retryAfter = Long.parseLong(response.header("Retry-after")) * 1000;
-                RatelimitBucket.setGlobalRatelimitResetTimestamp(api, responseTimestamp + retryAfter);
+                RatelimitBucket.setGlobalRatelimitResetTimestamp(request.getApi(), responseTimestamp + retryAfter);
                 return;
             }
             long retryAfter =
@@ -193,11 +278,11 @@ public class RatelimitManager {
                 // We hit a global ratelimit. Time to panic!
                 logger.warn("Hit a global ratelimit! This means you were sending a very large "
                         + "amount within a very short time frame.");
-                RatelimitBucket.setGlobalRatelimitResetTimestamp(api, responseTimestamp + retryAfter);
+                RatelimitBucket.setGlobalRatelimitResetTimestamp(request.getApi(), responseTimestamp + retryAfter);
             } else {
                 logger.debug("Received a 429 response from Discord! Recalculating time offset...");
                 // Setting the offset to null causes a recalculate for the next request
-                api.setTimeOffset(null);
+                request.getApi().setTimeOffset(null);
 
                 // Update the bucket information
                 bucket.setRatelimitRemaining(0);
@@ -211,18 +296,89 @@ public class RatelimitManager {
             }
 
             // Update bucket information
-            bucket.setRatelimitRemaining(remaining);
-            bucket.setRatelimitResetTimestamp(reset);
+            bucket.updateRatelimit(remaining, reset, limit, resetAfter);
+        }
+    }
+
+    /**
+     * Lets the given bucket use the ratelimit state that is shared by all buckets with the given bucket hash and its
+     * major url parameter. If there is no such state yet, the current state of the given bucket becomes the shared one.
+     *
+     * @param bucketHash The bucket hash Discord reported.
+     * @param bucket The bucket.
+     * @param executingApi The api on whose thread pool the request of the bucket is executed.
+     */
+    private void shareRatelimitState(String bucketHash, RatelimitBucket bucket, DiscordApiImpl executingApi) {
+        String key = getSharedRatelimitStateKey(bucketHash, bucket);
+        if (key.equals(bucket.getSharedRatelimitStateKey())) {
+            return;
+        }
+        // A state that is already shared under a different key must not be shared under this key, too
+        RatelimitState ownState =
+                bucket.getSharedRatelimitStateKey() == null ? bucket.getRatelimitState() : new RatelimitState();
+        releaseSharedRatelimitState(bucket, executingApi);
+        RatelimitState sharedState = sharedRatelimitStates.compute(key, (k, state) -> {
+            RatelimitState fittingState = state == null ? ownState : state;
+            fittingState.acquire();
+            return fittingState;
+        });
+        bucket.setRatelimitState(sharedState, key);
+    }
+
+    /**
+     * Releases the shared ratelimit state of the given bucket once it does not have any queued requests anymore.
+     * The state is removed when no other bucket uses it anymore and its ratelimit is not exhausted. An exhausted
+     * state is kept until its ratelimit window is reset, so a bucket that is created in the meantime is still
+     * throttled by it.
+     *
+     * @param bucket The bucket.
+     * @param executingApi The api on whose thread pool the request of the bucket is executed.
+     */
+    private void releaseSharedRatelimitState(RatelimitBucket bucket, DiscordApiImpl executingApi) {
+        String key = bucket.getSharedRatelimitStateKey();
+        if (key == null) {
+            return;
+        }
+        RatelimitState bucketState = bucket.getRatelimitState();
+        long timeTillReset = bucketState.getTimeTillReset(bucket.getDiscordTimestamp());
+        boolean[] keptWithoutHolders = new boolean[1];
+        sharedRatelimitStates.computeIfPresent(key, (k, state) -> {
+            if (state != bucketState || state.release() > 0) {
+                return state;
+            }
+            keptWithoutHolders[0] = timeTillReset > 0;
+            return keptWithoutHolders[0] ? state : null;
+        });
+        bucket.setRatelimitState(bucketState, null);
+        if (keptWithoutHolders[0]) {
+            executingApi.getThreadPool().getDaemonScheduler().schedule(
+                    () -> removeUnheldSharedRatelimitState(key, bucketState), timeTillReset, TimeUnit.MILLISECONDS);
         }
     }
 
     /**
-     * Calculates the offset of the local time and discord's time.
+     * Removes the given shared ratelimit state after its ratelimit window was reset, unless a bucket uses it again.
      *
+     * @param key The key of the shared ratelimit state.
+     * @param ratelimitState The shared ratelimit state.
+     */
+    private void removeUnheldSharedRatelimitState(String key, RatelimitState ratelimitState) {
+        sharedRatelimitStates.computeIfPresent(key, (k, state) -> state == ratelimitState && !state.isHeld()
+                ? null : state);
+    }
+
+    private static String getSharedRatelimitStateKey(String bucketHash, RatelimitBucket bucket) {
+        return bucket.getMajorUrlParameter() == null ? bucketHash : bucketHash + ':' + bucket.getMajorUrlParameter();
+    }
+
+    /**
+     * Calculates the offset of the local time and discord's time for the api which executed the request.
+     *
+     * @param api The api which executed the request.
      * @param currentTime The current time.
      * @param result The result of the rest request.
      */
-    private void calculateOffset(long currentTime, RestRequestResult result) {
+    private void calculateOffset(DiscordApiImpl api, long currentTime, RestRequestResult result) {
         // Double-checked locking for better performance
         if ((api.getTimeOffset() != null) || (result == null) || (result.getResponse() == null)) {
             return;
@@ -242,4 +398,32 @@ public class RatelimitManager {
         }
     }
 
+    /**
+     * The key of a bucket.
+     */
+    private static final class BucketKey {
+
+        private final RestEndpoint endpoint;
+        private final String majorUrlParameter;
+
+        private BucketKey(RestEndpoint endpoint, String majorUrlParameter) {
+            this.endpoint = endpoint;
+            this.majorUrlParameter = majorUrlParameter;
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof BucketKey)) {
+                return false;
+            }
+            BucketKey otherKey = (BucketKey) obj;
+            return endpoint == otherKey.endpoint && Objects.equals(majorUrlParameter, otherKey.majorUrlParameter);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(endpoint, majorUrlParameter);
+        }
+    }
+
 }
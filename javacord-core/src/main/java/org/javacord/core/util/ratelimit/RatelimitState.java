@@ -0,0 +1,135 @@
+package org.javacord.core.util.ratelimit;
+
+/**
+ * The ratelimit state of a bucket as reported by Discord.
+ * Buckets for which Discord reports the same bucket hash and major url parameter share one state,
+ * so they are throttled together.
+ *
+ * <p>As every bucket has its own worker, a request must {@link #reserve(long) reserve} its place before it is sent.
+ * The reservations are counted locally until the next response reports the actual ratelimit again.
+ */
+class RatelimitState {
+
+    private long resetTimestamp = 0;
+    private int remaining = 1;
+    private int limit = 1;
+    private long resetAfter = 0;
+
+    /**
+     * The amount of buckets which use this state as their shared state.
+     * Only accessed while holding the lock of the ratelimit manager's shared states map for this state.
+     */
+    private int holders = 0;
+
+    /**
+     * Gets the ratelimit reset timestamp.
+     *
+     * @return The ratelimit reset timestamp.
+     */
+    synchronized long getResetTimestamp() {
+        return resetTimestamp;
+    }
+
+    /**
+     * Gets the remaining requests till ratelimit.
+     *
+     * @return The remaining requests till ratelimit.
+     */
+    synchronized int getRemaining() {
+        return remaining;
+    }
+
+    /**
+     * Sets the remaining requests till ratelimit.
+     *
+     * @param remaining The remaining requests till ratelimit.
+     */
+    synchronized void setRemaining(int remaining) {
+        this.remaining = remaining;
+    }
+
+    /**
+     * Sets the ratelimit reset timestamp.
+     *
+     * @param resetTimestamp The ratelimit reset timestamp.
+     */
+    synchronized void setResetTimestamp(long resetTimestamp) {
+        this.resetTimestamp = resetTimestamp;
+    }
+
+    /**
+     * Updates the state with the ratelimit a response reported.
+     *
+     * <p>Responses to requests that were sent in the same ratelimit window can arrive in any order, so a response
+     * never raises the remaining requests of the current window above the locally counted ones.
+     *
+     * @param remaining The remaining requests till ratelimit.
+     * @param resetTimestamp The ratelimit reset timestamp.
+     * @param limit The amount of requests per ratelimit window.
+     * @param resetAfter The duration of a ratelimit window in milliseconds.
+     */
+    synchronized void update(int remaining, long resetTimestamp, int limit, long resetAfter) {
+        this.remaining = (resetTimestamp == this.resetTimestamp) ? Math.min(this.remaining, remaining) : remaining;
+        this.resetTimestamp = resetTimestamp;
+        this.limit = Math.max(limit, 1);
+        this.resetAfter = Math.max(resetAfter, 0);
+    }
+
+    /**
+     * Reserves a request if the ratelimit allows it.
+     *
+     * <p>If the ratelimit window was reset since the last response, the state is refilled with the amount of requests
+     * that Discord reported for a window, as every bucket sharing this state would otherwise send at once.
+     *
+     * @param timestamp The current timestamp, adjusted by the offset to the Discord time.
+     * @return {@code 0} if a request was reserved, otherwise the time in milliseconds until space gets available.
+     */
+    synchronized long reserve(long timestamp) {
+        if ((remaining <= 0) && (resetTimestamp <= timestamp)) {
+            remaining = limit;
+            resetTimestamp = timestamp + resetAfter;
+        }
+        if (remaining > 0) {
+            remaining--;
+            return 0;
+        }
+        return Math.max(resetTimestamp - timestamp, 1);
+    }
+
+    /**
+     * Gets the time until the ratelimit of this state allows requests again.
+     *
+     * @param timestamp The current timestamp, adjusted by the offset to the Discord time.
+     * @return The time in milliseconds until the ratelimit window is reset or {@code 0} if there are remaining
+     *         requests.
+     */
+    synchronized long getTimeTillReset(long timestamp) {
+        return remaining > 0 ? 0 : Math.max(resetTimestamp - timestamp, 0);
+    }
+
+    /**
+     * Checks if a bucket uses this state as its shared state.
+     *
+     * @return Whether a bucket uses this state as its shared state.
+     */
+    boolean isHeld() {
+        return holders > 0;
+    }
+
+    /**
+     * Registers a bucket which uses this state as its shared state.
+     */
+    void acquire() {
+        holders++;
+    }
+
+    /**
+     * Unregisters a bucket which used this state as its shared state.
+     *
+     * @return The amount of buckets which still use this state.
+     */
+    int release() {
+        return --holders;
+    }
+
+}
@@ -0,0 +1,69 @@
+package org.javacord.api.util.event
+
+import org.javacord.api.entity.server.Server
+import spock.lang.Specification
+import spock.lang.Subject
+
+@Subject(InMemoryEventDispatchMetrics)
+class InMemoryEventDispatchMetricsTest extends Specification {
+
+    def metrics = new InMemoryEventDispatchMetrics()
+
+    def 'percentiles are an upper bound within a factor of two'() {
+        given:
+            (1..100).each { metrics.onListenerStart(Object, it * 1000L) }
+
+        expect:
+            with(metrics.queueLatency) {
+                count == 100
+                maxNanos == 100_000
+                totalNanos == 5_050_000
+                getPercentileNanos(50) >= 50_000
+                getPercentileNanos(50) < 100_000
+                getPercentileNanos(100) == 100_000
+            }
+    }
+
+    def 'execution times are recorded per listener class'() {
+        when:
+            metrics.onListenerEnd(String, 10)
+            metrics.onListenerEnd(String, 20)
+            metrics.onListenerEnd(Integer, 30)
+
+        then:
+            metrics.listenerExecutionTimes[String].count == 2
+            metrics.listenerExecutionTimes[Integer].maxNanos == 30
+    }
+
+    def 'empty server queues are not tracked'() {
+        given:
+            def server = Stub(Server) {
+                getId() >> 42L
+            }
+
+        when:
+            metrics.onQueueDepthChange(server, 3)
+            metrics.onQueueDepthChange(null, 5)
+
+        then:
+            metrics.serverQueueDepths == [42L: 3]
+            metrics.getServerQueueDepth(server) == 3
+            metrics.serverIndependentQueueDepth == 5
+
+        when:
+            metrics.onQueueDepthChange(server, 0)
+
+        then:
+            metrics.serverQueueDepths.isEmpty()
+    }
+
+    def 'gateway dispatches are counted per type'() {
+        when:
+            3.times { metrics.onGatewayDispatch('MESSAGE_CREATE') }
+            metrics.onGatewayDispatch('TYPING_START')
+
+        then:
+            metrics.gatewayDispatchCounts == [MESSAGE_CREATE: 3L, TYPING_START: 1L]
+    }
+
+}
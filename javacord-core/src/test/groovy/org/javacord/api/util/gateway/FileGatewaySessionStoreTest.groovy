@@ -0,0 +1,55 @@
+package org.javacord.api.util.gateway
+
+import spock.lang.Specification
+import spock.lang.Subject
+
+import java.nio.file.Files
+import java.nio.file.Path
+
+@Subject(FileGatewaySessionStore)
+class FileGatewaySessionStoreTest extends Specification {
+
+    Path directory = Files.createTempDirectory('sessions')
+
+    def cleanup() {
+        directory.toFile().deleteDir()
+    }
+
+    def 'saved sessions can be loaded again'() {
+        given:
+            def store = new FileGatewaySessionStore(directory.resolve('sessions'))
+            def session = new GatewaySession(1, 4, 'abc', 'wss://resume.discord.gg', 42)
+
+        when:
+            store.save(session)
+
+        then:
+            store.load(1, 4) == Optional.of(session)
+            store.load(0, 4) == Optional.empty()
+            store.load(1, 2) == Optional.empty()
+    }
+
+    def 'sessions without resume url can be saved'() {
+        given:
+            def store = new FileGatewaySessionStore(directory)
+
+        when:
+            store.save(new GatewaySession(0, 1, 'abc', null, 7))
+
+        then:
+            !store.load(0, 1).get().resumeUrl.isPresent()
+    }
+
+    def 'removed sessions are not loaded anymore'() {
+        given:
+            def store = new FileGatewaySessionStore(directory)
+            store.save(new GatewaySession(0, 1, 'abc', null, 7))
+
+        when:
+            store.remove(0, 1)
+
+        then:
+            store.load(0, 1) == Optional.empty()
+    }
+
+}
@@ -0,0 +1,43 @@
+package org.javacord.core
+
+import com.fasterxml.jackson.databind.ObjectMapper
+import spock.lang.Specification
+import spock.lang.Subject
+
+@Subject(DiscordApiBuilderDelegateImpl)
+class DiscordApiBuilderDelegateImplTest extends Specification {
+
+    def builderDelegate = new DiscordApiBuilderDelegateImpl()
+
+    def 'the max concurrency reported by Discord is used if none was set'() {
+        when:
+            builderDelegate.setRecommendedGatewayIdentifyMaxConcurrency(sessionStartLimit(16))
+
+        then:
+            builderDelegate.gatewayIdentifyMaxConcurrency == 16
+    }
+
+    def 'the max concurrency reported by Discord does not override an explicitly set one'() {
+        given:
+            builderDelegate.setGatewayIdentifyMaxConcurrency(2)
+
+        when:
+            builderDelegate.setRecommendedGatewayIdentifyMaxConcurrency(sessionStartLimit(16))
+
+        then:
+            builderDelegate.gatewayIdentifyMaxConcurrency == 2
+    }
+
+    def 'a missing max concurrency keeps the default'() {
+        when:
+            builderDelegate.setRecommendedGatewayIdentifyMaxConcurrency(new ObjectMapper().createObjectNode())
+
+        then:
+            builderDelegate.gatewayIdentifyMaxConcurrency == 1
+    }
+
+    private static sessionStartLimit(int maxConcurrency) {
+        new ObjectMapper().createObjectNode().put('max_concurrency', maxConcurrency)
+    }
+
+}
@@ -1,11 +1,24 @@
 package org.javacord.core
 
+import com.neovisionaries.ws.client.WebSocketFrame
 import io.netty.handler.codec.http.HttpHeaderNames
 import okhttp3.Credentials
 import org.apache.logging.log4j.Level
 import org.apache.logging.log4j.test.appender.ListAppender
+import org.javacord.api.GatewayEncoding
+import org.javacord.api.entity.message.Message
 import org.javacord.api.entity.server.Server
+import org.javacord.api.entity.user.User
 import org.javacord.api.exception.NotFoundException
+import org.javacord.api.listener.message.MessageCreateListener
+import org.javacord.api.listener.message.MessageDeleteListener
+import org.javacord.api.util.cache.EntityCacheBackend
+import org.javacord.api.util.event.ListenerQueueOverflowPolicy
+import org.javacord.api.util.event.NoOpEventDispatchMetrics
+import org.javacord.api.util.gateway.GatewaySession
+import org.javacord.api.util.gateway.GatewaySessionStore
+import org.javacord.core.util.gateway.DiscordWebSocketAdapter
+import org.javacord.core.util.gateway.WebSocketCloseReason
 import org.javacord.test.MockProxyManager
 import org.mockserver.configuration.ConfigurationProperties
 import org.mockserver.model.HttpRequest
@@ -15,7 +28,12 @@ import spock.lang.*
 import spock.util.environment.RestoreSystemProperties
 
 import javax.net.ssl.SSLHandshakeException
+import java.nio.file.Files
+import java.util.concurrent.Callable
 import java.util.concurrent.CompletionException
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.Executors
+import java.util.concurrent.TimeUnit
 
 @Subject(DiscordApiImpl)
 class DiscordApiImplTest extends Specification {
@@ -37,6 +55,226 @@ class DiscordApiImplTest extends Specification {
             }
     }
 
+    def 'addMessageToCache returns the instance that was cached first'() {
+        given:
+            Message message = Stub {
+                getId() >> 1
+            }
+            Message otherInstance = Stub {
+                getId() >> 1
+            }
+
+        expect:
+            api.addMessageToCache(message).is(message)
+            api.addMessageToCache(otherInstance).is(message)
+            api.getCachedMessageById(1).get().is(message)
+
+        when: 'the garbage collector releases the cached instance'
+            api.@messages.get(1L).clear()
+
+        then:
+            !api.getCachedMessageById(1).present
+            api.addMessageToCache(otherInstance).is(otherInstance)
+            api.getCachedMessageById(1).get().is(otherInstance)
+    }
+
+    def 'released messages are removed from the message cache'() {
+        given:
+            Message message = Stub {
+                getId() >> 1
+            }
+            Message otherMessage = Stub {
+                getId() >> 2
+            }
+            api.addMessageToCache(message)
+            api.addMessageToCache(otherMessage)
+
+        when: 'the garbage collector releases a message'
+            def messageRef = api.@messages.get(1L)
+            messageRef.clear()
+            messageRef.enqueue()
+            api.removeCollectedMessagesFromCache()
+
+        then:
+            api.@messages.keySet() == [2L] as Set
+            api.cachedMessages*.id == [2L]
+    }
+
+    def 'concurrently cached messages are cached exactly once'() {
+        given:
+            def executor = Executors.newFixedThreadPool(8)
+            def start = new CountDownLatch(1)
+            def instances = (0..<8).collect { thread ->
+                (0..<500).collect { id ->
+                    Stub(Message) {
+                        getId() >> id
+                    }
+                }
+            }
+
+        when:
+            def futures = instances.collect { messages ->
+                executor.submit({
+                    start.await()
+                    messages.collect { api.addMessageToCache(it) }
+                } as Callable)
+            }
+            def removal = executor.submit {
+                start.await()
+                (0..<500).step(2).each { api.removeMessageFromCache(it) }
+            }
+            start.countDown()
+            def cachedInstances = futures*.get(10, TimeUnit.SECONDS)
+            removal.get(10, TimeUnit.SECONDS)
+
+        then: 'all threads got the same instance of the messages which were not removed'
+            (1..<500).step(2).every { id ->
+                def cachedMessage = api.getCachedMessageById(id).get()
+                cachedInstances.every { it[id].is(cachedMessage) }
+            }
+
+        cleanup:
+            executor?.shutdownNow()
+    }
+
+    def 'the global listener snapshot is rebuilt when listeners are added or removed'() {
+        given:
+            MessageCreateListener first = Stub()
+            MessageCreateListener second = Stub()
+
+        when:
+            api.addListener(MessageCreateListener, first)
+            def snapshot = api.getListeners(MessageCreateListener)
+
+        then: 'the snapshot is reused until the listeners change'
+            snapshot == [first]
+            api.getListeners(MessageCreateListener).is(snapshot)
+
+        when:
+            snapshot.add(second)
+
+        then:
+            thrown(UnsupportedOperationException)
+
+        when:
+            api.addListener(MessageCreateListener, second)
+
+        then:
+            snapshot == [first]
+            api.getListeners(MessageCreateListener) == [first, second]
+
+        when:
+            api.removeListener(MessageCreateListener, first)
+
+        then:
+            api.getListeners(MessageCreateListener) == [second]
+
+        when:
+            api.removeListener(MessageCreateListener, second)
+
+        then:
+            api.getListeners(MessageCreateListener).empty
+    }
+
+    def 'the object listener snapshots are rebuilt when listeners are added or removed'() {
+        given:
+            MessageCreateListener first = Stub()
+            MessageCreateListener second = Stub()
+            MessageCreateListener otherServerListener = Stub()
+            api.addObjectListener(Server, 2, MessageCreateListener, otherServerListener)
+
+        when:
+            api.addObjectListener(Server, 1, MessageCreateListener, first)
+            def snapshot = api.getObjectListeners(Server, 1, MessageCreateListener)
+
+        then: 'the snapshot is reused until the listeners of the object change'
+            snapshot == [first]
+            api.getObjectListeners(Server, 1, MessageCreateListener).is(snapshot)
+
+        when:
+            api.addObjectListener(Server, 1, MessageCreateListener, second)
+
+        then:
+            snapshot == [first]
+            api.getObjectListeners(Server, 1, MessageCreateListener) == [first, second]
+            api.getObjectListeners(Server, 2, MessageCreateListener) == [otherServerListener]
+
+        when:
+            api.removeObjectListener(Server, 1, MessageCreateListener, first)
+
+        then:
+            api.getObjectListeners(Server, 1, MessageCreateListener) == [second]
+
+        when:
+            api.removeObjectListeners(Server, 1)
+
+        then:
+            api.getObjectListeners(Server, 1, MessageCreateListener).empty
+            api.getObjectListeners(Server, 2, MessageCreateListener) == [otherServerListener]
+    }
+
+    def 'events are only built while a global or object listener of their type is registered'() {
+        given:
+            MessageCreateListener globalListener = Stub()
+            MessageCreateListener objectListener = Stub()
+
+        expect:
+            !api.eventDispatcher.hasListeners(MessageCreateListener)
+
+        when:
+            api.addListener(MessageCreateListener, globalListener)
+            api.addObjectListener(Server, 1, MessageCreateListener, objectListener)
+
+        then:
+            api.eventDispatcher.hasListeners(MessageCreateListener)
+            !api.eventDispatcher.hasListeners(MessageDeleteListener)
+
+        when:
+            api.removeListener(MessageCreateListener, globalListener)
+
+        then:
+            api.eventDispatcher.hasListeners(MessageCreateListener)
+
+        when:
+            api.setEventsDispatchable(false)
+
+        then:
+            !api.eventDispatcher.hasListeners(MessageCreateListener)
+
+        when:
+            api.setEventsDispatchable(true)
+            api.removeObjectListeners(Server, 1)
+
+        then:
+            !api.eventDispatcher.hasListeners(MessageCreateListener)
+    }
+
+    def 'shards only share the default gateway identify ratelimiter with shards of the same identify bucket'() {
+        given:
+            def shards = (0..3).collect { shard('identify-bucket-token', it, 2) }
+            def shardOfOtherToken = shard('other-identify-bucket-token', 0, 2)
+
+        expect:
+            shards[0].gatewayIdentifyRatelimiter.is(shards[2].gatewayIdentifyRatelimiter)
+            shards[1].gatewayIdentifyRatelimiter.is(shards[3].gatewayIdentifyRatelimiter)
+            !shards[0].gatewayIdentifyRatelimiter.is(shards[1].gatewayIdentifyRatelimiter)
+            !shards[0].gatewayIdentifyRatelimiter.is(shardOfOtherToken.gatewayIdentifyRatelimiter)
+
+        cleanup:
+            (shards + shardOfOtherToken).each { it.threadPool.shutdown() }
+    }
+
+    def 'all shards share the default gateway identify ratelimiter without max concurrency'() {
+        given:
+            def shards = (0..3).collect { shard('single-identify-bucket-token', it, 1) }
+
+        expect:
+            shards.every { it.gatewayIdentifyRatelimiter.is(shards[0].gatewayIdentifyRatelimiter) }
+
+        cleanup:
+            shards.each { it.threadPool.shutdown() }
+    }
+
     @Unroll
     def '#collectionGetter returns unmodifiable collection'() {
         when:
@@ -545,4 +783,49 @@ class DiscordApiImplTest extends Specification {
             Authenticator.default = defaultAuthenticator
     }
 
+    def 'disconnecting completes after the gateway session and the entity cache snapshot were saved'() {
+        given:
+            def originalGateway = DiscordWebSocketAdapter.gateway
+            // nothing listens on this port, so the adapter does not connect
+            DiscordWebSocketAdapter.gateway = 'ws://127.0.0.1:1'
+            def directory = Files.createTempDirectory('javacord-snapshot')
+            def savedSessions = []
+            GatewaySessionStore sessionStore = Stub {
+                load(_, _) >> Optional.empty()
+                save(_) >> { GatewaySession session -> savedSessions << session }
+            }
+            def api = new DiscordApiImpl(UUID.randomUUID().toString(), 0, 1, Collections.emptySet(), true, false,
+                    false, null, null, null, null, null, false, null, null, [:], [], false, true, null, true,
+                    GatewayEncoding.JSON, false, EntityCacheBackend.IMMUTABLE, 1, false, Integer.MAX_VALUE,
+                    ListenerQueueOverflowPolicy.BLOCK, new NoOpEventDispatchMetrics(), [:], null, 1, sessionStore,
+                    directory)
+            api.yourself = Stub(User)
+            def adapter = new DiscordWebSocketAdapter(api, false)
+            adapter.@sessionId = 'session'
+            api.@websocketAdapter = adapter
+
+        when: 'the websocket is closed by a different thread like the reading thread of the websocket'
+            def disconnected = api.disconnect()
+            Thread.start {
+                adapter.onDisconnected(null, null, WebSocketFrame.createCloseFrame(
+                        WebSocketCloseReason.DISCONNECT_TO_RESUME.numericCloseCode), false)
+            }
+            disconnected.join()
+
+        then:
+            savedSessions*.sessionId == ['session']
+            Files.exists(directory.resolve('cache-0-of-1.snapshot'))
+
+        cleanup:
+            DiscordWebSocketAdapter.gateway = originalGateway
+            directory?.toFile()?.deleteDir()
+    }
+
+    private static DiscordApiImpl shard(String token, int currentShard, int gatewayIdentifyMaxConcurrency) {
+        new DiscordApiImpl(token, currentShard, 4, Collections.emptySet(), true, false, false, null, null, null, null,
+                null, false, null, null, [:], [], false, true, null, true, GatewayEncoding.JSON, false,
+                EntityCacheBackend.IMMUTABLE, 1, false, Integer.MAX_VALUE, ListenerQueueOverflowPolicy.BLOCK,
+                new NoOpEventDispatchMetrics(), [:], null, gatewayIdentifyMaxConcurrency, null, null)
+    }
+
 }
@@ -0,0 +1,167 @@
+package org.javacord.core.util.cache
+
+import com.fasterxml.jackson.databind.ObjectMapper
+import groovy.json.JsonOutput
+import org.javacord.api.GatewayEncoding
+import org.javacord.api.entity.DiscordClient
+import org.javacord.api.entity.intent.Intent
+import org.javacord.api.entity.user.User
+import org.javacord.api.entity.user.UserStatus
+import org.javacord.api.util.cache.EntityCacheBackend
+import org.javacord.api.util.event.ListenerQueueOverflowPolicy
+import org.javacord.api.util.event.NoOpEventDispatchMetrics
+import org.javacord.core.DiscordApiImpl
+import org.javacord.core.entity.server.ServerImpl
+import spock.lang.Specification
+import spock.lang.Subject
+
+import java.awt.Color
+import java.nio.file.Files
+
+@Subject(EntityCacheSnapshot)
+class EntityCacheSnapshotTest extends Specification {
+
+    def directory = Files.createTempDirectory('javacord-snapshot')
+
+    def yourself = Stub(User) {
+        getId() >> 11
+    }
+
+    def api = createApi()
+
+    def restoredApi = createApi()
+
+    def cleanup() {
+        api.threadPool.shutdown()
+        restoredApi.threadPool.shutdown()
+        directory.toFile().deleteDir()
+    }
+
+    def 'a restored snapshot contains the cached entities of the written servers'() {
+        given:
+            new ServerImpl(api, new ObjectMapper().readTree(JsonOutput.toJson(guildCreatePayload())))
+            api.addUnavailableServerToCache(2)
+
+        when:
+            EntityCacheSnapshot.write(api, directory)
+
+        then:
+            EntityCacheSnapshot.restore(restoredApi, directory)
+            directory.toFile().list().length == 0
+
+        when:
+            def server = restoredApi.getServerById(1).get()
+
+        then: 'the server and the unavailable servers are restored'
+            server.name == 'Server'
+            server.ownerId == 10
+            restoredApi.unavailableServers == [2L] as Set
+
+        and: 'the roles are restored'
+            server.roles*.name == ['@everyone', 'Moderator']
+            server.getRoleById(3).get().permissions.allowedBitmask == 8
+            server.getRoleById(3).get().color == Optional.of(new Color(0xFF0000))
+
+        and: 'the members are restored'
+            server.members*.id as Set == [10L, 11L] as Set
+            def owner = server.getMemberById(10).get()
+            owner.name == 'owner'
+            owner.getNickname(server) == Optional.of('Boss')
+            owner.getRoles(server)*.id as Set == [1L, 3L] as Set
+            server.getMemberById(11).get().bot
+
+        and: 'the channels are restored'
+            def textChannel = server.getTextChannelById(101).get()
+            textChannel.name == 'general'
+            textChannel.topic == 'Topic'
+            textChannel.slowmodeDelayInSeconds == 5
+            textChannel.category.get().id == 100
+            textChannel.overwrittenRolePermissions[3L].allowedBitmask == 1024
+            def voiceChannel = server.getVoiceChannelById(102).get()
+            voiceChannel.bitrate == 64000
+            voiceChannel.userLimit == Optional.of(5)
+
+        and: 'the threads are restored'
+            def thread = server.getThreadChannelById(103).get()
+            thread.parent.id == 101
+            thread.messageCount == 3
+            !thread.metadata.archived
+            thread.members*.userId == [11L]
+
+        and: 'the presences are restored'
+            def cachedOwner = restoredApi.getCachedUserById(10).get()
+            cachedOwner.status == UserStatus.ONLINE
+            cachedOwner.getStatusOnClient(DiscordClient.DESKTOP) == UserStatus.ONLINE
+            cachedOwner.getStatusOnClient(DiscordClient.MOBILE) == UserStatus.OFFLINE
+            cachedOwner.activities*.name == ['Game']
+
+        and: 'the voice states are restored'
+            voiceChannel.connectedUserIds == [10L] as Set
+    }
+
+    def 'nothing is restored without a snapshot'() {
+        expect:
+            !EntityCacheSnapshot.restore(restoredApi, directory)
+            restoredApi.allServers.empty
+    }
+
+    private DiscordApiImpl createApi() {
+        def api = new DiscordApiImpl('token', 0, 1, [Intent.GUILD_MEMBERS, Intent.GUILD_PRESENCES] as Set, true, false,
+                false, null, null, null, null, null, false, null, null, [:], [], true, true, null, true,
+                GatewayEncoding.JSON, false, EntityCacheBackend.IMMUTABLE, 1, false, Integer.MAX_VALUE,
+                ListenerQueueOverflowPolicy.BLOCK, new NoOpEventDispatchMetrics(), [:], null, 1, null, null)
+        api.yourself = yourself
+        api
+    }
+
+    private static Map guildCreatePayload() {
+        def timestamp = '2024-01-01T00:00:00Z'
+        [
+                id                           : '1',
+                name                         : 'Server',
+                region                       : 'us-west',
+                large                        : false,
+                member_count                 : 2,
+                owner_id                     : '10',
+                verification_level           : 0,
+                explicit_content_filter      : 0,
+                default_message_notifications: 0,
+                mfa_level                    : 0,
+                premium_tier                 : 0,
+                nsfw_level                   : 0,
+                preferred_locale             : 'en-US',
+                channels                     : [
+                        [id: '100', name: 'category', type: 4, position: 0],
+                        [id                   : '101', name: 'general', type: 0, position: 1, parent_id: '100',
+                         topic                : 'Topic', rate_limit_per_user: 5,
+                         permission_overwrites: [[id: '3', type: 0, allow: 1024, deny: 0]]],
+                        [id: '102', name: 'voice', type: 2, position: 2, bitrate: 64000, user_limit: 5]
+                ],
+                threads                      : [
+                        [id             : '103', name: 'thread', type: 11, parent_id: '101', owner_id: '10',
+                         message_count  : 3, member_count: 1, rate_limit_per_user: 0,
+                         thread_metadata: [auto_archive_duration: 60, archived: false, locked: false,
+                                           archive_timestamp    : timestamp],
+                         member         : [join_timestamp: timestamp, flags: 0]]
+                ],
+                roles                        : [
+                        [id         : '1', name: '@everyone', position: 0, color: 0, hoist: false, mentionable: false,
+                         permissions: 104324673, managed: false, flags: 0],
+                        [id         : '3', name: 'Moderator', position: 1, color: 0xFF0000, hoist: true,
+                         mentionable: true, permissions: 8, managed: false, flags: 0]
+                ],
+                members                      : [
+                        [user     : [id: '10', username: 'owner', discriminator: '0001', public_flags: 0],
+                         nick     : 'Boss', roles: ['3'], joined_at: timestamp, deaf: false, mute: false],
+                        [user     : [id: '11', username: 'bot', discriminator: '0002', public_flags: 0, bot: true],
+                         roles    : [], joined_at: timestamp, deaf: false, mute: false]
+                ],
+                voice_states                 : [[channel_id: '102', user_id: '10']],
+                presences                    : [
+                        [user         : [id: '10'], status: 'online', client_status: [desktop: 'online'],
+                         activities   : [[type: 0, name: 'Game', created_at: 0, flags: 0]]]
+                ]
+        ]
+    }
+
+}
@@ -0,0 +1,184 @@
+package org.javacord.core.util.cache
+
+import org.javacord.api.entity.server.Server
+import org.javacord.api.entity.user.User
+import org.javacord.core.entity.user.Member
+import spock.lang.Specification
+import spock.lang.Subject
+import spock.lang.Unroll
+
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.Executors
+import java.util.concurrent.TimeUnit
+
+@Subject([CopyOnWriteEntityCache, ConcurrentEntityCache, ConcurrentMemberCache])
+class EntityCacheTest extends Specification {
+
+    @Unroll
+    def 'members are added, replaced and removed with the #cache.class.simpleName'() {
+        given:
+            def member = member(1, 10)
+            def replacement = member(1, 10)
+
+        when:
+            cache.addMemberOrReplaceExisting member
+            cache.addMemberOrReplaceExisting member(1, 20)
+            cache.addMemberOrReplaceExisting member(2, 10)
+
+        then:
+            cache.memberCache.getMembersByServer(10).size() == 2
+            cache.memberCache.getMembersById(1).size() == 2
+            cache.memberCache.getServers(1)*.id as Set == [10L, 20L] as Set
+            cache.memberCache.userCache.getUserById(1).present
+
+        when:
+            cache.addMemberOrReplaceExisting replacement
+
+        then:
+            cache.memberCache.getMembersByServer(10).size() == 2
+            cache.memberCache.getMemberByIdAndServer(1, 10).get().is(replacement)
+
+        when:
+            cache.removeMember(1, 10)
+            cache.removeMember(1, 20)
+
+        then:
+            cache.memberCache.getMembersByServer(10)*.id == [2L]
+            cache.memberCache.getMembersById(1).empty
+            !cache.memberCache.userCache.getUserById(1).present
+            cache.memberCache.userCache.getUserById(2).present
+
+        where:
+            cache << [new CopyOnWriteEntityCache(), new ConcurrentEntityCache()]
+    }
+
+    @Unroll
+    def 'members are added in bulk with the #cache.class.simpleName'() {
+        given:
+            cache.addMemberOrReplaceExisting member(1, 10)
+            def replacement = member(1, 10)
+
+        when:
+            cache.addMembersOrReplaceExisting([replacement, member(2, 10), member(1, 20)])
+
+        then:
+            cache.memberCache.getMembersByServer(10).size() == 2
+            cache.memberCache.getMembersByServer(20).size() == 1
+            cache.memberCache.getMemberByIdAndServer(1, 10).get().is(replacement)
+            cache.memberCache.members.size() == 3
+            cache.memberCache.userCache.users*.id as Set == [1L, 2L] as Set
+
+        where:
+            cache << [new CopyOnWriteEntityCache(), new ConcurrentEntityCache()]
+    }
+
+    @Unroll
+    def 'members are updated in all servers with the #cache.class.simpleName'() {
+        given:
+            cache.addMemberOrReplaceExisting member(1, 10)
+            cache.addMemberOrReplaceExisting member(1, 20)
+            def updated = [:]
+
+        when:
+            cache.updateMembersById(1) { oldMember ->
+                updated[oldMember.server.id] = member(1, oldMember.server.id)
+            }
+
+        then:
+            updated.size() == 2
+            cache.memberCache.getMemberByIdAndServer(1, 10).get().is(updated[10L])
+            cache.memberCache.getMemberByIdAndServer(1, 20).get().is(updated[20L])
+
+        where:
+            cache << [new CopyOnWriteEntityCache(), new ConcurrentEntityCache()]
+    }
+
+    @Unroll
+    def 'clear removes all members with the #cache.class.simpleName'() {
+        given:
+            cache.addMemberOrReplaceExisting member(1, 10)
+            cache.addMemberOrReplaceExisting member(1, 20)
+
+        when:
+            cache.clear()
+
+        then:
+            cache.memberCache.members.empty
+            cache.memberCache.getMembersByServer(10).empty
+            cache.memberCache.userCache.users.empty
+
+        where:
+            cache << [new CopyOnWriteEntityCache(), new ConcurrentEntityCache()]
+    }
+
+    def 'the members of a server are a cached snapshot until they change'() {
+        given:
+            def memberCache = new ConcurrentMemberCache()
+            memberCache.addMember member(1, 10)
+
+        when:
+            def snapshot = memberCache.getMembersByServer(10)
+
+        then:
+            memberCache.getMembersByServer(10).is(snapshot)
+
+        when:
+            snapshot.add(member(2, 10))
+
+        then:
+            thrown(UnsupportedOperationException)
+
+        when:
+            memberCache.addMember member(2, 10)
+
+        then:
+            snapshot*.id == [1L]
+            memberCache.getMembersByServer(10)*.id as Set == [1L, 2L] as Set
+    }
+
+    def 'concurrent updates of the same users in different servers are not lost'() {
+        given:
+            def memberCache = new ConcurrentMemberCache()
+            def executor = Executors.newFixedThreadPool(8)
+            def start = new CountDownLatch(1)
+            def servers = (1L..8L)
+            def users = (1L..200L)
+            def members = servers.collectEntries { serverId ->
+                [(serverId): users.collect { userId -> member(userId, serverId) }]
+            }
+
+        when:
+            def futures = servers.collect { serverId ->
+                executor.submit {
+                    start.await()
+                    members[serverId].each { memberCache.addMember(it) }
+                    members[serverId].findAll { it.id % 2 == 0 }.each { memberCache.removeMember(it.id, serverId) }
+                }
+            }
+            start.countDown()
+            futures*.get(10, TimeUnit.SECONDS)
+
+        then:
+            servers.every { memberCache.getMembersByServer(it).size() == 100 }
+            users.every { userId -> memberCache.getMembersById(userId).size() == (userId % 2 == 0 ? 0 : 8) }
+            memberCache.users*.id as Set == users.findAll { it % 2 == 1 } as Set
+
+        cleanup:
+            executor?.shutdownNow()
+    }
+
+    private Member member(long id, long serverId) {
+        Server server = Stub {
+            getId() >> serverId
+        }
+        User user = Stub {
+            getId() >> id
+        }
+        Stub(Member) {
+            getId() >> id
+            getServer() >> server
+            getUser() >> user
+        }
+    }
+
+}
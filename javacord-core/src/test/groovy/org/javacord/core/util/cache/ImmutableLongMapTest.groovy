@@ -0,0 +1,82 @@
+package org.javacord.core.util.cache
+
+import spock.lang.Specification
+import spock.lang.Subject
+
+@Subject(ImmutableLongMap)
+class ImmutableLongMapTest extends Specification {
+
+    def 'values can be put, replaced and removed'() {
+        given:
+            def map = ImmutableLongMap.empty().put(81384788765712384L, 'a').put(7L, 'b')
+
+        when:
+            def replaced = map.put(7L, 'c')
+            def removed = replaced.remove(81384788765712384L)
+
+        then:
+            map.get(7L) == 'b'
+            map.size() == 2
+            replaced.get(7L) == 'c'
+            replaced.size() == 2
+            removed.get(81384788765712384L) == null
+            removed.get(7L) == 'c'
+            removed.size() == 1
+    }
+
+    def 'keys with the same hash code are kept apart'() {
+        given:
+            // Long#hashCode xors the upper and lower half, so these keys have the same hash code
+            def first = 5L
+            def second = (5L << 32) | 0L
+            def third = (1L << 32) | 4L
+
+        when:
+            def map = ImmutableLongMap.empty().put(first, 'a').put(second, 'b').put(third, 'c')
+
+        then:
+            map.get(first) == 'a'
+            map.get(second) == 'b'
+            map.get(third) == 'c'
+            map.remove(second).get(first) == 'a'
+            map.remove(second).get(third) == 'c'
+            map.remove(first).remove(second).remove(third).isEmpty()
+    }
+
+    def 'removing an absent key returns the same map'() {
+        given:
+            def map = ImmutableLongMap.empty().put(1L, 'a')
+
+        expect:
+            map.remove(2L).is(map)
+    }
+
+    def 'the map behaves like a hash map for random operations'() {
+        given:
+            def random = new Random(42)
+            def map = ImmutableLongMap.empty()
+            def reference = [:]
+            def keys = []
+
+        when:
+            3000.times {
+                long key = random.nextInt(4) == 0 && keys
+                        ? keys[random.nextInt(keys.size())]
+                        : (random.nextBoolean() ? random.nextLong() : (random.nextInt(64) as long) << 32)
+                keys << key
+                if (random.nextInt(3) == 0) {
+                    map = map.remove(key)
+                    reference.remove(key)
+                } else {
+                    def value = random.nextInt()
+                    map = map.put(key, value)
+                    reference[key] = value
+                }
+            }
+
+        then:
+            map.size() == reference.size()
+            keys.every { map.get(it) == reference[it] }
+    }
+
+}
@@ -0,0 +1,180 @@
+package org.javacord.core.util.cache
+
+import org.javacord.api.entity.message.Message
+import org.javacord.core.DiscordApiImpl
+import spock.lang.Specification
+import spock.lang.Subject
+
+import java.time.Instant
+import java.time.temporal.ChronoUnit
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.Executors
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.atomic.AtomicLong
+
+@Subject(MessageCacheImpl)
+class MessageCacheImplTest extends Specification {
+
+    private static final long DISCORD_EPOCH = 1420070400000L
+
+    def api = new DiscordApiImpl(null, null, null, null, null, null, false)
+
+    def sequence = new AtomicLong()
+
+    def cleanup() {
+        api.threadPool.shutdown()
+    }
+
+    def 'clean evicts the oldest messages above the capacity'() {
+        given:
+            def messageCache = new MessageCacheImpl(api, 2, 3600, false)
+            def now = Instant.now()
+            def messages = (3..0).collect { message(now.minusSeconds(it)) }
+
+        when:
+            messages.each { messageCache.addMessage(it) }
+            messageCache.clean()
+
+        then:
+            messageCache.messages.keySet() as List == messages[2..3]*.id
+            messageCache.messageCount.get() == 2
+
+        cleanup:
+            messageCache?.cleanup()
+    }
+
+    def 'clean evicts the messages older than the storage time'() {
+        given:
+            def messageCache = new MessageCacheImpl(api, 100, 60, false)
+            def now = Instant.now()
+            def oldMessage = message(now.minus(2, ChronoUnit.MINUTES))
+            def newMessage = message(now)
+
+        when:
+            messageCache.addMessage(oldMessage)
+            messageCache.addMessage(newMessage)
+            messageCache.clean()
+
+        then:
+            messageCache.messages.keySet() as List == [newMessage.id]
+            messageCache.messageCount.get() == 1
+
+        cleanup:
+            messageCache?.cleanup()
+    }
+
+    def 'messages that are cached forever are never evicted'() {
+        given:
+            def messageCache = new MessageCacheImpl(api, 0, 0, false)
+            def message = message(Instant.now().minus(1, ChronoUnit.DAYS))
+
+        when:
+            messageCache.addMessage(message)
+            messageCache.addCacheForeverMessage(message)
+            messageCache.clean()
+
+        then:
+            messageCache.cacheForeverMessages.containsKey(message.id)
+            messageCache.messages.isEmpty()
+            messageCache.messageCount.get() == 0
+
+        when:
+            messageCache.removeCacheForeverMessage(message)
+            messageCache.clean()
+
+        then:
+            messageCache.cacheForeverMessages.isEmpty()
+            messageCache.messages.isEmpty()
+
+        cleanup:
+            messageCache?.cleanup()
+    }
+
+    def 'released messages are removed from the cache'() {
+        given:
+            def messageCache = new MessageCacheImpl(api, 100, 3600, false)
+            def message = message(Instant.now())
+            messageCache.addMessage(message)
+
+        when: 'the garbage collector releases the message'
+            def messageRef = messageCache.messages.get(message.id)
+            messageRef.clear()
+            messageRef.enqueue()
+            messageCache.clean()
+
+        then:
+            messageCache.messages.isEmpty()
+            messageCache.messageCount.get() == 0
+
+        cleanup:
+            messageCache?.cleanup()
+    }
+
+    def 'a released message is replaced when it is added again'() {
+        given:
+            def messageCache = new MessageCacheImpl(api, 100, 3600, false)
+            def message = message(Instant.now())
+            messageCache.addMessage(message)
+            def messageRef = messageCache.messages.get(message.id)
+            messageRef.clear()
+
+        when:
+            messageCache.addMessage(message)
+
+        then:
+            messageCache.messages.get(message.id).get().is(message)
+            messageCache.messageCount.get() == 1
+
+        when: 'the released reference is processed afterwards'
+            messageRef.enqueue()
+            messageCache.clean()
+
+        then:
+            messageCache.messages.get(message.id).get().is(message)
+            messageCache.messageCount.get() == 1
+
+        cleanup:
+            messageCache?.cleanup()
+    }
+
+    def 'concurrent inserts and evictions keep the newest messages within the capacity'() {
+        given:
+            def messageCache = new MessageCacheImpl(api, 50, 3600, false)
+            def now = Instant.now()
+            def messages = (0..<1000).collect { message(now.minusMillis(1000 - it)) }
+            def executor = Executors.newFixedThreadPool(5)
+            def start = new CountDownLatch(1)
+
+        when:
+            def futures = (0..<4).collect { thread ->
+                executor.submit {
+                    start.await()
+                    (thread..<messages.size()).step(4).each { messageCache.addMessage(messages[it]) }
+                }
+            }
+            futures << executor.submit {
+                start.await()
+                100.times { messageCache.clean() }
+            }
+            start.countDown()
+            futures*.get(10, TimeUnit.SECONDS)
+            messageCache.clean()
+
+        then:
+            messageCache.messageCount.get() == 50
+            messageCache.messages.size() == 50
+            messageCache.messages.keySet() as List == messages[950..999]*.id
+
+        cleanup:
+            executor?.shutdownNow()
+            messageCache?.cleanup()
+    }
+
+    private Message message(Instant creationTimestamp) {
+        long id = ((creationTimestamp.toEpochMilli() - DISCORD_EPOCH) << 22) | (sequence.getAndIncrement() & 0xFFF)
+        Stub(Message) {
+            getId() >> id
+        }
+    }
+
+}
@@ -0,0 +1,48 @@
+package org.javacord.core.util.event
+
+import spock.lang.Specification
+import spock.lang.Subject
+
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.TimeUnit
+
+@Subject(DispatchPhase)
+class DispatchPhaseTest extends Specification {
+
+    def 'waiting for an earlier phase parks until its last thread finished enqueuing'() {
+        given:
+            def phase = DispatchPhase.createInitialPhase()
+            phase.startEnqueuing(1)
+            def nextPhase = phase.close(0)
+            def enqueued = new CountDownLatch(1)
+
+        when:
+            Thread.start {
+                nextPhase.awaitEarlierPhasesEnqueued()
+                enqueued.countDown()
+            }
+
+        then:
+            !enqueued.await(200, TimeUnit.MILLISECONDS)
+
+        when:
+            phase.finishEnqueuing()
+
+        then:
+            enqueued.await(5, TimeUnit.SECONDS)
+    }
+
+    def 'waiting for earlier phases returns right away if no thread is enqueuing'() {
+        given:
+            def phase = DispatchPhase.createInitialPhase()
+            phase.startEnqueuing(1)
+            phase.finishEnqueuing()
+
+        when:
+            phase.close(0).awaitEarlierPhasesEnqueued()
+
+        then:
+            noExceptionThrown()
+    }
+
+}
@@ -0,0 +1,208 @@
+package org.javacord.core.util.event
+
+import io.vavr.collection.HashMap
+import org.javacord.api.entity.DiscordClient
+import org.javacord.api.entity.activity.Activity
+import org.javacord.api.entity.channel.TextChannel
+import org.javacord.api.entity.server.Server
+import org.javacord.api.entity.user.User
+import org.javacord.api.entity.user.UserStatus
+import org.javacord.api.listener.user.UserChangeActivityListener
+import org.javacord.api.listener.user.UserChangeNicknameListener
+import org.javacord.api.listener.user.UserChangeStatusListener
+import org.javacord.api.listener.user.UserStartTypingListener
+import org.javacord.core.DiscordApiImpl
+import org.javacord.core.entity.user.Member
+import org.javacord.core.event.user.UserChangeActivityEventImpl
+import org.javacord.core.event.user.UserChangeNicknameEventImpl
+import org.javacord.core.event.user.UserChangeStatusEventImpl
+import org.javacord.core.event.user.UserStartTypingEventImpl
+import org.javacord.core.util.concurrent.ThreadPoolImpl
+import spock.lang.Specification
+import spock.lang.Subject
+
+import java.time.Duration
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.LinkedBlockingQueue
+import java.util.concurrent.TimeUnit
+
+@Subject(EventCoalescer)
+class EventCoalescerTest extends Specification {
+
+    def threadPool = new ThreadPoolImpl()
+
+    DiscordApiImpl api = Stub {
+        getThreadPool() >> threadPool
+    }
+
+    def coalescer = new EventCoalescer(api, [
+            (UserChangeStatusListener)  : Duration.ofMillis(50),
+            (UserChangeActivityListener): Duration.ofMillis(50),
+            (UserChangeNicknameListener): Duration.ofMillis(50),
+            (UserStartTypingListener)   : Duration.ofMillis(50)
+    ])
+
+    def coalesce = { olderEvent, newerEvent -> olderEvent.coalesce(newerEvent) }
+
+    def dispatchedEvents = new LinkedBlockingQueue()
+
+    def cleanup() {
+        threadPool.shutdown()
+    }
+
+    def 'events of listener types without a window are dispatched immediately'() {
+        given:
+            def event = statusEvent(UserStatus.ONLINE, UserStatus.OFFLINE)
+            def dispatchingThread = null
+
+        when:
+            new EventCoalescer(api, [:]).dispatch(UserChangeStatusListener, 1, 0, event, coalesce) {
+                dispatchingThread = Thread.currentThread()
+                dispatchedEvents << it
+            }
+
+        then:
+            dispatchedEvents.poll() == event
+            dispatchingThread == Thread.currentThread()
+    }
+
+    def 'status changes of a burst are merged into the first old and the last new status'() {
+        given:
+            def events = [
+                    statusEvent(UserStatus.IDLE, UserStatus.OFFLINE),
+                    statusEvent(UserStatus.DO_NOT_DISTURB, UserStatus.IDLE),
+                    statusEvent(UserStatus.ONLINE, UserStatus.DO_NOT_DISTURB)
+            ]
+
+        when:
+            events.each {
+                coalescer.dispatch(UserChangeStatusListener, 1, 0, it, coalesce) {
+                    dispatchedEvents << it
+                }
+            }
+
+        then:
+            UserChangeStatusEventImpl merged = dispatchedEvents.poll(5, TimeUnit.SECONDS)
+            merged.userId == 1
+            merged.oldStatus == UserStatus.OFFLINE
+            merged.newStatus == UserStatus.ONLINE
+            merged.getOldStatusOnClient(DiscordClient.DESKTOP) == UserStatus.OFFLINE
+            merged.getNewStatusOnClient(DiscordClient.DESKTOP) == UserStatus.ONLINE
+            dispatchedEvents.poll(200, TimeUnit.MILLISECONDS) == null
+    }
+
+    def 'activity changes of a burst are merged into the first old and the last new activities'() {
+        given:
+            def activities = (0..2).collect { [Stub(Activity)] as Set }
+            def events = [
+                    new UserChangeActivityEventImpl(api, 1, activities[1], activities[0]),
+                    new UserChangeActivityEventImpl(api, 1, activities[2], activities[1])
+            ]
+
+        when:
+            events.each {
+                coalescer.dispatch(UserChangeActivityListener, 1, 0, it, coalesce) {
+                    dispatchedEvents << it
+                }
+            }
+
+        then:
+            UserChangeActivityEventImpl merged = dispatchedEvents.poll(5, TimeUnit.SECONDS)
+            merged.userId == 1
+            merged.oldActivities == activities[0]
+            merged.newActivities == activities[2]
+            dispatchedEvents.poll(200, TimeUnit.MILLISECONDS) == null
+    }
+
+    def 'nickname changes of a burst are merged into the first old and the last new nickname'() {
+        given:
+            def user = Stub(User)
+            def server = Stub(Server)
+            def members = ['first', 'second', 'third'].collect { nickname ->
+                Stub(Member) {
+                    getUser() >> user
+                    getServer() >> server
+                    getNickname() >> Optional.of(nickname)
+                }
+            }
+            def events = [
+                    new UserChangeNicknameEventImpl(members[1], members[0]),
+                    new UserChangeNicknameEventImpl(members[2], members[1])
+            ]
+
+        when:
+            events.each {
+                coalescer.dispatch(UserChangeNicknameListener, 1, 10, it, coalesce) {
+                    dispatchedEvents << it
+                }
+            }
+
+        then:
+            UserChangeNicknameEventImpl merged = dispatchedEvents.poll(5, TimeUnit.SECONDS)
+            merged.oldNickname == Optional.of('first')
+            merged.newNickname == Optional.of('third')
+            dispatchedEvents.poll(200, TimeUnit.MILLISECONDS) == null
+    }
+
+    def 'typing events of a burst are merged into the newest one'() {
+        given:
+            def channel = Stub(TextChannel)
+            def events = (1..3).collect { new UserStartTypingEventImpl(channel, 1, null) }
+
+        when:
+            events.each {
+                coalescer.dispatch(UserStartTypingListener, 1, 10, it, coalesce) {
+                    dispatchedEvents << it
+                }
+            }
+
+        then:
+            dispatchedEvents.poll(5, TimeUnit.SECONDS).is(events[2])
+            dispatchedEvents.poll(200, TimeUnit.MILLISECONDS) == null
+    }
+
+    def 'events with different keys are not merged'() {
+        when:
+            [[1, 10], [1, 20], [2, 10]].each { userId, channelId ->
+                coalescer.dispatch(UserStartTypingListener, userId, channelId,
+                        new UserStartTypingEventImpl(Stub(TextChannel), userId, null), coalesce) {
+                    dispatchedEvents << it
+                }
+            }
+
+        then:
+            (1..3).collect { dispatchedEvents.poll(5, TimeUnit.SECONDS) }*.userId.sort() == [1L, 1L, 2L]
+            dispatchedEvents.poll(200, TimeUnit.MILLISECONDS) == null
+    }
+
+    def 'merged events are dispatched by the handlers processor without blocking the scheduler'() {
+        given:
+            def dispatchingThreadName = null
+            def dispatchStarted = new CountDownLatch(1)
+            def dispatchReleased = new CountDownLatch(1)
+            def schedulerRan = new CountDownLatch(1)
+
+        when: 'the dispatch of the merged event blocks'
+            def event = statusEvent(UserStatus.ONLINE, UserStatus.OFFLINE)
+            coalescer.dispatch(UserChangeStatusListener, 1, 0, event, coalesce) {
+                dispatchingThreadName = Thread.currentThread().name
+                dispatchStarted.countDown()
+                dispatchReleased.await()
+            }
+            dispatchStarted.await(5, TimeUnit.SECONDS)
+            threadPool.scheduler.execute { schedulerRan.countDown() }
+
+        then:
+            schedulerRan.await(5, TimeUnit.SECONDS)
+            dispatchingThreadName == 'Javacord - Handlers Processor'
+
+        cleanup:
+            dispatchReleased.countDown()
+    }
+
+    private UserChangeStatusEventImpl statusEvent(UserStatus newStatus, UserStatus oldStatus) {
+        new UserChangeStatusEventImpl(api, 1, newStatus, oldStatus,
+                HashMap.of(DiscordClient.DESKTOP, newStatus), HashMap.of(DiscordClient.DESKTOP, oldStatus))
+    }
+
+}
@@ -0,0 +1,412 @@
+package org.javacord.core.util.event
+
+import org.javacord.api.event.Event
+import org.javacord.api.event.user.UserChangeStatusEvent
+import org.javacord.api.util.event.ListenerQueueOverflowPolicy
+import org.javacord.api.util.event.NoOpEventDispatchMetrics
+import org.javacord.core.DiscordApiImpl
+import org.javacord.core.entity.server.ServerImpl
+import org.javacord.core.util.concurrent.ThreadPoolImpl
+import spock.lang.Specification
+import spock.lang.Subject
+import spock.util.concurrent.PollingConditions
+
+import java.util.concurrent.ConcurrentHashMap
+import java.util.concurrent.CopyOnWriteArrayList
+import java.util.concurrent.CountDownLatch
+import java.util.concurrent.Executors
+import java.util.concurrent.TimeUnit
+import java.util.concurrent.TimeoutException
+import java.util.concurrent.atomic.AtomicInteger
+
+@Subject(EventDispatcherBase)
+class EventDispatcherBaseTest extends Specification {
+
+    def threadPool = new ThreadPoolImpl()
+
+    def listenerQueueCapacity = Integer.MAX_VALUE
+
+    def listenerQueueOverflowPolicy = ListenerQueueOverflowPolicy.BLOCK
+
+    def event = Stub(Event)
+
+    DiscordApiImpl api = Stub {
+        getThreadPool() >> threadPool
+        canDispatchEvents() >> true
+        getEventDispatchMetrics() >> new NoOpEventDispatchMetrics()
+        getEventDispatchBatchSize() >> 10
+        getListenerQueueCapacity() >> { listenerQueueCapacity }
+        getListenerQueueOverflowPolicy() >> { listenerQueueOverflowPolicy }
+        isListenerOrderIndependent(_) >> { Object listener -> listener in orderIndependentListeners }
+        getPossiblyUnreadyServerById(_) >> { long serverId -> Optional.ofNullable(knownServers[serverId]) }
+        getUnavailableServers() >> ([] as Set)
+    }
+
+    def knownServers = [:]
+
+    def orderIndependentListeners = []
+
+    def listener = new Object()
+
+    def executedEvents = new CopyOnWriteArrayList()
+
+    def dispatcher = new EventDispatcherBase(api) {}
+
+    def cleanup() {
+        threadPool.shutdown()
+    }
+
+    def 'events of the same queue selector are executed one by one in the order of dispatching'() {
+        given:
+            def queueSelectors = (1..8).collect { Stub(DispatchQueueSelector) }
+            def producers = 4
+            def eventsPerProducer = 250
+            def executedEventsBySelector = queueSelectors.collectEntries { [(it): new CopyOnWriteArrayList()] }
+            def runningTasks = queueSelectors.collectEntries { [(it): new AtomicInteger()] }
+            def concurrentExecutions = new AtomicInteger()
+            def finished = new CountDownLatch(queueSelectors.size() * producers * eventsPerProducer)
+            def executor = Executors.newFixedThreadPool(producers)
+            def start = new CountDownLatch(1)
+
+        when:
+            def futures = (0..<producers).collect { producer ->
+                executor.submit {
+                    start.await()
+                    eventsPerProducer.times { eventNumber ->
+                        queueSelectors.each { queueSelector ->
+                            dispatcher.dispatchEvent(queueSelector, event, ['listener']) {
+                                if (runningTasks[queueSelector].incrementAndGet() > 1) {
+                                    concurrentExecutions.incrementAndGet()
+                                }
+                                executedEventsBySelector[queueSelector] << [producer, eventNumber]
+                                runningTasks[queueSelector].decrementAndGet()
+                                finished.countDown()
+                            }
+                        }
+                    }
+                }
+            }
+            start.countDown()
+            futures*.get(10, TimeUnit.SECONDS)
+
+        then:
+            finished.await(10, TimeUnit.SECONDS)
+            concurrentExecutions.get() == 0
+            queueSelectors.every { queueSelector ->
+                (0..<producers).every { producer ->
+                    def eventsOfProducer = executedEventsBySelector[queueSelector].findAll { it[0] == producer }
+                    eventsOfProducer*.getAt(1) == (0..<eventsPerProducer)
+                }
+            }
+
+        cleanup:
+            executor?.shutdownNow()
+    }
+
+    def 'object-independent events are executed between the events dispatched before and after them'() {
+        given:
+            def queueSelectors = (1..4).collect { Stub(DispatchQueueSelector) }
+            def executionOrder = new CopyOnWriteArrayList()
+            def finished = new CountDownLatch(queueSelectors.size() * 100 + 2)
+
+        when:
+            2.times { barrier ->
+                50.times { eventNumber ->
+                    queueSelectors.each { queueSelector ->
+                        dispatcher.dispatchEvent(queueSelector, event, ['listener']) {
+                            // Slow listeners make sure that the barrier really has to wait for them
+                            if (eventNumber % 10 == 0) {
+                                Thread.sleep(1)
+                            }
+                            executionOrder << [barrier, queueSelector]
+                            finished.countDown()
+                        }
+                    }
+                }
+                dispatcher.dispatchEvent(null, event, ['listener']) {
+                    executionOrder << [barrier, null]
+                    finished.countDown()
+                }
+            }
+
+        then:
+            finished.await(10, TimeUnit.SECONDS)
+            def barrierIndices = (0..1).collect { barrier -> executionOrder.indexOf([barrier, null]) }
+            executionOrder.findIndexValues { it[0] == 0 && it[1] != null }.every { it < barrierIndices[0] }
+            executionOrder.findIndexValues { it[0] == 1 && it[1] != null }
+                    .every { it > barrierIndices[0] && it < barrierIndices[1] }
+    }
+
+    def 'object-dependent events that are dispatched concurrently to an object-independent event are not lost'() {
+        given:
+            def queueSelector = Stub(DispatchQueueSelector)
+            def executedEventNumbers = ConcurrentHashMap.newKeySet()
+            def finished = new CountDownLatch(2000 + 50)
+            def executor = Executors.newFixedThreadPool(2)
+
+        when:
+            def futures = [
+                    executor.submit {
+                        2000.times { eventNumber ->
+                            dispatcher.dispatchEvent(queueSelector, event, ['listener']) {
+                                executedEventNumbers << eventNumber
+                                finished.countDown()
+                            }
+                        }
+                    },
+                    executor.submit {
+                        50.times {
+                            dispatcher.dispatchEvent(null, event, ['listener']) {
+                                finished.countDown()
+                            }
+                        }
+                    }
+            ]
+            futures*.get(10, TimeUnit.SECONDS)
+
+        then:
+            finished.await(10, TimeUnit.SECONDS)
+            executedEventNumbers.size() == 2000
+            dispatcher.queuedListenerTaskCount == 0
+
+        cleanup:
+            executor?.shutdownNow()
+    }
+
+    def 'the newest events are dropped if the queue is full with the DROP_NEWEST policy'() {
+        given:
+            listenerQueueOverflowPolicy = ListenerQueueOverflowPolicy.DROP_NEWEST
+            def queueSelector = Stub(DispatchQueueSelector)
+            def events = (1..3).collect { Stub(Event) }
+
+        when:
+            withBlockedQueue(queueSelector) { dispatcher ->
+                events.each { dispatch(dispatcher, queueSelector, it) }
+            }
+
+        then:
+            new PollingConditions(timeout: 5).eventually {
+                executedEvents == events[0..1]
+            }
+            dispatcher.droppedListenerTaskCount == 1
+    }
+
+    def 'the oldest events are dropped if the queue is full with the DROP_OLDEST policy'() {
+        given:
+            listenerQueueOverflowPolicy = ListenerQueueOverflowPolicy.DROP_OLDEST
+            def queueSelector = Stub(DispatchQueueSelector)
+            def events = (1..3).collect { Stub(Event) }
+
+        when:
+            withBlockedQueue(queueSelector) { dispatcher ->
+                events.each { dispatch(dispatcher, queueSelector, it) }
+            }
+
+        then:
+            new PollingConditions(timeout: 5).eventually {
+                executedEvents == events[1..2]
+            }
+            dispatcher.droppedListenerTaskCount == 1
+    }
+
+    def 'older states of the same user are replaced if the queue is full with the COALESCE policy'() {
+        given:
+            listenerQueueOverflowPolicy = ListenerQueueOverflowPolicy.COALESCE
+            def queueSelector = Stub(DispatchQueueSelector)
+            def oldStatus = statusEvent(1)
+            def otherEvent = Stub(Event)
+            def newStatus = statusEvent(1)
+
+        when:
+            withBlockedQueue(queueSelector) { dispatcher ->
+                [oldStatus, otherEvent, newStatus].each { dispatch(dispatcher, queueSelector, it) }
+            }
+
+        then:
+            new PollingConditions(timeout: 5).eventually {
+                executedEvents == [otherEvent, newStatus]
+            }
+            dispatcher.droppedListenerTaskCount == 1
+    }
+
+    def 'events without a state or about other users are not coalesced with the COALESCE policy'() {
+        given:
+            listenerQueueOverflowPolicy = ListenerQueueOverflowPolicy.COALESCE
+            def queueSelector = Stub(DispatchQueueSelector)
+            def events = [Stub(Event), statusEvent(1), Stub(Event), statusEvent(2)]
+
+        when:
+            withBlockedQueue(queueSelector) { dispatcher ->
+                events.each { dispatch(dispatcher, queueSelector, it) }
+            }
+
+        then: 'the oldest events are dropped instead'
+            new PollingConditions(timeout: 5).eventually {
+                executedEvents == events[2..3]
+            }
+            dispatcher.droppedListenerTaskCount == 2
+    }
+
+    def 'the dispatching thread waits for space if the queue is full with the BLOCK policy'() {
+        given:
+            listenerQueueOverflowPolicy = ListenerQueueOverflowPolicy.BLOCK
+            def queueSelector = Stub(DispatchQueueSelector)
+            def events = (1..3).collect { Stub(Event) }
+            def executor = Executors.newSingleThreadExecutor()
+            def blockedDispatch = null
+
+        when:
+            withBlockedQueue(queueSelector) { dispatcher ->
+                events[0..1].each { dispatch(dispatcher, queueSelector, it) }
+                blockedDispatch = executor.submit { dispatch(dispatcher, queueSelector, events[2]) }
+                blockedDispatch.get(100, TimeUnit.MILLISECONDS)
+            }
+
+        then:
+            thrown(TimeoutException)
+
+        and:
+            blockedDispatch.get(5, TimeUnit.SECONDS) == null
+            new PollingConditions(timeout: 5).eventually {
+                executedEvents == events
+            }
+            dispatcher.droppedListenerTaskCount == 0
+
+        cleanup:
+            executor?.shutdownNow()
+    }
+
+    def 'blocking order-independent listeners do not starve other order-independent listeners'() {
+        given:
+            def queueSelector = Stub(DispatchQueueSelector)
+            def blockingListeners = (0..Runtime.runtime.availableProcessors()).collect { new Object() }
+            def otherListener = new Object()
+            orderIndependentListeners.addAll(blockingListeners + otherListener)
+            def blockersStarted = new CountDownLatch(blockingListeners.size())
+            def blockersReleased = new CountDownLatch(1)
+            def otherListenerExecuted = new CountDownLatch(1)
+
+        when:
+            dispatcher.dispatchEvent(queueSelector, event, blockingListeners) {
+                blockersStarted.countDown()
+                blockersReleased.await()
+            }
+            dispatcher.dispatchEvent(queueSelector, event, [otherListener]) { otherListenerExecuted.countDown() }
+
+        then:
+            blockersStarted.await(5, TimeUnit.SECONDS)
+            otherListenerExecuted.await(5, TimeUnit.SECONDS)
+
+        and: 'the execution time of the blocked listeners is checked'
+            new PollingConditions(timeout: 5).eventually {
+                dispatcher.activeListeners.size() == blockingListeners.size()
+            }
+
+        when:
+            blockersReleased.countDown()
+
+        then:
+            new PollingConditions(timeout: 5).eventually {
+                dispatcher.activeListeners.isEmpty()
+            }
+
+        cleanup:
+            blockersReleased.countDown()
+    }
+
+    def 'the queue of a server is removed after the bot left the server'() {
+        given:
+            def server = cachedServer(1)
+            dispatch(dispatcher, server, event)
+            new PollingConditions(timeout: 5).eventually {
+                executedEvents == [event]
+                !dispatcher.queuedListenerTasks[server].scheduled
+            }
+
+        when: 'the queue is checked while the server is still cached'
+            dispatcher.removeQueueIfObsolete(server)
+
+        then:
+            dispatcher.queuedListenerTasks.containsKey(server)
+
+        when: 'the server is removed from the cache by a guild delete packet'
+            knownServers.remove(server.id)
+            dispatcher.removeQueueIfObsolete(server)
+
+        then:
+            !dispatcher.queuedListenerTasks.containsKey(server)
+    }
+
+    def 'the queue of a left server is only removed after its pending tasks are executed'() {
+        given:
+            def server = cachedServer(1)
+            def events = (1..2).collect { Stub(Event) }
+            def blockerReleased = new CountDownLatch(1)
+            def blockerStarted = new CountDownLatch(1)
+            dispatcher.dispatchEvent(server, event, [listener]) {
+                blockerStarted.countDown()
+                blockerReleased.await()
+            }
+            blockerStarted.await()
+            events.each { dispatch(dispatcher, server, it) }
+
+        when: 'the server is removed from the cache by a guild delete packet'
+            knownServers.remove(server.id)
+            dispatcher.removeQueueIfObsolete(server)
+
+        then:
+            dispatcher.queuedListenerTasks.containsKey(server)
+
+        when:
+            blockerReleased.countDown()
+
+        then: 'the listener thread removes the queue once it is drained'
+            new PollingConditions(timeout: 5).eventually {
+                executedEvents == events
+                !dispatcher.queuedListenerTasks.containsKey(server)
+            }
+
+        cleanup:
+            blockerReleased.countDown()
+    }
+
+    private void dispatch(EventDispatcherBase dispatcher, DispatchQueueSelector queueSelector, Event event) {
+        dispatcher.dispatchEvent(queueSelector, event, [listener]) { executedEvents << event }
+    }
+
+    /**
+     * Executes the given action while the listener of the given queue selector is blocked, so the dispatched events
+     * stay in a queue with a capacity of 2.
+     */
+    private void withBlockedQueue(DispatchQueueSelector queueSelector, Closure action) {
+        listenerQueueCapacity = 2
+        def blockerStarted = new CountDownLatch(1)
+        def blockerReleased = new CountDownLatch(1)
+        dispatcher.dispatchEvent(queueSelector, event, [listener]) {
+            blockerStarted.countDown()
+            blockerReleased.await()
+        }
+        blockerStarted.await()
+        try {
+            action(dispatcher)
+        } finally {
+            blockerReleased.countDown()
+        }
+    }
+
+    private ServerImpl cachedServer(long serverId) {
+        ServerImpl server = Stub {
+            getId() >> serverId
+            isReady() >> true
+        }
+        knownServers[serverId] = server
+        server
+    }
+
+    private UserChangeStatusEvent statusEvent(long userId) {
+        Stub(UserChangeStatusEvent) {
+            getUserId() >> userId
+        }
+    }
+
+}
@@ -0,0 +1,86 @@
+package org.javacord.core.util.gateway
+
+import com.fasterxml.jackson.databind.ObjectMapper
+import spock.lang.Specification
+import spock.lang.Subject
+
+@Subject(EtfDecoder)
+class EtfDecoderTest extends Specification {
+
+    // {t: MESSAGE_CREATE, s: 5, op: 0, d: {id: 1234567890123456789, channel_id: 81384788765712384, content: héllo,
+    //  pinned: false, tts: true, nonce: nil, embeds: [], flags: -5, mention_roles: [175928847299117063, 7]}}
+    static final String MESSAGE_CREATE = 'g3QAAAAEdwF0dw5NRVNTQUdFX0NSRUFURXcBc2EFdwJvcGEAdwFkdAAAAAl3AmlkbggAFYHpffQQIh' +
+            'F3CmNoYW5uZWxfaWRuCAAAIIDACCMhAXcHY29udGVudG0AAAAGaMOpbGxvdwZwaW5uZWR3BWZhbHNldwN0dHN3BHRydWV3BW5vbmNldwNuaWx3' +
+            'BmVtYmVkc2p3BWZsYWdzYv////t3DW1lbnRpb25fcm9sZXNsAAAAAm4IAAcAAsFaBnECYQdq'
+
+    // the same packet as a compressed term
+    static final String COMPRESSED_MESSAGE_CREATE = 'g1AAAADCeJwdjbsOgjAYRkvlpolGB3cvT0IMcXIRJxdSaBVI+Yu05p9M9HF8C41P' +
+            '4+7mgI3ryfnOZwghLjoGR5s4SaJ1nK62cbSL0dHMQ6oaRtDhxlp9pCWHkExv78tnvJjgIC8YgJDpH5PZ9REu5w4GuQIjwNR24xevu5QK/aa0Jk' +
+            'fvwKQW2DNGo2vas0APFOSWQCnRF3UmuK6sJtlRZ13XfXFY21apIG2VFFraKLVvAaHPvX+iLKh+anE+cQ=='
+
+    // {t: nil, s: nil, op: 10, d: {heartbeat_interval: 41250, _trace: [gateway-prd-main]}}
+    static final String HELLO = 'g3QAAAAEdwF0dwNuaWx3AXN3A25pbHcCb3BhCncBZHQAAAACdxJoZWFydGJlYXRfaW50ZXJ2YWxiAAChIncG' +
+            'X3RyYWNlbAAAAAFtAAAAEGdhdGV3YXktcHJkLW1haW5q'
+
+    static final String MESSAGE_CREATE_JSON = '{"t":"MESSAGE_CREATE","s":5,"op":0,"d":{"id":1234567890123456789,' +
+            '"channel_id":81384788765712384,"content":"h\\u00e9llo","pinned":false,"tts":true,"nonce":null,' +
+            '"embeds":[],"flags":-5,"mention_roles":[175928847299117063,7]}}'
+
+    def 'packets are decoded to the same structure as json packets'() {
+        expect:
+            decode(fixture).decode() == new ObjectMapper().readTree(MESSAGE_CREATE_JSON)
+
+        where:
+            fixture << [MESSAGE_CREATE, COMPRESSED_MESSAGE_CREATE]
+    }
+
+    def 'snowflakes are decoded as longs'() {
+        when:
+            def packet = decode(MESSAGE_CREATE).decode()
+
+        then:
+            packet.d.id.isLong()
+            packet.d.id.longValue() == 1234567890123456789L
+            packet.d.id.asText() == '1234567890123456789'
+    }
+
+    def 'payloads that are not required are skipped'() {
+        when:
+            def packet = decode(MESSAGE_CREATE).decodePacket { false }
+
+        then:
+            !packet.has('d')
+            packet.t.asText() == 'MESSAGE_CREATE'
+            packet.s.asInt() == 5
+    }
+
+    def 'payloads of packets without dispatch type are checked with null'() {
+        given:
+            def checkedTypes = []
+
+        when:
+            def packet = decode(HELLO).decodePacket { checkedTypes << it; true }
+
+        then:
+            checkedTypes == [null]
+            packet.d.heartbeat_interval.asInt() == 41250
+            packet.d._trace[0].asText() == 'gateway-prd-main'
+    }
+
+    def 'truncated messages are rejected'() {
+        given:
+            def data = MESSAGE_CREATE.decodeBase64()
+
+        when:
+            new EtfDecoder(data, 0, data.length - 10).decode()
+
+        then:
+            thrown(IOException)
+    }
+
+    private static EtfDecoder decode(String fixture) {
+        def data = fixture.decodeBase64()
+        new EtfDecoder(data, 0, data.length)
+    }
+
+}
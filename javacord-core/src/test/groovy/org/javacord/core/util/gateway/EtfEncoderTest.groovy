@@ -0,0 +1,35 @@
+package org.javacord.core.util.gateway
+
+import com.fasterxml.jackson.databind.ObjectMapper
+import spock.lang.Specification
+import spock.lang.Subject
+
+@Subject(EtfEncoder)
+class EtfEncoderTest extends Specification {
+
+    def 'encoded packets are decoded to the original packet'() {
+        given:
+            def packet = new ObjectMapper().readTree(json)
+
+        when:
+            def encoded = EtfEncoder.encode(packet)
+
+        then:
+            new EtfDecoder(encoded, 0, encoded.length).decode() == packet
+
+        where:
+            json << [
+                    '{"op":1,"d":251}',
+                    '{"op":1,"d":null}',
+                    '{"op":2,"d":{"token":"t\\u00f6ken","compress":false,"intents":-3000000000,"shard":[0,1]}}',
+                    '{"op":8,"d":{"guild_id":"81384788765712384","user_ids":[],"presence":1.5,"nonce":true}}',
+                    '{"op":0,"d":{"id":18446744073709551615}}'
+            ]
+    }
+
+    def 'small integers are encoded compactly'() {
+        expect:
+            EtfEncoder.encode(new ObjectMapper().readTree('7')) == [131, EtfTag.SMALL_INTEGER_EXT, 7] as byte[]
+    }
+
+}
@@ -0,0 +1,64 @@
+package org.javacord.core.util.gateway
+
+import spock.lang.Specification
+import spock.lang.Subject
+
+@Subject(WebSocketFrameTokenBucket)
+class WebSocketFrameTokenBucketTest extends Specification {
+
+    @Subject
+    def tokenBucket = new WebSocketFrameTokenBucket(3, 100)
+
+    def 'tokens are available until the capacity is consumed'() {
+        when:
+            tokenBucket.consume(0)
+            tokenBucket.consume(10)
+
+        then:
+            tokenBucket.getAvailableTokens(20) == 1
+            tokenBucket.getNanosUntilAvailable(0, 20) == 0
+
+        when:
+            tokenBucket.consume(20)
+
+        then:
+            tokenBucket.getAvailableTokens(30) == 0
+            tokenBucket.getNanosUntilAvailable(0, 30) == 70
+    }
+
+    def 'consumed tokens are returned one by one after the duration'() {
+        given:
+            tokenBucket.consume(0)
+            tokenBucket.consume(10)
+            tokenBucket.consume(20)
+
+        expect:
+            tokenBucket.getAvailableTokens(100) == 1
+            tokenBucket.getAvailableTokens(110) == 2
+            tokenBucket.getAvailableTokens(120) == 3
+    }
+
+    def 'reserved tokens are left in the bucket'() {
+        given:
+            tokenBucket.consume(0)
+            tokenBucket.consume(10)
+
+        expect:
+            tokenBucket.getNanosUntilAvailable(1, 20) == 80
+            tokenBucket.getNanosUntilAvailable(2, 20) == 90
+    }
+
+    def 'consuming without an available token fails'() {
+        given:
+            tokenBucket.consume(0)
+            tokenBucket.consume(0)
+            tokenBucket.consume(0)
+
+        when:
+            tokenBucket.consume(50)
+
+        then:
+            thrown(IllegalStateException)
+    }
+
+}
@@ -0,0 +1,83 @@
+package org.javacord.core.util.gateway
+
+import spock.lang.Specification
+import spock.lang.Subject
+
+import java.nio.charset.StandardCharsets
+import java.util.zip.Deflater
+
+@Subject(ZlibStreamDecompressor)
+class ZlibStreamDecompressorTest extends Specification {
+
+    @Subject
+    def decompressor = new ZlibStreamDecompressor()
+
+    def deflater = new Deflater()
+
+    def cleanup() {
+        decompressor.close()
+        deflater.end()
+    }
+
+    def 'messages sharing one zlib context are decompressed'() {
+        given:
+            def first = compress('{"op":10,"d":{"heartbeat_interval":41250}}')
+            def second = compress('{"op":11}')
+
+        expect:
+            inflated(decompressor.decompress(first)) == '{"op":10,"d":{"heartbeat_interval":41250}}'
+            inflated(decompressor.decompress(second)) == '{"op":11}'
+    }
+
+    def 'messages without sync flush suffix are buffered until complete'() {
+        given:
+            def message = 'x' * 100_000
+            def compressed = compress(message)
+            def firstPart = Arrays.copyOf(compressed, compressed.length - 2)
+            def secondPart = Arrays.copyOfRange(compressed, compressed.length - 2, compressed.length)
+
+        expect:
+            decompressor.decompress(firstPart) == -1
+            inflated(decompressor.decompress(secondPart)) == message
+    }
+
+    def 'reset starts a new zlib context'() {
+        given:
+            decompressor.decompress(compress('{"op":10}'))
+            deflater.reset()
+
+        when:
+            decompressor.reset()
+
+        then:
+            inflated(decompressor.decompress(compress('{"op":11}'))) == '{"op":11}'
+    }
+
+    def 'close releases the inflater and the next message starts a new zlib context'() {
+        given:
+            decompressor.decompress(compress('{"op":10}'))
+            deflater.reset()
+
+        when:
+            decompressor.close()
+
+        then:
+            decompressor.inflater == null
+
+        and:
+            inflated(decompressor.decompress(compress('{"op":11}'))) == '{"op":11}'
+    }
+
+    private byte[] compress(String message) {
+        def input = message.getBytes(StandardCharsets.UTF_8)
+        deflater.setInput(input)
+        def output = new byte[input.length + 64]
+        def length = deflater.deflate(output, 0, output.length, Deflater.SYNC_FLUSH)
+        Arrays.copyOf(output, length)
+    }
+
+    private String inflated(int length) {
+        new String(decompressor.buffer, 0, length, StandardCharsets.UTF_8)
+    }
+
+}
@@ -1,13 +1,22 @@
 package org.javacord.core.util.ratelimit
 
+import okhttp3.Protocol
+import okhttp3.Request
+import okhttp3.Response
 import org.apache.logging.log4j.test.appender.ListAppender
 import org.javacord.api.exception.DiscordException
 import org.javacord.core.DiscordApiImpl
 import org.javacord.core.util.concurrent.ThreadPoolImpl
+import org.javacord.core.util.rest.RestEndpoint
 import org.javacord.core.util.rest.RestRequest
+import org.javacord.core.util.rest.RestRequestResult
 import spock.lang.Specification
 import spock.lang.Subject
+import spock.util.concurrent.PollingConditions
 
+import java.time.ZoneOffset
+import java.time.ZonedDateTime
+import java.time.format.DateTimeFormatter
 import java.util.concurrent.CompletableFuture
 import java.util.concurrent.CompletionException
 import java.util.concurrent.TimeUnit
@@ -17,16 +26,17 @@ class RatelimitManagerTest extends Specification {
 
     def 'executeBlocking() throwing a DiscordException without result does not cause an Exception'() {
         given:
-            RestRequest request = Stub {
-                executeBlocking() >> { throw new DiscordException(null, null, null, null) }
-                getResult() >> new CompletableFuture<>()
-            }
             def threadPool = new ThreadPoolImpl()
             DiscordApiImpl api = Stub {
                 getThreadPool() >> threadPool
                 getTimeOffset() >> null
             }
-            new RatelimitManager(api).queueRequest request
+            RestRequest request = Stub {
+                getApi() >> api
+                executeBlocking() >> { throw new DiscordException(null, null, null, null) }
+                getResult() >> new CompletableFuture<>()
+            }
+            new RatelimitManager().queueRequest request
 
         when:
             request.result.join()
@@ -47,4 +57,200 @@ class RatelimitManagerTest extends Specification {
             threadPool?.shutdown()
     }
 
+    def 'buckets with the same bucket hash and major url parameter are throttled together'() {
+        given:
+            DiscordApiImpl api = Stub {
+                getToken() >> 'shared ratelimit state token'
+                getTimeOffset() >> null
+            }
+            def ratelimitManager = new RatelimitManager()
+            def messageBucket = new RatelimitBucket(api, RestEndpoint.MESSAGE, '1')
+            def channelBucket = new RatelimitBucket(api, RestEndpoint.CHANNEL, '1')
+            def otherChannelBucket = new RatelimitBucket(api, RestEndpoint.CHANNEL, '2')
+            ratelimitManager.shareRatelimitState('hash', messageBucket, api)
+            ratelimitManager.shareRatelimitState('hash', channelBucket, api)
+            ratelimitManager.shareRatelimitState('hash', otherChannelBucket, api)
+
+        and:
+            def reset = System.currentTimeMillis() + 60_000
+            messageBucket.updateRatelimit(2, reset, 2, 60_000)
+            otherChannelBucket.updateRatelimit(1, reset, 1, 60_000)
+
+        expect:
+            messageBucket.reserveSpace() == 0
+            channelBucket.reserveSpace() == 0
+            messageBucket.reserveSpace() > 0
+            channelBucket.reserveSpace() > 0
+
+        and:
+            otherChannelBucket.reserveSpace() == 0
+            otherChannelBucket.reserveSpace() > 0
+    }
+
+    def 'shared ratelimit states are kept while other buckets use them'() {
+        given:
+            DiscordApiImpl api = Stub {
+                getToken() >> 'shared ratelimit state token'
+                getTimeOffset() >> null
+            }
+            def ratelimitManager = new RatelimitManager()
+            def messageBucket = new RatelimitBucket(api, RestEndpoint.MESSAGE, '1')
+            def channelBucket = new RatelimitBucket(api, RestEndpoint.CHANNEL, '1')
+            ratelimitManager.shareRatelimitState('hash', messageBucket, api)
+            ratelimitManager.shareRatelimitState('hash', channelBucket, api)
+            channelBucket.updateRatelimit(0, System.currentTimeMillis() + 60_000, 5, 60_000)
+
+        when:
+            ratelimitManager.releaseSharedRatelimitState(messageBucket, api)
+            def newMessageBucket = new RatelimitBucket(api, RestEndpoint.MESSAGE, '1')
+            ratelimitManager.shareRatelimitState('hash', newMessageBucket, api)
+
+        then:
+            newMessageBucket.ratelimitState.is(channelBucket.ratelimitState)
+            newMessageBucket.reserveSpace() > 0
+
+        when: 'the ratelimit window is reset and all buckets release the state'
+            channelBucket.updateRatelimit(5, System.currentTimeMillis() + 120_000, 5, 60_000)
+            ratelimitManager.releaseSharedRatelimitState(channelBucket, api)
+            ratelimitManager.releaseSharedRatelimitState(newMessageBucket, api)
+
+        then:
+            ratelimitManager.sharedRatelimitStates.isEmpty()
+    }
+
+    def 'exhausted shared ratelimit states are kept until their ratelimit window is reset'() {
+        given:
+            def threadPool = new ThreadPoolImpl()
+            DiscordApiImpl api = Stub {
+                getThreadPool() >> threadPool
+                getToken() >> 'shared ratelimit state token'
+                getTimeOffset() >> null
+            }
+            def ratelimitManager = new RatelimitManager()
+            def messageBucket = new RatelimitBucket(api, RestEndpoint.MESSAGE, '1')
+            ratelimitManager.shareRatelimitState('hash', messageBucket, api)
+            messageBucket.updateRatelimit(0, System.currentTimeMillis() + 500, 5, 500)
+
+        when: 'the bucket is drained while its ratelimit is exhausted and a request is queued again'
+            ratelimitManager.releaseSharedRatelimitState(messageBucket, api)
+            def newMessageBucket = new RatelimitBucket(api, RestEndpoint.MESSAGE, '1')
+            ratelimitManager.shareRatelimitState('hash', newMessageBucket, api)
+
+        then:
+            newMessageBucket.reserveSpace() > 0
+
+        when: 'the state is released again and its ratelimit window is reset'
+            ratelimitManager.releaseSharedRatelimitState(newMessageBucket, api)
+
+        then:
+            new PollingConditions(timeout: 5).eventually {
+                assert ratelimitManager.sharedRatelimitStates.isEmpty()
+            }
+
+        cleanup:
+            threadPool?.shutdown()
+    }
+
+    def 'ratelimit headers are applied before the next request of a bucket is executed without blocking'() {
+        given:
+            def threadPool = new ThreadPoolImpl()
+            DiscordApiImpl api = Stub {
+                getThreadPool() >> threadPool
+                getToken() >> 'non-blocking token'
+                getTimeOffset() >> null
+                isNonBlockingRestRequestsEnabled() >> true
+            }
+            def ratelimitManager = new RatelimitManager()
+
+        and:
+            def reset = System.currentTimeMillis() + 500
+            def firstResponse = new CompletableFuture<RestRequestResult>()
+            RestRequest firstRequest = Stub {
+                getApi() >> api
+                getEndpoint() >> RestEndpoint.MESSAGE
+                getMajorUrlParameter() >> Optional.of('1')
+                getResult() >> new CompletableFuture<>()
+                executeAsync() >> firstResponse
+            }
+            long secondRequestExecutedAt = 0
+            RestRequest secondRequest
+            secondRequest = Stub {
+                getApi() >> api
+                getEndpoint() >> RestEndpoint.MESSAGE
+                getMajorUrlParameter() >> Optional.of('1')
+                getResult() >> new CompletableFuture<>()
+                executeAsync() >> {
+                    secondRequestExecutedAt = System.currentTimeMillis()
+                    CompletableFuture.completedFuture(result(secondRequest, [:]))
+                }
+            }
+
+        when:
+            ratelimitManager.queueRequest firstRequest
+            ratelimitManager.queueRequest secondRequest
+            firstResponse.complete(result(firstRequest, [
+                    'X-RateLimit-Remaining'  : '0',
+                    'X-RateLimit-Limit'      : '1',
+                    'X-RateLimit-Reset'      : String.format(Locale.ROOT, '%.3f', reset / 1000d),
+                    'X-RateLimit-Reset-After': '0.5'
+            ]))
+            secondRequest.result.get(5, TimeUnit.SECONDS)
+
+        then:
+            firstRequest.result.done
+            secondRequestExecutedAt >= reset - 1
+
+        cleanup:
+            threadPool?.shutdown()
+    }
+
+    def 'the time offset is calculated for every shard which shares the ratelimit manager'() {
+        given:
+            def threadPool = new ThreadPoolImpl()
+            def shards = (0..1).collect {
+                Mock(DiscordApiImpl) {
+                    getThreadPool() >> threadPool
+                    getToken() >> 'time offset token'
+                    getTimeOffset() >> null
+                    isNonBlockingRestRequestsEnabled() >> true
+                }
+            }
+            def ratelimitManager = new RatelimitManager()
+            def requests = (0..1).collect { shard ->
+                RestRequest request
+                request = Stub {
+                    getApi() >> shards[shard]
+                    getEndpoint() >> RestEndpoint.MESSAGE
+                    getMajorUrlParameter() >> Optional.of(shard as String)
+                    getResult() >> new CompletableFuture<>()
+                    executeAsync() >> {
+                        CompletableFuture.completedFuture(result(request, [
+                                Date: DateTimeFormatter.RFC_1123_DATE_TIME.format(ZonedDateTime.now(ZoneOffset.UTC))
+                        ]))
+                    }
+                }
+            }
+
+        when:
+            requests.each { ratelimitManager.queueRequest it }
+            requests.each { it.result.get(5, TimeUnit.SECONDS) }
+
+        then:
+            1 * shards[0].setTimeOffset(_ as Long)
+            1 * shards[1].setTimeOffset(_ as Long)
+
+        cleanup:
+            threadPool?.shutdown()
+    }
+
+    private static RestRequestResult result(RestRequest request, Map<String, String> headers) {
+        def responseBuilder = new Response.Builder()
+                .request(new Request.Builder().url('http://localhost').build())
+                .protocol(Protocol.HTTP_1_1)
+                .code(200)
+                .message('')
+        headers.each { name, value -> responseBuilder.header(name, value) }
+        new RestRequestResult(request, responseBuilder.build())
+    }
+
 }